@@ -35,6 +35,13 @@ import javax.swing.JComponent;
 public interface API {
     boolean openURI(URI uri);
 
+    /**
+     * Selects the uri in the opened panels, without loading any file
+     */
+    default boolean selectURI(URI uri) {
+        return openURI(uri);
+    }
+
     boolean openURI(int x, int y, Collection<Container.Entry> entries, String query, String fragment);
 
     void addURI(URI uri);
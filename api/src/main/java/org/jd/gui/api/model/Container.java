@@ -21,6 +21,14 @@ public interface Container {
         return getRoot().getUri();
     }
 
+    /**
+     * Table numbering the entries of this container and of its nested
+     * containers, or null if entries are not numbered.
+     */
+    default EntryTable getEntryTable() {
+        return null;
+    }
+
     /**
      * File or directory
      */
@@ -39,6 +47,13 @@ public interface Container {
 
         Map<EntryPath, Entry> getChildren();
 
+        /**
+         * Dense id of the entry in the table of its container, or -1 if
+         * entries are not numbered.
+         */
+        default int getId() {
+            return -1;
+        }
     }
 
     interface EntryPath {
@@ -0,0 +1,51 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.api.model;
+
+import java.util.Arrays;
+
+/**
+ * Entries of an opened file, numbered from 0 as they are created, so that
+ * they may be stored, compared and looked up by int id rather than by URI.
+ * URIs should only be built to display or to persist an entry.
+ */
+public final class EntryTable {
+    // Written under lock, read without: 'size' is published after the entry
+    private volatile Container.Entry[] entries = new Container.Entry[256];
+    private volatile int size;
+
+    /**
+     * Numbers a new entry.
+     *
+     * @return the id of the entry
+     */
+    public synchronized int add(Container.Entry entry) {
+        int id = size;
+        if (id == entries.length) {
+            entries = Arrays.copyOf(entries, id * 2);
+        }
+        entries[id] = entry;
+        size = id + 1;
+        return id;
+    }
+
+    public Container.Entry get(int id) {
+        return id >= 0 && id < size ? entries[id] : null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the entry is numbered in this table.
+     */
+    public boolean contains(Container.Entry entry) {
+        return get(entry.getId()) == entry;
+    }
+}
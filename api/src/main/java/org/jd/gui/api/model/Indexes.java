@@ -67,4 +67,21 @@ import java.util.Map;
 public interface Indexes {
     @SuppressWarnings("rawtypes")
     Map<String, Collection> getIndex(String name);
+
+    /**
+     * Table resolving the ids returned by {@link #getEntryIds(String, String)},
+     * or null if the entries are not stored by id.
+     */
+    default EntryTable getEntryTable() {
+        return null;
+    }
+
+    /**
+     * Returns the ids of the entries of {@link #getEntryTable()} stored for
+     * the key, or null if the key is unknown or if the entries are not stored
+     * by id. Other values are only returned by {@link #getIndex(String)}.
+     */
+    default int[] getEntryIds(String name, String key) {
+        return null;
+    }
 }
@@ -15,15 +15,22 @@ import org.jd.gui.model.configuration.Configuration;
 import org.jd.gui.service.configuration.ConfigurationPersister;
 import org.jd.gui.service.configuration.ConfigurationPersisterService;
 import org.jd.gui.util.ThemeUtil;
+import org.jd.gui.util.http.HttpClientUtil;
+import org.jd.gui.util.io.CacheDirectoryUtil;
 import org.jd.gui.util.net.InterProcessCommunicationUtil;
+import org.jd.util.SHA1Util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.awt.GraphicsEnvironment;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -37,6 +44,8 @@ import java.util.jar.Manifest;
 import javax.swing.JOptionPane;
 import javax.swing.UIManager;
 
+import tim.jarcomp.CompareReport;
+
 public class App {
 
 	protected static final String SINGLE_INSTANCE = "UIMainWindowPreferencesProvider.singleInstance";
@@ -44,23 +53,46 @@ public class App {
 
     static final String HELP = """
 		Usage: jd-gui-duo [option] [input-file] ...
+		       jd-gui-duo --compare [compare-option] ... <file1> <file2>
 
 		Option:
-		 --help/-h         Show this help message and exit
-		 --version/-v      Show version information and exit""";
+		 --help/-h           Show this help message and exit
+		 --version/-v        Show version information and exit
+		 --compare           Compare two archives without window, write a JSON report and exit
+		                     with status 0 if identical, 1 if different, 2 on error
+
+		Compare option:
+		 --output <file>     Write the report to the file instead of the standard output
+		 --parallelism <n>   Number of threads comparing and decompiling entries
+		 --source-diffs      Add the unified diffs of the changed classes, decompiled, and texts""";
+
+    static final String COMPARE = "--compare";
+    static final String OUTPUT = "--output";
+    static final String PARALLELISM = "--parallelism";
+    static final String SOURCE_DIFFS = "--source-diffs";
+    static final int COMPARE_IDENTICAL = 0;
+    static final int COMPARE_DIFFERENT = 1;
+    static final int COMPARE_ERROR = 2;
 
     protected static MainController controller;
 
     public static void main(String[] args) {
+        // Before any request is built
+        HttpClientUtil.allowBasicProxyTunneling();
+
         if (checkFlag(args, "--help", "-h")) {
             showUserMessage(HELP);
         } else if (checkFlag(args, "--version", "-v")) {
             showUserMessage(buildVersionMessage());
+        } else if (checkFlag(args, COMPARE)) {
+            // Headless: the saved configuration is not loaded, its loader needs a display
+            System.exit(compare(args));
         } else {
             // Load preferences
             ConfigurationPersister persister = ConfigurationPersisterService.getInstance().get();
             Configuration configuration = persister.load();
             Runtime.getRuntime().addShutdownHook(new Thread(() -> persister.save(configuration)));
+            loadSHA1Cache();
 
             if ("true".equals(configuration.getPreferences().get(SINGLE_INSTANCE))) {
                 try {
@@ -93,6 +125,19 @@ public class App {
         }
     }
 
+    /**
+     * Hashes of the opened files are kept between sessions
+     */
+    private static void loadSHA1Cache() {
+        try {
+            SHA1Util.loadCache(CacheDirectoryUtil.getCacheDirectory("sha1").resolve("sha1.idx"));
+            Runtime.getRuntime().addShutdownHook(new Thread(SHA1Util::saveCache, "sha1-cache"));
+        } catch (IOException e) {
+            // Not persisted: files are hashed again in each session
+            assert ExceptionUtil.printStackTrace(e);
+        }
+    }
+
     protected static boolean checkFlag(String[] args, String... switches) {
         if (args != null) {
             for (String arg : args) {
@@ -105,6 +150,76 @@ public class App {
     }
 
 
+    /**
+     * Compare two archives and write the JSON report of their differences
+     *
+     * @param args command line arguments, including the files and the compare options
+     * @return exit status: 0 if identical, 1 if different, 2 on error
+     */
+    protected static int compare(String[] args) {
+        List<File> files = new ArrayList<>(2);
+        File output = null;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        boolean sourceDiffs = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case COMPARE -> {
+                        // Selects the command
+                    }
+                    case OUTPUT -> output = requirePath(optionValue(args, ++i));
+                    case PARALLELISM -> parallelism = Integer.parseInt(optionValue(args, ++i));
+                    case SOURCE_DIFFS -> sourceDiffs = true;
+                    default -> {
+                        if (args[i].startsWith("-")) {
+                            throw new IllegalArgumentException("Unknown option: " + args[i]);
+                        }
+                        files.add(requirePath(args[i]));
+                    }
+                }
+            }
+            if (files.size() != 2) {
+                throw new IllegalArgumentException("Two files expected, found " + files.size());
+            }
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+            }
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("{}\n{}", e.getMessage(), HELP);
+            return COMPARE_ERROR;
+        }
+
+        try {
+            CompareReport report = CompareReport.create(files.get(0), files.get(1), parallelism, sourceDiffs);
+            if (output == null) {
+                report.write(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            } else {
+                try (Writer writer = Files.newBufferedWriter(output.toPath(), StandardCharsets.UTF_8)) {
+                    report.write(writer);
+                }
+            }
+            return report.summary().identical() ? COMPARE_IDENTICAL : COMPARE_DIFFERENT;
+        } catch (IOException e) {
+            LOGGER.error("Comparison failed", e);
+            return COMPARE_ERROR;
+        }
+    }
+
+    private static String optionValue(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value of " + args[index - 1]);
+        }
+        return args[index];
+    }
+
+    private static File requirePath(String rawPath) {
+        File file = validatePath(rawPath);
+        if (file == null) {
+            throw new IllegalArgumentException("Invalid path: " + rawPath);
+        }
+        return file;
+    }
+
     protected static boolean checkHelpFlag(String[] args) {
         return checkFlag(args, "--help", "-h");
     }
@@ -31,6 +31,7 @@ import org.jd.gui.model.history.History;
 import org.jd.gui.service.actions.ContextualActionsFactoryService;
 import org.jd.gui.service.container.ContainerFactoryService;
 import org.jd.gui.service.fileloader.FileLoaderService;
+import org.jd.gui.service.fileloader.JrtFileLoaderProvider;
 import org.jd.gui.service.indexer.IndexerService;
 import org.jd.gui.service.mainpanel.PanelFactoryService;
 import org.jd.gui.service.pastehandler.PasteHandlerService;
@@ -61,6 +62,8 @@ import org.jd.gui.util.ZOutputStream;
 import org.jd.gui.util.container.JarContainerEntryUtil;
 import org.jd.gui.util.decompiler.GuiPreferences;
 import org.jd.gui.util.decompiler.ContainerLoader;
+import org.jd.gui.util.decompiler.DecompilerWarmUp;
+import org.jd.gui.util.index.JdkIndexes;
 import org.jd.gui.util.loader.LoaderUtils;
 import org.jd.gui.util.matcher.ArtifactVersionMatcher;
 import org.jd.gui.util.maven.central.helper.NexusSearchFrame;
@@ -106,11 +109,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 import java.util.function.DoubleConsumer;
 import java.util.function.DoubleSupplier;
 import java.util.function.Supplier;
@@ -166,8 +175,27 @@ public class MainController implements API {
     private final History history = new History();
     private JComponent currentPage;
     private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(2);
+    // Files opened together are loaded in parallel, indexing goes through one shared queue
+    private final ExecutorService openFilesExecutor = newDaemonThreadPool(Math.clamp(Runtime.getRuntime().availableProcessors(), 2, 8), "open-files");
+    private final ExecutorService indexerExecutor = newDaemonThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), "indexer");
+    // Files of the build files are hashed in parallel, the searches are batched by NexusSearch
+    private final ExecutorService sha1Executor = newDaemonThreadPool(Math.clamp(Runtime.getRuntime().availableProcessors(), 2, 8), "sha1");
+    private final ThreadLocal<Consumer<Runnable>> deferredPanelAdditions = new ThreadLocal<>();
     private final List<IndexesChangeListener> containerChangeListeners = new ArrayList<>();
 
+    /**
+     * Makes a pool of daemon threads, which do not keep the application
+     * alive once the main window is closed.
+     */
+    private static ExecutorService newDaemonThreadPool(int threadCount, String name) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, name + '-' + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     public MainController(Configuration configuration) {
         this.configuration = configuration;
 
@@ -245,6 +273,8 @@ public class MainController implements API {
             IndexerService.getInstance();
             TreeNodeFactoryService.getInstance();
             TypeFactoryService.getInstance();
+            // Decompiler, parser and tokenizer warm-up, the main window being shown
+            DecompilerWarmUp.getInstance().start(MainController.this);
 
             SwingUtil.invokeLater(() -> {
                 // Populate recent files menu
@@ -568,6 +598,10 @@ public class MainController implements API {
         preferencesController.show(() -> {
             checkPreferencesChange(currentPage);
             mainView.preferencesChanged(getPreferences());
+            if (JdkIndexes.isStarted()) {
+                // The JDK of the shared indexes may have changed
+                watchJdkIndexes();
+            }
             if (isDarkMode()) {
                 if (PlatformService.getInstance().isMac()) {
                     configuration.setLookAndFeel("com.formdev.flatlaf.themes.FlatMacDarkLaf");
@@ -685,29 +719,44 @@ public class MainController implements API {
         Set<Artifact> artifacts = new TreeSet<>();
         Set<Artifact> missingArtifacts = new TreeSet<>();
         Set<Artifact> missingArtifactsWithGroup = new TreeSet<>();
+        Map<File, String> knownSha1Map = new ConcurrentHashMap<>(sha1Map);
+        double initialProgress = getProgressFunction.getAsDouble();
+        // Half of the progress for hashing, half for resolving
+        double hashProgress = (100D - initialProgress) / 2;
+        AtomicInteger hashedCount = new AtomicInteger();
+        List<CompletableFuture<Void>> hashings = new ArrayList<>(files.size());
+        for (File file : files) {
+            hashings.add(CompletableFuture.runAsync(() -> {
+                if (!isCancelledFunction.getAsBoolean()) {
+                    knownSha1Map.computeIfAbsent(file, SHA1Util::computeSHA1);
+                    setProgressFunction.accept(initialProgress + hashProgress * hashedCount.incrementAndGet() / files.size());
+                }
+            }, sha1Executor));
+        }
+        CompletableFuture.allOf(hashings.toArray(CompletableFuture[]::new)).join();
+        if (isCancelledFunction.getAsBoolean()) {
+            return;
+        }
+        // Resolved in one batch of concurrent searches
+        Map<String, NexusArtifact> nexusArtifacts = MavenOrgSourceLoaderProvider.buildArtifactsFromSHA1s(api, new HashSet<>(knownSha1Map.values()));
+        if (isCancelledFunction.getAsBoolean()) {
+            return;
+        }
         for (File file : files) {
             try {
-                String sha1 = sha1Map.computeIfAbsent(file, SHA1Util::computeSHA1);
-                NexusArtifact nexusArtifact = MavenOrgSourceLoaderProvider.buildArtifactFromURI(api, sha1, false);
+                NexusArtifact nexusArtifact = nexusArtifacts.get(knownSha1Map.get(file));
                 if (nexusArtifact != null) {
-                	Artifact artifact = new Artifact(nexusArtifact, file.getName());
+                    Artifact artifact = new Artifact(nexusArtifact, file.getName());
                     artifacts.add(artifact);
                 } else {
                     missingArtifacts.add(inferArtifactFromFileName(file));
                     missingArtifactsWithGroup.add(inferArtifactFromPackageAndManifest(file));
                 }
-                double progress = 100D / files.size();
-                double cumulativeProgress = getProgressFunction.getAsDouble() + progress;
-                if (cumulativeProgress <= 100) {
-                    setProgressFunction.accept(cumulativeProgress);
-                }
-                if (isCancelledFunction.getAsBoolean()) {
-                    return;
-                }
             } catch (Exception e) {
                 assert ExceptionUtil.printStackTrace(e);
             }
         }
+        setProgressFunction.accept(100D);
         try (TempFile tempFile = new TempFile(".zip")) {
             try (FileOutputStream out = new FileOutputStream(tempFile); ZOutputStream zos = new ZOutputStream(out)) {
                 writeGradleBuildEntry(zos, files, artifacts, missingArtifacts);
@@ -907,13 +956,17 @@ public class MainController implements API {
         }
 
         if (errors.isEmpty()) {
-            for (File file : files) {
-                if (openURI(file.toURI())) {
-                    configuration.addRecentFile(file);
-                    mainView.updateRecentFilesMenu(configuration.getRecentFiles());
+            if (files.size() > 1) {
+                new ParallelFileOpener(files).start();
+            } else {
+                for (File file : files) {
+                    if (openURI(file.toURI())) {
+                        configuration.addRecentFile(file);
+                        mainView.updateRecentFilesMenu(configuration.getRecentFiles());
+                    }
                 }
+                SwingUtil.invokeLater(this::updateRememberedOpenFiles);
             }
-            SwingUtil.invokeLater(this::updateRememberedOpenFiles);
         } else {
             StringBuilder messages = new StringBuilder();
             int index = 0;
@@ -930,7 +983,110 @@ public class MainController implements API {
                 index++;
             }
 
-            JOptionPane.showMessageDialog(mainView.getMainFrame(), messages.toString(), "Error", JOptionPane.ERROR_MESSAGE);
+            SwingUtil.invokeLater(() -> JOptionPane.showMessageDialog(mainView.getMainFrame(), messages.toString(), "Error", JOptionPane.ERROR_MESSAGE));
+        }
+    }
+
+    /**
+     * Builds containers of several files and their panels in parallel. The
+     * panels are only added on the EDT, in batches and in the order of the
+     * files: until then, they are not displayed and the workers never wait
+     * for the EDT.
+     */
+    private final class ParallelFileOpener {
+        private final List<File> files;
+        private final boolean[] loaded;
+        private final boolean[] completed;
+        private final List<List<Runnable>> panelAdditions;
+        private final AtomicBoolean panelAdditionScheduled = new AtomicBoolean();
+        private int nextPanelIndex;
+
+        private ParallelFileOpener(List<File> files) {
+            this.files = files;
+            this.loaded = new boolean[files.size()];
+            this.completed = new boolean[files.size()];
+            this.panelAdditions = new ArrayList<>(files.size());
+            for (int i = 0; i < files.size(); i++) {
+                panelAdditions.add(new ArrayList<>(1));
+            }
+        }
+
+        private void start() {
+            CompletableFuture<?>[] loads = new CompletableFuture<?>[files.size()];
+
+            for (int i = 0; i < files.size(); i++) {
+                URI uri = files.get(i).toURI();
+
+                if (mainView.openUri(uri)) {
+                    // Already open
+                    loaded[i] = true;
+                    complete(i);
+                    loads[i] = CompletableFuture.completedFuture(null);
+                } else {
+                    int index = i;
+                    loads[i] = CompletableFuture.runAsync(() -> load(index, uri), openFilesExecutor);
+                }
+            }
+
+            CompletableFuture.allOf(loads).whenComplete((result, throwable) -> SwingUtil.invokeLater(this::done));
+        }
+
+        private void load(int index, URI uri) {
+            deferredPanelAdditions.set(panelAddition -> addPanelAddition(index, panelAddition));
+
+            try {
+                UriLoader uriLoader = getUriLoader(uri);
+                loaded[index] = uriLoader != null && uriLoader.load(MainController.this, uri);
+            } catch (RuntimeException e) {
+                assert ExceptionUtil.printStackTrace(e);
+            } finally {
+                deferredPanelAdditions.remove();
+                complete(index);
+            }
+        }
+
+        private synchronized void addPanelAddition(int index, Runnable panelAddition) {
+            panelAdditions.get(index).add(panelAddition);
+        }
+
+        private void complete(int index) {
+            synchronized (this) {
+                completed[index] = true;
+            }
+            if (panelAdditionScheduled.compareAndSet(false, true)) {
+                SwingUtil.invokeLater(this::addCompletedPanels);
+            }
+        }
+
+        private void addCompletedPanels() {
+            panelAdditionScheduled.set(false);
+
+            List<Runnable> additions = new ArrayList<>();
+            synchronized (this) {
+                while (nextPanelIndex < files.size() && completed[nextPanelIndex]) {
+                    additions.addAll(panelAdditions.get(nextPanelIndex));
+                    panelAdditions.set(nextPanelIndex, Collections.emptyList());
+                    nextPanelIndex++;
+                }
+            }
+            for (Runnable addition : additions) {
+                addition.run();
+            }
+        }
+
+        private void done() {
+            addCompletedPanels();
+
+            for (int i = 0; i < files.size(); i++) {
+                if (loaded[i]) {
+                    File file = files.get(i);
+                    addURI(file.toURI());
+                    configuration.addRecentFile(file);
+                }
+            }
+
+            mainView.updateRecentFilesMenu(configuration.getRecentFiles());
+            updateRememberedOpenFiles();
         }
     }
 
@@ -952,13 +1108,7 @@ public class MainController implements API {
             super.done();
 
             // Fire 'indexesChanged' event
-            Collection<Future<Indexes>> collectionOfFutureIndexes = getCollectionOfFutureIndexes();
-            for (IndexesChangeListener listener : containerChangeListeners) {
-                listener.indexesChanged(collectionOfFutureIndexes);
-            }
-            if (currentPage instanceof IndexesChangeListener icl) {
-                icl.indexesChanged(collectionOfFutureIndexes);
-            }
+            fireIndexesChanged();
         }
     }
 
@@ -1098,17 +1248,29 @@ public class MainController implements API {
     protected void panelClosed() {
         SwingUtil.invokeLater(() -> {
             updateRememberedOpenFiles();
-            // Fire 'indexesChanged' event
-            Collection<Future<Indexes>> collectionOfFutureIndexes = getCollectionOfFutureIndexes();
-            for (IndexesChangeListener listener : containerChangeListeners) {
-                listener.indexesChanged(collectionOfFutureIndexes);
-            }
-            if (currentPage instanceof IndexesChangeListener icl) {
-                icl.indexesChanged(collectionOfFutureIndexes);
-            }
+            fireIndexesChanged();
         });
     }
 
+    protected void fireIndexesChanged() {
+        Collection<Future<Indexes>> collectionOfFutureIndexes = getCollectionOfFutureIndexes();
+        for (IndexesChangeListener listener : containerChangeListeners) {
+            listener.indexesChanged(collectionOfFutureIndexes);
+        }
+        if (currentPage instanceof IndexesChangeListener icl) {
+            icl.indexesChanged(collectionOfFutureIndexes);
+        }
+    }
+
+    protected void watchJdkIndexes() {
+        CompletableFuture<Indexes> jdkIndexes = JdkIndexes.getFutureIndexes(getPreferences());
+
+        if (jdkIndexes != null) {
+            // Fire 'indexesChanged' event once loaded (immediately if already loaded)
+            jdkIndexes.thenRun(() -> SwingUtil.invokeLater(this::fireIndexesChanged));
+        }
+    }
+
     protected List<File> getRememberedOpenFiles() {
         List<File> rememberedOpenFiles = configuration.getOpenFiles();
 
@@ -1183,6 +1345,16 @@ public class MainController implements API {
         return false;
     }
 
+    @Override
+    public boolean selectURI(URI uri) {
+        if (uri != null && mainView.openUri(uri)) {
+            addURI(uri);
+            return true;
+        }
+
+        return false;
+    }
+
     @Override
     public boolean openURI(int x, int y, Collection<Container.Entry> entries, String query, String fragment) {
         if (entries != null) {
@@ -1193,11 +1365,11 @@ public class MainController implements API {
             }
             // Multiple entries -> Open a "Select location" popup
             Collection<Future<Indexes>> collectionOfFutureIndexes = getCollectionOfFutureIndexes();
-            selectLocationController.show(
+            SwingUtil.invokeLater(() -> selectLocationController.show(
                 new Point(x+16+2, y+2),
                 entries,
                 entry -> openURI(UriUtil.createURI(this, collectionOfFutureIndexes, entry, query, fragment)), // entry selected closure
-                () -> {});                                                                                    // popup close closure
+                () -> {}));                                                                                   // popup close closure
             return true;
         }
 
@@ -1213,13 +1385,25 @@ public class MainController implements API {
     @Override
     @SuppressWarnings("unchecked")
     public <T extends JComponent & UriGettable> void addPanel(File file, String title, Supplier<Icon> iconSupplier, String tip, T component) {
+        Consumer<Runnable> deferredPanelAddition = deferredPanelAdditions.get();
+
+        if (deferredPanelAddition != null) {
+            // Loaded by a ParallelFileOpener worker
+            deferredPanelAddition.accept(() -> addPanel(file, title, iconSupplier, tip, component));
+            return;
+        }
+
         mainView.addMainPanel(title, iconSupplier, tip, component);
         SwingUtil.invokeLater(this::updateRememberedOpenFiles);
 
         if (component instanceof ContentIndexable ci && file != null) {
+            if (file.isDirectory() && JrtFileLoaderProvider.getJavaHome(file) != null) {
+                // Shared indexes of the JDK, built on the first opening of a JDK
+                watchJdkIndexes();
+            }
             UIManager.put("ProgressMonitor.progressText", title);
             SwingWorker<Indexes, Void> worker = new IndexerWorker(MainController.this, component, ci);
-            worker.execute();
+            indexerExecutor.execute(worker);
 
             component.putClientProperty(INDEXES, worker);
         }
@@ -1232,7 +1416,7 @@ public class MainController implements API {
 
     @Override
     public FileLoader getFileLoader(File file) {
-        return FileLoaderService.getInstance().get(file);
+        return FileLoaderService.getInstance().get(this, file);
     }
 
     @Override
@@ -1320,6 +1504,13 @@ public class MainController implements API {
                 list.add(futureIndexes);
             }
         }
+        if (!list.isEmpty()) {
+            // JDK types, shared by all panels
+            Future<Indexes> jdkIndexes = JdkIndexes.getStartedFutureIndexes(getPreferences());
+            if (jdkIndexes != null) {
+                list.add(jdkIndexes);
+            }
+        }
         return list;
     }
 
@@ -1343,6 +1534,12 @@ public class MainController implements API {
                 }
             }
         }
+        if (!list.isEmpty()) {
+            CompletableFuture<Indexes> jdkIndexes = JdkIndexes.getStartedFutureIndexes(getPreferences());
+            if (jdkIndexes != null && jdkIndexes.isDone()) {
+                list.add(jdkIndexes.join());
+            }
+        }
         return list;
     }
 
@@ -9,57 +9,124 @@
 package org.jd.gui.model.container;
 
 import org.jd.gui.api.model.Container;
+import org.jd.gui.api.model.EntryTable;
 import org.jd.gui.model.container.entry.path.SimpleEntryPath;
 
 import java.io.InputStream;
 import java.net.URI;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 public class DelegatingFilterContainer implements Container {
-    protected static final URI DEFAULT_ROOT_URI = URI.create("file:.");
-
     private final Container container;
     private final DelegatedEntry root;
 
-    private final Set<URI> validEntries = new HashSet<>();
-    private final Map<URI, DelegatedEntry> uriToDelegatedEntry = new HashMap<>();
-    private final Map<URI, DelegatedContainer> uriToDelegatedContainer = new HashMap<>();
+    // Numbered entries are kept as ids, per entry table; the others by identity
+    private final Map<EntryTable, BitSet> validEntryIds = new IdentityHashMap<>();
+    private final Set<Entry> validOtherEntries = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Map<Entry, DelegatedEntry> entryToDelegatedEntry = new IdentityHashMap<>();
+    private final Map<Container, DelegatedContainer> containerToDelegatedContainer = new IdentityHashMap<>();
+    // Built by the first lookup by URI, then kept up to date
+    private Map<URI, DelegatedEntry> uriToDelegatedEntry;
+    private Set<URI> uris;
 
     public DelegatingFilterContainer(Container container, Collection<Entry> entries) {
         this.container = container;
         this.root = getDelegatedEntry(container.getRoot());
 
         for (Entry entry : entries) {
-            while (entry != null && !validEntries.contains(entry.getUri())) {
-                validEntries.add(entry.getUri());
+            while (entry != null && addValidEntry(entry)) {
                 entry = entry.getParent();
             }
         }
     }
 
+    private static EntryTable getEntryTable(Entry entry) {
+        EntryTable entryTable = entry.getContainer().getEntryTable();
+        return entryTable != null && entryTable.contains(entry) ? entryTable : null;
+    }
+
+    /**
+     * Returns false if the entry was already valid.
+     */
+    private boolean addValidEntry(Entry entry) {
+        EntryTable entryTable = getEntryTable(entry);
+
+        if (entryTable == null) {
+            return validOtherEntries.add(entry);
+        }
+
+        BitSet ids = validEntryIds.computeIfAbsent(entryTable, k -> new BitSet());
+        if (ids.get(entry.getId())) {
+            return false;
+        }
+        ids.set(entry.getId());
+        return true;
+    }
+
+    protected boolean isValidEntry(Entry entry) {
+        EntryTable entryTable = getEntryTable(entry);
+
+        if (entryTable == null) {
+            return validOtherEntries.contains(entry);
+        }
+
+        BitSet ids = validEntryIds.get(entryTable);
+        return ids != null && ids.get(entry.getId());
+    }
+
     @Override
     public String getType() { return container.getType(); }
     @Override
     public Container.Entry getRoot() { return root; }
 
-    public Container.Entry getEntry(URI uri) { return uriToDelegatedEntry.get(uri); }
-    public Set<URI> getUris() { return validEntries; }
+    public Container.Entry getEntry(URI uri) {
+        if (uriToDelegatedEntry == null) {
+            uriToDelegatedEntry = new HashMap<>();
+
+            for (DelegatedEntry delegatedEntry : entryToDelegatedEntry.values()) {
+                uriToDelegatedEntry.put(delegatedEntry.getUri(), delegatedEntry);
+            }
+        }
+        return uriToDelegatedEntry.get(uri);
+    }
+
+    public Set<URI> getUris() {
+        if (uris == null) {
+            // URIs are only needed by the views, build them once
+            uris = new HashSet<>();
+
+            for (Map.Entry<EntryTable, BitSet> mapEntry : validEntryIds.entrySet()) {
+                EntryTable entryTable = mapEntry.getKey();
+                mapEntry.getValue().stream().forEach(id -> uris.add(entryTable.get(id).getUri()));
+            }
+            for (Entry entry : validOtherEntries) {
+                uris.add(entry.getUri());
+            }
+        }
+        return uris;
+    }
 
     protected DelegatedEntry getDelegatedEntry(Container.Entry entry) {
-        URI uri = entry.getUri();
-        return uriToDelegatedEntry.computeIfAbsent(uri, k -> new DelegatedEntry(entry));
+        return entryToDelegatedEntry.computeIfAbsent(entry, e -> {
+            DelegatedEntry delegatedEntry = new DelegatedEntry(e);
+            if (uriToDelegatedEntry != null) {
+                uriToDelegatedEntry.put(e.getUri(), delegatedEntry);
+            }
+            return delegatedEntry;
+        });
     }
 
     protected DelegatedContainer getDelegatedContainer(Container container) {
-        Entry localRoot = container.getRoot();
-        URI uri = localRoot == null ? DEFAULT_ROOT_URI : localRoot.getUri();
-        return uriToDelegatedContainer.computeIfAbsent(uri, k -> new DelegatedContainer(container));
+        return containerToDelegatedContainer.computeIfAbsent(container, DelegatedContainer::new);
     }
 
     protected class DelegatedEntry implements Entry, Comparable<DelegatedEntry> {
@@ -79,6 +146,8 @@ public class DelegatingFilterContainer implements Container {
         @Override
         public String getPath() { return entry.getPath(); }
         @Override
+        public int getId() { return entry.getId(); }
+        @Override
         public boolean isDirectory() { return entry.isDirectory(); }
         @Override
         public long length() { return entry.length(); }
@@ -90,7 +159,7 @@ public class DelegatingFilterContainer implements Container {
         @Override
         public Map<Container.EntryPath, Container.Entry> getChildren() {
             if (children == null) {
-                children = entry.getChildren().values().stream().filter(child -> validEntries.contains(child.getUri()))
+                children = entry.getChildren().values().stream().filter(DelegatingFilterContainer.this::isValidEntry)
                         .collect(Collectors.toMap(SimpleEntryPath::new, this::getDelegEntry));
             }
             return children;
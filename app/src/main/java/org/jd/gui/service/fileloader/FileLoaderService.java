@@ -8,6 +8,7 @@
 
 package org.jd.gui.service.fileloader;
 
+import org.jd.gui.api.API;
 import org.jd.gui.service.extension.ExtensionService;
 import org.jd.gui.spi.FileLoader;
 
@@ -26,15 +27,25 @@ public class FileLoaderService {
 
     private final Map<String, FileLoader> mapProviders = new HashMap<>();
 
+    // Loaders without extension open directories
+    private FileLoader directoryProvider;
+
     protected FileLoaderService() {
         for (FileLoader provider : providers) {
-            for (String extension : provider.getExtensions()) {
+            String[] extensions = provider.getExtensions();
+            if (extensions.length == 0 && directoryProvider == null) {
+                directoryProvider = provider;
+            }
+            for (String extension : extensions) {
                 mapProviders.put(extension, provider);
             }
         }
     }
 
-    public FileLoader get(File file) {
+    public FileLoader get(API api, File file) {
+        if (file.isDirectory()) {
+            return directoryProvider != null && directoryProvider.accept(api, file) ? directoryProvider : null;
+        }
         String name = file.getName();
         int lastDot = name.lastIndexOf('.');
         if (lastDot == -1 || lastDot == name.length() - 1) {
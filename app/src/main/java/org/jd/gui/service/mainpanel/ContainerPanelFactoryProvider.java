@@ -13,14 +13,21 @@ import org.jd.gui.api.feature.ContentIndexable;
 import org.jd.gui.api.feature.SourcesSavable;
 import org.jd.gui.api.feature.UriGettable;
 import org.jd.gui.api.model.Container;
+import org.jd.gui.api.model.EntryTable;
 import org.jd.gui.api.model.Indexes;
+import org.jd.gui.model.container.JrtContainer;
 import org.jd.gui.spi.Indexer;
 import org.jd.gui.spi.PanelFactory;
 import org.jd.gui.spi.SourceSaver;
 import org.jd.gui.spi.TreeNodeFactory;
+import org.jd.gui.util.ProgressTracker;
+import org.jd.gui.util.index.EntryIdCollection;
+import org.jd.gui.util.index.EntryIdIndexes;
+import org.jd.gui.util.index.JdkIndexes;
 import org.jd.gui.view.component.panel.TreeTabbedPanel;
 
 import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -86,7 +93,8 @@ public class ContainerPanelFactoryProvider implements PanelFactory {
         @Override
         public Indexes index(API api, DoubleSupplier getProgressFunction, DoubleConsumer setProgressFunction, BooleanSupplier isCancelledFunction) {
             Map<String, Map<String, Collection>> map = new HashMap<>();
-            DelegatedMapMapWithDefault mapWithDefault = new DelegatedMapMapWithDefault(map);
+            EntryTable entryTable = container.getEntryTable();
+            DelegatedMapMapWithDefault mapWithDefault = new DelegatedMapMapWithDefault(map, entryTable);
 
             // Index populating value automatically
             Indexes indexesWithDefault = mapWithDefault::get;
@@ -95,10 +103,24 @@ public class ContainerPanelFactoryProvider implements PanelFactory {
             Indexer indexer = api.getIndexer(entry);
 
             if (indexer != null && !isCancelledFunction.getAsBoolean()) {
-                indexer.index(api, entry, indexesWithDefault, getProgressFunction, setProgressFunction, isCancelledFunction);
+                ProgressTracker tracker = ProgressTracker.of(container, getProgressFunction, setProgressFunction);
+                indexer.index(api, entry, indexesWithDefault, tracker, tracker, isCancelledFunction);
+                if (isCancelledFunction.getAsBoolean()) {
+                    tracker.flush();
+                } else {
+                    tracker.finish();
+                }
+            }
+
+            // Types of the JDK of the shared indexes: not kept twice
+            if (container instanceof JrtContainer && JdkIndexes.isShared(api.getPreferences(), new File(entry.getUri()))) {
+                map.keySet().removeAll(JdkIndexes.INDEX_NAMES);
             }
 
             // To prevent memory leaks, return an index without the 'populate' behaviour
+            if (entryTable != null) {
+                return new EntryIdIndexes(map, entryTable);
+            }
             return map::get;
         }
 
@@ -135,7 +157,13 @@ public class ContainerPanelFactoryProvider implements PanelFactory {
                     SourceSaver saver = api.getSourceSaver(entry);
 
                     if (saver != null) {
-                        saver.saveContent(api, archiveRootPath, archiveRootPath, entry, getProgressFunction, setProgressFunction, isCancelledFunction);
+                        ProgressTracker tracker = ProgressTracker.of(container, getProgressFunction, setProgressFunction);
+                        saver.saveContent(api, archiveRootPath, archiveRootPath, entry, tracker, tracker, isCancelledFunction);
+                        if (isCancelledFunction.getAsBoolean()) {
+                            tracker.flush();
+                        } else {
+                            tracker.finish();
+                        }
                     }
                 } catch (AccessDeniedException e) {
                     assert ExceptionUtil.printStackTrace(e);
@@ -193,14 +221,22 @@ public class ContainerPanelFactoryProvider implements PanelFactory {
     @SuppressWarnings("rawtypes")
     protected static class DelegatedMapWithDefault extends DelegatedMap<String, Collection> {
 
-        public DelegatedMapWithDefault(Map<String, Collection> map) { super(map); }
+        private EntryTable entryTable;
+
+        public DelegatedMapWithDefault(Map<String, Collection> map) { this(map, null); }
+
+        public DelegatedMapWithDefault(Map<String, Collection> map, EntryTable entryTable) {
+            super(map);
+            this.entryTable = entryTable;
+        }
 
         @Override
         public Collection get(Object o) {
             Collection value = super.get(o);
             if (value == null) {
                 String key = o.toString();
-                value=new ArrayList<>();
+                // Entries of the container are stored by id
+                value=entryTable == null ? new ArrayList<>() : new EntryIdCollection(entryTable);
                 put(key, value);
             }
             return value;
@@ -211,8 +247,14 @@ public class ContainerPanelFactoryProvider implements PanelFactory {
     protected static class DelegatedMapMapWithDefault extends DelegatedMap<String, Map<String, Collection>> {
 
         private Map<String, Map<String, Collection>> wrappers = new HashMap<>();
+        private EntryTable entryTable;
 
-        public DelegatedMapMapWithDefault(Map<String, Map<String, Collection>> map) { super(map); }
+        public DelegatedMapMapWithDefault(Map<String, Map<String, Collection>> map) { this(map, null); }
+
+        public DelegatedMapMapWithDefault(Map<String, Map<String, Collection>> map, EntryTable entryTable) {
+            super(map);
+            this.entryTable = entryTable;
+        }
 
         @Override
         public Map<String, Collection> get(Object o) {
@@ -222,7 +264,7 @@ public class ContainerPanelFactoryProvider implements PanelFactory {
                 String key = o.toString();
                 Map<String, Collection> m = new HashMap<>();
                 put(key, m);
-                value=new DelegatedMapWithDefault(m);
+                value=new DelegatedMapWithDefault(m, entryTable);
                 wrappers.put(key, value);
             }
 
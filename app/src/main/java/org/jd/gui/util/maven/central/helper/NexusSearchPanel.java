@@ -85,6 +85,8 @@ public final class NexusSearchPanel extends JPanel {
     private static final long serialVersionUID = 1L;
 
     private static final int MAX_PAGES = 50;
+    // Enough to pick from: narrower queries are better past this
+    private static final int MAX_RESULTS = 1000;
 
     private final transient API api;
     private final transient NexusSearch search;
@@ -542,7 +544,9 @@ public final class NexusSearchPanel extends JPanel {
                     return null;
                 }
 
-                for (int page = 0; page < MAX_PAGES && !isCancelled(); page++) {
+                int resultCount = 0;
+                // Pages are requested one at a time and shown as they arrive
+                for (int page = 0; page < MAX_PAGES && resultCount < MAX_RESULTS && !isCancelled(); page++) {
                     int baseProgress = 10;
                     int pageRange = 80;
                     int pageProgress = baseProgress + (pageRange * page) / MAX_PAGES;
@@ -573,6 +577,11 @@ public final class NexusSearchPanel extends JPanel {
                     }
 
                     publish(pageArtifacts);
+                    resultCount += pageArtifacts.size();
+
+                    if (pageResult.lastPage()) {
+                        break;
+                    }
                 }
 
                 setProgress(100);
@@ -15,6 +15,7 @@ import org.jd.gui.api.model.Indexes;
 import org.jd.gui.api.model.Type;
 import org.jd.gui.service.type.TypeFactoryService;
 import org.jd.gui.spi.TypeFactory;
+import org.jd.gui.util.index.IndexesUtil;
 
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -56,27 +57,10 @@ public final class UriUtil {
         String outerName = type.getOuterName();
 
         if (outerName != null) {
-            try {
-                for (Future<Indexes> futureIndexes : collectionOfFutureIndexes) {
-                    if (futureIndexes.isDone()) {
-                        @SuppressWarnings("unchecked")
-                        Collection<Container.Entry> outerEntries = futureIndexes.get().getIndex("typeDeclarations").get(outerName);
-
-                        if (outerEntries != null) {
-                            for (Container.Entry outerEntry : outerEntries) {
-                                if (outerEntry.getContainer() == entry.getContainer()) {
-                                    return outerEntry.getUri().getPath();
-                                }
-                            }
-                        }
-                    }
+            for (Container.Entry outerEntry : IndexesUtil.findInternalTypeName(collectionOfFutureIndexes, outerName, entry.getContainer())) {
+                if (outerEntry.getContainer() == entry.getContainer()) {
+                    return outerEntry.getUri().getPath();
                 }
-            } catch (InterruptedException e) {
-                assert ExceptionUtil.printStackTrace(e);
-                // Restore interrupted state...
-                Thread.currentThread().interrupt();
-            } catch (Exception e) {
-                assert ExceptionUtil.printStackTrace(e);
             }
         }
 
@@ -0,0 +1,387 @@
+package tim.jarcomp;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.RecordComponentVisitor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Class to hold the structural hashes of a class file, to tell API changes
+ * from body-only changes and from changes of the debug information only.
+ * <p>
+ * The class is read with ASM without its debug attributes (source file, line
+ * numbers, local variables) nor its stack map frames. Constant pool entries
+ * are resolved to their values, so the constant pool ordering chosen by the
+ * compiler does not matter, and members are hashed in name order rather than
+ * in declaration order. The class file version is ignored.
+ */
+public final class ClassSignature {
+
+    /** Kind of difference between two versions of a class */
+    public enum ClassChange {
+        /** Declarations of the class or of its members differ */
+        API,
+        /** Same declarations, but some method bodies differ */
+        BODY,
+        /** Only the debug information, the frames or the constant pool layout differ */
+        DEBUG
+    }
+
+    /** Hash of the declarations of the class and of its members */
+    private final String apiHash;
+    /** Hashes of the method bodies, by name and descriptor */
+    private final Map<String, String> bodyHashes;
+
+    private ClassSignature(String apiHash, Map<String, String> bodyHashes) {
+        this.apiHash = apiHash;
+        this.bodyHashes = bodyHashes;
+    }
+
+    /**
+     * @param inClassFile contents of a class file
+     * @return structural hashes of the class
+     * @throws IllegalArgumentException if the class file cannot be read
+     */
+    public static ClassSignature of(byte[] inClassFile) {
+        SignatureVisitor visitor = new SignatureVisitor();
+        new ClassReader(inClassFile).accept(visitor, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        return visitor.toSignature();
+    }
+
+    /**
+     * Classify the difference between two versions of a class file
+     *
+     * @param inClassFile1 first version
+     * @param inClassFile2 second version
+     * @return kind of difference, or null if the files are identical
+     * @throws IllegalArgumentException if a class file cannot be read
+     */
+    public static ClassChange compare(byte[] inClassFile1, byte[] inClassFile2) {
+        if (Arrays.equals(inClassFile1, inClassFile2)) {
+            return null;
+        }
+        return of(inClassFile1).compareTo(of(inClassFile2));
+    }
+
+    /**
+     * @param inOther other version of the class
+     * @return kind of difference with the other version, DEBUG if none is visible
+     */
+    public ClassChange compareTo(ClassSignature inOther) {
+        if (!apiHash.equals(inOther.apiHash)) {
+            return ClassChange.API;
+        }
+        if (!bodyHashes.equals(inOther.bodyHashes)) {
+            return ClassChange.BODY;
+        }
+        return ClassChange.DEBUG;
+    }
+
+    /**
+     * Digest fed with tagged, separated values
+     */
+    private static final class Hasher {
+        private final MessageDigest digest;
+
+        Hasher() {
+            try {
+                digest = MessageDigest.getInstance("SHA-1");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        Hasher put(Object value) {
+            String text = value == null ? "\u0001" : value.getClass().getSimpleName() + ':' + valueToString(value);
+            digest.update(text.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            return this;
+        }
+
+        String hash() {
+            return HexFormat.of().formatHex(digest.digest());
+        }
+
+        private static String valueToString(Object value) {
+            if (value instanceof Object[] array) {
+                return Arrays.deepToString(array);
+            }
+            if (value instanceof int[] array) {
+                return Arrays.toString(array);
+            }
+            return String.valueOf(value);
+        }
+    }
+
+    /**
+     * Annotation visitor writing the annotation values in declaration order
+     */
+    private static class AnnotationText extends AnnotationVisitor {
+        private final StringBuilder text;
+
+        AnnotationText(StringBuilder text) {
+            super(Opcodes.ASM9);
+            this.text = text;
+        }
+
+        static AnnotationVisitor start(StringBuilder text, String descriptor, boolean visible) {
+            text.append('@').append(descriptor).append(visible ? "(" : "[");
+            return new AnnotationText(text);
+        }
+
+        @Override
+        public void visit(String name, Object value) {
+            text.append(name).append('=').append(Hasher.valueToString(value)).append(',');
+        }
+
+        @Override
+        public void visitEnum(String name, String descriptor, String value) {
+            text.append(name).append('=').append(descriptor).append('.').append(value).append(',');
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String name, String descriptor) {
+            text.append(name).append('=');
+            return start(text, descriptor, true);
+        }
+
+        @Override
+        public AnnotationVisitor visitArray(String name) {
+            text.append(name).append("={");
+            return new AnnotationText(text) {
+                @Override
+                public void visitEnd() {
+                    text.append("},");
+                }
+            };
+        }
+
+        @Override
+        public void visitEnd() {
+            text.append("),");
+        }
+    }
+
+    /**
+     * Class visitor collecting the declarations and the method bodies
+     */
+    private static final class SignatureVisitor extends ClassVisitor {
+        /** Declaration of the class itself */
+        private final StringBuilder header = new StringBuilder();
+        /** Declarations of the members, sorted by name and descriptor */
+        private final Map<String, StringBuilder> members = new TreeMap<>();
+        private final Map<String, String> bodyHashes = new HashMap<>();
+
+        SignatureVisitor() {
+            super(Opcodes.ASM9);
+        }
+
+        ClassSignature toSignature() {
+            Hasher api = new Hasher().put(header.toString());
+            members.forEach((key, declaration) -> api.put(key).put(declaration.toString()));
+            return new ClassSignature(api.hash(), bodyHashes);
+        }
+
+        private StringBuilder member(String key) {
+            StringBuilder declaration = new StringBuilder();
+            members.put(key, declaration);
+            return declaration;
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            header.append(access).append(' ').append(name).append(' ').append(signature).append(' ').append(superName)
+                    .append(' ').append(Arrays.toString(interfaces)).append(';');
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+            return AnnotationText.start(header, descriptor, visible);
+        }
+
+        @Override
+        public void visitInnerClass(String name, String outerName, String innerName, int access) {
+            member("inner " + name).append(outerName).append(' ').append(innerName).append(' ').append(access);
+        }
+
+        @Override
+        public void visitPermittedSubclass(String permittedSubclass) {
+            member("permits " + permittedSubclass);
+        }
+
+        @Override
+        public RecordComponentVisitor visitRecordComponent(String name, String descriptor, String signature) {
+            StringBuilder declaration = member("record " + name).append(descriptor).append(' ').append(signature);
+            return new RecordComponentVisitor(Opcodes.ASM9) {
+                @Override
+                public AnnotationVisitor visitAnnotation(String annotationDescriptor, boolean visible) {
+                    return AnnotationText.start(declaration, annotationDescriptor, visible);
+                }
+            };
+        }
+
+        @Override
+        public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+            StringBuilder declaration = member("field " + name).append(access).append(' ').append(descriptor).append(' ')
+                    .append(signature).append(" = ").append(value == null ? null : value.getClass().getSimpleName() + ':' + value);
+            return new FieldVisitor(Opcodes.ASM9) {
+                @Override
+                public AnnotationVisitor visitAnnotation(String annotationDescriptor, boolean visible) {
+                    return AnnotationText.start(declaration, annotationDescriptor, visible);
+                }
+            };
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+            String key = name + descriptor;
+            StringBuilder declaration = member("method " + key).append(access).append(' ').append(signature).append(' ')
+                    .append(Arrays.toString(exceptions));
+            return new BodyVisitor(declaration) {
+                @Override
+                public void visitEnd() {
+                    bodyHashes.put(key, hasher.hash());
+                }
+            };
+        }
+    }
+
+    /**
+     * Method visitor hashing the instructions, with the labels numbered in
+     * order of appearance. Annotations belong to the declaration.
+     */
+    private static class BodyVisitor extends MethodVisitor {
+        protected final Hasher hasher = new Hasher();
+        private final StringBuilder declaration;
+        private final Map<Label, Integer> labels = new HashMap<>();
+
+        BodyVisitor(StringBuilder declaration) {
+            super(Opcodes.ASM9);
+            this.declaration = declaration;
+        }
+
+        private Integer label(Label label) {
+            return labels.computeIfAbsent(label, l -> labels.size());
+        }
+
+        private Integer[] labels(Label[] array) {
+            return Arrays.stream(array).map(this::label).toArray(Integer[]::new);
+        }
+
+        private static Object constant(Object value) {
+            if (value instanceof Handle handle) {
+                return handle.getTag() + " " + handle.getOwner() + '.' + handle.getName() + handle.getDesc() + ' ' + handle.isInterface();
+            }
+            return value;
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotationDefault() {
+            declaration.append(" default ");
+            return new AnnotationText(declaration);
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+            return AnnotationText.start(declaration, descriptor, visible);
+        }
+
+        @Override
+        public AnnotationVisitor visitParameterAnnotation(int parameter, String descriptor, boolean visible) {
+            declaration.append(" param").append(parameter);
+            return AnnotationText.start(declaration, descriptor, visible);
+        }
+
+        @Override
+        public void visitInsn(int opcode) {
+            hasher.put(opcode);
+        }
+
+        @Override
+        public void visitIntInsn(int opcode, int operand) {
+            hasher.put(opcode).put(operand);
+        }
+
+        @Override
+        public void visitVarInsn(int opcode, int varIndex) {
+            hasher.put(opcode).put(varIndex);
+        }
+
+        @Override
+        public void visitTypeInsn(int opcode, String type) {
+            hasher.put(opcode).put(type);
+        }
+
+        @Override
+        public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+            hasher.put(opcode).put(owner).put(name).put(descriptor);
+        }
+
+        @Override
+        public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+            hasher.put(opcode).put(owner).put(name).put(descriptor).put(isInterface);
+        }
+
+        @Override
+        public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle, Object... bootstrapMethodArguments) {
+            hasher.put(Opcodes.INVOKEDYNAMIC).put(name).put(descriptor).put(constant(bootstrapMethodHandle));
+            for (Object argument : bootstrapMethodArguments) {
+                hasher.put(constant(argument));
+            }
+        }
+
+        @Override
+        public void visitJumpInsn(int opcode, Label label) {
+            hasher.put(opcode).put(label(label));
+        }
+
+        @Override
+        public void visitLabel(Label label) {
+            hasher.put("label").put(label(label));
+        }
+
+        @Override
+        public void visitLdcInsn(Object value) {
+            hasher.put(Opcodes.LDC).put(constant(value));
+        }
+
+        @Override
+        public void visitIincInsn(int varIndex, int increment) {
+            hasher.put(Opcodes.IINC).put(varIndex).put(increment);
+        }
+
+        @Override
+        public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+            hasher.put(Opcodes.TABLESWITCH).put(min).put(max).put(label(dflt)).put(labels(labels));
+        }
+
+        @Override
+        public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+            hasher.put(Opcodes.LOOKUPSWITCH).put(label(dflt)).put(keys).put(labels(labels));
+        }
+
+        @Override
+        public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+            hasher.put(Opcodes.MULTIANEWARRAY).put(descriptor).put(numDimensions);
+        }
+
+        @Override
+        public void visitTryCatchBlock(Label start, Label end, Label handler, String type) {
+            hasher.put("try").put(label(start)).put(label(end)).put(label(handler)).put(type);
+        }
+    }
+}
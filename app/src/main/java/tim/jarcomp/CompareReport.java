@@ -0,0 +1,236 @@
+package tim.jarcomp;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+import jakarta.json.bind.JsonbConfig;
+import jakarta.json.bind.annotation.JsonbPropertyOrder;
+
+import tim.jarcomp.EntryDetails.EntryStatus;
+
+/**
+ * Machine-readable report of the comparison of two archives, written as JSON
+ * by the command line comparison.
+ * <p>
+ * Entries lists the entries which differ, including the ones of nested
+ * archives, in the order of the comparison table. Entries without a change
+ * are left out, as well as diffs which could not be made, such as the ones
+ * of binary entries.
+ *
+ * @param left    first compared archive
+ * @param right   second compared archive
+ * @param summary numbers of entries by kind of change
+ * @param entries entries which differ
+ */
+@JsonbPropertyOrder({ "left", "right", "summary", "entries" })
+public record CompareReport(Archive left, Archive right, Summary summary, List<Entry> entries) {
+
+    /** Kind of change of an entry */
+    public enum Change {
+        /** Entry only in the second archive */
+        ADDED,
+        /** Entry only in the first archive */
+        REMOVED,
+        /** Contents different, class files not classified */
+        CONTENT,
+        /** Class declarations different */
+        API,
+        /** Class declarations same, method bodies different */
+        BODY,
+        /** Class bytecode same, debug information different */
+        DEBUG
+    }
+
+    /**
+     * @param path    absolute path of the archive
+     * @param size    size of the archive in bytes
+     * @param entries number of entries, without the ones of nested archives
+     */
+    @JsonbPropertyOrder({ "path", "size", "entries" })
+    public record Archive(String path, long size, int entries) {
+    }
+
+    /**
+     * @param identical true if no entry differs other than by debug information
+     * @param added     number of entries added
+     * @param removed   number of entries removed
+     * @param changed   number of entries changed, debug information aside
+     * @param debugOnly number of class files whose debug information only changed
+     */
+    @JsonbPropertyOrder({ "identical", "added", "removed", "changed", "debugOnly" })
+    public record Summary(boolean identical, int added, int removed, int changed, int debugOnly) {
+    }
+
+    /**
+     * @param name      entry name, with the names of its nested archives separated by '!/'
+     * @param change    kind of change
+     * @param leftSize  size in the first archive, absent if added
+     * @param rightSize size in the second archive, absent if removed
+     * @param diff      unified diff of the decompiled class or text, if requested
+     */
+    @JsonbPropertyOrder({ "name", "change", "leftSize", "rightSize", "diff" })
+    public record Entry(String name, Change change, Long leftSize, Long rightSize, String diff) {
+    }
+
+    /** Reads the compared version of an entry as text */
+    @FunctionalInterface
+    interface ContentLoader {
+        String getContent(File file, String entryPath) throws Exception;
+    }
+
+    /**
+     * Compare two archives on a dedicated pool, decompiling the classes with
+     * the default preferences for the diffs
+     *
+     * @param inFile1       first file
+     * @param inFile2       second file
+     * @param inParallelism number of threads comparing and decompiling entries
+     * @param inSourceDiffs true to add the unified diffs of the changed classes and texts
+     * @return report of the comparison
+     */
+    public static CompareReport create(File inFile1, File inFile2, int inParallelism, boolean inSourceDiffs) throws IOException {
+        if (!inSourceDiffs) {
+            return create(inFile1, inFile2, inParallelism, (ContentLoader) null);
+        }
+        Map<String, String> preferences = new HashMap<>();
+        // Archives and nested archives read once for all the diffs
+        try (EntryContentLoader.Archives archives = new EntryContentLoader.Archives()) {
+            return create(inFile1, inFile2, inParallelism,
+                    (file, entryPath) -> EntryContentLoader.getContent(preferences, archives, file, entryPath));
+        }
+    }
+
+    /**
+     * @param inContentLoader reads the entries to diff, or null for no diffs
+     */
+    static CompareReport create(File inFile1, File inFile2, int inParallelism, ContentLoader inContentLoader) throws IOException {
+        for (File file : new File[] { inFile1, inFile2 }) {
+            if (!file.isFile()) {
+                throw new FileNotFoundException(file.getAbsolutePath());
+            }
+        }
+        // Bounds the parallelism only because the whole comparison runs in a
+        // task of this pool: parallel streams, including the ones of Comparer
+        // and of the diffs below, run on the pool of the calling task, and
+        // Comparer opens the first archive on it. Called outside of it, they
+        // would use the common pool and ignore the requested parallelism.
+        ForkJoinPool pool = new ForkJoinPool(inParallelism);
+        try {
+            return pool.submit(() -> {
+                CompareResults results = Comparer.compare(inFile1, inFile2);
+                return create(inFile1, inFile2, results, inContentLoader);
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Comparison interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Comparison failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static CompareReport create(File inFile1, File inFile2, CompareResults inResults, ContentLoader inContentLoader) {
+        List<EntryDetails> changedEntries = new ArrayList<>();
+        addChangedEntries(inResults.getEntryList(), changedEntries);
+
+        List<Entry> entries = changedEntries.parallelStream().map(entryDetails -> {
+            Change change = getChange(entryDetails.getStatus());
+            String diff = inContentLoader == null ? null : diff(inFile1, inFile2, entryDetails, change, inContentLoader);
+            return new Entry(entryDetails.getName(), change,
+                    change == Change.ADDED ? null : entryDetails.getSize(0),
+                    change == Change.REMOVED ? null : entryDetails.getSize(1),
+                    diff);
+        }).toList();
+
+        int[] counts = new int[Change.values().length];
+        for (Entry entry : entries) {
+            counts[entry.change().ordinal()]++;
+        }
+        int changed = counts[Change.CONTENT.ordinal()] + counts[Change.API.ordinal()] + counts[Change.BODY.ordinal()];
+        Summary summary = new Summary(counts[Change.ADDED.ordinal()] + counts[Change.REMOVED.ordinal()] + changed == 0,
+                counts[Change.ADDED.ordinal()], counts[Change.REMOVED.ordinal()], changed, counts[Change.DEBUG.ordinal()]);
+        return new CompareReport(
+                new Archive(inFile1.getAbsolutePath(), inResults.getSize(0), inResults.getNumFiles(0)),
+                new Archive(inFile2.getAbsolutePath(), inResults.getSize(1), inResults.getNumFiles(1)),
+                summary, entries);
+    }
+
+    private static void addChangedEntries(List<EntryDetails> inEntries, List<EntryDetails> outEntries) {
+        for (EntryDetails entryDetails : inEntries) {
+            if (getChange(entryDetails.getStatus()) != null) {
+                outEntries.add(entryDetails);
+            }
+            if (entryDetails.getNestedEntries() != null) {
+                addChangedEntries(entryDetails.getNestedEntries(), outEntries);
+            }
+        }
+    }
+
+    /**
+     * @return kind of change, or null if the entry did not change
+     */
+    private static Change getChange(EntryStatus inStatus) {
+        return switch (inStatus) {
+            case ADDED -> Change.ADDED;
+            case REMOVED -> Change.REMOVED;
+            case CHANGED_SIZE, CHANGED_SUM, UNREADABLE -> Change.CONTENT;
+            case CHANGED_API -> Change.API;
+            case CHANGED_BODY -> Change.BODY;
+            case CHANGED_DEBUG -> Change.DEBUG;
+            case SAME_SIZE, EQUAL -> null;
+        };
+    }
+
+    /**
+     * @return unified diff of both versions of a changed entry, or null if they cannot be compared as text
+     */
+    private static String diff(File inFile1, File inFile2, EntryDetails inEntry, Change inChange, ContentLoader inContentLoader) {
+        String name = inEntry.getName();
+        // Nested archives are listed entry by entry, and debug information is not decompiled
+        if (inChange == Change.ADDED || inChange == Change.REMOVED || inChange == Change.DEBUG
+                || inEntry.getNestedEntries() != null || Comparer.isArchive(name) || Comparer.isDex(name)) {
+            return null;
+        }
+        try {
+            String left = inContentLoader.getContent(inFile1, name);
+            String right = inContentLoader.getContent(inFile2, name);
+            if (left.indexOf('\0') != -1 || right.indexOf('\0') != -1) {
+                // Binary contents
+                return null;
+            }
+            return UnifiedDiff.diff(inFile1.getName() + Comparer.NESTED_SEPARATOR + name,
+                    inFile2.getName() + Comparer.NESTED_SEPARATOR + name, left, right, UnifiedDiff.DEFAULT_CONTEXT);
+        } catch (Exception e) {
+            System.err.println(name + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * @param inWriter receives the report as indented JSON, not closed
+     */
+    public void write(Writer inWriter) throws IOException {
+        String json;
+        // Absent values left out
+        try (Jsonb jsonb = JsonbBuilder.create(new JsonbConfig().withFormatting(true))) {
+            // Written as a string, serializing to the writer would close it
+            json = jsonb.toJson(this);
+        } catch (Exception e) {
+            throw new IOException("Cannot write the comparison report", e);
+        }
+        inWriter.write(json);
+        inWriter.write(System.lineSeparator());
+        inWriter.flush();
+    }
+}
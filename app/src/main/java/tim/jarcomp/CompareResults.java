@@ -52,8 +52,20 @@ public class CompareResults extends EntryDetails {
     public boolean getEntriesDifferent() {
         // Loop over all entries
         for (EntryDetails entry : entries) {
-            EntryDetails.EntryStatus status = entry.getStatus();
-            if (status != EntryDetails.EntryStatus.EQUAL && status != EntryDetails.EntryStatus.SAME_SIZE) {
+            if (entry.isChanged()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if some class files only differ in their debug information
+     */
+    public boolean getEntriesDebugDifferent() {
+        // Loop over all entries
+        for (EntryDetails entry : entries) {
+            if (entry.getStatus() == EntryDetails.EntryStatus.CHANGED_DEBUG) {
                 return true;
             }
         }
@@ -17,21 +17,14 @@
  ******************************************************************************/
 package tim.jarcomp;
 
-import org.apache.commons.io.IOUtils;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
-import org.jd.core.v1.util.StringConstants;
-import org.jd.core.v1.util.ZipLoader;
 import org.jd.gui.api.API;
 import org.jd.gui.util.ImageUtil;
-import org.jd.gui.util.loader.LoaderUtils;
 import org.jdesktop.swingx.JXTable;
 import org.netbeans.modules.editor.java.JavaKit;
 import org.oxbow.swingbits.list.CheckListRenderer;
 import org.oxbow.swingbits.table.filter.TableRowFilterSupport;
 
-import com.heliosdecompiler.transformerapi.StandardTransformers;
-import com.heliosdecompiler.transformerapi.common.Loader;
-
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Component;
@@ -42,14 +35,12 @@ import java.awt.datatransfer.DataFlavor;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.zip.ZipFile;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.BoxLayout;
 import javax.swing.ImageIcon;
@@ -59,20 +50,17 @@ import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.TransferHandler;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.TitledBorder;
 import javax.swing.table.TableCellRenderer;
 
-import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_JD_CORE_V1;
-import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_ENGINE;
-
 import de.cismet.custom.visualdiff.DiffPanel;
-import jd.core.ClassUtil;
-import jd.core.DecompilationResult;
-import jd.core.preferences.Preferences;
 
 /**
  * Class to manage the main compare window
@@ -81,6 +69,10 @@ public class CompareWindow {
 
     private static final Color YELLOW = new Color(255, 255, 200);
     private static final Color DARK_GRAY = new Color(0x2A2A2A);
+    /** Number of changed entries decompiled in advance around the selected row */
+    private static final int PREFETCH_COUNT = 16;
+    /** Number of rows searched for changed entries on each side of the selected row */
+    private static final int PREFETCH_SCAN_DISTANCE = 256;
 
     /** Main window object */
     private JFrame mainWindow;
@@ -98,6 +90,18 @@ public class CompareWindow {
     private JFileChooser fileChooser;
     /** Refresh button to repeat comparison */
     private JButton refreshButton;
+    /** Cancel button to stop comparison */
+    private JButton cancelButton;
+    /** Progress of comparison */
+    private JProgressBar progressBar;
+    /** Comparison in progress, if any */
+    private transient SwingWorker<CompareResults, Void> compareWorker;
+    /** Comparison table */
+    private JXTable table;
+    /** Files of the comparison shown, read on the event dispatch thread */
+    private File[] comparedFiles = new File[2];
+    /** Decompiled versions of the changed classes, of the compared files captured when queued */
+    private final transient DecompiledDiffCache diffCache = new DecompiledDiffCache(decompilerOf(comparedFiles));
 
     private API api;
 
@@ -134,6 +138,13 @@ public class CompareWindow {
         refreshButton.setEnabled(false);
         refreshButton.addActionListener(e -> startCompare(files[0], files[1]));
         buttonPanel.add(refreshButton);
+        cancelButton = new JButton("Cancel");
+        cancelButton.setEnabled(false);
+        cancelButton.addActionListener(e -> cancelCompare());
+        buttonPanel.add(cancelButton);
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setVisible(false);
+        buttonPanel.add(progressBar);
         buttonPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
         topPanel.add(buttonPanel);
 
@@ -159,7 +170,7 @@ public class CompareWindow {
 
         // main table panel
         tableModel = new EntryTableModel();
-        JXTable table = new JXTable(tableModel) {
+        table = new JXTable(tableModel) {
             private static final long serialVersionUID = 1L;
 
             /** Modify the renderer according to the row status */
@@ -180,64 +191,142 @@ public class CompareWindow {
         table.getColumnModel().getColumn(0).setPreferredWidth(300);
         table.getColumnModel().getColumn(1).setPreferredWidth(70);
         table.getColumnModel().getColumn(2).setPreferredWidth(70);
-        // Table sorting by clicking on column headings
+        // Table sorting by clicking on column headings, while no nested archive is expanded
         table.setAutoCreateRowSorter(true);
 
         table.addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
                 if (e.getClickCount() == 2) {
-                    int modelCol = table.convertColumnIndexToModel(0);
                     int modelRow = table.convertRowIndexToModel(table.getSelectedRow());
+                    if (tableModel.isExpandable(modelRow)) {
+                        // Show or hide the entries of the nested archive
+                        toggleExpanded(tableModel.getEntry(modelRow));
+                        return;
+                    }
                     boolean isChange = tableModel.isModification(modelRow);
                     if (isChange) {
-                        String fileName = (String) tableModel.getValueAt(modelRow, modelCol);
-                        try {
-                            JFrame diffFrame = new JFrame("Comparison view for class " + fileName);
-                            ImageUtil.addJDIconsToFrame(diffFrame);
-                            DiffPanel diffPanel = new DiffPanel(diffFrame);
-                            String contentLeft = getContent(files[0], fileName);
-                            String contentRight = getContent(files[1], fileName);
-                            diffPanel.setLeftAndRight(contentLeft, JavaKit.JAVA_MIME_TYPE, files[0].getName(), contentRight, JavaKit.JAVA_MIME_TYPE, files[1].getName());
-                            diffFrame.getContentPane().add(diffPanel);
-                            Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
-                            diffFrame.setLocation((int) Math.round(screenSize.getWidth() / 6.0), (int) Math.round(screenSize.getHeight() / 6.0));
-                            diffFrame.setSize((int) Math.round(screenSize.getWidth() / 1.5), (int) Math.round(screenSize.getHeight() / 1.5));
-                            diffFrame.setVisible(true);
-                        } catch (Exception ex) {
-                            assert ExceptionUtil.printStackTrace(ex);
-                        }
+                        String fileName = tableModel.getEntry(modelRow).getName();
+                        File[] diffFiles = comparedFiles.clone();
+                        // Decompiled in the background if not prefetched yet, shown on the event dispatch thread
+                        diffCache.get(fileName).whenComplete((diff, ex) -> SwingUtilities.invokeLater(() -> {
+                            if (diff != null) {
+                                showDiff(diffFiles, fileName, diff);
+                            } else if (!(ex instanceof CancellationException)) {
+                                assert ExceptionUtil.printStackTrace(ex);
+                            }
+                        }));
                     }
                 }
             }
         });
+        // Decompile the changed classes around the selection in advance
+        table.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                prefetchAround(table.getSelectedRow());
+            }
+        });
 
         mainPanel.add(new JScrollPane(table), BorderLayout.CENTER);
 
         return mainPanel;
     }
 
-    protected String getContent(File file, String entryPath)
-            throws IOException, IllegalAccessException, IllegalArgumentException, InvocationTargetException {
-        if (entryPath.endsWith(StringConstants.CLASS_FILE_SUFFIX)) {
-            Map<String, String> preferences = api.getPreferences();
-            preferences.put(Preferences.WRITE_LINE_NUMBERS, "false");
-            preferences.put(Preferences.REALIGN_LINE_NUMBERS, "false");
-            try (FileInputStream in = new FileInputStream(file)) {
-                ZipLoader zipLoader = new ZipLoader(in);
-                String decompileEngine = preferences.getOrDefault(DECOMPILE_ENGINE, ENGINE_JD_CORE_V1);
-                Loader apiLoader = LoaderUtils.createLoader(preferences, zipLoader, file.toURI());
-                String entryInternalName = ClassUtil.getInternalName(entryPath);
-                DecompilationResult decompilationResult = StandardTransformers.decompile(apiLoader, entryInternalName, preferences, decompileEngine);
-                return decompilationResult.getDecompiledOutput();
+    /**
+     * Show or hide the entries of a nested archive, below it. Sorting would
+     * move them away from their archive: the model takes the sorted order of
+     * the rows, and sorting is disabled until all the archives are collapsed.
+     *
+     * @param entry nested archive
+     */
+    private void toggleExpanded(EntryDetails entry) {
+        if (table.isSortable()) {
+            List<EntryDetails> sortedEntries = new ArrayList<>(table.getRowCount());
+            for (int row = 0; row < table.getRowCount(); row++) {
+                sortedEntries.add(tableModel.getEntry(table.convertRowIndexToModel(row)));
+            }
+            table.resetSortOrder();
+            table.setSortable(false);
+            tableModel.reorder(sortedEntries);
+        }
+        tableModel.toggleExpanded(tableModel.getRow(entry));
+        if (!tableModel.hasExpandedRows()) {
+            table.setSortable(true);
+        }
+    }
+
+    /**
+     * Show the differences between the decompiled versions of an entry
+     *
+     * @param diffFiles compared files
+     * @param fileName  entry name
+     * @param diff      decompiled versions of the entry
+     */
+    private static void showDiff(File[] diffFiles, String fileName, DecompiledDiffCache.Diff diff) {
+        try {
+            JFrame diffFrame = new JFrame("Comparison view for class " + fileName);
+            ImageUtil.addJDIconsToFrame(diffFrame);
+            DiffPanel diffPanel = new DiffPanel(diffFrame);
+            diffPanel.setLeftAndRight(diff.left(), JavaKit.JAVA_MIME_TYPE, diffFiles[0].getName(), diff.right(), JavaKit.JAVA_MIME_TYPE, diffFiles[1].getName());
+            diffFrame.getContentPane().add(diffPanel);
+            Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
+            diffFrame.setLocation((int) Math.round(screenSize.getWidth() / 6.0), (int) Math.round(screenSize.getHeight() / 6.0));
+            diffFrame.setSize((int) Math.round(screenSize.getWidth() / 1.5), (int) Math.round(screenSize.getHeight() / 1.5));
+            diffFrame.setVisible(true);
+        } catch (Exception ex) {
+            assert ExceptionUtil.printStackTrace(ex);
+        }
+    }
+
+    /**
+     * Decompile the changed entries around the given row in the background,
+     * the row itself first, then the nearest ones
+     *
+     * @param viewRow selected row, in view coordinates
+     */
+    private void prefetchAround(int viewRow) {
+        int rowCount = table.getRowCount();
+        if (viewRow < 0 || viewRow >= rowCount) {
+            return;
+        }
+        List<String> entryNames = new ArrayList<>();
+        addPrefetched(viewRow, entryNames);
+        for (int distance = 1; distance <= PREFETCH_SCAN_DISTANCE && entryNames.size() < PREFETCH_COUNT; distance++) {
+            if (viewRow + distance < rowCount) {
+                addPrefetched(viewRow + distance, entryNames);
+            }
+            if (viewRow - distance >= 0 && entryNames.size() < PREFETCH_COUNT) {
+                addPrefetched(viewRow - distance, entryNames);
             }
         }
-        try (ZipFile zipFile = new ZipFile(file);
-             InputStream in = zipFile.getInputStream(zipFile.getEntry(entryPath))) {
-            return IOUtils.toString(in, StandardCharsets.UTF_8);
+        diffCache.prefetch(entryNames);
+    }
+
+    private void addPrefetched(int viewRow, List<String> entryNames) {
+        int modelRow = table.convertRowIndexToModel(viewRow);
+        if (tableModel.isModification(modelRow)) {
+            entryNames.add(tableModel.getEntry(modelRow).getName());
         }
     }
 
+    /**
+     * @param diffFiles compared files, not modified
+     * @return decompiler of both versions of an entry, called from the worker threads of the cache
+     */
+    private DecompiledDiffCache.Decompiler decompilerOf(File[] diffFiles) {
+        return entryPath -> new DecompiledDiffCache.Diff(getContent(diffFiles[0], entryPath), getContent(diffFiles[1], entryPath));
+    }
+
+    /**
+     * @param file      compared file
+     * @param entryPath entry name, with the names of its nested archives separated by '!/'
+     * @return decompiled class or text of the entry
+     */
+    protected String getContent(File file, String entryPath)
+            throws IOException, IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+        return EntryContentLoader.getContent(api.getPreferences(), file, entryPath);
+    }
+
     /**
      * Start the comparison process by prompting for two files
      */
@@ -252,8 +341,10 @@ public class CompareWindow {
      * @param inFile2 second file
      */
     public void startCompare(File inFile1, File inFile2) {
+        cancelCompare();
         // Clear table model
         tableModel.reset();
+        diffCache.clear();
 
         if (inFile1 == null || inFile2 == null) {
 	        // Open the unified selection dialog
@@ -273,16 +364,79 @@ public class CompareWindow {
         detailsDisplays[1].clear();
         statusLabel.setText("comparing...");
 
-        // Start separate thread to compare files
-        new Thread(this::doCompare).start();
+        statusLabel2.setText("");
+        refreshButton.setEnabled(false);
+        cancelButton.setEnabled(true);
+        progressBar.setValue(0);
+        progressBar.setVisible(true);
+
+        // Compare files in the background, then show the results on the event dispatch thread
+        File file1 = files[0];
+        File file2 = files[1];
+        comparedFiles = new File[] { file1, file2 };
+        diffCache.clear(decompilerOf(comparedFiles));
+        SwingWorker<CompareResults, Void> worker = new SwingWorker<>() {
+            @Override
+            protected CompareResults doInBackground() throws IOException {
+                return Comparer.compare(file1, file2, progress -> setProgress((int) progress), this::isCancelled);
+            }
+
+            @Override
+            protected void done() {
+                if (compareWorker != this) {
+                    // Replaced by a newer comparison
+                    return;
+                }
+                compareWorker = null;
+                cancelButton.setEnabled(false);
+                progressBar.setVisible(false);
+                refreshButton.setEnabled(true);
+                if (isCancelled()) {
+                    statusLabel.setText("comparison cancelled");
+                    return;
+                }
+                try {
+                    showResults(get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    assert ExceptionUtil.printStackTrace(e);
+                    statusLabel.setText("comparison failed: " + e.getCause());
+                }
+            }
+        };
+        worker.addPropertyChangeListener(evt -> {
+            if ("progress".equals(evt.getPropertyName())) {
+                progressBar.setValue((Integer) evt.getNewValue());
+            }
+        });
+        compareWorker = worker;
+        worker.execute();
+    }
+
+    /**
+     * Stop the comparison in progress, if any
+     */
+    private void cancelCompare() {
+        if (compareWorker != null) {
+            compareWorker.cancel(false);
+        }
     }
 
     /**
-     * Compare method, to be done in separate thread
+     * Show the results of a comparison
+     *
+     * @param results results of comparison, or null if cancelled
      */
-    private void doCompare() {
-        CompareResults results = Comparer.compare(files[0], files[1]);
+    private void showResults(CompareResults results) {
+        if (results == null) {
+            statusLabel.setText("comparison cancelled");
+            return;
+        }
         tableModel.setEntryList(results.getEntryList());
+        table.setSortable(true);
+        // The first changed classes are decompiled before any selection
+        prefetchAround(0);
         final boolean archivesDifferent = (results.getStatus() == EntryDetails.EntryStatus.CHANGED_SIZE);
         if (archivesDifferent) {
             statusLabel.setText("Archives have different size (" + results.getSize(0) + ", " + results.getSize(1) + ")");
@@ -293,12 +447,13 @@ public class CompareWindow {
         detailsDisplays[1].setContents(files[1], results, 1);
         if (results.getEntriesDifferent()) {
             statusLabel2.setText((archivesDifferent ? "and" : "but") + " the files have different contents");
+        } else if (results.getEntriesDebugDifferent()) {
+            statusLabel2.setText((archivesDifferent ? "but" : "and") + " the classes only differ in their debug information");
         } else if (results.isEntriesCRCChecked()) {
             statusLabel2.setText((archivesDifferent ? "but" : "and") + " the files have exactly the same contents");
         } else {
             statusLabel2.setText((archivesDifferent ? "but" : "and") + " the files appear to have the same contents");
         }
-        refreshButton.setEnabled(true);
     }
 
     /**
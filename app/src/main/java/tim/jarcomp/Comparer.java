@@ -1,19 +1,62 @@
 package tim.jarcomp;
 
+import org.jd.gui.util.conversion.DexClassFiles;
+import org.jd.gui.util.conversion.DexToJarConversionKit;
+
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleConsumer;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 /**
  * Class to do the actual comparison of jar files, populating a list of
- * EntryDetails objects
+ * EntryDetails objects.
+ * <p>
+ * The entries of both archives are read from their central directories into
+ * maps keyed by entry name, then compared by size and CRC checksum in
+ * parallel on the fork-join pool running the comparison, the common pool
+ * unless called from a task of another pool. Class files which differ are then
+ * read to tell API changes from body and debug information changes, and
+ * nested archives which differ, such as the libraries of a war file, are
+ * compared recursively. Dex files which differ, such as the ones of an apk
+ * file, are translated to class files and compared class by class.
  */
 public final class Comparer {
 
+    /** Separator between the name of a nested archive and the name of one of its entries */
+    public static final String NESTED_SEPARATOR = "!/";
+
+    /** Number of entries between two progress updates */
+    private static final int PROGRESS_STEP = 1024;
+    /** Maximum depth of nested archives, against archives nesting themselves */
+    private static final int MAX_DEPTH = 4;
+    /** Extensions of the entries compared as nested archives */
+    private static final String[] ARCHIVE_EXTENSIONS = { ".jar", ".war", ".ear", ".zip", ".apk" };
+    /** Extension of the entries compared as dex files */
+    private static final String DEX_EXTENSION = ".dex";
+
     private Comparer() {
     }
 
@@ -23,108 +66,347 @@ public final class Comparer {
      * @param inFile1 first file
      * @param inFile2 second file
      * @return results of comparison
+     * @throws IOException if either file cannot be read as an archive
+     */
+    public static CompareResults compare(File inFile1, File inFile2) throws IOException {
+        return compare(inFile1, inFile2, _ -> {}, () -> false);
+    }
+
+    /**
+     * Compare the two given files and return the results
+     *
+     * @param inFile1             first file
+     * @param inFile2             second file
+     * @param setProgressFunction receives the progress, from 0 to 100
+     * @param isCancelledFunction polled to stop the comparison early
+     * @return results of comparison, or null if cancelled
+     * @throws IOException if either file cannot be read as an archive
      */
-    public static CompareResults compare(File inFile1, File inFile2) {
+    public static CompareResults compare(File inFile1, File inFile2, DoubleConsumer setProgressFunction, BooleanSupplier isCancelledFunction) throws IOException {
         // Make results object and compare file sizes
         CompareResults results = new CompareResults();
         results.setSize(0, inFile1.length());
         results.setSize(1, inFile2.length());
-        // Make empty list
-        ArrayList<EntryDetails> entryList = new ArrayList<>();
-        // load first file, make entrydetails object for each one
-        final int numFiles1 = makeEntries(entryList, inFile1, 0);
-        results.setNumFiles(0, numFiles1);
-        // load second file, try to find entrydetails for each file or make new one
-        final int numFiles2 = makeEntries(entryList, inFile2, 1);
-        results.setNumFiles(1, numFiles2);
-        results.setEntryList(entryList);
-
-        // Check CRC checksums as it's necessary
-        collectCRCChecksums(results, inFile1, 0);
-        collectCRCChecksums(results, inFile2, 1);
+
+        // Load both central directories at the same time
+        CompletableFuture<ZipFile> zip1Future = CompletableFuture.supplyAsync(() -> {
+            try {
+                return open(inFile1);
+            } catch (IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            }
+        }, currentPool());
+        ZipFile zip1 = null;
+        ZipFile zip2 = null;
+
+        try {
+            zip2 = open(inFile2);
+            zip1 = join(zip1Future);
+            Map<String, ZipEntry> entries1 = readEntries(zip1);
+            Map<String, ZipEntry> entries2 = readEntries(zip2);
+            results.setNumFiles(0, entries1.size());
+            results.setNumFiles(1, entries2.size());
+            results.setEntryList(compareEntries("", 0, zip1, entries1, zip2, entries2, setProgressFunction, isCancelledFunction));
+        } catch (CancellationException _) {
+            return null;
+        } finally {
+            if (zip1 == null) {
+                // The second file failed first, the first one is closed once opened
+                zip1Future.thenAccept(Comparer::close);
+            }
+            close(zip1);
+            close(zip2);
+        }
+
+        setProgressFunction.accept(100D);
         return results;
     }
 
-    // TODO: Maybe we need to add an option to ignore path, just look at filenames?
+    /**
+     * Compare the entries of two archives
+     *
+     * @param inPrefix            name of the nested archive followed by the separator, or empty
+     * @param inDepth             depth of nesting, 0 for the compared files
+     * @param setProgressFunction receives the progress, from 0 to 100
+     * @param isCancelledFunction polled to stop the comparison early
+     * @return entries of both archives
+     * @throws CancellationException if cancelled
+     */
+    private static List<EntryDetails> compareEntries(String inPrefix, int inDepth, ZipFile inZip1, Map<String, ZipEntry> inEntries1,
+            ZipFile inZip2, Map<String, ZipEntry> inEntries2, DoubleConsumer setProgressFunction, BooleanSupplier isCancelledFunction) {
+        if (isCancelledFunction.getAsBoolean()) {
+            throw new CancellationException();
+        }
+
+        // Entries of the first file, then the ones added in the second file
+        Set<String> nameSet = new LinkedHashSet<>(inEntries1.keySet());
+        nameSet.addAll(inEntries2.keySet());
+        nameSet.removeIf(name -> name.endsWith("/"));
+        // An array list is split evenly between the workers
+        List<String> names = new ArrayList<>(nameSet);
+
+        int total = names.size();
+        AtomicInteger done = new AtomicInteger();
+
+        return names.parallelStream().map(name -> {
+            if (isCancelledFunction.getAsBoolean()) {
+                throw new CancellationException();
+            }
+            ZipEntry entry1 = inEntries1.get(name);
+            ZipEntry entry2 = inEntries2.get(name);
+            EntryDetails details = makeEntry(inPrefix + name, inZip1, entry1, inZip2, entry2);
+            if (inDepth < MAX_DEPTH && entry1 != null && entry2 != null && details.isChanged() && (isArchive(name) || isDex(name))) {
+                details.setNestedEntries(compareNested(details.getName(), inDepth + 1, inZip1, entry1, inZip2, entry2, isCancelledFunction));
+            }
+            int count = done.incrementAndGet();
+            if (count % PROGRESS_STEP == 0) {
+                setProgressFunction.accept(100D * count / total);
+            }
+            return details;
+        }).toList();
+    }
 
     /**
-     * Make entrydetails objects for each entry in the given file and put in list
+     * Compare the entries of two versions of a nested archive or dex file,
+     * extracted to temporary files to read their central directories or
+     * their class lists
      *
-     * @param inList  list of entries so far
-     * @param inFile  zip/jar file to search through
-     * @param inIndex 0 for first file, 1 for second
-     * @return number of files found
+     * @return entries of both versions, or null if they cannot be read
      */
-    private static int makeEntries(ArrayList<EntryDetails> inList, File inFile, int inIndex) {
-        boolean checkList = (!inList.isEmpty());
-        int numFiles = 0;
-        try (ZipFile zip = new ZipFile(inFile)) {
-            Enumeration<?> zipEntries = zip.entries();
-            while (zipEntries.hasMoreElements()) {
-                ZipEntry ze = (ZipEntry) zipEntries.nextElement();
-                numFiles++;
-                String name = ze.getName();
-                EntryDetails details = null;
-                if (checkList) {
-                    details = getEntryFromList(inList, name);
-                }
-                // Construct new details object if necessary
-                if (details == null) {
-                    details = new EntryDetails();
-                    details.setName(name);
-                    if (!name.endsWith("/") && !name.contains("$")) {
-                        inList.add(details);
-                    }
+    private static List<EntryDetails> compareNested(String inName, int inDepth, ZipFile inZip1, ZipEntry inEntry1,
+            ZipFile inZip2, ZipEntry inEntry2, BooleanSupplier isCancelledFunction) {
+        Path tmpFile1 = null;
+        Path tmpFile2 = null;
+        try {
+            tmpFile1 = extract(inZip1, inEntry1);
+            tmpFile2 = extract(inZip2, inEntry2);
+            if (isDex(inName)) {
+                return compareDex(inName + NESTED_SEPARATOR, DexToJarConversionKit.read(tmpFile1.toFile()), DexToJarConversionKit.read(tmpFile2.toFile()),
+                        isCancelledFunction);
+            }
+            try (ZipFile nestedZip1 = new ZipFile(tmpFile1.toFile());
+                 ZipFile nestedZip2 = new ZipFile(tmpFile2.toFile())) {
+                return compareEntries(inName + NESTED_SEPARATOR, inDepth, nestedZip1, readEntries(nestedZip1), nestedZip2, readEntries(nestedZip2),
+                        _ -> {}, isCancelledFunction);
+            }
+        } catch (CancellationException e) {
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            // Not a valid archive or dex file, only compared by size and checksum
+            System.err.println(inName + ": " + e);
+            return null;
+        } finally {
+            delete(tmpFile1);
+            delete(tmpFile2);
+        }
+    }
+
+    /**
+     * Compare the classes of two versions of a dex file
+     *
+     * @param inPrefix            name of the dex file followed by the separator
+     * @param isCancelledFunction polled to stop the comparison early
+     * @return classes of both versions
+     * @throws CancellationException if cancelled
+     */
+    private static List<EntryDetails> compareDex(String inPrefix, DexClassFiles inClassFiles1, DexClassFiles inClassFiles2, BooleanSupplier isCancelledFunction) {
+        Set<String> nameSet = new LinkedHashSet<>(inClassFiles1.getPaths());
+        nameSet.addAll(inClassFiles2.getPaths());
+        List<String> names = new ArrayList<>(nameSet);
+
+        return names.parallelStream().map(name -> {
+            if (isCancelledFunction.getAsBoolean()) {
+                throw new CancellationException();
+            }
+            EntryDetails details = new EntryDetails();
+            details.setName(inPrefix + name);
+            byte[] classFile1 = readClassFile(inClassFiles1, name, details, 0);
+            byte[] classFile2 = readClassFile(inClassFiles2, name, details, 1);
+            if (classFile1 != null && classFile2 != null && classFile1.length == classFile2.length) {
+                details.setCRCChecksum(0, crc(classFile1));
+                details.setCRCChecksum(1, crc(classFile2));
+            }
+            if (classFile1 != null && classFile2 != null && details.isChanged()) {
+                try {
+                    details.setClassChange(ClassSignature.compare(classFile1, classFile2));
+                } catch (IllegalArgumentException e) {
+                    System.err.println(e);
                 }
-                // set size
-                details.setSize(inIndex, ze.getSize());
             }
+            return details;
+        }).toList();
+    }
+
+    /**
+     * Translate a class of a dex file, setting its size in the entry details
+     *
+     * @return class file, or null if missing or not translated
+     */
+    private static byte[] readClassFile(DexClassFiles inClassFiles, String inPath, EntryDetails inDetails, int inIndex) {
+        if (!inClassFiles.getPaths().contains(inPath)) {
+            return null;
+        }
+        try {
+            byte[] classFile = inClassFiles.getClassFile(inPath);
+            inDetails.setSize(inIndex, classFile.length);
+            return classFile;
         } catch (IOException ioe) {
             System.err.println(ioe);
+            // Not reported as equal to another failed translation
+            inDetails.setUnreadable(inIndex);
+            return null;
         }
-        return numFiles;
+    }
+
+    private static long crc(byte[] inBytes) {
+        CRC32 crc = new CRC32();
+        crc.update(inBytes);
+        return crc.getValue();
+    }
+
+    /**
+     * @param inName entry name
+     * @return true if the entry is compared as a dex file
+     */
+    public static boolean isDex(String inName) {
+        return inName.toLowerCase(Locale.ROOT).endsWith(DEX_EXTENSION);
     }
 
     /**
-     * Look up the given name in the list
+     * @param inName entry name
+     * @return true if the entry is compared as a nested archive
+     */
+    public static boolean isArchive(String inName) {
+        String name = inName.toLowerCase(Locale.ROOT);
+        for (String extension : ARCHIVE_EXTENSIONS) {
+            if (name.endsWith(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Path extract(ZipFile inZip, ZipEntry inEntry) throws IOException {
+        Path tmpFile = Files.createTempFile("jarcomp", ".zip");
+        try (InputStream in = inZip.getInputStream(inEntry)) {
+            Files.copy(in, tmpFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ioe) {
+            delete(tmpFile);
+            throw ioe;
+        }
+        return tmpFile;
+    }
+
+    private static void delete(Path inFile) {
+        if (inFile != null) {
+            try {
+                Files.deleteIfExists(inFile);
+            } catch (IOException ioe) {
+                System.err.println(ioe);
+            }
+        }
+    }
+
+    // TODO: Maybe we need to add an option to ignore path, just look at filenames?
+
+    /**
+     * @return pool of the calling task, bounding the parallelism of the comparison, or the common pool
+     */
+    private static ForkJoinPool currentPool() {
+        ForkJoinPool pool = ForkJoinTask.getPool();
+        return pool != null ? pool : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Open the given file, reading its central directory
      *
-     * @param inList list of EntryDetails objects
-     * @param inName name to look up
+     * @param inFile zip/jar file to open
+     * @return opened file
+     * @throws IOException if the file cannot be read, naming the file
      */
-    private static EntryDetails getEntryFromList(ArrayList<EntryDetails> inList, String inName) {
-        EntryDetails details = null;
-        for (EntryDetails element : inList) {
-            details = element;
-            if (details.getName() != null && details.getName().equals(inName)) {
-                return details;
+    private static ZipFile open(File inFile) throws IOException {
+        try {
+            return new ZipFile(inFile);
+        } catch (IOException ioe) {
+            throw new IOException("Cannot read " + inFile + ": " + ioe.getMessage(), ioe);
+        }
+    }
+
+    /**
+     * @return file opened by the given task
+     * @throws IOException if the file cannot be read
+     */
+    private static ZipFile join(CompletableFuture<ZipFile> inFuture) throws IOException {
+        try {
+            return inFuture.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException uioe) {
+                throw uioe.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static void close(ZipFile inZip) {
+        if (inZip != null) {
+            try {
+                inZip.close();
+            } catch (IOException ioe) {
+                System.err.println(ioe);
             }
         }
-        return null;
     }
 
     /**
-     * Collect the CRC checksums of all relevant entries
+     * Read the entries of the given file, by name
      *
-     * @param inResults results from preliminary check
-     * @param inFile    file to read
-     * @param inIndex   0 or 1
+     * @param inZip zip/jar file to search through
+     * @return entries by name, in archive order
      */
-    private static void collectCRCChecksums(CompareResults inResults, File inFile, int inIndex) {
-        List<EntryDetails> list = inResults.getEntryList();
-        try (ZipFile zip = new ZipFile(inFile)) {
-            for (EntryDetails entry : list) {
-                if (entry.getStatus() == EntryDetails.EntryStatus.SAME_SIZE) {
-                    // Must be present in both archives if size is the same
-                    ZipEntry zipEntry = zip.getEntry(entry.getName());
-                    if (zipEntry == null) {
-                        System.err.println("zipEntry for " + entry.getName() + " shouldn't be null!");
-                    } else {
-                        entry.setCRCChecksum(inIndex, zipEntry.getCrc());
-                    }
-                }
+    private static Map<String, ZipEntry> readEntries(ZipFile inZip) {
+        Map<String, ZipEntry> entries = new LinkedHashMap<>();
+        Enumeration<? extends ZipEntry> zipEntries = inZip.entries();
+        while (zipEntries.hasMoreElements()) {
+            ZipEntry ze = zipEntries.nextElement();
+            entries.putIfAbsent(ze.getName(), ze);
+        }
+        return entries;
+    }
+
+    /**
+     * Make the entrydetails object of an entry of either file
+     *
+     * @param inName   entry name
+     * @param inZip1   first file
+     * @param inEntry1 entry in the first file, or null
+     * @param inZip2   second file
+     * @param inEntry2 entry in the second file, or null
+     */
+    private static EntryDetails makeEntry(String inName, ZipFile inZip1, ZipEntry inEntry1, ZipFile inZip2, ZipEntry inEntry2) {
+        EntryDetails details = new EntryDetails();
+        details.setName(inName);
+        if (inEntry1 != null) {
+            details.setSize(0, inEntry1.getSize());
+        }
+        if (inEntry2 != null) {
+            details.setSize(1, inEntry2.getSize());
+        }
+        // The CRC checksums come with the central directory, no need to read the contents
+        if (inEntry1 != null && inEntry2 != null && inEntry1.getSize() == inEntry2.getSize()
+                && inEntry1.getCrc() != -1 && inEntry2.getCrc() != -1) {
+            details.setCRCChecksum(0, inEntry1.getCrc());
+            details.setCRCChecksum(1, inEntry2.getCrc());
+        }
+        // Only the class files which differ are read, to classify the change
+        if (inName.endsWith(".class") && details.isChanged() && inEntry1 != null && inEntry2 != null) {
+            try (InputStream in1 = inZip1.getInputStream(inEntry1);
+                 InputStream in2 = inZip2.getInputStream(inEntry2)) {
+                details.setClassChange(ClassSignature.compare(in1.readAllBytes(), in2.readAllBytes()));
+            } catch (IOException | IllegalArgumentException e) {
+                // Not a valid class file, only compared by size and checksum
+                System.err.println(e);
             }
-        } catch (Exception e) {
-            System.err.println(e);
         }
+        return details;
     }
 }
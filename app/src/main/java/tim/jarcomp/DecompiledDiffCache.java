@@ -0,0 +1,192 @@
+package tim.jarcomp;
+
+import org.jd.util.LRUCache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class to decompile both versions of the changed classes in the background,
+ * into a bounded cache, so that showing their differences does not wait.
+ * <p>
+ * The requested entry is decompiled first, then the entries prefetched around
+ * the selected row, nearest first. Prefetched entries which are still queued
+ * when the selection moves are dropped in favour of the new neighbours.
+ */
+final class DecompiledDiffCache {
+
+    /** Maximum number of decompiled entries kept */
+    private static final int MAX_ENTRIES = 64;
+    /** Priority of the entries waited for */
+    private static final int URGENT = -1;
+    /** Idle time after which the worker threads stop */
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    /** Decompiled versions of an entry in both archives */
+    record Diff(String left, String right) {
+    }
+
+    /** Decompiles both versions of an entry */
+    @FunctionalInterface
+    interface Decompiler {
+        Diff decompile(String entryName) throws Exception;
+    }
+
+    /** Decompiler of the compared files, captured by the tasks when they are queued */
+    private Decompiler decompiler;
+    private final Map<String, CompletableFuture<Diff>> cache = Collections.synchronizedMap(new LRUCache<>(MAX_ENTRIES));
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong sequence = new AtomicLong();
+    /** Entries being decompiled, which may be queued more than once */
+    private final Set<CompletableFuture<Diff>> running = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param inDecompiler decompiles both versions of an entry, from the worker threads
+     */
+    DecompiledDiffCache(Decompiler inDecompiler) {
+        this(inDecompiler, Math.clamp(Runtime.getRuntime().availableProcessors() / 2, 1, 4));
+    }
+
+    /**
+     * @param inDecompiler decompiles both versions of an entry, from the worker threads
+     * @param threads      number of worker threads
+     */
+    DecompiledDiffCache(Decompiler inDecompiler, int threads) {
+        decompiler = inDecompiler;
+        executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new PriorityBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "diff-decompiler");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * @param inEntryName entry name
+     * @return decompiled versions of the entry, decompiled before the prefetched ones if not done yet
+     */
+    synchronized CompletableFuture<Diff> get(String inEntryName) {
+        return schedule(inEntryName, URGENT);
+    }
+
+    /**
+     * Decompile the given entries in the background, replacing the entries
+     * prefetched before which are not started yet
+     *
+     * @param inEntryNames entry names, by decreasing priority
+     */
+    synchronized void prefetch(List<String> inEntryNames) {
+        List<Runnable> queued = new ArrayList<>();
+        executor.getQueue().drainTo(queued);
+
+        Set<CompletableFuture<Diff>> urgentFutures = new HashSet<>();
+        for (Runnable runnable : queued) {
+            Task task = (Task) runnable;
+            if (task.priority == URGENT) {
+                urgentFutures.add(task.future);
+                executor.execute(task);
+            }
+        }
+        for (Runnable runnable : queued) {
+            Task task = (Task) runnable;
+            if (task.priority != URGENT && !urgentFutures.contains(task.future) && !inEntryNames.contains(task.entryName)) {
+                // Not needed anymore: requested again when the selection comes back
+                cache.remove(task.entryName, task.future);
+                task.future.cancel(false);
+            }
+        }
+
+        // The entries still needed are queued again with their new priority
+        for (int i = 0; i < inEntryNames.size(); i++) {
+            schedule(inEntryNames.get(i), i);
+        }
+    }
+
+    /**
+     * Forget the decompiled entries, the compared files having changed
+     *
+     * @param inDecompiler decompiles both versions of an entry of the new compared files
+     */
+    synchronized void clear(Decompiler inDecompiler) {
+        clear();
+        decompiler = inDecompiler;
+    }
+
+    /**
+     * Forget the decompiled entries, the compared files having changed
+     */
+    synchronized void clear() {
+        List<Runnable> queued = new ArrayList<>();
+        executor.getQueue().drainTo(queued);
+        for (Runnable runnable : queued) {
+            ((Task) runnable).future.cancel(false);
+        }
+        cache.clear();
+    }
+
+    private CompletableFuture<Diff> schedule(String inEntryName, int inPriority) {
+        CompletableFuture<Diff> future = cache.get(inEntryName);
+        if (future == null || future.isCancelled()) {
+            future = new CompletableFuture<>();
+            cache.put(inEntryName, future);
+            executor.execute(new Task(decompiler, inEntryName, inPriority, sequence.incrementAndGet(), future));
+        } else if (!future.isDone()) {
+            // Queued or running: queued again with the new priority, the first run completes it
+            executor.execute(new Task(decompiler, inEntryName, inPriority, sequence.incrementAndGet(), future));
+        }
+        return future;
+    }
+
+    /**
+     * Decompilation of an entry, ordered by priority, then latest request first
+     */
+    private final class Task implements Runnable, Comparable<Task> {
+        private final Decompiler taskDecompiler;
+        private final String entryName;
+        private final int priority;
+        private final long sequenceNumber;
+        private final CompletableFuture<Diff> future;
+
+        Task(Decompiler taskDecompiler, String entryName, int priority, long sequenceNumber, CompletableFuture<Diff> future) {
+            this.taskDecompiler = taskDecompiler;
+            this.entryName = entryName;
+            this.priority = priority;
+            this.sequenceNumber = sequenceNumber;
+            this.future = future;
+        }
+
+        @Override
+        public void run() {
+            if (future.isDone() || !running.add(future)) {
+                return;
+            }
+            try {
+                future.complete(taskDecompiler.decompile(entryName));
+            } catch (CancellationException e) {
+                future.cancel(false);
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            } finally {
+                running.remove(future);
+            }
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            int result = Integer.compare(priority, other.priority);
+            return result != 0 ? result : Long.compare(other.sequenceNumber, sequenceNumber);
+        }
+    }
+}
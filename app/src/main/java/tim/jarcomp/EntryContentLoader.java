@@ -0,0 +1,270 @@
+package tim.jarcomp;
+
+import org.apache.commons.io.IOUtils;
+import org.jd.core.v1.util.StringConstants;
+import org.jd.gui.util.conversion.DexClassFiles;
+import org.jd.gui.util.conversion.DexToJarConversionKit;
+import org.jd.gui.util.loader.LoaderUtils;
+
+import com.heliosdecompiler.transformerapi.StandardTransformers;
+import com.heliosdecompiler.transformerapi.common.Loader;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_JD_CORE_V1;
+import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_ENGINE;
+
+import jd.core.ClassUtil;
+import jd.core.DecompilationResult;
+import jd.core.preferences.Preferences;
+
+/**
+ * Class to read the compared version of an entry, decompiling class files,
+ * for the comparison view and the comparison report
+ */
+public final class EntryContentLoader {
+
+    private EntryContentLoader() {
+    }
+
+    /**
+     * @param preferences decompiler preferences, not modified
+     * @param file        compared file
+     * @param entryPath   entry name, with the names of its nested archives separated by '!/'
+     * @return decompiled class or text of the entry
+     */
+    public static String getContent(Map<String, String> preferences, File file, String entryPath)
+            throws IOException, IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+        try (Archives archives = new Archives()) {
+            return getContent(preferences, archives, file, entryPath);
+        }
+    }
+
+    /**
+     * @param preferences decompiler preferences, not modified
+     * @param archives    archives already read, shared by the entries of a comparison
+     * @param file        compared file
+     * @param entryPath   entry name, with the names of its nested archives separated by '!/'
+     * @return decompiled class or text of the entry
+     */
+    public static String getContent(Map<String, String> preferences, Archives archives, File file, String entryPath)
+            throws IOException, IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+        String[] path = entryPath.split(Comparer.NESTED_SEPARATOR);
+        String entryName = path[path.length - 1];
+        String[] archivePath = Arrays.copyOf(path, path.length - 1);
+        if (archivePath.length > 0 && Comparer.isDex(archivePath[archivePath.length - 1])) {
+            return decompile(preferences, archives.getDexLoader(file, archivePath), file, entryName);
+        }
+        Archive archive = archives.getArchive(file, archivePath);
+        if (entryName.endsWith(StringConstants.CLASS_FILE_SUFFIX)) {
+            return decompile(preferences, archive, file, entryName);
+        }
+        return new String(archive.read(entryName), StandardCharsets.UTF_8);
+    }
+
+    private static String decompile(Map<String, String> preferences, org.jd.core.v1.api.loader.Loader loader, File file, String entryName)
+            throws IOException, IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+        // Copied: decompiled from several threads, without line numbers only here
+        Map<String, String> entryPreferences = new HashMap<>(preferences);
+        entryPreferences.put(Preferences.WRITE_LINE_NUMBERS, "false");
+        entryPreferences.put(Preferences.REALIGN_LINE_NUMBERS, "false");
+        String decompileEngine = entryPreferences.getOrDefault(DECOMPILE_ENGINE, ENGINE_JD_CORE_V1);
+        Loader apiLoader = LoaderUtils.createLoader(entryPreferences, loader, file.toURI());
+        String entryInternalName = ClassUtil.getInternalName(entryName);
+        DecompilationResult decompilationResult = StandardTransformers.decompile(apiLoader, entryInternalName, entryPreferences, decompileEngine);
+        return decompilationResult.getDecompiledOutput();
+    }
+
+    /**
+     * Compared archives, opened once per archive and nesting level and shared
+     * by the entries of a comparison, from several threads. Outer archives are
+     * read in place, nested archives and dex files are kept in memory until
+     * closed.
+     */
+    public static final class Archives implements Closeable {
+        private final Map<String, FutureTask<Object>> loaded = new ConcurrentHashMap<>();
+
+        /**
+         * @param file        compared file
+         * @param archivePath names of the nested archives, empty for the compared file
+         * @return entries of the innermost archive
+         */
+        Archive getArchive(File file, String[] archivePath) throws IOException {
+            String key = file.getAbsolutePath() + Comparer.NESTED_SEPARATOR + String.join(Comparer.NESTED_SEPARATOR, archivePath);
+            if (archivePath.length == 0) {
+                return load(key, () -> new ZipFileArchive(new ZipFile(file)));
+            }
+            return load(key, () -> {
+                String[] parentPath = Arrays.copyOf(archivePath, archivePath.length - 1);
+                byte[] nested = getArchive(file, parentPath).read(archivePath[archivePath.length - 1]);
+                return new NestedArchive(nested);
+            });
+        }
+
+        /**
+         * @param dexPath names of the nested archives, followed by the name of the dex file
+         * @return classes translated from the dex file
+         */
+        org.jd.core.v1.api.loader.Loader getDexLoader(File file, String[] dexPath) throws IOException {
+            String key = file.getAbsolutePath() + Comparer.NESTED_SEPARATOR + String.join(Comparer.NESTED_SEPARATOR, dexPath);
+            DexClassFiles classFiles = load(key, () -> {
+                String[] parentPath = Arrays.copyOf(dexPath, dexPath.length - 1);
+                byte[] dex = getArchive(file, parentPath).read(dexPath[dexPath.length - 1]);
+                Path tmpFile = Files.createTempFile("jarcomp", ".dex");
+                try {
+                    Files.write(tmpFile, dex);
+                    // Dex files are read in memory
+                    return DexToJarConversionKit.read(tmpFile.toFile());
+                } finally {
+                    Files.deleteIfExists(tmpFile);
+                }
+            });
+            return new org.jd.core.v1.api.loader.Loader() {
+                @Override
+                public boolean canLoad(String internalName) {
+                    return classFiles.getPaths().contains(internalName + StringConstants.CLASS_FILE_SUFFIX);
+                }
+
+                @Override
+                public byte[] load(String internalName) throws IOException {
+                    return classFiles.getClassFile(internalName + StringConstants.CLASS_FILE_SUFFIX);
+                }
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T load(String key, Callable<T> loader) throws IOException {
+            FutureTask<Object> task = new FutureTask<>(loader::call);
+            FutureTask<Object> previous = loaded.putIfAbsent(key, task);
+            if (previous != null) {
+                task = previous;
+            }
+            // No-op when another thread is already loading it or has loaded it
+            task.run();
+            try {
+                return (T) task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while reading " + key, e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException ioe) {
+                    throw ioe;
+                }
+                throw new IOException("Cannot read " + key, e.getCause());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (FutureTask<Object> task : loaded.values()) {
+                try {
+                    if (task.isDone() && task.get() instanceof ZipFileArchive archive) {
+                        archive.zipFile.close();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    // Not opened
+                }
+            }
+            loaded.clear();
+        }
+    }
+
+    /**
+     * Entries of an archive, loading its class files for the decompiler
+     */
+    private abstract static class Archive implements org.jd.core.v1.api.loader.Loader {
+
+        abstract boolean contains(String name);
+
+        /**
+         * @return contents of the entry
+         * @throws FileNotFoundException if the archive has no such entry
+         */
+        abstract byte[] read(String name) throws IOException;
+
+        @Override
+        public boolean canLoad(String internalName) {
+            return contains(internalName + StringConstants.CLASS_FILE_SUFFIX);
+        }
+
+        @Override
+        public byte[] load(String internalName) throws IOException {
+            String name = internalName + StringConstants.CLASS_FILE_SUFFIX;
+            return contains(name) ? read(name) : null;
+        }
+    }
+
+    private static final class ZipFileArchive extends Archive {
+        private final ZipFile zipFile;
+
+        private ZipFileArchive(ZipFile zipFile) {
+            this.zipFile = zipFile;
+        }
+
+        @Override
+        boolean contains(String name) {
+            return zipFile.getEntry(name) != null;
+        }
+
+        @Override
+        byte[] read(String name) throws IOException {
+            ZipEntry zipEntry = zipFile.getEntry(name);
+            if (zipEntry == null) {
+                throw new FileNotFoundException(name);
+            }
+            try (InputStream in = zipFile.getInputStream(zipEntry)) {
+                return IOUtils.toByteArray(in);
+            }
+        }
+    }
+
+    private static final class NestedArchive extends Archive {
+        private final Map<String, byte[]> entries = new HashMap<>();
+
+        private NestedArchive(byte[] archive) throws IOException {
+            try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(archive))) {
+                ZipEntry zipEntry;
+                while ((zipEntry = zis.getNextEntry()) != null) {
+                    if (!zipEntry.isDirectory()) {
+                        entries.put(zipEntry.getName(), IOUtils.toByteArray(zis));
+                    }
+                }
+            }
+        }
+
+        @Override
+        boolean contains(String name) {
+            return entries.containsKey(name);
+        }
+
+        @Override
+        byte[] read(String name) throws IOException {
+            byte[] contents = entries.get(name);
+            if (contents == null) {
+                throw new FileNotFoundException(name);
+            }
+            return contents;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package tim.jarcomp;
 
+import java.util.List;
+
 /**
  * Class to represent a single entry in the jar file for displaying in the
  * comparison table
@@ -13,6 +15,14 @@ public class EntryDetails {
     private long[] sizes = new long[2];
     /** CRC checksums in both archives */
     private long[] crcCheckSums = new long[2];
+    /** Flags to show if the CRC checksums are known, as zero is a valid checksum */
+    private boolean[] crcChecked = new boolean[2];
+    /** Flags to show if the file could not be read or translated */
+    private boolean[] unreadable = new boolean[2];
+    /** Kind of bytecode difference, for class files which differ */
+    private ClassSignature.ClassChange classChange;
+    /** Entries of both versions, for nested archives which differ */
+    private List<EntryDetails> nestedEntries;
     /** SizeChange */
     private SizeChange sizeChange = new SizeChange();
 
@@ -28,6 +38,14 @@ public class EntryDetails {
         SAME_SIZE,
         /** File checksum different */
         CHANGED_SUM,
+        /** Class declarations different */
+        CHANGED_API,
+        /** Class declarations same, method bodies different */
+        CHANGED_BODY,
+        /** Class bytecode same, debug information different */
+        CHANGED_DEBUG,
+        /** File could not be read or translated in one of the archives */
+        UNREADABLE,
         /** Files really equal */
         EQUAL
     }
@@ -88,6 +106,7 @@ public class EntryDetails {
     public void setCRCChecksum(int inIndex, long inCRCChecksum) {
         if (inIndex == 0 || inIndex == 1) {
             crcCheckSums[inIndex] = inCRCChecksum;
+            crcChecked[inIndex] = true;
             sizeChange.update(sizes[1] - sizes[0], isChanged());
         }
     }
@@ -96,7 +115,49 @@ public class EntryDetails {
      * @return true if CRC checksums have been generated for this entry
      */
     public boolean isCRCChecked() {
-        return (crcCheckSums[0] != 0 && crcCheckSums[1] != 0);
+        return crcChecked[0] && crcChecked[1];
+    }
+
+    /**
+     * @return kind of bytecode difference, or null if not classified
+     */
+    public ClassSignature.ClassChange getClassChange() {
+        return classChange;
+    }
+
+    /**
+     * @param inClassChange kind of bytecode difference between the two class files
+     */
+    public void setClassChange(ClassSignature.ClassChange inClassChange) {
+        classChange = inClassChange;
+        sizeChange.update(sizes[1] - sizes[0], isChanged());
+    }
+
+    /**
+     * @return entries of both versions of this nested archive, or null if not compared
+     */
+    public List<EntryDetails> getNestedEntries() {
+        return nestedEntries;
+    }
+
+    /**
+     * Mark the file as present but unreadable in the corresponding archive
+     *
+     * @param inIndex index, either 0 or 1
+     */
+    public void setUnreadable(int inIndex) {
+        if (inIndex == 0 || inIndex == 1) {
+            unreadable[inIndex] = true;
+            present[inIndex] = true;
+            sizeChange.update(sizes[1] - sizes[0], isChanged());
+        }
+    }
+
+    /**
+     * @param inNestedEntries entries of both versions of this nested archive
+     */
+    public void setNestedEntries(List<EntryDetails> inNestedEntries) {
+        nestedEntries = inNestedEntries;
     }
 
     /**
@@ -109,8 +170,20 @@ public class EntryDetails {
         if (present[0] && !present[1]) {
             return EntryStatus.REMOVED;
         }
-        if (sizes[0] != sizes[1]) {
-            return EntryStatus.CHANGED_SIZE;
+        if (unreadable[0] || unreadable[1]) {
+            return EntryStatus.UNREADABLE;
+        }
+        if (sizes[0] != sizes[1] || isCRCChecked() && crcCheckSums[0] != crcCheckSums[1]) {
+            if (classChange != null) {
+                return switch (classChange) {
+                    case API -> EntryStatus.CHANGED_API;
+                    case BODY -> EntryStatus.CHANGED_BODY;
+                    case DEBUG -> EntryStatus.CHANGED_DEBUG;
+                };
+            }
+            if (sizes[0] != sizes[1]) {
+                return EntryStatus.CHANGED_SIZE;
+            }
         }
         if (!isCRCChecked()) {
             return EntryStatus.SAME_SIZE;
@@ -141,6 +214,6 @@ public class EntryDetails {
      */
     public boolean isChanged() {
         EntryStatus status = getStatus();
-        return status != EntryStatus.SAME_SIZE && status != EntryStatus.EQUAL;
+        return status != EntryStatus.SAME_SIZE && status != EntryStatus.EQUAL && status != EntryStatus.CHANGED_DEBUG;
     }
 }
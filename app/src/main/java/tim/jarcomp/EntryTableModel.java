@@ -1,26 +1,37 @@
 package tim.jarcomp;
 
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import javax.swing.table.AbstractTableModel;
 
 import tim.jarcomp.EntryDetails.EntryStatus;
 
 /**
- * Class to hold the table model for the comparison table
+ * Class to hold the table model for the comparison table.
+ * Nested archives are shown as expandable rows, followed by their entries
+ * when expanded.
  */
 public class EntryTableModel extends AbstractTableModel {
     private static final long serialVersionUID = 1L;
 
     /** list of entries */
     private transient List<EntryDetails> entries;
+    /** list of displayed rows, entries of the expanded nested archives included */
+    private transient List<EntryDetails> rows;
+    /** nested archives currently expanded */
+    private transient Set<EntryDetails> expanded = new HashSet<>();
 
     /**
      * Clear list to start a new comparison
      */
     public void reset() {
         entries = new ArrayList<>();
+        rows = entries;
+        expanded.clear();
     }
 
     /**
@@ -30,9 +41,88 @@ public class EntryTableModel extends AbstractTableModel {
      */
     public void setEntryList(List<EntryDetails> inList) {
         entries = inList;
+        expanded.clear();
+        rows = inList;
         fireTableDataChanged();
     }
 
+    /**
+     * @param inRowNum row number
+     * @return entry at specified row, or null
+     */
+    public EntryDetails getEntry(int inRowNum) {
+        if (inRowNum >= 0 && inRowNum < getRowCount()) {
+            return rows.get(inRowNum);
+        }
+        return null;
+    }
+
+    /**
+     * @return true if specified row is a nested archive whose entries can be shown
+     */
+    public boolean isExpandable(int inRowNum) {
+        EntryDetails entry = getEntry(inRowNum);
+        return entry != null && entry.getNestedEntries() != null;
+    }
+
+    /**
+     * Show or hide the entries of the nested archive at specified row
+     */
+    public void toggleExpanded(int inRowNum) {
+        if (isExpandable(inRowNum)) {
+            EntryDetails entry = rows.get(inRowNum);
+            if (!expanded.remove(entry)) {
+                expanded.add(entry);
+            }
+            List<EntryDetails> newRows = new ArrayList<>();
+            addRows(entries, newRows);
+            rows = newRows;
+            fireTableDataChanged();
+        }
+    }
+
+    /**
+     * @return true if the entries of a nested archive are shown
+     */
+    public boolean hasExpandedRows() {
+        return !expanded.isEmpty();
+    }
+
+    /**
+     * Put the given entries first, in the given order, followed by the other
+     * ones in their current order
+     *
+     * @param inEntries entries of the top level
+     */
+    public void reorder(List<EntryDetails> inEntries) {
+        Set<EntryDetails> reordered = new LinkedHashSet<>(inEntries);
+        reordered.addAll(entries);
+        entries = new ArrayList<>(reordered);
+        List<EntryDetails> newRows = new ArrayList<>();
+        addRows(entries, newRows);
+        rows = newRows;
+        fireTableDataChanged();
+    }
+
+    /**
+     * @return row of the given entry, or -1
+     */
+    public int getRow(EntryDetails inEntry) {
+        return rows.indexOf(inEntry);
+    }
+
+    /**
+     * Add the given entries to the rows, followed by the entries of the expanded ones
+     */
+    private void addRows(List<EntryDetails> inEntries, List<EntryDetails> outRows) {
+        for (EntryDetails entry : inEntries) {
+            outRows.add(entry);
+            if (expanded.contains(entry)) {
+                addRows(entry.getNestedEntries(), outRows);
+            }
+        }
+    }
+
     /**
      * @return number of columns in table
      */
@@ -72,10 +162,10 @@ public class EntryTableModel extends AbstractTableModel {
      */
     @Override
     public int getRowCount() {
-        if (entries == null) {
+        if (rows == null) {
             return 0;
         }
-        return entries.size();
+        return rows.size();
     }
 
     /**
@@ -84,9 +174,9 @@ public class EntryTableModel extends AbstractTableModel {
     @Override
     public Object getValueAt(int inRowNum, int inColNum) {
         if (inRowNum >= 0 && inRowNum < getRowCount()) {
-            EntryDetails entry = entries.get(inRowNum);
+            EntryDetails entry = rows.get(inRowNum);
             return switch (inColNum) {
-                case 0 -> entry.getName();
+                case 0 -> getText(entry);
                 case 1 -> getText(entry.getStatus());
                 case 2 -> entry.getSizeChange();
                 default -> throw new IllegalArgumentException("Parameter out of range for getValueAt(...) " + inColNum);
@@ -95,6 +185,26 @@ public class EntryTableModel extends AbstractTableModel {
         return null;
     }
 
+    /**
+     * Convert an entry name into text, indented below its nested archive
+     *
+     * @param inEntry entry
+     * @return displayable text
+     */
+    private String getText(EntryDetails inEntry) {
+        String name = inEntry.getName();
+        int separator = name.lastIndexOf(Comparer.NESTED_SEPARATOR);
+        if (separator == -1 && inEntry.getNestedEntries() == null) {
+            return name;
+        }
+        int depth = name.split(Comparer.NESTED_SEPARATOR, -1).length - 1;
+        StringBuilder text = new StringBuilder("    ".repeat(depth));
+        if (inEntry.getNestedEntries() != null) {
+            text.append(expanded.contains(inEntry) ? "\u25BE " : "\u25B8 ");
+        }
+        return text.append(separator == -1 ? name : name.substring(separator + Comparer.NESTED_SEPARATOR.length())).toString();
+    }
+
     /**
      * Convert an entry status into text
      *
@@ -106,9 +216,13 @@ public class EntryTableModel extends AbstractTableModel {
             case ADDED -> "Right only";
             case CHANGED_SIZE -> "Changed size";
             case CHANGED_SUM -> "Changed sum";
+            case CHANGED_API -> "Changed API";
+            case CHANGED_BODY -> "Changed body";
+            case CHANGED_DEBUG -> "Debug info only";
             case EQUAL -> "=";
             case REMOVED -> "Left only";
             case SAME_SIZE -> "Same size";
+            case UNREADABLE -> "Unreadable";
             default -> inStatus.toString();
         };
     }
@@ -118,7 +232,7 @@ public class EntryTableModel extends AbstractTableModel {
      */
     public boolean areDifferent(int inRowNum) {
         if (inRowNum >= 0 && inRowNum < getRowCount()) {
-            return entries.get(inRowNum).isChanged();
+            return rows.get(inRowNum).isChanged();
         }
         return false;
     }
@@ -128,9 +242,9 @@ public class EntryTableModel extends AbstractTableModel {
      */
     public boolean isModification(int inRowNum) {
         if (inRowNum >= 0 && inRowNum < getRowCount()) {
-            return switch (entries.get(inRowNum).getStatus()) {
-                case ADDED, REMOVED, EQUAL, SAME_SIZE -> false;
-                case CHANGED_SIZE, CHANGED_SUM -> true;
+            return switch (rows.get(inRowNum).getStatus()) {
+                case ADDED, REMOVED, EQUAL, SAME_SIZE, CHANGED_DEBUG -> false;
+                case CHANGED_SIZE, CHANGED_SUM, CHANGED_API, CHANGED_BODY, UNREADABLE -> true;
                 default -> throw new IllegalArgumentException("Unknown status");
             };
         }
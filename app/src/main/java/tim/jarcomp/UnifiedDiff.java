@@ -0,0 +1,212 @@
+package tim.jarcomp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class to write the differences between two texts in the unified format of
+ * diff and patch, using the algorithm of Myers on the lines which are left
+ * once the common first and last lines are set aside
+ */
+public final class UnifiedDiff {
+
+    /** Default number of unchanged lines shown around each change */
+    public static final int DEFAULT_CONTEXT = 3;
+    /** Number of differences beyond which the changed lines are replaced as a whole */
+    private static final int MAX_DIFFERENCES = 2048;
+
+    /** Line kept, removed or added */
+    private enum Kind {
+        EQUAL(' '), DELETE('-'), INSERT('+');
+
+        private final char prefix;
+
+        Kind(char prefix) {
+            this.prefix = prefix;
+        }
+    }
+
+    /**
+     * Line of the edit script
+     *
+     * @param leftLine  index of the line in the left text, or of the next one for an insertion
+     * @param rightLine index of the line in the right text, or of the next one for a deletion
+     */
+    private record Edit(Kind kind, int leftLine, int rightLine) {
+    }
+
+    private UnifiedDiff() {
+    }
+
+    /**
+     * @param inLeftName  name of the left text, in the header
+     * @param inRightName name of the right text, in the header
+     * @param inLeft      left text
+     * @param inRight     right text
+     * @param inContext   number of unchanged lines shown around each change
+     * @return differences in unified format, or an empty string if the texts have the same lines
+     */
+    public static String diff(String inLeftName, String inRightName, String inLeft, String inRight, int inContext) {
+        List<String> left = inLeft.lines().toList();
+        List<String> right = inRight.lines().toList();
+        List<Edit> edits = computeEdits(left, right);
+        if (edits.stream().allMatch(edit -> edit.kind() == Kind.EQUAL)) {
+            return "";
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("--- ").append(inLeftName).append('\n');
+        sb.append("+++ ").append(inRightName).append('\n');
+        int index = 0;
+        while (index < edits.size()) {
+            if (edits.get(index).kind() == Kind.EQUAL) {
+                index++;
+                continue;
+            }
+            // Changes closer than twice the context share their hunk
+            int lastChange = index;
+            int end = index;
+            while (end < edits.size() && end - lastChange <= 2 * inContext) {
+                if (edits.get(end).kind() != Kind.EQUAL) {
+                    lastChange = end;
+                }
+                end++;
+            }
+            int hunkStart = Math.max(0, index - inContext);
+            int hunkEnd = Math.min(edits.size(), lastChange + inContext + 1);
+            appendHunk(sb, edits.subList(hunkStart, hunkEnd), left, right);
+            index = hunkEnd;
+        }
+        return sb.toString();
+    }
+
+    private static void appendHunk(StringBuilder sb, List<Edit> hunk, List<String> left, List<String> right) {
+        int leftCount = 0;
+        int rightCount = 0;
+        for (Edit edit : hunk) {
+            if (edit.kind() != Kind.INSERT) {
+                leftCount++;
+            }
+            if (edit.kind() != Kind.DELETE) {
+                rightCount++;
+            }
+        }
+        // An empty range starts at the line before it, as in diff
+        int leftStart = hunk.get(0).leftLine() + (leftCount > 0 ? 1 : 0);
+        int rightStart = hunk.get(0).rightLine() + (rightCount > 0 ? 1 : 0);
+        sb.append("@@ -").append(leftStart).append(',').append(leftCount);
+        sb.append(" +").append(rightStart).append(',').append(rightCount).append(" @@\n");
+        for (Edit edit : hunk) {
+            String line = edit.kind() == Kind.INSERT ? right.get(edit.rightLine()) : left.get(edit.leftLine());
+            sb.append(edit.kind().prefix).append(line).append('\n');
+        }
+    }
+
+    /**
+     * @return shortest edit script turning the left lines into the right lines
+     */
+    private static List<Edit> computeEdits(List<String> left, List<String> right) {
+        int prefix = 0;
+        while (prefix < left.size() && prefix < right.size() && left.get(prefix).equals(right.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < left.size() - prefix && suffix < right.size() - prefix
+                && left.get(left.size() - 1 - suffix).equals(right.get(right.size() - 1 - suffix))) {
+            suffix++;
+        }
+
+        List<Edit> edits = new ArrayList<>(left.size() + right.size());
+        for (int i = 0; i < prefix; i++) {
+            edits.add(new Edit(Kind.EQUAL, i, i));
+        }
+        addMiddleEdits(edits, left.subList(prefix, left.size() - suffix), right.subList(prefix, right.size() - suffix), prefix);
+        for (int i = suffix; i > 0; i--) {
+            edits.add(new Edit(Kind.EQUAL, left.size() - i, right.size() - i));
+        }
+        return edits;
+    }
+
+    /**
+     * Add the edits of the lines which differ, found by the greedy algorithm
+     * of Myers, keeping for each number of differences only the diagonals it
+     * reaches so that the memory grows with the square of the differences
+     */
+    private static void addMiddleEdits(List<Edit> edits, List<String> left, List<String> right, int offset) {
+        int n = left.size();
+        int m = right.size();
+        int max = n + m;
+        // Furthest line of the left text reached on each diagonal k = x - y, at index k + max + 1
+        int[] v = new int[2 * max + 3];
+        List<int[]> trace = new ArrayList<>();
+        boolean found = false;
+        search:
+        for (int d = 0; d <= Math.min(max, MAX_DIFFERENCES); d++) {
+            // Diagonals -d - 1 to d + 1, read by step d
+            trace.add(Arrays.copyOfRange(v, max - d, max + d + 3));
+            for (int k = -d; k <= d; k += 2) {
+                int x;
+                if (k == -d || (k != d && v[k - 1 + max + 1] < v[k + 1 + max + 1])) {
+                    x = v[k + 1 + max + 1];
+                } else {
+                    x = v[k - 1 + max + 1] + 1;
+                }
+                int y = x - k;
+                while (x < n && y < m && left.get(x).equals(right.get(y))) {
+                    x++;
+                    y++;
+                }
+                v[k + max + 1] = x;
+                if (x >= n && y >= m) {
+                    found = true;
+                    break search;
+                }
+            }
+        }
+        if (!found) {
+            // Too different to be worth the search
+            for (int i = 0; i < n; i++) {
+                edits.add(new Edit(Kind.DELETE, offset + i, offset));
+            }
+            for (int i = 0; i < m; i++) {
+                edits.add(new Edit(Kind.INSERT, offset + n, offset + i));
+            }
+            return;
+        }
+
+        // Walk back from the end, through the diagonals saved for each step
+        List<Edit> reversed = new ArrayList<>();
+        int x = n;
+        int y = m;
+        for (int d = trace.size() - 1; d >= 0 && (x > 0 || y > 0); d--) {
+            int[] vd = trace.get(d);
+            int k = x - y;
+            int prevK;
+            if (k == -d || (k != d && vd[k - 1 + d + 1] < vd[k + 1 + d + 1])) {
+                prevK = k + 1;
+            } else {
+                prevK = k - 1;
+            }
+            int prevX = d == 0 ? 0 : vd[prevK + d + 1];
+            int prevY = d == 0 ? 0 : prevX - prevK;
+            while (x > prevX && y > prevY) {
+                x--;
+                y--;
+                reversed.add(new Edit(Kind.EQUAL, offset + x, offset + y));
+            }
+            if (d > 0) {
+                if (x == prevX) {
+                    y--;
+                    reversed.add(new Edit(Kind.INSERT, offset + x, offset + y));
+                } else {
+                    x--;
+                    reversed.add(new Edit(Kind.DELETE, offset + x, offset + y));
+                }
+            }
+        }
+        for (int i = reversed.size() - 1; i >= 0; i--) {
+            edits.add(reversed.get(i));
+        }
+    }
+}
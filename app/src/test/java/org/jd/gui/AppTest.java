@@ -8,16 +8,37 @@
 package org.jd.gui;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class AppTest {
 
+    @TempDir
+    Path directory;
+
+    private String jar(String name, String readme) throws IOException {
+        Path file = directory.resolve(name);
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(file))) {
+            out.putNextEntry(new ZipEntry("readme.txt"));
+            out.write(readme.getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+        return file.toString();
+    }
+
     @Test
     void checkVersionFlag_returnsTrueForLongVersionFlag() {
         assertTrue(App.checkVersionFlag(new String[]{"--version"}));
@@ -64,6 +85,42 @@ class AppTest {
 
         assertTrue(helpMessage.contains("--help/-h"));
         assertTrue(helpMessage.contains("--version/-v"));
+        assertTrue(helpMessage.contains("--compare"));
+    }
+
+    @Test
+    void compare_writesReportAndReturnsDifferentStatus() throws IOException {
+        Path report = directory.resolve("report.json");
+
+        int status = App.compare(new String[]{"--compare", jar("1.jar", "one"), jar("2.jar", "two"), "--output", report.toString(), "--parallelism", "2"});
+
+        assertEquals(App.COMPARE_DIFFERENT, status);
+        assertTrue(Files.readString(report).contains("\"readme.txt\""));
+    }
+
+    @Test
+    void compare_returnsIdenticalStatusForSameContents() throws IOException {
+        Path report = directory.resolve("report.json");
+
+        assertEquals(App.COMPARE_IDENTICAL, App.compare(new String[]{"--compare", jar("1.jar", "one"), jar("2.jar", "one"), "--output", report.toString()}));
+    }
+
+    @Test
+    void compare_returnsErrorStatusForInvalidArguments() throws IOException {
+        String jar = jar("1.jar", "one");
+
+        assertEquals(App.COMPARE_ERROR, App.compare(new String[]{"--compare", jar}));
+        assertEquals(App.COMPARE_ERROR, App.compare(new String[]{"--compare", jar, jar, "--parallelism", "0"}));
+        assertEquals(App.COMPARE_ERROR, App.compare(new String[]{"--compare", jar, jar, "--output"}));
+        assertEquals(App.COMPARE_ERROR, App.compare(new String[]{"--compare", jar, jar, "--unknown"}));
+        assertEquals(App.COMPARE_ERROR, App.compare(new String[]{"--compare", jar, directory.resolve("missing.jar").toString()}));
+    }
+
+    @Test
+    void compare_returnsErrorStatusForUnreadableArchive() throws IOException {
+        Path notAnArchive = Files.writeString(directory.resolve("2.jar"), "not an archive");
+
+        assertEquals(App.COMPARE_ERROR, App.compare(new String[]{"--compare", jar("1.jar", "one"), notAnArchive.toString()}));
     }
 
     @Test
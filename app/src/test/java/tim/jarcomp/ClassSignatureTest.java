@@ -0,0 +1,83 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package tim.jarcomp;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import tim.jarcomp.ClassSignature.ClassChange;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ClassSignatureTest {
+
+    private static final byte[] ORIGINAL = classFile("A.java", 10, 42, false, false);
+
+    /**
+     * Generate a class 'p/A' with fields 'a' and 'b' and a method 'int value()' returning the given constant
+     */
+    private static byte[] classFile(String sourceFile, int line, int constant, boolean extraMethod, boolean fieldsReversed) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, "p/A", null, "java/lang/Object", null);
+        writer.visitSource(sourceFile, null);
+        String[] fields = fieldsReversed ? new String[] { "b", "a" } : new String[] { "a", "b" };
+        for (String field : fields) {
+            writer.visitField(Opcodes.ACC_PRIVATE, field, "I", null, null).visitEnd();
+        }
+
+        MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, "value", "()I", null, null);
+        method.visitCode();
+        Label start = new Label();
+        method.visitLabel(start);
+        method.visitLineNumber(line, start);
+        method.visitLdcInsn(constant);
+        method.visitInsn(Opcodes.IRETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+
+        if (extraMethod) {
+            MethodVisitor other = writer.visitMethod(Opcodes.ACC_PUBLIC, "other", "()V", null, null);
+            other.visitCode();
+            other.visitInsn(Opcodes.RETURN);
+            other.visitMaxs(0, 0);
+            other.visitEnd();
+        }
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    @Test
+    void compare_returnsNullForIdenticalFiles() {
+        assertNull(ClassSignature.compare(ORIGINAL, classFile("A.java", 10, 42, false, false)));
+    }
+
+    @Test
+    void compare_ignoresLineNumbersAndSourceFile() {
+        assertEquals(ClassChange.DEBUG, ClassSignature.compare(ORIGINAL, classFile("B.java", 20, 42, false, false)));
+    }
+
+    @Test
+    void compare_ignoresMemberAndConstantPoolOrder() {
+        assertEquals(ClassChange.DEBUG, ClassSignature.compare(ORIGINAL, classFile("A.java", 10, 42, false, true)));
+    }
+
+    @Test
+    void compare_detectsBodyChanges() {
+        assertEquals(ClassChange.BODY, ClassSignature.compare(ORIGINAL, classFile("A.java", 10, 43, false, false)));
+    }
+
+    @Test
+    void compare_detectsApiChanges() {
+        assertEquals(ClassChange.API, ClassSignature.compare(ORIGINAL, classFile("A.java", 10, 43, true, false)));
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package tim.jarcomp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import tim.jarcomp.CompareReport.Change;
+import tim.jarcomp.CompareReport.Entry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompareReportTest {
+
+    @TempDir
+    Path directory;
+
+    private File jar(String name, Map<String, String> entries) throws IOException {
+        Path file = directory.resolve(name);
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(file))) {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                out.putNextEntry(new ZipEntry(entry.getKey()));
+                out.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+        return file.toFile();
+    }
+
+    private File jar(String name, String readme, String removedOrAdded) throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("same.txt", "same");
+        entries.put("readme.txt", readme);
+        entries.put(removedOrAdded, "only here");
+        return jar(name, entries);
+    }
+
+    private static String readEntry(File file, String entryPath) throws IOException {
+        try (ZipFile zipFile = new ZipFile(file);
+             InputStream in = zipFile.getInputStream(zipFile.getEntry(entryPath))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Entry find(List<Entry> entries, String name) {
+        return entries.stream().filter(entry -> entry.name().equals(name)).findFirst().orElseThrow();
+    }
+
+    @Test
+    void create_listsChangedEntriesWithTheirKindOfChange() throws IOException {
+        File file1 = jar("1.jar", "one\ntwo\n", "removed.txt");
+        File file2 = jar("2.jar", "one\n2\n", "added.txt");
+
+        CompareReport report = CompareReport.create(file1, file2, 2, (CompareReport.ContentLoader) null);
+
+        assertEquals(3, report.entries().size());
+        assertEquals(Change.CONTENT, find(report.entries(), "readme.txt").change());
+        Entry removed = find(report.entries(), "removed.txt");
+        assertEquals(Change.REMOVED, removed.change());
+        assertEquals(9L, removed.leftSize());
+        assertNull(removed.rightSize());
+        assertEquals(Change.ADDED, find(report.entries(), "added.txt").change());
+        assertNull(find(report.entries(), "readme.txt").diff());
+        assertEquals(new CompareReport.Summary(false, 1, 1, 1, 0), report.summary());
+        assertEquals(3, report.left().entries());
+    }
+
+    @Test
+    void create_addsUnifiedDiffsOfChangedEntries() throws IOException {
+        File file1 = jar("1.jar", "one\ntwo\n", "removed.txt");
+        File file2 = jar("2.jar", "one\n2\n", "added.txt");
+
+        CompareReport report = CompareReport.create(file1, file2, 1, CompareReportTest::readEntry);
+
+        assertEquals("""
+                --- 1.jar!/readme.txt
+                +++ 2.jar!/readme.txt
+                @@ -1,2 +1,2 @@
+                 one
+                -two
+                +2
+                """, find(report.entries(), "readme.txt").diff());
+        assertNull(find(report.entries(), "added.txt").diff());
+    }
+
+    private File jarWithNestedJar(String name, String readme, String notes) throws IOException {
+        File nested = jar(name + "-nested.jar", Map.of("readme.txt", readme, "notes.txt", notes));
+        Path file = directory.resolve(name);
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(file))) {
+            out.putNextEntry(new ZipEntry("lib/nested.jar"));
+            out.write(Files.readAllBytes(nested.toPath()));
+            out.closeEntry();
+        }
+        return file.toFile();
+    }
+
+    @Test
+    void create_diffsEntriesOfNestedArchives() throws IOException {
+        File file1 = jarWithNestedJar("1.jar", "one\n", "a\n");
+        File file2 = jarWithNestedJar("2.jar", "1\n", "b\n");
+
+        CompareReport report = CompareReport.create(file1, file2, 2, true);
+
+        assertEquals("""
+                --- 1.jar!/lib/nested.jar!/readme.txt
+                +++ 2.jar!/lib/nested.jar!/readme.txt
+                @@ -1,1 +1,1 @@
+                -one
+                +1
+                """, find(report.entries(), "lib/nested.jar!/readme.txt").diff());
+        assertTrue(find(report.entries(), "lib/nested.jar!/notes.txt").diff().contains("+b"));
+    }
+
+    @Test
+    void create_reportsIdenticalArchives() throws IOException {
+        CompareReport report = CompareReport.create(jar("1.jar", "one", "a.txt"), jar("2.jar", "one", "a.txt"), 1, CompareReportTest::readEntry);
+
+        assertTrue(report.summary().identical());
+        assertTrue(report.entries().isEmpty());
+    }
+
+    @Test
+    void create_failsForMissingFile() throws IOException {
+        File file1 = jar("1.jar", "one", "a.txt");
+
+        assertThrows(IOException.class, () -> CompareReport.create(file1, directory.resolve("missing.jar").toFile(), 1, false));
+    }
+
+    @Test
+    void write_writesJsonInDocumentedOrderWithoutAbsentValues() throws IOException {
+        CompareReport report = CompareReport.create(jar("1.jar", "one", "removed.txt"), jar("2.jar", "one", "added.txt"), 1, false);
+        StringWriter writer = new StringWriter();
+
+        report.write(writer);
+
+        String json = writer.toString();
+        assertTrue(json.indexOf("\"left\"") < json.indexOf("\"right\""));
+        assertTrue(json.indexOf("\"right\"") < json.indexOf("\"summary\""));
+        assertTrue(json.indexOf("\"summary\"") < json.indexOf("\"entries\": ["));
+        assertTrue(json.indexOf("\"name\"") < json.indexOf("\"change\""));
+        assertTrue(json.contains("\"change\": \"REMOVED\""));
+        assertFalse(json.contains("\"diff\""));
+        assertFalse(json.contains("null"));
+    }
+}
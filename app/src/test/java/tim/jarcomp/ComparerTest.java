@@ -0,0 +1,110 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package tim.jarcomp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import tim.jarcomp.EntryDetails.EntryStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ComparerTest {
+
+    @TempDir
+    Path directory;
+
+    private static byte[] zip(Map<String, byte[]> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                out.putNextEntry(new ZipEntry(entry.getKey()));
+                out.write(entry.getValue());
+                out.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private File war(String name, String libraryText, String readme) throws IOException {
+        Map<String, byte[]> library = new LinkedHashMap<>();
+        library.put("a/Same.txt", "same".getBytes(StandardCharsets.UTF_8));
+        library.put("a/Changed.txt", libraryText.getBytes(StandardCharsets.UTF_8));
+        Map<String, byte[]> war = new LinkedHashMap<>();
+        war.put("WEB-INF/lib/lib.jar", zip(library));
+        war.put("readme.txt", readme.getBytes(StandardCharsets.UTF_8));
+        Path file = directory.resolve(name);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(zip(war));
+        }
+        return file.toFile();
+    }
+
+    private static EntryDetails find(List<EntryDetails> entries, String name) {
+        return entries.stream().filter(entry -> entry.getName().equals(name)).findFirst().orElseThrow();
+    }
+
+    @Test
+    void compare_comparesNestedArchivesRecursively() throws IOException {
+        CompareResults results = Comparer.compare(war("1.war", "one", "readme"), war("2.war", "two", "readme"));
+
+        EntryDetails library = find(results.getEntryList(), "WEB-INF/lib/lib.jar");
+        assertTrue(library.isChanged());
+        assertEquals(EntryStatus.EQUAL, find(library.getNestedEntries(), "WEB-INF/lib/lib.jar!/a/Same.txt").getStatus());
+        assertEquals(EntryStatus.CHANGED_SUM, find(library.getNestedEntries(), "WEB-INF/lib/lib.jar!/a/Changed.txt").getStatus());
+        assertNull(find(results.getEntryList(), "readme.txt").getNestedEntries());
+    }
+
+    @Test
+    void compare_doesNotOpenIdenticalNestedArchives() throws IOException {
+        CompareResults results = Comparer.compare(war("1.war", "one", "readme"), war("2.war", "one", "changed"));
+
+        EntryDetails library = find(results.getEntryList(), "WEB-INF/lib/lib.jar");
+        assertEquals(EntryStatus.EQUAL, library.getStatus());
+        assertNull(library.getNestedEntries());
+    }
+
+    @Test
+    void compare_failsForUnreadableArchive() throws IOException {
+        File notAnArchive = Files.writeString(directory.resolve("2.war"), "not an archive").toFile();
+
+        IOException e = assertThrows(IOException.class, () -> Comparer.compare(war("1.war", "one", "readme"), notAnArchive));
+        assertTrue(e.getMessage().contains("2.war"), e.getMessage());
+    }
+
+    @Test
+    void compare_returnsNullWhenCancelled() throws IOException {
+        assertNull(Comparer.compare(war("1.war", "one", "readme"), war("2.war", "two", "readme"), _ -> {}, () -> true));
+    }
+
+    @Test
+    void entryDetails_unreadableFilesAreNeverEqual() {
+        EntryDetails details = new EntryDetails();
+        details.setUnreadable(0);
+        details.setUnreadable(1);
+
+        assertEquals(EntryStatus.UNREADABLE, details.getStatus());
+        assertTrue(details.isChanged());
+    }
+}
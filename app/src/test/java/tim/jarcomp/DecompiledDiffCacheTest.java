@@ -0,0 +1,93 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package tim.jarcomp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import tim.jarcomp.DecompiledDiffCache.Diff;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class DecompiledDiffCacheTest {
+
+    private final List<String> decompiled = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private Diff decompile(String entryName) throws InterruptedException {
+        decompiled.add(entryName);
+        if ("busy".equals(entryName)) {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+        }
+        return new Diff("left " + entryName, "right " + entryName);
+    }
+
+    @Test
+    void get_decompilesRequestedEntryBeforePrefetchedOnes() throws Exception {
+        DecompiledDiffCache cache = new DecompiledDiffCache(this::decompile, 1);
+        cache.get("busy");
+        started.await(10, TimeUnit.SECONDS);
+
+        cache.prefetch(List.of("a", "b", "c"));
+        CompletableFuture<Diff> requested = cache.get("c");
+        release.countDown();
+
+        assertEquals("right c", requested.get(10, TimeUnit.SECONDS).right());
+        cache.get("a").get(10, TimeUnit.SECONDS);
+        cache.get("b").get(10, TimeUnit.SECONDS);
+        assertEquals(List.of("busy", "c", "a", "b"), decompiled);
+    }
+
+    @Test
+    void prefetch_dropsQueuedEntriesOutOfTheNewSelection() throws Exception {
+        DecompiledDiffCache cache = new DecompiledDiffCache(this::decompile, 1);
+        cache.get("busy");
+        started.await(10, TimeUnit.SECONDS);
+
+        cache.prefetch(List.of("a", "b"));
+        cache.prefetch(List.of("x", "b"));
+        release.countDown();
+
+        cache.get("x").get(10, TimeUnit.SECONDS);
+        cache.get("b").get(10, TimeUnit.SECONDS);
+        assertEquals(List.of("busy", "x", "b"), decompiled);
+    }
+
+    @Test
+    void get_returnsCachedEntryWithoutDecompilingAgain() throws Exception {
+        release.countDown();
+        DecompiledDiffCache cache = new DecompiledDiffCache(this::decompile, 2);
+
+        Diff first = cache.get("a").get(10, TimeUnit.SECONDS);
+        Diff second = cache.get("a").get(10, TimeUnit.SECONDS);
+
+        assertSame(first, second);
+        assertEquals(List.of("a"), decompiled);
+    }
+
+    @Test
+    void clear_decompilesWithTheDecompilerOfTheNewFiles() throws Exception {
+        release.countDown();
+        DecompiledDiffCache cache = new DecompiledDiffCache(this::decompile, 1);
+        cache.get("a").get(10, TimeUnit.SECONDS);
+
+        cache.clear(entryName -> new Diff("new left " + entryName, "new right " + entryName));
+
+        assertEquals("new right a", cache.get("a").get(10, TimeUnit.SECONDS).right());
+        assertEquals(List.of("a"), decompiled);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package tim.jarcomp;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UnifiedDiffTest {
+
+    private static String lines(int from, int to) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = from; i <= to; i++) {
+            sb.append("line ").append(i).append('\n');
+        }
+        return sb.toString();
+    }
+
+    @Test
+    void diff_returnsEmptyStringForSameLines() {
+        assertEquals("", UnifiedDiff.diff("a", "b", "x\ny\n", "x\r\ny", 3));
+    }
+
+    @Test
+    void diff_showsChangeWithContext() {
+        String left = lines(1, 10);
+        String right = left.replace("line 5\n", "line five\n");
+
+        assertEquals("""
+                --- a
+                +++ b
+                @@ -2,7 +2,7 @@
+                 line 2
+                 line 3
+                 line 4
+                -line 5
+                +line five
+                 line 6
+                 line 7
+                 line 8
+                """, UnifiedDiff.diff("a", "b", left, right, 3));
+    }
+
+    @Test
+    void diff_splitsDistantChangesIntoHunks() {
+        String left = lines(1, 20);
+        String right = "line 0\n" + left.replace("line 20\n", "");
+
+        assertEquals("""
+                --- a
+                +++ b
+                @@ -1,1 +1,2 @@
+                +line 0
+                 line 1
+                @@ -19,2 +20,1 @@
+                 line 19
+                -line 20
+                """, UnifiedDiff.diff("a", "b", left, right, 1));
+    }
+
+    @Test
+    void diff_findsShortestEditScript() {
+        assertEquals("""
+                --- a
+                +++ b
+                @@ -1,7 +1,6 @@
+                -a
+                -b
+                 c
+                +b
+                 a
+                 b
+                -b
+                 a
+                +c
+                """, UnifiedDiff.diff("a", "b", "a\nb\nc\na\nb\nb\na\n", "c\nb\na\nb\na\nc\n", 3));
+    }
+}
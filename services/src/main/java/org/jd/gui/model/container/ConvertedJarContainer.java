@@ -10,9 +10,12 @@ package org.jd.gui.model.container;
 
 import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
 import org.jd.gui.api.model.Container;
+import org.jd.gui.api.model.EntryTable;
 import org.jd.gui.model.container.entry.path.SimpleEntryPath;
+import org.jd.gui.util.conversion.DexClassFiles;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -24,11 +27,16 @@ import java.util.TreeMap;
 
 public class ConvertedJarContainer implements Container {
 
+    private final EntryTable entryTable;
     private final RootEntry root;
+    private final DexClassFiles classFiles;
 
-    public ConvertedJarContainer(Container.Entry parentEntry, Map<String, byte[]> classFiles) {
+    public ConvertedJarContainer(Container.Entry parentEntry, DexClassFiles classFiles) {
+        EntryTable parentEntryTable = parentEntry.getContainer().getEntryTable();
+        this.entryTable = parentEntryTable != null ? parentEntryTable : new EntryTable();
         this.root = new RootEntry(parentEntry, createRootUri(parentEntry));
-        load(classFiles);
+        this.classFiles = classFiles;
+        load();
     }
 
     private static URI createRootUri(Container.Entry parentEntry) {
@@ -41,14 +49,14 @@ public class ConvertedJarContainer implements Container {
         }
     }
 
-    private void load(Map<String, byte[]> classFiles) {
-        for (Map.Entry<String, byte[]> classFile : classFiles.entrySet()) {
-            addClassFile(classFile.getKey(), classFile.getValue());
+    private void load() {
+        for (String path : classFiles.getPaths()) {
+            addClassFile(path);
         }
         root.freeze();
     }
 
-    private void addClassFile(String path, byte[] bytes) {
+    private void addClassFile(String path) {
         int lastSlash = path.lastIndexOf('/');
         Entry parent = root;
 
@@ -64,7 +72,7 @@ public class ConvertedJarContainer implements Container {
             }
         }
 
-        parent.putChild(new ClassEntry(parent, path, bytes));
+        parent.putChild(new ClassEntry(parent, path));
     }
 
     @Override
@@ -77,6 +85,11 @@ public class ConvertedJarContainer implements Container {
         return root;
     }
 
+    @Override
+    public EntryTable getEntryTable() {
+        return entryTable;
+    }
+
     private URI createChildUri(String entryPath) {
         if (entryPath.isEmpty()) {
             return root.uri;
@@ -93,7 +106,8 @@ public class ConvertedJarContainer implements Container {
         private final Container.Entry parent;
         private final String path;
         private final boolean directory;
-        private final URI uri;
+        private final int id;
+        private URI uri;
         private Map<Container.EntryPath, Container.Entry> children = Collections.emptyMap();
 
         private Entry(Container.Entry parent, String path, boolean directory, URI uri) {
@@ -101,6 +115,7 @@ public class ConvertedJarContainer implements Container {
             this.path = path;
             this.directory = directory;
             this.uri = uri;
+            this.id = entryTable.add(this);
         }
 
         @Override
@@ -115,9 +130,17 @@ public class ConvertedJarContainer implements Container {
 
         @Override
         public URI getUri() {
+            if (uri == null) {
+                uri = createChildUri(path);
+            }
             return uri;
         }
 
+        @Override
+        public int getId() {
+            return id;
+        }
+
         @Override
         public String getPath() {
             return path;
@@ -130,7 +153,7 @@ public class ConvertedJarContainer implements Container {
 
         @Override
         public long compressedLength() {
-            return length();
+            return Math.max(0L, length());
         }
 
         @Override
@@ -199,7 +222,7 @@ public class ConvertedJarContainer implements Container {
 
     private final class DirectoryEntry extends Entry {
         private DirectoryEntry(Container.Entry parent, String path) {
-            super(parent, path, true, createChildUri(path));
+            super(parent, path, true, null);
         }
 
         @Override
@@ -213,22 +236,34 @@ public class ConvertedJarContainer implements Container {
         }
     }
 
+    /**
+     * Class file translated on demand, when it is opened or indexed, and
+     * inflated from its off-heap chunk on each read.
+     */
     private final class ClassEntry extends Entry {
-        private final byte[] bytes;
 
-        private ClassEntry(Container.Entry parent, String path, byte[] bytes) {
-            super(parent, path, false, createChildUri(path));
-            this.bytes = bytes;
+        private ClassEntry(Container.Entry parent, String path) {
+            super(parent, path, false, null);
         }
 
+        /**
+         * Length of the translated class file, or -1 until its batch is
+         * translated: sizing an entry never triggers a translation.
+         */
         @Override
         public long length() {
-            return bytes.length;
+            return classFiles.getClassFileLength(getPath());
         }
 
         @Override
         public InputStream getInputStream() {
-            return new ByteArrayInputStream(bytes);
+            try {
+                return new ByteArrayInputStream(classFiles.getClassFile(getPath()));
+            } catch (IOException e) {
+                // Failed translations are unreadable, not empty
+                assert ExceptionUtil.printStackTrace(e);
+                return null;
+            }
         }
     }
 }
@@ -12,6 +12,7 @@ import org.apache.commons.io.IOUtils;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
 import org.jd.gui.api.API;
 import org.jd.gui.api.model.Container;
+import org.jd.gui.api.model.EntryTable;
 import org.jd.gui.model.container.entry.path.SimpleEntryPath;
 import org.jd.gui.spi.ContainerFactory;
 import org.jd.gui.util.TempFile;
@@ -45,12 +46,16 @@ public class GenericContainer implements Container, Closeable {
 
     private final API api;
     private final int rootNameCount;
+    // Shared with nested containers
+    private final EntryTable entryTable;
     private final Container.Entry root;
     private ZipFile zipFile; // closed when tab is closed
 
     public GenericContainer(API api, Container.Entry parentEntry, Path rootPath) {
         this.api = api;
         this.rootNameCount = rootPath.getNameCount();
+        EntryTable parentEntryTable = parentEntry.getContainer().getEntryTable();
+        this.entryTable = parentEntryTable != null ? parentEntryTable : new EntryTable();
         this.root = makeRootEntry(parentEntry, rootPath);
         this.zipFile = makeZipFile(parentEntry);
     }
@@ -86,10 +91,13 @@ public class GenericContainer implements Container, Closeable {
     public String getType() { return "generic"; }
     @Override
     public Container.Entry getRoot() { return root; }
+    @Override
+    public EntryTable getEntryTable() { return entryTable; }
 
     protected class Entry implements Container.Entry {
         private final Container.Entry parent;
         private final Path fsPath;
+        private final int id;
         private String strPath;
         private URI uri;
         private Boolean isDirectory;
@@ -102,6 +110,7 @@ public class GenericContainer implements Container, Closeable {
             this.uri = uri;
             this.isDirectory = null;
             this.children = null;
+            this.id = entryTable.add(this);
         }
 
         public Entry newChildEntry(Path fsPath) { return new Entry(this, fsPath, null); }
@@ -110,6 +119,8 @@ public class GenericContainer implements Container, Closeable {
         public Container getContainer() { return GenericContainer.this; }
         @Override
         public Container.Entry getParent() { return parent; }
+        @Override
+        public int getId() { return id; }
 
         @Override
         public URI getUri() {
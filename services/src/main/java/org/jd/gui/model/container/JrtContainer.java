@@ -0,0 +1,242 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.model.container;
+
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+import org.jd.gui.api.model.Container;
+import org.jd.gui.api.model.EntryTable;
+import org.jd.gui.model.container.entry.path.SimpleEntryPath;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Class files of a JDK run-time image, read through the 'jrt:/' file system.
+ * <p>
+ * The packages of all modules are merged under a single root, as in a jar
+ * file, so that type names map to entry paths. Directories are listed lazily,
+ * from the modules declaring them only.
+ */
+public class JrtContainer implements Container {
+    private static final String MODULE_INFO = "module-info.class";
+
+    private final EntryTable entryTable = new EntryTable();
+    private final Container.Entry root;
+
+    /**
+     * @param modulesPath the '/modules' directory of a 'jrt:/' file system
+     */
+    public JrtContainer(Container.Entry parentEntry, Path modulesPath) {
+        this.root = makeRootEntry(parentEntry, modulesPath);
+    }
+
+    private Entry makeRootEntry(Container.Entry parentEntry, Path modulesPath) {
+        List<Path> moduleDirectories = new ArrayList<>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(modulesPath)) {
+            for (Path moduleDirectory : stream) {
+                moduleDirectories.add(moduleDirectory);
+            }
+        } catch (IOException e) {
+            assert ExceptionUtil.printStackTrace(e);
+        }
+
+        try {
+            URI uri = parentEntry.getUri();
+            return new Entry(parentEntry, "", moduleDirectories, new URI(uri.getScheme(), uri.getHost(), uri.getPath() + "!/", null)) {
+                @Override
+                protected Container.Entry getChildParent() {
+                    return getParent();
+                }
+            };
+        } catch (URISyntaxException e) {
+            assert ExceptionUtil.printStackTrace(e);
+        }
+        return null;
+    }
+
+    @Override
+    public String getType() { return "jar"; }
+    @Override
+    public Container.Entry getRoot() { return root; }
+    @Override
+    public EntryTable getEntryTable() { return entryTable; }
+
+    /**
+     * Returns the entry of a class file or directory, such as
+     * 'java/lang/String.class', or null if the image does not contain it.
+     */
+    public Container.Entry getEntry(String path) {
+        Container.Entry entry = root;
+        int start = 0;
+
+        while (entry != null && start < path.length()) {
+            int end = path.indexOf('/', start);
+            if (end == -1) {
+                end = path.length();
+            }
+
+            String childPath = path.substring(0, end);
+            Map<Container.EntryPath, Container.Entry> children = entry.getChildren();
+            boolean last = end == path.length();
+
+            entry = children.get(new SimpleEntryPath(childPath, true));
+            if (entry == null && last) {
+                entry = children.get(new SimpleEntryPath(childPath, false));
+            }
+
+            start = end + 1;
+        }
+
+        return entry;
+    }
+
+    protected class Entry implements Container.Entry {
+        private final Container.Entry parent;
+        private final String path;
+        // Directories: same directory in each declaring module. Files: single path.
+        private final List<Path> fsPaths;
+        private final boolean directory;
+        private final int id;
+        private URI uri;
+        private Map<Container.EntryPath, Container.Entry> children;
+
+        protected Entry(Container.Entry parent, String path, List<Path> directories, URI uri) {
+            this.parent = parent;
+            this.path = path;
+            this.fsPaths = directories;
+            this.directory = true;
+            this.uri = uri;
+            this.id = entryTable.add(this);
+        }
+
+        protected Entry(Container.Entry parent, String path, Path file) {
+            this.parent = parent;
+            this.path = path;
+            this.fsPaths = List.of(file);
+            this.directory = false;
+            this.id = entryTable.add(this);
+        }
+
+        protected Container.Entry getChildParent() {
+            return this;
+        }
+
+        @Override
+        public Container getContainer() { return JrtContainer.this; }
+        @Override
+        public Container.Entry getParent() { return parent; }
+        @Override
+        public String getPath() { return path; }
+        @Override
+        public boolean isDirectory() { return directory; }
+        @Override
+        public int getId() { return id; }
+
+        @Override
+        public URI getUri() {
+            if (uri == null) {
+                try {
+                    URI rootUri = root.getUri();
+                    uri = new URI(rootUri.getScheme(), rootUri.getHost(), rootUri.getPath() + path, null);
+                } catch (URISyntaxException e) {
+                    assert ExceptionUtil.printStackTrace(e);
+                }
+            }
+            return uri;
+        }
+
+        @Override
+        public long length() {
+            if (directory) {
+                return 0L;
+            }
+            try {
+                return Files.size(fsPaths.get(0));
+            } catch (IOException e) {
+                assert ExceptionUtil.printStackTrace(e);
+                return -1L;
+            }
+        }
+
+        @Override
+        public long compressedLength() { return length(); }
+
+        @Override
+        public InputStream getInputStream() {
+            if (directory) {
+                return null;
+            }
+            try {
+                return Files.newInputStream(fsPaths.get(0));
+            } catch (IOException e) {
+                assert ExceptionUtil.printStackTrace(e);
+                return null;
+            }
+        }
+
+        @Override
+        public Map<Container.EntryPath, Container.Entry> getChildren() {
+            if (children == null) {
+                children = directory ? loadChildren() : Collections.emptyMap();
+            }
+            return children;
+        }
+
+        private NavigableMap<Container.EntryPath, Container.Entry> loadChildren() {
+            Map<String, List<Path>> subDirectories = new TreeMap<>();
+            Map<String, Path> files = new TreeMap<>();
+            String prefix = path.isEmpty() ? "" : path + '/';
+
+            for (Path fsPath : fsPaths) {
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(fsPath)) {
+                    for (Path subPath : stream) {
+                        String name = subPath.getFileName().toString();
+
+                        if (name.endsWith("/")) {
+                            name = name.substring(0, name.length() - 1);
+                        }
+                        if (Files.isDirectory(subPath)) {
+                            subDirectories.computeIfAbsent(prefix + name, k -> new ArrayList<>()).add(subPath);
+                        } else if (!path.isEmpty() || !MODULE_INFO.equals(name)) {
+                            // First declaring module wins, as on the class path
+                            files.putIfAbsent(prefix + name, subPath);
+                        }
+                    }
+                } catch (IOException e) {
+                    assert ExceptionUtil.printStackTrace(e);
+                }
+            }
+
+            NavigableMap<Container.EntryPath, Container.Entry> sortedChildren = new TreeMap<>(ContainerEntryComparator.COMPARATOR);
+            Container.Entry childParent = getChildParent();
+
+            for (Map.Entry<String, List<Path>> subDirectory : subDirectories.entrySet()) {
+                String childPath = subDirectory.getKey();
+                sortedChildren.put(new SimpleEntryPath(childPath, true), new Entry(childParent, childPath, subDirectory.getValue(), null));
+            }
+            for (Map.Entry<String, Path> file : files.entrySet()) {
+                String childPath = file.getKey();
+                sortedChildren.put(new SimpleEntryPath(childPath, false), new Entry(childParent, childPath, file.getValue()));
+            }
+
+            return Collections.unmodifiableNavigableMap(sortedChildren);
+        }
+    }
+}
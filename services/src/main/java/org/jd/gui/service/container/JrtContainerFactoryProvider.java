@@ -0,0 +1,32 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.service.container;
+
+import org.jd.gui.api.API;
+import org.jd.gui.api.model.Container;
+import org.jd.gui.model.container.JrtContainer;
+import org.jd.gui.spi.ContainerFactory;
+
+import java.nio.file.Path;
+
+public class JrtContainerFactoryProvider implements ContainerFactory {
+    @Override
+    public String getType() { return "jar"; }
+
+    @Override
+    @SuppressWarnings("resource")
+    public boolean accept(API api, Path rootPath) {
+        // do not try to close file system: the running JDK image cannot be closed
+        return "jrt".equals(rootPath.getFileSystem().provider().getScheme());
+    }
+
+    @Override
+    public Container make(API api, Container.Entry parentEntry, Path rootPath) {
+        return new JrtContainer(parentEntry, rootPath);
+    }
+}
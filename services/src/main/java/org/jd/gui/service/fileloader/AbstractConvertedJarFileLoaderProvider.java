@@ -11,11 +11,11 @@ package org.jd.gui.service.fileloader;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
 import org.jd.gui.api.API;
 import org.jd.gui.model.container.ConvertedJarContainer;
+import org.jd.gui.util.conversion.DexClassFiles;
 import org.jd.gui.util.conversion.DexToJarConversionKit;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Map;
 
 public abstract class AbstractConvertedJarFileLoaderProvider extends AbstractFileLoaderProvider {
 
@@ -23,7 +23,7 @@ public abstract class AbstractConvertedJarFileLoaderProvider extends AbstractFil
     @SuppressWarnings("all")
     public boolean load(API api, File file) {
         try {
-            Map<String, byte[]> classFiles = DexToJarConversionKit.getOrCreate(file);
+            DexClassFiles classFiles = DexToJarConversionKit.getOrCreate(file);
             ContainerEntry parentEntry = new ContainerEntry(file);
             ConvertedJarContainer container = new ConvertedJarContainer(parentEntry, classFiles);
             return load(api, file, container, parentEntry) != null;
@@ -13,10 +13,9 @@ import org.jd.core.v1.util.StringConstants;
 import org.jd.gui.api.API;
 import org.objectweb.asm.ClassReader;
 
-import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.Files;
 
 public class ClassFileLoaderProvider extends AbstractTypeFileLoaderProvider {
     protected static final String[] EXTENSIONS = { "class" };
@@ -33,8 +32,8 @@ public class ClassFileLoaderProvider extends AbstractTypeFileLoaderProvider {
 
     @Override
     public boolean load(API api, File file) {
-        try (BufferedInputStream bis = new BufferedInputStream(new FileInputStream(file))) {
-            ClassReader classReader = new ClassReader(bis);
+        try {
+            ClassReader classReader = new ClassReader(Files.readAllBytes(file.toPath()));
             String pathInFile = classReader.getClassName().replace("/", File.separator) + StringConstants.CLASS_FILE_SUFFIX;
 
             return load(api, file, pathInFile);
@@ -0,0 +1,105 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.service.fileloader;
+
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+import org.jd.gui.api.API;
+import org.jd.gui.model.container.JrtContainer;
+import org.jd.gui.util.JavaHomeResolver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opens the run-time image of a JDK home directory (Java 9+), through the
+ * 'jrt:/' file system of the running JDK or of the JDK itself.
+ */
+public class JrtFileLoaderProvider extends AbstractFileLoaderProvider {
+    protected static final String[] EXTENSIONS = {};
+
+    private static final URI JRT_URI = URI.create("jrt:/");
+
+    // Resource leak : file systems cannot be closed until the application is closed
+    private static final Map<File, FileSystem> FILE_SYSTEMS = new ConcurrentHashMap<>();
+
+    @Override
+    public String[] getExtensions() { return EXTENSIONS; }
+    @Override
+    public String getDescription() { return "JDK home directories"; }
+
+    @Override
+    public boolean accept(API api, File file) {
+        return file.isDirectory() && (new File(file, "lib/modules").isFile() || new File(file, "release").isFile());
+    }
+
+    @Override
+    public boolean load(API api, File file) {
+        File javaHome = getJavaHome(file);
+
+        if (accept(api, file) && javaHome != null) {
+            try {
+                return load(api, javaHome, getModulesPath(javaHome)) != null;
+            } catch (IOException e) {
+                assert ExceptionUtil.printStackTrace(e);
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the home of the modular JDK containing the directory, or null.
+     */
+    public static File getJavaHome(File directory) {
+        File javaHome = JavaHomeResolver.normalizeJavaHome(directory);
+
+        if (javaHome != null && new File(javaHome, "lib/modules").isFile()) {
+            return javaHome;
+        }
+
+        return null;
+    }
+
+    /**
+     * Makes a container over the JDK image, outside of any panel.
+     */
+    public static JrtContainer newContainer(File javaHome) throws IOException {
+        ContainerEntry parentEntry = new ContainerEntry(javaHome);
+        JrtContainer container = new JrtContainer(parentEntry, getModulesPath(javaHome));
+        parentEntry.setChildren(container.getRoot().getChildren());
+        return container;
+    }
+
+    private static Path getModulesPath(File javaHome) throws IOException {
+        try {
+            return FILE_SYSTEMS.computeIfAbsent(javaHome, JrtFileLoaderProvider::newFileSystem).getPath("/modules");
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static FileSystem newFileSystem(File javaHome) {
+        try {
+            if (Files.isSameFile(javaHome.toPath(), Path.of(System.getProperty("java.home")))) {
+                return FileSystems.getFileSystem(JRT_URI);
+            }
+            // Loads the 'jrt-fs.jar' provider of the target JDK
+            return FileSystems.newFileSystem(JRT_URI, Map.of("java.home", javaHome.getAbsolutePath()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
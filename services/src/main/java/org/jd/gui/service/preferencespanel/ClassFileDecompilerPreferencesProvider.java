@@ -10,22 +10,30 @@ package org.jd.gui.service.preferencespanel;
 
 import org.jd.gui.spi.PreferencesPanel;
 import org.jd.gui.util.ImageUtil;
+import org.jd.gui.util.decompiler.DecompilerRace;
 
 import java.awt.BorderLayout;
+import java.awt.Color;
 import java.awt.GridLayout;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
 import javax.swing.JDialog;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
+import javax.swing.JTextField;
 import javax.swing.ScrollPaneConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 
 import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_CFR;
 import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_FERNFLOWER;
@@ -35,13 +43,26 @@ import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompile
 import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_JD_CORE_V1;
 import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_PROCYON;
 import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_ENGINE;
+import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_OUT_OF_PROCESS;
+import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_PREFETCH;
+import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_RACE;
+import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_RACE_ENGINES;
+import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_WARM_UP;
 
-public class ClassFileDecompilerPreferencesProvider extends JPanel implements PreferencesPanel {
+public class ClassFileDecompilerPreferencesProvider extends JPanel implements PreferencesPanel, DocumentListener {
 
     private static final long serialVersionUID = 1L;
 
     protected JComboBox<String> decompileEngine;
     protected JButton configureDecompiler;
+    protected JCheckBox raceEnginesCheckBox;
+    protected JTextField racedEnginesTextField;
+    protected JCheckBox prefetchCheckBox;
+    protected JCheckBox outOfProcessCheckBox;
+    protected JCheckBox warmUpCheckBox;
+    protected transient PreferencesPanel.PreferencesPanelChangeListener listener;
+    protected Color errorBackgroundColor = Color.RED;
+    protected Color defaultBackgroundColor;
 
     private static final String[] DECOMPILERS = { ENGINE_JD_CORE_V1, ENGINE_JD_CORE_V0, ENGINE_CFR, ENGINE_PROCYON, ENGINE_FERNFLOWER, ENGINE_VINEFLOWER, ENGINE_JADX };
 
@@ -54,8 +75,28 @@ public class ClassFileDecompilerPreferencesProvider extends JPanel implements Pr
         configureDecompiler = new JButton("Configure", new ImageIcon(ImageUtil.getImage("/org/jd/gui/images/preferences.png")));
         configureDecompiler.addActionListener(e -> configureDecompiler());
 
+        raceEnginesCheckBox = new JCheckBox("Race engines");
+        raceEnginesCheckBox.setToolTipText("Decompile with the selected engine and the listed ones at the same time, showing the first result without errors");
+        racedEnginesTextField = new JTextField();
+        racedEnginesTextField.setToolTipText("Engines separated by commas, among " + String.join(", ", DECOMPILERS));
+        racedEnginesTextField.getDocument().addDocumentListener(this);
+        defaultBackgroundColor = racedEnginesTextField.getBackground();
+        raceEnginesCheckBox.addActionListener(e -> racedEnginesTextField.setEnabled(raceEnginesCheckBox.isSelected()));
+        prefetchCheckBox = new JCheckBox("Prefetch likely next classes");
+        prefetchCheckBox.setToolTipText("Decompile in the background the referenced, super, sub and sibling classes of the displayed class");
+        outOfProcessCheckBox = new JCheckBox("Decompile in separate processes");
+        outOfProcessCheckBox.setToolTipText("Decompile in reusable worker processes, killed if a class takes too long or exhausts their memory");
+        warmUpCheckBox = new JCheckBox("Warm up the decompiler at startup");
+        warmUpCheckBox.setToolTipText("Decompile a few classes in the background once the main window is shown, so that the first class opens faster");
+
         add(decompileEngine);
         add(configureDecompiler);
+        add(raceEnginesCheckBox);
+        add(racedEnginesTextField);
+        add(prefetchCheckBox);
+        add(outOfProcessCheckBox);
+        add(warmUpCheckBox);
+        add(Box.createGlue());
 
         JDCoreDecompilerPreferencesProvider jdCoreDecompilerPreferencesProvider = new JDCoreDecompilerPreferencesProvider(decompileEngine);
         decompilerPreferencesProviders.put(ENGINE_JD_CORE_V0, jdCoreDecompilerPreferencesProvider);
@@ -111,9 +152,20 @@ public class ClassFileDecompilerPreferencesProvider extends JPanel implements Pr
         return "Class file";
     }
 
+    @Override
+    public void init(Color errorBackgroundColor) {
+        this.errorBackgroundColor = errorBackgroundColor;
+    }
+
     @Override
     public void loadPreferences(Map<String, String> preferences) {
         decompileEngine.setSelectedItem(preferences.getOrDefault(DECOMPILE_ENGINE, ENGINE_JD_CORE_V1));
+        raceEnginesCheckBox.setSelected("true".equals(preferences.get(DECOMPILE_RACE)));
+        racedEnginesTextField.setText(preferences.getOrDefault(DECOMPILE_RACE_ENGINES, String.join(",", DecompilerRace.DEFAULT_ENGINES)));
+        racedEnginesTextField.setEnabled(raceEnginesCheckBox.isSelected());
+        prefetchCheckBox.setSelected("true".equals(preferences.get(DECOMPILE_PREFETCH)));
+        outOfProcessCheckBox.setSelected("true".equals(preferences.get(DECOMPILE_OUT_OF_PROCESS)));
+        warmUpCheckBox.setSelected("true".equals(preferences.get(DECOMPILE_WARM_UP)));
         for (PreferencesPanel preferencesPanel : decompilerPreferencesProviders.values()) {
             preferencesPanel.loadPreferences(preferences);
         }
@@ -122,6 +174,11 @@ public class ClassFileDecompilerPreferencesProvider extends JPanel implements Pr
     @Override
     public void savePreferences(Map<String, String> preferences) {
         preferences.put(DECOMPILE_ENGINE, decompileEngine.getSelectedItem().toString());
+        preferences.put(DECOMPILE_RACE, Boolean.toString(raceEnginesCheckBox.isSelected()));
+        preferences.put(DECOMPILE_RACE_ENGINES, racedEnginesTextField.getText().trim());
+        preferences.put(DECOMPILE_PREFETCH, Boolean.toString(prefetchCheckBox.isSelected()));
+        preferences.put(DECOMPILE_OUT_OF_PROCESS, Boolean.toString(outOfProcessCheckBox.isSelected()));
+        preferences.put(DECOMPILE_WARM_UP, Boolean.toString(warmUpCheckBox.isSelected()));
         for (PreferencesPanel preferencesPanel : decompilerPreferencesProviders.values()) {
             preferencesPanel.savePreferences(preferences);
         }
@@ -129,17 +186,45 @@ public class ClassFileDecompilerPreferencesProvider extends JPanel implements Pr
 
     @Override
     public boolean arePreferencesValid() {
+        List<String> decompilers = Arrays.asList(DECOMPILERS);
+        for (String engine : racedEnginesTextField.getText().split(",")) {
+            if (!engine.isBlank() && !decompilers.contains(engine.trim())) {
+                return false;
+            }
+        }
         return true;
     }
 
     @Override
     public void addPreferencesChangeListener(PreferencesPanel.PreferencesPanelChangeListener listener) {
-        // nothing to do
+        this.listener = listener;
+    }
+
+    // --- DocumentListener --- //
+    @Override
+    public void insertUpdate(DocumentEvent e) { onTextChange(); }
+    @Override
+    public void removeUpdate(DocumentEvent e) { onTextChange(); }
+    @Override
+    public void changedUpdate(DocumentEvent e) { onTextChange(); }
+
+    public void onTextChange() {
+        racedEnginesTextField.setBackground(arePreferencesValid() ? defaultBackgroundColor : errorBackgroundColor);
+
+        if (listener != null) {
+            listener.preferencesPanelChanged(this);
+        }
     }
 
     @Override
     public void restoreDefaults() {
         decompileEngine.setSelectedItem(ENGINE_JD_CORE_V1);
+        raceEnginesCheckBox.setSelected(false);
+        racedEnginesTextField.setText(String.join(",", DecompilerRace.DEFAULT_ENGINES));
+        racedEnginesTextField.setEnabled(false);
+        prefetchCheckBox.setSelected(false);
+        outOfProcessCheckBox.setSelected(false);
+        warmUpCheckBox.setSelected(false);
     }
 
     @Override
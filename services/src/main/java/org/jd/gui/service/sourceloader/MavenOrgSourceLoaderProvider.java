@@ -14,25 +14,29 @@ import org.jd.gui.api.model.Container;
 import org.jd.gui.service.preferencespanel.MavenOrgSourceLoaderPreferencesProvider;
 import org.jd.gui.spi.SourceLoader;
 import org.jd.gui.util.DownloadUtil;
+import org.jd.gui.util.maven.LocalRepositoryIndex;
 import org.jd.gui.util.nexus.NexusSearch;
 import org.jd.gui.util.nexus.NexusSearchFactory;
 import org.jd.gui.util.nexus.model.NexusArtifact;
 import org.jd.gui.util.nexus.model.NexusSearchResult;
+import org.jd.util.LRUCache;
 import org.jd.util.SHA1Util;
 
-import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.zip.ZipFile;
 
 public class MavenOrgSourceLoaderProvider implements SourceLoader {
     protected static final String MAVENORG_SEARCH_URL_PREFIX = "https://search.maven.org/solrsearch/select?q=1:%22";
@@ -43,6 +47,12 @@ public class MavenOrgSourceLoaderProvider implements SourceLoader {
 
     protected Set<Container.Entry> failed = new HashSet<>();
     protected Map<Container.Entry, File> cache = new HashMap<>();
+    // Sources jars kept open, looked up through their central directory
+    protected final SourceJarZipFiles sourceJarZipFiles = new SourceJarZipFiles(8);
+
+    public MavenOrgSourceLoaderProvider() {
+        Runtime.getRuntime().addShutdownHook(new Thread(sourceJarZipFiles::closeAll, "sources-jars"));
+    }
 
     @Override
     public String getSource(API api, Container.Entry entry) {
@@ -89,29 +99,43 @@ public class MavenOrgSourceLoaderProvider implements SourceLoader {
 
     protected String searchSource(Container.Entry entry, File sourceJarFile) {
         if (sourceJarFile != null) {
-            try (ZipInputStream zis = new ZipInputStream(new BufferedInputStream(new FileInputStream(sourceJarFile)))) {
-                ZipEntry ze = zis.getNextEntry();
-                String name = entry.getPath();
+            String name = entry.getPath();
 
-                name = name.substring(0, name.length()-6) + ".java"; // 6 = ".class".length()
+            name = name.substring(0, name.length()-6) + ".java"; // 6 = ".class".length()
 
-                while (ze != null) {
-                    if (ze.getName().equals(name)) {
-                        return IOUtils.toString(zis, StandardCharsets.UTF_8);
-                    }
+            // Evicted jars are closed: read under the lock
+            synchronized (sourceJarZipFiles) {
+                try {
+                    ZipFile zipFile = getSourceJarZipFile(sourceJarFile);
+                    ZipEntry ze = zipFile.getEntry(name);
 
-                    ze = zis.getNextEntry();
+                    if (ze != null) {
+                        try (InputStream is = zipFile.getInputStream(ze)) {
+                            return IOUtils.toString(is, StandardCharsets.UTF_8);
+                        }
+                    }
+                } catch (IOException e) {
+                    assert ExceptionUtil.printStackTrace(e);
                 }
-
-                zis.closeEntry();
-            } catch (IOException e) {
-                assert ExceptionUtil.printStackTrace(e);
             }
         }
 
         return null;
     }
 
+    protected ZipFile getSourceJarZipFile(File sourceJarFile) throws IOException {
+        synchronized (sourceJarZipFiles) {
+            ZipFile zipFile = sourceJarZipFiles.get(sourceJarFile);
+
+            if (zipFile == null) {
+                zipFile = new ZipFile(sourceJarFile);
+                sourceJarZipFiles.put(sourceJarFile, zipFile);
+            }
+
+            return zipFile;
+        }
+    }
+
     protected File downloadSourceJarFile(API api, Container.Entry entry) {
         if (cache.containsKey(entry)) {
             return cache.get(entry);
@@ -123,8 +147,9 @@ public class MavenOrgSourceLoaderProvider implements SourceLoader {
                 NexusArtifact artifact = buildArtifactFromURI(api, sha1, true);
                 if (artifact != null && artifact.artifactLink() != null) {
                     // Load source
-                	URI downloadURI = URI.create(artifact.artifactLink());
-					File tmpFile = DownloadUtil.downloadToTemp(downloadURI, api, null);
+                    URI downloadURI = URI.create(artifact.artifactLink());
+                    // Sources of the local repository are read in place
+                    File tmpFile = "file".equals(downloadURI.getScheme()) ? new File(downloadURI) : DownloadUtil.downloadToTemp(downloadURI, api, null);
                     cache.put(entry, tmpFile);
                     return tmpFile;
                 }
@@ -133,27 +158,68 @@ public class MavenOrgSourceLoaderProvider implements SourceLoader {
             }
         }
 
-        failed.add(entry);
+        // Looked up again once the local repository is scanned
+        if (LocalRepositoryIndex.getDefault().isScanned()) {
+            failed.add(entry);
+        }
         return null;
     }
 
     public static NexusArtifact buildArtifactFromURI(API api, String sha1, boolean sources) throws Exception {
-    	NexusSearch nexusSearch = NexusSearchFactory.create(api, null);
-    	NexusSearchResult nexusSearchResult = nexusSearch.searchBySha1(sha1, 0);
-		if (nexusSearchResult.artifacts() != null && !nexusSearchResult.artifacts().isEmpty()) {
-			NexusArtifact nexusArtifact = nexusSearchResult.artifacts().get(0);
-			if (sources) {
-				String g = nexusArtifact.groupId();
-				String a = nexusArtifact.artifactId();
-				String v = nexusArtifact.version();
-				NexusSearchResult results = nexusSearch.searchByGav(g, a, v, "sources", "jar", 0);
-				if (results.artifacts() != null && !results.artifacts().isEmpty()) {
-					return results.artifacts().get(0);
-				}
-			}
-			return nexusArtifact;
-		}
-    	return null;
+        // The local repository is checked first, to resolve offline
+        LocalRepositoryIndex localRepositoryIndex = LocalRepositoryIndex.getDefault();
+        NexusArtifact nexusArtifact = localRepositoryIndex.findBySha1(sha1);
+        if (nexusArtifact != null) {
+            if (!sources) {
+                return nexusArtifact;
+            }
+            NexusArtifact localSources = localRepositoryIndex.findSources(nexusArtifact);
+            if (localSources != null) {
+                return localSources;
+            }
+        }
+        NexusSearch nexusSearch = NexusSearchFactory.create(api, null);
+        if (nexusArtifact == null) {
+            NexusSearchResult nexusSearchResult = nexusSearch.searchBySha1(sha1, 0);
+            if (nexusSearchResult.artifacts() == null || nexusSearchResult.artifacts().isEmpty()) {
+                return null;
+            }
+            nexusArtifact = nexusSearchResult.artifacts().get(0);
+        }
+        if (sources) {
+            String g = nexusArtifact.groupId();
+            String a = nexusArtifact.artifactId();
+            String v = nexusArtifact.version();
+            NexusSearchResult results = nexusSearch.searchByGav(g, a, v, "sources", "jar", 0);
+            if (results.artifacts() != null && !results.artifacts().isEmpty()) {
+                return results.artifacts().get(0);
+            }
+        }
+        return nexusArtifact;
+    }
+
+    /**
+     * Resolves the coordinates of several jars, from the local repository
+     * first, then with one batch of concurrent remote searches. Hashes that
+     * cannot be resolved are absent from the map.
+     */
+    public static Map<String, NexusArtifact> buildArtifactsFromSHA1s(API api, Collection<String> sha1s) {
+        LocalRepositoryIndex localRepositoryIndex = LocalRepositoryIndex.getDefault();
+        Map<String, NexusArtifact> artifacts = new HashMap<>();
+        List<String> remoteSha1s = new ArrayList<>();
+        for (String sha1 : sha1s) {
+            NexusArtifact nexusArtifact = localRepositoryIndex.findBySha1(sha1);
+            if (nexusArtifact != null) {
+                artifacts.put(sha1, nexusArtifact);
+            } else {
+                remoteSha1s.add(sha1);
+            }
+        }
+        if (!remoteSha1s.isEmpty()) {
+            NexusSearch nexusSearch = NexusSearchFactory.create(api, null);
+            artifacts.putAll(nexusSearch.resolveAll(remoteSha1s).join());
+        }
+        return artifacts;
     }
 
     protected boolean accepted(String filters, String path) {
@@ -179,4 +245,37 @@ public class MavenOrgSourceLoaderProvider implements SourceLoader {
 
         return false;
     }
+
+    /**
+     * Least recently used sources jars, closing the evicted ones.
+     */
+    protected static final class SourceJarZipFiles extends LRUCache<File, ZipFile> {
+        private static final long serialVersionUID = 1L;
+
+        public SourceJarZipFiles(int maxEntries) {
+            super(maxEntries);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<File, ZipFile> eldest) {
+            if (super.removeEldestEntry(eldest)) {
+                close(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+
+        public synchronized void closeAll() {
+            values().forEach(SourceJarZipFiles::close);
+            clear();
+        }
+
+        private static void close(ZipFile zipFile) {
+            try {
+                zipFile.close();
+            } catch (IOException e) {
+                assert ExceptionUtil.printStackTrace(e);
+            }
+        }
+    }
 }
@@ -11,15 +11,14 @@ package org.jd.gui.service.sourcesaver;
 import org.jd.core.v1.printer.LineNumberStringBuilderPrinter;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ByteCodeWriter;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
-import org.jd.core.v1.util.StringConstants;
 import org.jd.gui.api.API;
 import org.jd.gui.api.model.Container;
 import org.jd.gui.util.MethodPatcher;
 import org.jd.gui.util.ProgressUtil;
 import org.jd.gui.util.decompiler.ContainerLoader;
+import org.jd.gui.util.decompiler.DecompilerWorkerPool;
 import org.jd.gui.util.loader.LoaderUtils;
 
-import com.heliosdecompiler.transformerapi.StandardTransformers;
 import com.heliosdecompiler.transformerapi.common.Loader;
 
 import java.io.IOException;
@@ -90,9 +89,9 @@ public class ClassFileSourceSaverProvider extends AbstractSourceSaverProvider {
 
             String decompileEngine = preferences.getOrDefault(DECOMPILE_ENGINE, ENGINE_JD_CORE_V1);
             Loader apiLoader = LoaderUtils.createLoader(preferences, loader, entry);
-            decompiledResult = StandardTransformers.decompile(apiLoader, entryInternalName, preferences, decompileEngine);
+            decompiledResult = DecompilerWorkerPool.decompileClass(entry, apiLoader, entryInternalName, preferences, decompileEngine);
             if (decompiledResult.getDecompiledOutput().contains(ByteCodeWriter.DECOMPILATION_FAILED_AT_LINE)) {
-                DecompilationResult sourceCodeV0 = StandardTransformers.decompile(apiLoader, entryInternalName, preferences, ENGINE_JD_CORE_V0);
+                DecompilationResult sourceCodeV0 = DecompilerWorkerPool.decompileClass(entry, apiLoader, entryInternalName, preferences, ENGINE_JD_CORE_V0);
                 decompiledResult.setDecompiledOutput(MethodPatcher.patchCode(api, decompiledResult.getDecompiledOutput(), sourceCodeV0.getDecompiledOutput(), entry));
             }
 
@@ -104,14 +103,8 @@ public class ClassFileSourceSaverProvider extends AbstractSourceSaverProvider {
         writeCodeToFile(path, decompiledResult.getDecompiledOutput());
 
         try {
-            ProgressUtil.updateProgress(entry, getProgressFunction, setProgressFunction);
-            // update progress of inner classes that were filtered by PackageSourceSaverProvider
-            String internalTypeName = ClassUtil.getInternalName(entry.getPath());
-            for (Container.Entry e : entry.getParent().getChildren().values()) {
-                if (e.getPath().startsWith(internalTypeName + StringConstants.INTERNAL_INNER_SEPARATOR)) {
-                    ProgressUtil.updateProgress(e, getProgressFunction, setProgressFunction);
-                }
-            }
+            // inner classes were filtered by PackageSourceSaverProvider
+            ProgressUtil.updateProgressWithInnerClasses(entry, getProgressFunction, setProgressFunction);
 
         } catch (IOException e) {
             assert ExceptionUtil.printStackTrace(e);
@@ -26,9 +26,28 @@ public class FileUriLoaderProvider implements UriLoader {
 
     @Override
     public boolean load(API api, URI uri) {
-        File file = new File(uri.getPath());
+        String path = uri.getPath();
+        File file = new File(path);
+        int index = path.indexOf("!/");
+
+        if (index != -1 && !file.exists()) {
+            // Entry of a container not opened yet, found in a shared index (i.e. JDK types)
+            return loadOuterFile(api, uri, new File(path.substring(0, index)));
+        }
+
         FileLoader fileLoader = api.getFileLoader(file);
 
         return fileLoader != null && fileLoader.load(api, file);
     }
+
+    private static boolean loadOuterFile(API api, URI uri, File outerFile) {
+        FileLoader fileLoader = api.getFileLoader(outerFile);
+
+        if (fileLoader == null || !fileLoader.load(api, outerFile)) {
+            return false;
+        }
+
+        // Select the entry in the new panel, without loading the outer file again
+        return api.selectURI(uri);
+    }
 }
@@ -17,9 +17,9 @@
  ******************************************************************************/
 package org.jd.gui.util;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.jd.gui.api.API;
+import org.jd.gui.util.http.DownloadStore;
 import org.jd.gui.util.maven.central.helper.NexusConfig;
 import org.jd.gui.util.maven.central.helper.NexusConfigHelper;
 import org.jd.gui.util.maven.central.helper.ProxyConfig;
@@ -28,20 +28,18 @@ import org.jd.gui.util.maven.central.helper.ProxyConfigHelper;
 import java.awt.Component;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.net.HttpURLConnection;
-import java.net.Proxy;
 import java.net.URI;
-import java.net.URL;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.LinkedHashMap;
 import java.util.Map;
 /**
- * We provide helpers to download artifacts to the system temporary directory,
- * using a filename inferred from the URI and its query parameters.
+ * We provide helpers to download artifacts into the download store of the
+ * cache directory, using a filename inferred from the URI and its query
+ * parameters. Downloads are resumed when interrupted and checked against the
+ * published SHA-1.
  *
  * Proxy logic:
  *   - If a Nexus configuration is present, we consider it intranet and never use a proxy.
@@ -57,7 +55,7 @@ public final class DownloadUtil {
     }
 
     /**
-     * We download the given URI into the system temporary directory,
+     * We download the given URI into the download store,
      * using a filename derived from the URI and its parameters.
      *
      * Proxy policy:
@@ -114,46 +112,8 @@ public final class DownloadUtil {
             fileName = "download.bin";
         }
 
-        Path destPath = Path.of(System.getProperty("java.io.tmpdir"), fileName);
-        File destFile = destPath.toFile();
-
-        URL url = uri.toURL();
-
-        Proxy proxy = Proxy.NO_PROXY;
-        String proxyAuth = null;
-        if (proxyConfig != null && proxyConfig.isValid()) {
-            proxy = proxyConfig.toJavaNetProxy();
-            proxyAuth = proxyConfig.basicAuthHeaderValue();
-        }
-
-        // codeql[java/ssrf]: the proxy host is user configured in a desktop client
-        // this outbound request is an intentional feature, not a server endpoint
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection(proxy);
-        conn.setConnectTimeout(CONNECT_TIMEOUT_MS);
-        conn.setReadTimeout(READ_TIMEOUT_MS);
-        conn.setInstanceFollowRedirects(true);
-        if (proxyAuth != null) {
-            conn.setRequestProperty("Proxy-Authorization", proxyAuth);
-        }
         String nexusAuth = nexusBasicAuthHeaderValue(uri, nexusConfig);
-        if (nexusAuth != null) {
-            conn.setRequestProperty("Authorization", nexusAuth);
-        }
-
-        int code = conn.getResponseCode();
-        if (code >= 400) {
-            InputStream err = conn.getErrorStream();
-            if (err != null) {
-                err.close();
-            }
-            throw new IOException("HTTP " + code + " while downloading " + uri);
-        }
-
-        try (InputStream in = conn.getInputStream()) {
-            FileUtils.copyInputStreamToFile(in, destFile);
-        }
-
-        return destFile;
+        return DownloadStore.getDefault().download(uri, fileName, proxyConfig, nexusAuth, Duration.ofMillis((long) CONNECT_TIMEOUT_MS + READ_TIMEOUT_MS));
     }
 
     /**
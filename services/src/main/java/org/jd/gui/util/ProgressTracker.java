@@ -0,0 +1,228 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util;
+
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+import org.jd.core.v1.util.StringConstants;
+import org.jd.gui.api.model.Container;
+import org.jd.gui.util.index.IndexesUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Progress of an indexing or saving pass over a container.
+ * <p>
+ * Entry weights are read once from the central directory of the opened file.
+ * Opened directories and JDK images are not walked up front: their weights are
+ * recorded during the first complete pass and used by the next passes.
+ * Progress is accumulated without locking and forwarded to the worker at most
+ * every {@link #UPDATE_INTERVAL_NANOS}, so it may be shared by parallel workers.
+ * It is passed down as both the progress supplier and consumer, where
+ * {@link ProgressUtil} recognises it.
+ */
+public final class ProgressTracker implements DoubleSupplier, DoubleConsumer {
+
+    private static final long UPDATE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final Map<Container, Map<String, Long>> RECORDED_WEIGHTS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Container container;
+    private final Container.Entry rootParent;
+    private final DoubleConsumer setProgressFunction;
+    private final double initialProgress;
+    private final double totalWeight;
+    private final Map<String, Long> weights;
+    private final Map<String, Long> innerClassWeights;
+    // Weights of the top level entries, recorded while no weight is known
+    private final Map<String, Long> recordedWeights;
+    private final Map<Container.Entry, Map<String, Long>> nestedInnerClassWeightsByDirectory = new ConcurrentHashMap<>();
+    private final LongAdder doneWeight = new LongAdder();
+    private final AtomicLong nextUpdateNanos = new AtomicLong(System.nanoTime());
+
+    private ProgressTracker(Container container, DoubleSupplier getProgressFunction, DoubleConsumer setProgressFunction, double totalWeight, Map<String, Long> weights, boolean directory) {
+        this.container = container;
+        this.rootParent = container.getRoot().getParent();
+        this.setProgressFunction = setProgressFunction;
+        this.initialProgress = getProgressFunction.getAsDouble();
+        this.totalWeight = totalWeight;
+        this.weights = weights;
+        this.innerClassWeights = sumInnerClassWeights(weights);
+        this.recordedWeights = directory && weights.isEmpty() ? new ConcurrentHashMap<>() : null;
+    }
+
+    /**
+     * @param container the container of the opened file or directory
+     */
+    public static ProgressTracker of(Container container, DoubleSupplier getProgressFunction, DoubleConsumer setProgressFunction) {
+        Container.Entry rootParent = container.getRoot().getParent();
+        Map<String, Long> weights = null;
+        double totalWeight = 0;
+
+        try {
+            File file = new File(rootParent.getUri());
+
+            if (file.isFile()) {
+                totalWeight = Files.size(file.toPath());
+                weights = readWeights(file);
+            }
+        } catch (IllegalArgumentException | IOException e) {
+            assert ExceptionUtil.printStackTrace(e);
+        }
+
+        boolean directory = weights == null;
+
+        if (directory) {
+            // Weights of a previous pass, if any
+            weights = RECORDED_WEIGHTS.getOrDefault(container, Collections.emptyMap());
+            totalWeight = weights.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        return new ProgressTracker(container, getProgressFunction, setProgressFunction, totalWeight, weights, directory);
+    }
+
+    private static Map<String, Long> readWeights(File file) {
+        Map<String, Long> weights = new HashMap<>();
+
+        try (ZipFile zipFile = new ZipFile(file)) {
+            for (ZipEntry zipEntry : Collections.list(zipFile.entries())) {
+                if (!zipEntry.isDirectory()) {
+                    weights.put(zipEntry.getName(), IndexesUtil.entryImpactBytes(zipEntry));
+                }
+            }
+        } catch (IOException e) {
+            // Not an archive (i.e. class file), entry lengths are used instead
+            return Collections.emptyMap();
+        }
+
+        return weights;
+    }
+
+    private static Map<String, Long> sumInnerClassWeights(Container.Entry directory) {
+        Map<String, Long> weights = new HashMap<>();
+
+        for (Container.Entry child : directory.getChildren().values()) {
+            if (!child.isDirectory()) {
+                weights.put(child.getPath(), child.compressedLength());
+            }
+        }
+
+        return sumInnerClassWeights(weights);
+    }
+
+    private static Map<String, Long> sumInnerClassWeights(Map<String, Long> weights) {
+        Map<String, Long> innerClassWeights = new HashMap<>();
+
+        for (Map.Entry<String, Long> weight : weights.entrySet()) {
+            String path = weight.getKey();
+            int index = path.indexOf('$', path.lastIndexOf('/') + 1);
+
+            if (index != -1 && path.endsWith(StringConstants.CLASS_FILE_SUFFIX)) {
+                innerClassWeights.merge(path.substring(0, index) + StringConstants.CLASS_FILE_SUFFIX, weight.getValue(), Long::sum);
+            }
+        }
+
+        return innerClassWeights;
+    }
+
+    public void advance(Container.Entry entry) {
+        advance(weightOf(entry));
+    }
+
+    /**
+     * Advances by the weight of a class file and of its inner classes.
+     */
+    public void advanceWithInnerClasses(Container.Entry entry) {
+        long weight = weightOf(entry);
+
+        if (isTopLevelEntry(entry)) {
+            weight += innerClassWeights.getOrDefault(entry.getPath(), 0L);
+        } else {
+            // Entries of nested containers: siblings are scanned once per directory
+            Map<String, Long> nestedInnerClassWeights = nestedInnerClassWeightsByDirectory.computeIfAbsent(entry.getParent(), ProgressTracker::sumInnerClassWeights);
+            weight += nestedInnerClassWeights.getOrDefault(entry.getPath(), 0L);
+        }
+
+        advance(weight);
+    }
+
+    private void advance(long weight) {
+        doneWeight.add(weight);
+
+        long now = System.nanoTime();
+        long next = nextUpdateNanos.get();
+
+        if (now - next >= 0 && nextUpdateNanos.compareAndSet(next, now + UPDATE_INTERVAL_NANOS)) {
+            flush();
+        }
+    }
+
+    private boolean isTopLevelEntry(Container.Entry entry) {
+        return !weights.isEmpty() && entry.getContainer().getRoot().getParent() == rootParent;
+    }
+
+    private long weightOf(Container.Entry entry) {
+        if (isTopLevelEntry(entry)) {
+            Long weight = weights.get(entry.getPath());
+            if (weight != null) {
+                return weight;
+            }
+        }
+
+        long weight = entry.compressedLength();
+
+        if (recordedWeights != null && entry.getContainer() == container) {
+            recordedWeights.put(entry.getPath(), weight);
+        }
+
+        return weight;
+    }
+
+    /**
+     * Forwards the current progress to the worker.
+     */
+    public void flush() {
+        setProgressFunction.accept(getAsDouble());
+    }
+
+    /**
+     * Forwards the final progress to the worker and, after a first complete
+     * pass over a directory, keeps the recorded weights for the next passes.
+     */
+    public void finish() {
+        if (recordedWeights != null && !recordedWeights.isEmpty()) {
+            RECORDED_WEIGHTS.put(container, new HashMap<>(recordedWeights));
+        }
+        flush();
+    }
+
+    @Override
+    public double getAsDouble() {
+        if (totalWeight <= 0) {
+            return initialProgress;
+        }
+        return Math.min(100, initialProgress + 100 * doneWeight.sum() / totalWeight);
+    }
+
+    @Override
+    public void accept(double progress) {
+        setProgressFunction.accept(progress);
+    }
+}
@@ -16,6 +16,7 @@
  ******************************************************************************/
 package org.jd.gui.util;
 
+import org.jd.core.v1.util.StringConstants;
 import org.jd.gui.api.model.Container;
 
 import java.io.File;
@@ -24,6 +25,8 @@ import java.nio.file.Files;
 import java.util.function.DoubleConsumer;
 import java.util.function.DoubleSupplier;
 
+import jd.core.ClassUtil;
+
 public final class ProgressUtil {
 
     private ProgressUtil() {
@@ -45,7 +48,29 @@ public final class ProgressUtil {
     }
 
     public static void updateProgress(Container.Entry entry, DoubleSupplier getProgressFunction, DoubleConsumer setProgressFunction) throws IOException {
-        updateProgress(entry.getContainer().getRoot().getParent(), entry, getProgressFunction, setProgressFunction);
+        if (setProgressFunction instanceof ProgressTracker tracker) {
+            tracker.advance(entry);
+        } else {
+            updateProgress(entry.getContainer().getRoot().getParent(), entry, getProgressFunction, setProgressFunction);
+        }
+    }
+
+    /**
+     * Updates progress for a class file and for its inner classes, which are
+     * saved along with it.
+     */
+    public static void updateProgressWithInnerClasses(Container.Entry entry, DoubleSupplier getProgressFunction, DoubleConsumer setProgressFunction) throws IOException {
+        if (setProgressFunction instanceof ProgressTracker tracker) {
+            tracker.advanceWithInnerClasses(entry);
+        } else {
+            updateProgress(entry, getProgressFunction, setProgressFunction);
+            String innerClassPrefix = ClassUtil.getInternalName(entry.getPath()) + StringConstants.INTERNAL_INNER_SEPARATOR;
+            for (Container.Entry e : entry.getParent().getChildren().values()) {
+                if (e.getPath().startsWith(innerClassPrefix)) {
+                    updateProgress(e, getProgressFunction, setProgressFunction);
+                }
+            }
+        }
     }
 
 }
@@ -17,39 +17,40 @@
  ******************************************************************************/
 package org.jd.gui.util.central;
 
+import org.jd.gui.util.http.HttpResponseCache;
 import org.jd.gui.util.maven.central.helper.ProxyConfig;
 
 import java.io.IOException;
-import java.net.HttpURLConnection;
-import java.net.Proxy;
 import java.net.URI;
-import java.net.URL;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 public interface ProxyCapable {
 
     int CONNECT_TIMEOUT_MS = 8_000;
     int READ_TIMEOUT_MS = 60_000;
 
-    default HttpURLConnection open(String urlString, String method, ProxyConfig proxyConfig) throws IOException {
-        URL url = URI.create(urlString).toURL();
-
-        HttpURLConnection conn;
-        if (proxyConfig != null && proxyConfig.isValid()) {
-            conn = (HttpURLConnection) url.openConnection(proxyConfig.toJavaNetProxy());
-            String proxyAuth = proxyConfig.basicAuthHeaderValue();
-            if (proxyAuth != null) {
-                conn.setRequestProperty("Proxy-Authorization", proxyAuth);
-            }
-        } else {
-            conn = (HttpURLConnection) url.openConnection(Proxy.NO_PROXY);
-        }
-
-        conn.setRequestMethod(method);
-        conn.setConnectTimeout(CONNECT_TIMEOUT_MS);
-        conn.setReadTimeout(READ_TIMEOUT_MS);
-        conn.setRequestProperty("Accept", "application/json");
-        conn.setRequestProperty("User-Agent", "JD-GUI-CentralSearch/1.0");
+    /**
+     * Sends the GET request through the persistent response cache.
+     *
+     * @param ttl        the time-to-live of a response holding results
+     * @param parser     parses the body of a successful response
+     * @param isNegative tells whether a parsed body holds no result
+     */
+    default <T> HttpResponseCache.Response<T> get(String urlString, ProxyConfig proxyConfig, Duration ttl, Function<String, T> parser, Predicate<T> isNegative) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(urlString))
+                .GET()
+                .timeout(Duration.ofMillis((long) CONNECT_TIMEOUT_MS + READ_TIMEOUT_MS))
+                .header("Accept", "application/json")
+                .header("User-Agent", "JD-GUI-CentralSearch/1.0");
+
+        // Proxy credentials are added by HttpClientUtil.send
+        return getResponseCache().get(proxyConfig, builder, ttl, parser, isNegative);
+    }
 
-        return conn;
+    default HttpResponseCache getResponseCache() {
+        return HttpResponseCache.getDefault();
     }
 }
@@ -17,8 +17,8 @@
  ******************************************************************************/
 package org.jd.gui.util.central;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.jd.gui.util.http.HttpResponseCache;
 import org.jd.gui.util.maven.central.helper.ProxyConfig;
 import org.jd.gui.util.maven.central.helper.model.ResponseRoot;
 import org.jd.gui.util.maven.central.helper.model.response.Response;
@@ -27,9 +27,8 @@ import org.jd.gui.util.nexus.NexusSearch;
 import org.jd.gui.util.nexus.model.NexusArtifact;
 import org.jd.gui.util.nexus.model.NexusSearchResult;
 
-import java.io.InputStream;
-import java.net.HttpURLConnection;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -52,15 +51,36 @@ import jakarta.json.bind.JsonbBuilder;
  */
 public final class SolrCentralSearchClient implements NexusSearch, ProxyCapable {
 
-	private static final String SELECT_ENDPOINT = "https://search.maven.org/solrsearch/select";
-    private static final String REMOTE_CONTENT_ENDPOINT = "https://search.maven.org/remotecontent?filepath=";
+    private static final String BASE_URL = "https://search.maven.org";
+    private static final String SELECT_ENDPOINT = "/solrsearch/select";
+    private static final String REMOTE_CONTENT_ENDPOINT = "/remotecontent?filepath=";
     private static final int ROWS = 200;
     private static final String AND = " AND ";
 
     private final ProxyConfig proxyConfig;
+    private final String baseUrl;
+    private final HttpResponseCache responseCache;
 
     public SolrCentralSearchClient(ProxyConfig proxyConfig) {
+        this(proxyConfig, BASE_URL);
+    }
+
+    /**
+     * We target another Solr server exposing the same endpoints, such as a mirror.
+     */
+    public SolrCentralSearchClient(ProxyConfig proxyConfig, String baseUrl) {
+        this(proxyConfig, baseUrl, HttpResponseCache.getDefault());
+    }
+
+    SolrCentralSearchClient(ProxyConfig proxyConfig, String baseUrl, HttpResponseCache responseCache) {
         this.proxyConfig = proxyConfig;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public HttpResponseCache getResponseCache() {
+        return responseCache;
     }
 
     @Override
@@ -74,7 +94,7 @@ public final class SolrCentralSearchClient implements NexusSearch, ProxyCapable
     public NexusSearchResult searchBySha1(String sha1, int pageNo) throws Exception {
         Objects.requireNonNull(sha1, "sha1 must not be null");
         String qExpr = "1:" + sha1.trim();
-        return executeQuery(qExpr, pageNo);
+        return executeQuery(qExpr, pageNo, false, HttpResponseCache.SHA1_TTL);
     }
 
     @Override
@@ -113,7 +133,7 @@ public final class SolrCentralSearchClient implements NexusSearch, ProxyCapable
         	}
         	expr.append("p:").append(packaging.trim());
         }
-        NexusSearchResult nexusSearchResult = executeQuery(expr.toString(), pageNo, true);
+        NexusSearchResult nexusSearchResult = executeQuery(expr.toString(), pageNo, true, HttpResponseCache.SEARCH_TTL);
         if (classifier != null) {
         	nexusSearchResult.artifacts().removeIf(a -> !classifier.equals(a.classifier()));
         }
@@ -132,16 +152,16 @@ public final class SolrCentralSearchClient implements NexusSearch, ProxyCapable
     }
 
     private NexusSearchResult executeQuery(String qExpr, int pageNo) throws Exception {
-		return executeQuery(qExpr, pageNo, false);
+		return executeQuery(qExpr, pageNo, false, HttpResponseCache.SEARCH_TTL);
 	}
 
-	private NexusSearchResult executeQuery(String queryExpression, int pageNo, boolean gav) throws Exception {
+	private NexusSearchResult executeQuery(String queryExpression, int pageNo, boolean gav, Duration ttl) throws Exception {
         int safePage = Math.max(0, pageNo);
         int start = safePage * ROWS;
 
         String qParam = java.net.URLEncoder.encode(queryExpression, StandardCharsets.UTF_8);
         StringBuilder urlBuilder = new StringBuilder();
-		urlBuilder.append(SELECT_ENDPOINT);
+		urlBuilder.append(baseUrl).append(SELECT_ENDPOINT);
 		urlBuilder.append("?q=");
 		urlBuilder.append(qParam);
 		urlBuilder.append("&rows=");
@@ -154,19 +174,21 @@ public final class SolrCentralSearchClient implements NexusSearch, ProxyCapable
 		}
 		String url = urlBuilder.toString();
 
-        HttpURLConnection connection = open(url, "GET", proxyConfig);
-        int code = connection.getResponseCode();
-
-        try (InputStream in = code < 300 ? connection.getInputStream() : connection.getErrorStream();
-             Jsonb jsonb = JsonbBuilder.create()) {
+        HttpResponseCache.Response<NexusSearchResult> response = get(url, proxyConfig, ttl, this::parse, result -> result.artifacts().isEmpty());
+        int code = response.statusCode();
+        if (code >= 300) {
+            throw new IllegalStateException("HTTP " + code + " from " + url + ": " + response.body());
+        }
 
-            String json = IOUtils.toString(in, StandardCharsets.UTF_8);
-            if (code >= 300) {
-                throw new IllegalStateException("HTTP " + code + " from " + url + ": " + json);
-            }
+        return response.value();
+    }
 
+    private NexusSearchResult parse(String json) {
+        try (Jsonb jsonb = JsonbBuilder.create()) {
             ResponseRoot root = jsonb.fromJson(json, ResponseRoot.class);
             return mapResponse(root);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unexpected response: " + json, e);
         }
     }
 
@@ -273,11 +295,11 @@ public final class SolrCentralSearchClient implements NexusSearch, ProxyCapable
      * We build a download link using the documented remotecontent service, which is a stable
      * endpoint for downloads rather than a raw repository path.
      */
-    private static String buildRemoteContentUrl(String groupId,
-                                                String artifactId,
-                                                String version,
-                                                String classifier,
-                                                String extension) {
+    private String buildRemoteContentUrl(String groupId,
+                                         String artifactId,
+                                         String version,
+                                         String classifier,
+                                         String extension) {
         StringBuilder path = new StringBuilder();
         path.append(groupId.replace('.', '/'))
                 .append('/')
@@ -293,7 +315,7 @@ public final class SolrCentralSearchClient implements NexusSearch, ProxyCapable
         }
         String ext = (extension == null || extension.isBlank()) ? "jar" : extension.trim();
         path.append('.').append(ext);
-        return REMOTE_CONTENT_ENDPOINT
+        return baseUrl + REMOTE_CONTENT_ENDPOINT
                 + java.net.URLEncoder.encode(path.toString(), StandardCharsets.UTF_8);
     }
 
@@ -0,0 +1,58 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.container;
+
+import org.jd.gui.api.model.Container;
+import org.jd.gui.api.model.EntryTable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public final class ContainerEntryUtil {
+
+    private ContainerEntryUtil() {
+    }
+
+    /**
+     * Returns true if the entry belongs to the container or to one of its
+     * nested containers, comparing containers by identity instead of URIs.
+     */
+    public static boolean isInContainer(Container.Entry entry, Container container) {
+        EntryTable entryTable = container.getEntryTable();
+        Container entryContainer = entry.getContainer();
+
+        if (entryTable != null && entryContainer.getEntryTable() != entryTable) {
+            // Entry of another opened file
+            return false;
+        }
+
+        while (entryContainer != null) {
+            if (entryContainer == container) {
+                return true;
+            }
+            Container.Entry root = entryContainer.getRoot();
+            Container.Entry parent = root == null ? null : root.getParent();
+            entryContainer = parent == null ? null : parent.getContainer();
+        }
+
+        return false;
+    }
+
+    public static List<Container.Entry> filterContainerEntries(Collection<Container.Entry> entries, Container container) {
+        List<Container.Entry> containerEntries = new ArrayList<>();
+
+        for (Container.Entry entry : entries) {
+            if (isInContainer(entry, container)) {
+                containerEntries.add(entry);
+            }
+        }
+
+        return containerEntries;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.conversion;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Translated class files of a batch, deflated into a single direct buffer so
+ * that they stay out of the Java heap until they are read.
+ */
+final class CompressedClassChunk {
+
+    private final ByteBuffer buffer;
+    private final Map<String, Location> locations;
+
+    private CompressedClassChunk(ByteBuffer buffer, Map<String, Location> locations) {
+        this.buffer = buffer;
+        this.locations = locations;
+    }
+
+    static CompressedClassChunk of(Map<String, byte[]> classFiles) {
+        Map<String, Location> locations = new HashMap<>(classFiles.size() * 2);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        byte[] output = new byte[8192];
+
+        try {
+            for (Map.Entry<String, byte[]> classFile : classFiles.entrySet()) {
+                byte[] bytes = classFile.getValue();
+                int offset = compressed.size();
+
+                deflater.reset();
+                deflater.setInput(bytes);
+                deflater.finish();
+
+                while (!deflater.finished()) {
+                    compressed.write(output, 0, deflater.deflate(output));
+                }
+
+                locations.put(classFile.getKey(), new Location(offset, compressed.size() - offset, bytes.length));
+            }
+        } finally {
+            deflater.end();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(compressed.size());
+        buffer.put(compressed.toByteArray());
+        return new CompressedClassChunk(buffer.asReadOnlyBuffer(), locations);
+    }
+
+    int length(String path) {
+        Location location = locations.get(path);
+        return location == null ? -1 : location.length();
+    }
+
+    byte[] get(String path) throws IOException {
+        Location location = locations.get(path);
+
+        if (location == null) {
+            return null;
+        }
+
+        // Slices share the content but not the position: safe for concurrent readers
+        ByteBuffer input = buffer.slice(location.offset(), location.compressedLength());
+        byte[] bytes = new byte[location.length()];
+        Inflater inflater = new Inflater();
+
+        try {
+            inflater.setInput(input);
+            int length = 0;
+            while (length < bytes.length && !inflater.finished()) {
+                int inflated = inflater.inflate(bytes, length, bytes.length - length);
+                if (inflated == 0 && inflater.needsInput()) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != bytes.length) {
+                throw new IOException("Truncated class file " + path);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted class file " + path, e);
+        } finally {
+            inflater.end();
+        }
+
+        return bytes;
+    }
+
+    private record Location(int offset, int compressedLength, int length) {
+    }
+}
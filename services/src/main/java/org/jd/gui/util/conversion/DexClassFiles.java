@@ -0,0 +1,118 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.conversion;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Class files of a dex or apk file, listed from the dex metadata and translated
+ * batch by batch, either in background or on demand. Translated batches are
+ * kept compressed off-heap and inflated each time a class file is read.
+ */
+public final class DexClassFiles {
+
+    private final NavigableMap<String, Batch> batchesByPath;
+
+    DexClassFiles(NavigableMap<String, Batch> batchesByPath) {
+        this.batchesByPath = Collections.unmodifiableNavigableMap(batchesByPath);
+    }
+
+    public NavigableSet<String> getPaths() {
+        return batchesByPath.navigableKeySet();
+    }
+
+    public int size() {
+        return batchesByPath.size();
+    }
+
+    /**
+     * Returns the translated class file, translating its batch in the calling
+     * thread if no background worker has started it yet.
+     */
+    public byte[] getClassFile(String path) throws IOException {
+        byte[] classFile = getChunk(path).get(path);
+
+        if (classFile == null) {
+            throw new IOException("Dex to jar conversion failed for " + path);
+        }
+
+        return classFile;
+    }
+
+    /**
+     * Returns the length of the translated class file without inflating it,
+     * or -1 if its batch is not translated yet or failed. Never translates.
+     */
+    public int getClassFileLength(String path) {
+        Batch batch = batchesByPath.get(path);
+        CompressedClassChunk chunk = batch == null ? null : batch.translated();
+
+        return chunk == null ? -1 : chunk.length(path);
+    }
+
+    private CompressedClassChunk getChunk(String path) throws IOException {
+        Batch batch = batchesByPath.get(path);
+
+        if (batch == null) {
+            throw new IOException("Unknown class file " + path);
+        }
+
+        return batch.translate();
+    }
+
+    void translateInBackground(Executor executor) {
+        Set<Batch> batches = new LinkedHashSet<>(batchesByPath.values());
+
+        for (Batch batch : batches) {
+            executor.execute(batch.task);
+        }
+    }
+
+    static final class Batch {
+        private final FutureTask<CompressedClassChunk> task;
+
+        Batch(byte[] dex, int[] classIndexes) {
+            this.task = new FutureTask<>(() -> CompressedClassChunk.of(DexToJarConversionKit.translate(dex, classIndexes)));
+        }
+
+        private CompressedClassChunk translated() {
+            if (task.isDone() && !task.isCancelled()) {
+                try {
+                    return task.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    // Failed translation: length unknown
+                }
+            }
+            return null;
+        }
+
+        private CompressedClassChunk translate() throws IOException {
+            // No-op when a worker is already running or has run this batch
+            task.run();
+
+            try {
+                return task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Dex to jar conversion interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IOException("Dex to jar conversion failed", e.getCause());
+            }
+        }
+    }
+}
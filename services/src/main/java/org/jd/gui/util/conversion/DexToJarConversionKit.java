@@ -8,9 +8,12 @@
 
 package org.jd.gui.util.conversion;
 
+import org.jd.util.LRUCache;
+
 import com.googlecode.d2j.dex.Dex2jar;
 import com.googlecode.d2j.reader.BaseDexFileReader;
-import com.googlecode.d2j.reader.MultiDexFileReader;
+import com.googlecode.d2j.reader.DexFileReader;
+import com.googlecode.d2j.visitors.DexFileVisitor;
 import com.googlecode.dex2jar.tools.BaksmaliBaseDexExceptionHandler;
 
 import java.io.ByteArrayInputStream;
@@ -19,36 +22,170 @@ import java.io.DataInputStream;
 import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.TreeMap;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 public final class DexToJarConversionKit {
 
-    private static final Map<ConversionKey, Map<String, byte[]>> CACHE = new ConcurrentHashMap<>();
+    private static final int BATCH_SIZE = 64;
+    private static final byte[] DEX_MAGIC = { 'd', 'e', 'x' };
+    private static final Pattern DEX_ENTRY_PATTERN = Pattern.compile("classes\\d*\\.dex");
+
+    // Recently opened files only: containers keep their own class files
+    private static final int MAX_CACHED_CONVERSIONS = 4;
+    private static final Map<ConversionKey, DexClassFiles> CACHE = Collections.synchronizedMap(new LRUCache<>(MAX_CACHED_CONVERSIONS));
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+        Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+        runnable -> {
+            Thread thread = new Thread(runnable, "dex2jar");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
 
     private DexToJarConversionKit() {
     }
 
-    public static Map<String, byte[]> getOrCreate(File sourceFile) throws IOException {
+    public static DexClassFiles getOrCreate(File sourceFile) throws IOException {
         ConversionKey key = ConversionKey.of(sourceFile);
-        Map<String, byte[]> cached = CACHE.get(key);
+        DexClassFiles cached = CACHE.get(key);
 
         if (cached != null) {
             return cached;
         }
 
-        Map<String, byte[]> converted = Collections.unmodifiableMap(convert(sourceFile));
-        Map<String, byte[]> previous = CACHE.putIfAbsent(key, converted);
-        return previous != null ? previous : converted;
+        DexClassFiles classFiles = open(sourceFile);
+        DexClassFiles previous = CACHE.putIfAbsent(key, classFiles);
+
+        if (previous != null) {
+            return previous;
+        }
+
+        classFiles.translateInBackground(EXECUTOR);
+        return classFiles;
+    }
+
+    /**
+     * Lists the classes of a short-lived file, such as an extracted copy,
+     * without caching them. Classes are translated on demand.
+     */
+    public static DexClassFiles read(File sourceFile) throws IOException {
+        return open(sourceFile);
+    }
+
+    /**
+     * Lists the classes of each dex file without translating them. Classes are
+     * grouped into batches by outer class so that inner class attributes are
+     * computed from the same translation unit.
+     */
+    private static DexClassFiles open(File sourceFile) throws IOException {
+        NavigableMap<String, DexClassFiles.Batch> batchesByPath = new TreeMap<>();
+
+        for (byte[] dex : readDexFiles(sourceFile)) {
+            addBatches(dex, batchesByPath);
+        }
+
+        if (batchesByPath.isEmpty()) {
+            throw new IOException("Dex to jar conversion produced no classes for " + sourceFile.getAbsolutePath());
+        }
+
+        return new DexClassFiles(batchesByPath);
     }
 
-    private static Map<String, byte[]> convert(File sourceFile) throws IOException {
-        byte[] bytes = Files.readAllBytes(sourceFile.toPath());
-        BaseDexFileReader reader = MultiDexFileReader.open(bytes);
+    private static List<byte[]> readDexFiles(File sourceFile) throws IOException {
+        byte[] magic;
+
+        try (InputStream input = Files.newInputStream(sourceFile.toPath())) {
+            magic = input.readNBytes(DEX_MAGIC.length);
+        }
+
+        if (Arrays.equals(magic, DEX_MAGIC)) {
+            return Collections.singletonList(Files.readAllBytes(sourceFile.toPath()));
+        }
+
+        NavigableMap<String, byte[]> dexFiles = new TreeMap<>(DexToJarConversionKit::compareDexEntryNames);
+
+        try (ZipFile zipFile = new ZipFile(sourceFile)) {
+            for (ZipEntry zipEntry : Collections.list(zipFile.entries())) {
+                if (!zipEntry.isDirectory() && DEX_ENTRY_PATTERN.matcher(zipEntry.getName()).matches()) {
+                    try (InputStream input = zipFile.getInputStream(zipEntry)) {
+                        dexFiles.put(zipEntry.getName(), input.readAllBytes());
+                    }
+                }
+            }
+        }
+
+        return new ArrayList<>(dexFiles.values());
+    }
+
+    /**
+     * Orders classes.dex, classes2.dex, ..., classes10.dex like the Android runtime.
+     */
+    private static int compareDexEntryNames(String name1, String name2) {
+        int result = Integer.compare(name1.length(), name2.length());
+        return result != 0 ? result : name1.compareTo(name2);
+    }
+
+    private static void addBatches(byte[] dex, NavigableMap<String, DexClassFiles.Batch> batchesByPath) {
+        List<String> classNames = new DexFileReader(dex).getClassNames();
+        NavigableMap<String, List<Integer>> classIndexesByOuterClass = new TreeMap<>();
+        String[] paths = new String[classNames.size()];
+
+        for (int classIndex = 0; classIndex < paths.length; classIndex++) {
+            String descriptor = classNames.get(classIndex);
+            String internalName = descriptor.substring(1, descriptor.length() - 1);
+            String path = internalName + ".class";
+
+            // The first dex file declaring a class wins, as in MultiDexFileReader
+            if (!batchesByPath.containsKey(path)) {
+                int dollar = internalName.indexOf('$');
+                String outerClass = dollar == -1 ? internalName : internalName.substring(0, dollar);
+                paths[classIndex] = path;
+                classIndexesByOuterClass.computeIfAbsent(outerClass, k -> new ArrayList<>()).add(classIndex);
+            }
+        }
+
+        List<Integer> batchClassIndexes = new ArrayList<>(BATCH_SIZE);
+
+        for (List<Integer> classIndexes : classIndexesByOuterClass.values()) {
+            batchClassIndexes.addAll(classIndexes);
+
+            if (batchClassIndexes.size() >= BATCH_SIZE) {
+                addBatch(dex, batchClassIndexes, paths, batchesByPath);
+                batchClassIndexes = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+
+        if (!batchClassIndexes.isEmpty()) {
+            addBatch(dex, batchClassIndexes, paths, batchesByPath);
+        }
+    }
+
+    private static void addBatch(byte[] dex, List<Integer> classIndexes, String[] paths, Map<String, DexClassFiles.Batch> batchesByPath) {
+        DexClassFiles.Batch batch = new DexClassFiles.Batch(dex, classIndexes.stream().mapToInt(Integer::intValue).toArray());
+
+        for (int classIndex : classIndexes) {
+            batchesByPath.put(paths[classIndex], batch);
+        }
+    }
+
+    static Map<String, byte[]> translate(byte[] dex, int[] classIndexes) throws IOException {
+        // Each translation uses its own reader: DexFileReader buffers are not thread safe
+        BaseDexFileReader reader = new ClassSubsetDexFileReader(new DexFileReader(dex), classIndexes);
         BaksmaliBaseDexExceptionHandler exceptionHandler = new BaksmaliBaseDexExceptionHandler();
         ByteArrayOutputStream translatedClasses = new ByteArrayOutputStream();
 
@@ -59,13 +196,7 @@ public final class DexToJarConversionKit {
             .topoLogicalSort(true)
             .doTranslate(translatedClasses);
 
-        Map<String, byte[]> classFiles = readClassFiles(translatedClasses.toByteArray());
-
-        if (classFiles.isEmpty()) {
-            throw new IOException("Dex to jar conversion produced no classes for " + sourceFile.getAbsolutePath());
-        }
-
-        return classFiles;
+        return readClassFiles(translatedClasses.toByteArray());
     }
 
     private static Map<String, byte[]> readClassFiles(byte[] translatedClasses) throws IOException {
@@ -91,7 +222,7 @@ public final class DexToJarConversionKit {
                 byte[] classFileBytes = new byte[classFileLength];
                 input.readFully(classFileBytes);
 
-                classFiles.put(new String(classNameBytes, java.nio.charset.StandardCharsets.UTF_8) + ".class", classFileBytes);
+                classFiles.put(new String(classNameBytes, StandardCharsets.UTF_8) + ".class", classFileBytes);
             }
         } catch (EOFException e) {
             throw new IOException("Dex to jar conversion produced truncated output", e);
@@ -100,6 +231,53 @@ public final class DexToJarConversionKit {
         return classFiles;
     }
 
+    /**
+     * Exposes a subset of the classes of a dex file to Dex2jar.
+     */
+    private static final class ClassSubsetDexFileReader implements BaseDexFileReader {
+        private final BaseDexFileReader reader;
+        private final int[] classIndexes;
+
+        private ClassSubsetDexFileReader(BaseDexFileReader reader, int[] classIndexes) {
+            this.reader = reader;
+            this.classIndexes = classIndexes;
+        }
+
+        @Override
+        public int getDexVersion() {
+            return reader.getDexVersion();
+        }
+
+        @Override
+        public void accept(DexFileVisitor dv) {
+            accept(dv, 0);
+        }
+
+        @Override
+        public List<String> getClassNames() {
+            List<String> classNames = reader.getClassNames();
+            List<String> subset = new ArrayList<>(classIndexes.length);
+            for (int classIndex : classIndexes) {
+                subset.add(classNames.get(classIndex));
+            }
+            return subset;
+        }
+
+        @Override
+        public void accept(DexFileVisitor dv, int config) {
+            dv.visitDexFileVersion(reader.getDexVersion());
+            for (int classIndex : classIndexes) {
+                reader.accept(dv, classIndex, config);
+            }
+            dv.visitEnd();
+        }
+
+        @Override
+        public void accept(DexFileVisitor dv, int classIdx, int config) {
+            reader.accept(dv, classIndexes[classIdx], config);
+        }
+    }
+
     private record ConversionKey(String path, long lastModified, long length) {
         private static ConversionKey of(File file) throws IOException {
             return new ConversionKey(file.getCanonicalPath(), file.lastModified(), file.length());
@@ -0,0 +1,181 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.decompiler;
+
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+import org.jd.core.v1.util.StringConstants;
+import org.jd.gui.api.model.Container;
+import org.jd.util.LRUCache;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jd.core.DecompilationResult;
+
+/**
+ * Decompiles ahead of time the classes the user is likely to open next, on
+ * a single low priority thread. Results are kept in a small LRU cache and
+ * handed out once, since pages modify them. Scheduling new classes drops
+ * the classes not started yet; decompiling on behalf of the user also stops
+ * the class being decompiled, killing its worker process, if any. Nothing is
+ * prefetched while more than half of the heap is in use.
+ */
+public final class DecompilationPrefetcher {
+
+    private static final int MAX_CACHED_RESULTS = 32;
+    /** Classes scheduled at most by call to prefetch */
+    static final int MAX_PREFETCHED_CLASSES = 12;
+
+    private static final DecompilationPrefetcher INSTANCE = new DecompilationPrefetcher();
+
+    /** Decompiles a class, from the prefetching thread */
+    @FunctionalInterface
+    public interface Decompiler {
+        DecompilationResult decompile(Container.Entry entry) throws Exception;
+    }
+
+    private record Key(URI uri, int preferencesHash) {
+    }
+
+    private final Map<Key, DecompilationResult> cache = Collections.synchronizedMap(new LRUCache<>(MAX_CACHED_RESULTS));
+    private final AtomicInteger generation = new AtomicInteger();
+    /** Thread decompiling a class, guarded by this */
+    private Thread prefetchingThread;
+    private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, queue, runnable -> {
+        Thread thread = new Thread(runnable, "decompiler-prefetch");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    DecompilationPrefetcher() {
+    }
+
+    public static DecompilationPrefetcher getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Schedule the decompilation of the classes, replacing the classes
+     * scheduled before and not started yet
+     *
+     * @param entries         classes, by decreasing likelihood
+     * @param preferencesHash hash of the preferences affecting the decompilation
+     * @param decompiler      decompiles a class with these preferences
+     */
+    public void prefetch(Collection<Container.Entry> entries, int preferencesHash, Decompiler decompiler) {
+        dropPendingClasses();
+        int currentGeneration = generation.get();
+        int count = 0;
+        for (Container.Entry entry : entries) {
+            if (count++ == MAX_PREFETCHED_CLASSES) {
+                break;
+            }
+            Key key = new Key(entry.getUri(), preferencesHash);
+            executor.execute(() -> {
+                if (!cache.containsKey(key) && hasMemoryToSpare() && start(currentGeneration)) {
+                    try {
+                        cache.put(key, decompiler.decompile(entry));
+                    } catch (InterruptedException e) {
+                        // Cancelled, the interrupted state is cleared by 'end'
+                        assert ExceptionUtil.printStackTrace(e);
+                    } catch (Exception e) {
+                        assert ExceptionUtil.printStackTrace(e);
+                    } finally {
+                        end();
+                    }
+                }
+            });
+        }
+    }
+
+    private synchronized boolean start(int currentGeneration) {
+        if (generation.get() != currentGeneration) {
+            return false;
+        }
+        prefetchingThread = Thread.currentThread();
+        return true;
+    }
+
+    private synchronized void end() {
+        prefetchingThread = null;
+        // Not to interrupt the next class
+        Thread.interrupted();
+    }
+
+    private void dropPendingClasses() {
+        generation.incrementAndGet();
+        queue.clear();
+    }
+
+    /**
+     * Drop the classes not started yet and interrupt the class being
+     * decompiled, so that the prefetching thread and its worker process, if
+     * any, are not busy while the user is waiting for a decompilation
+     */
+    public void cancel() {
+        dropPendingClasses();
+        synchronized (this) {
+            if (prefetchingThread != null) {
+                prefetchingThread.interrupt();
+            }
+        }
+    }
+
+    /**
+     * @param entry           class
+     * @param preferencesHash hash of the preferences affecting the decompilation
+     * @return prefetched result, removed from the cache, or null
+     */
+    public DecompilationResult take(Container.Entry entry, int preferencesHash) {
+        return cache.remove(new Key(entry.getUri(), preferencesHash));
+    }
+
+    private static boolean hasMemoryToSpare() {
+        Runtime runtime = Runtime.getRuntime();
+        long usedMemory = runtime.totalMemory() - runtime.freeMemory();
+        return usedMemory < runtime.maxMemory() / 2;
+    }
+
+    /**
+     * @param entry class file
+     * @param max   maximum number of siblings
+     * @return outer class files of the same directory, starting after the given one and wrapping around
+     */
+    public static List<Container.Entry> getSiblingClasses(Container.Entry entry, int max) {
+        List<Container.Entry> classes = new ArrayList<>();
+        Container.Entry parent = entry.getParent();
+        if (parent != null) {
+            for (Container.Entry child : parent.getChildren().values()) {
+                String path = child.getPath();
+                if (!child.isDirectory() && path.endsWith(StringConstants.CLASS_FILE_SUFFIX) && path.indexOf('$', path.lastIndexOf('/') + 1) == -1) {
+                    classes.add(child);
+                }
+            }
+        }
+        int index = classes.indexOf(entry);
+        List<Container.Entry> siblings = new ArrayList<>();
+        for (int i = 1; i < classes.size() && siblings.size() < max; i++) {
+            Container.Entry sibling = classes.get(Math.floorMod(index + i, classes.size()));
+            if (sibling != entry) {
+                siblings.add(sibling);
+            }
+        }
+        return siblings;
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.decompiler;
+
+import org.eclipse.jdt.core.compiler.IProblem;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ByteCodeWriter;
+import org.jd.gui.api.API;
+import org.jd.gui.api.model.Container;
+import org.jd.gui.util.parser.jdt.ASTParserFactory;
+
+import com.heliosdecompiler.transformerapi.common.Loader;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_CFR;
+import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_JD_CORE_V1;
+import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_PROCYON;
+import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_VINEFLOWER;
+import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_ENGINE;
+import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_RACE;
+import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_RACE_ENGINES;
+
+import jd.core.DecompilationResult;
+
+/**
+ * Decompiles a class with several engines at the same time. The first result
+ * without failed methods nor syntax errors wins and the other engines are
+ * cancelled; if no result is clean, the one with the fewest failed methods,
+ * then the fewest syntax errors, is kept. The engines running in worker
+ * processes are killed with their worker; the engines running in this
+ * process which ignore interruption finish in the background and their
+ * results are dropped.
+ * <p>
+ * The engines run on a pool of as many threads as the largest number of
+ * engines raced so far: an engine finishing in the background delays the
+ * next race instead of adding a thread.
+ */
+public final class DecompilerRace {
+
+    /** Engines raced unless configured otherwise, after the selected engine */
+    public static final List<String> DEFAULT_ENGINES = List.of(ENGINE_JD_CORE_V1, ENGINE_CFR, ENGINE_VINEFLOWER, ENGINE_PROCYON);
+
+    /** Comments written by the engines in place of the code they failed to decompile */
+    private static final List<String> FAILURE_MARKERS = List.of(
+        ByteCodeWriter.DECOMPILATION_FAILED_AT_LINE,
+        "$$$",
+        "Couldn't be decompiled",
+        "has failed to decompile",
+        "could not be decompiled",
+        "Code decompiled incorrectly"
+    );
+
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(DEFAULT_ENGINES.size(), DEFAULT_ENGINES.size(),
+            60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+        Thread thread = new Thread(runnable, "decompiler-race");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        // Idle between classes
+        EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private DecompilerRace() {
+    }
+
+    /**
+     * Quality of a decompiled source, lower is better
+     *
+     * @param failures     number of failure markers
+     * @param syntaxErrors number of syntax errors
+     */
+    record Score(int failures, int syntaxErrors) implements Comparable<Score> {
+
+        boolean isClean() {
+            return failures == 0 && syntaxErrors == 0;
+        }
+
+        @Override
+        public int compareTo(Score other) {
+            int result = Integer.compare(failures, other.failures);
+            return result != 0 ? result : Integer.compare(syntaxErrors, other.syntaxErrors);
+        }
+    }
+
+    /**
+     * @return true if the classes are decompiled by several engines at the same time
+     */
+    public static boolean isEnabled(Map<String, String> preferences) {
+        return "true".equals(preferences.get(DECOMPILE_RACE)) && getEngines(preferences).size() > 1;
+    }
+
+    /**
+     * @return selected engine followed by the raced ones, without duplicates
+     */
+    public static List<String> getEngines(Map<String, String> preferences) {
+        Set<String> engines = new LinkedHashSet<>();
+        engines.add(preferences.getOrDefault(DECOMPILE_ENGINE, ENGINE_JD_CORE_V1));
+        String racedEngines = preferences.get(DECOMPILE_RACE_ENGINES);
+        if (racedEngines == null) {
+            engines.addAll(DEFAULT_ENGINES);
+        } else {
+            for (String engine : racedEngines.split(",")) {
+                if (!engine.isBlank()) {
+                    engines.add(engine.trim());
+                }
+            }
+        }
+        return new ArrayList<>(engines);
+    }
+
+    /**
+     * Decompile a class with the configured engines at the same time
+     *
+     * @param api               API, for the parser options
+     * @param entry             entry of the class file
+     * @param loader            loader of the class and of its dependencies
+     * @param entryInternalName internal name of the class
+     * @param preferences       preferences, copied for each engine
+     * @return first clean result, or the best one
+     * @throws ExecutionException if all the engines failed, with the failure of the first one
+     */
+    public static DecompilationResult decompile(API api, Container.Entry entry, Loader loader, String entryInternalName, Map<String, String> preferences)
+            throws ExecutionException, InterruptedException {
+        List<Callable<DecompilationResult>> tasks = new ArrayList<>();
+        for (String engine : getEngines(preferences)) {
+            // Engines may write to their preferences
+            Map<String, String> enginePreferences = new HashMap<>(preferences);
+            // In a worker process if enabled, killed with the worker if cancelled
+            tasks.add(() -> DecompilerWorkerPool.decompileClass(entry, loader, entryInternalName, enginePreferences, engine));
+        }
+        return race(tasks, result -> score(api, entry, result.getDecompiledOutput()));
+    }
+
+    /**
+     * @param tasks  decompilations, by decreasing preference for equal scores
+     * @param scorer scores a result, from the thread of the task
+     * @return first clean result, or the best one
+     * @throws ExecutionException if all the tasks failed, with the failure of the first one
+     */
+    static <R> R race(List<Callable<R>> tasks, Function<R, Score> scorer) throws ExecutionException, InterruptedException {
+        ensurePoolSize(tasks.size());
+        ExecutorCompletionService<Scored<R>> completionService = new ExecutorCompletionService<>(EXECUTOR);
+        List<Future<Scored<R>>> futures = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            Callable<R> task = tasks.get(i);
+            int rank = i;
+            futures.add(completionService.submit(() -> {
+                R result = task.call();
+                return new Scored<>(result, scorer.apply(result), rank);
+            }));
+        }
+
+        Scored<R> best = null;
+        ExecutionException failure = null;
+        try {
+            for (int i = 0; i < tasks.size(); i++) {
+                try {
+                    Scored<R> scored = completionService.take().get();
+                    if (scored.score().isClean()) {
+                        return scored.result();
+                    }
+                    if (best == null || scored.isBetterThan(best)) {
+                        best = scored;
+                    }
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e.getCause());
+                    }
+                }
+            }
+        } finally {
+            // The engines still running are not needed anymore
+            for (Future<Scored<R>> future : futures) {
+                future.cancel(true);
+            }
+        }
+        if (best == null) {
+            throw failure;
+        }
+        return best.result();
+    }
+
+    /**
+     * Grows the pool to run the given number of engines at the same time
+     */
+    private static synchronized void ensurePoolSize(int size) {
+        if (size > EXECUTOR.getMaximumPoolSize()) {
+            EXECUTOR.setMaximumPoolSize(size);
+            EXECUTOR.setCorePoolSize(size);
+        }
+    }
+
+    private record Scored<R>(R result, Score score, int rank) {
+
+        boolean isBetterThan(Scored<R> other) {
+            int result = score.compareTo(other.score);
+            return result != 0 ? result < 0 : rank < other.rank;
+        }
+    }
+
+    /**
+     * @return number of failure markers and of syntax errors of the source
+     */
+    static Score score(String source, ToIntFunction<String> syntaxErrorCounter) {
+        int failures = 0;
+        for (String marker : FAILURE_MARKERS) {
+            for (int index = source.indexOf(marker); index != -1; index = source.indexOf(marker, index + marker.length())) {
+                failures++;
+            }
+        }
+        return new Score(failures, syntaxErrorCounter.applyAsInt(source));
+    }
+
+    private static Score score(API api, Container.Entry entry, String source) {
+        return score(source, s -> countSyntaxErrors(api, entry, s));
+    }
+
+    private static int countSyntaxErrors(API api, Container.Entry entry, String source) {
+        // Without bindings, only the syntax is checked
+        URI jarURI = entry.getContainer().getRoot().getParent().getUri();
+        ASTNode ast = ASTParserFactory.getInstance().newASTParser(api, source.toCharArray(), entry.getPath(), jarURI).createAST(null);
+        if (!(ast instanceof CompilationUnit cu)) {
+            return Integer.MAX_VALUE;
+        }
+        int syntaxErrors = 0;
+        for (IProblem problem : cu.getProblems()) {
+            if (problem.isError()) {
+                syntaxErrors++;
+            }
+        }
+        return syntaxErrors;
+    }
+}
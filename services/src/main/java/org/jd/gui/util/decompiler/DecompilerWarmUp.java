@@ -0,0 +1,153 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.decompiler;
+
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.fife.ui.rsyntaxtextarea.RSyntaxDocument;
+import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
+import org.jd.core.v1.api.loader.Loader;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+import org.jd.core.v1.util.StringConstants;
+import org.jd.gui.api.API;
+import org.jd.gui.util.loader.LoaderUtils;
+import org.jd.gui.util.parser.jdt.ASTParserFactory;
+
+import com.heliosdecompiler.transformerapi.StandardTransformers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.swing.text.BadLocationException;
+
+import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_JD_CORE_V1;
+import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_ENGINE;
+import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_WARM_UP;
+
+/**
+ * Decompiles, parses and tokenizes a few classes of the application once the
+ * main window is shown, so that the class loading, the static initializers
+ * and the JIT compilation of the decompiler, JDT and RSyntaxTextArea are
+ * mostly done before the user opens a class. Runs on a low priority thread,
+ * and stops at the next step once a class is decompiled for the user.
+ * <p>
+ * When the classes are decompiled in worker processes, a worker is only
+ * started: the warm-up does not take a worker that the user may need, and
+ * the classes of the corpus, being known, are decompiled in this process.
+ */
+public final class DecompilerWarmUp {
+
+    /** Small classes using generics, lambdas and records */
+    static final List<String> CORPUS = List.of(
+            "org/jd/gui/util/decompiler/ContainerLoader",
+            "org/jd/gui/util/decompiler/DecompilationPrefetcher",
+            "org/jd/gui/util/decompiler/DecompilerRace",
+            "org/jd/gui/util/decompiler/DecompilerWarmUp");
+
+    private static final DecompilerWarmUp INSTANCE = new DecompilerWarmUp();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "decompiler-warm-up");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private volatile boolean cancelled;
+
+    DecompilerWarmUp() {
+    }
+
+    public static DecompilerWarmUp getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Start the warm-up in the background, if enabled
+     */
+    public void start(API api) {
+        Map<String, String> preferences = new HashMap<>(api.getPreferences());
+        if ("true".equals(preferences.get(DECOMPILE_WARM_UP))) {
+            executor.execute(() -> warmUp(api, preferences));
+        }
+    }
+
+    /**
+     * Stop the warm-up, as real work has arrived
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    void warmUp(API api, Map<String, String> preferences) {
+        String engine = preferences.getOrDefault(DECOMPILE_ENGINE, ENGINE_JD_CORE_V1);
+        Loader loader = new ClassPathLoader(DecompilerWarmUp.class.getClassLoader());
+        try {
+            if (DecompilerWorkerPool.isEnabled(preferences)) {
+                DecompilerWorkerPool.getInstance().prestart();
+            }
+            URI jarURI = DecompilerWarmUp.class.getProtectionDomain().getCodeSource().getLocation().toURI();
+            for (String internalName : CORPUS) {
+                if (cancelled) {
+                    return;
+                }
+                // Engines may write to their preferences
+                Map<String, String> classPreferences = new HashMap<>(preferences);
+                String source = StandardTransformers.decompile(LoaderUtils.createLoader(classPreferences, loader, jarURI), internalName, classPreferences, engine)
+                        .getDecompiledOutput();
+                if (cancelled) {
+                    return;
+                }
+                String unitName = internalName + StringConstants.CLASS_FILE_SUFFIX;
+                ASTParser astParser = ASTParserFactory.getInstanceWithBindings().newASTParser(api, source.toCharArray(), unitName, jarURI);
+                astParser.createAST(null);
+                if (cancelled) {
+                    return;
+                }
+                tokenize(source);
+            }
+        } catch (Exception e) {
+            assert ExceptionUtil.printStackTrace(e);
+        }
+    }
+
+    private static void tokenize(String source) throws BadLocationException {
+        RSyntaxDocument document = new RSyntaxDocument(SyntaxConstants.SYNTAX_STYLE_JAVA);
+        document.insertString(0, source, null);
+        int lineCount = document.getDefaultRootElement().getElementCount();
+        for (int line = 0; line < lineCount; line++) {
+            document.getTokenListForLine(line);
+        }
+    }
+
+    /** Loads the classes of the application and of the JDK */
+    private static final class ClassPathLoader implements Loader {
+        private final ClassLoader classLoader;
+
+        private ClassPathLoader(ClassLoader classLoader) {
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        public boolean canLoad(String internalName) {
+            return classLoader.getResource(internalName + StringConstants.CLASS_FILE_SUFFIX) != null;
+        }
+
+        @Override
+        public byte[] load(String internalName) throws IOException {
+            try (InputStream inputStream = classLoader.getResourceAsStream(internalName + StringConstants.CLASS_FILE_SUFFIX)) {
+                return inputStream == null ? null : inputStream.readAllBytes();
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.decompiler;
+
+import org.jd.core.v1.api.loader.Loader;
+import org.jd.gui.util.loader.LoaderUtils;
+
+import com.heliosdecompiler.transformerapi.StandardTransformers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Main class of the worker processes of {@link DecompilerWorkerPool}.
+ * <p>
+ * Requests are read from the standard input and answers written to the
+ * standard output, as data streams:
+ * <ul>
+ * <li>request: engine, internal name, jar URI or empty string, preferences,
+ * class bytes</li>
+ * <li>{@link #LOAD}: internal name of a class needed by the decompiler,
+ * answered with its bytes, or -1 if it cannot be loaded</li>
+ * <li>{@link #RESULT}: source, in UTF-8</li>
+ * <li>{@link #ERROR}: failure of the decompiler, in UTF-8</li>
+ * </ul>
+ * The worker exits at the end of its standard input.
+ */
+public final class DecompilerWorker {
+
+    static final byte LOAD = 'L';
+    static final byte RESULT = 'R';
+    static final byte ERROR = 'E';
+
+    /**
+     * @param engine       decompiler engine
+     * @param internalName internal name of the class
+     * @param jarURI       URI of the archive, for the advanced class lookup, or null
+     * @param preferences  decompiler preferences
+     * @param classBytes   bytes of the class
+     */
+    record Request(String engine, String internalName, URI jarURI, Map<String, String> preferences, byte[] classBytes) {
+    }
+
+    /** Decompiles a class in the worker */
+    @FunctionalInterface
+    interface Decompiler {
+        String decompile(Request request, Loader loader) throws Exception;
+    }
+
+    private DecompilerWorker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        // Decompilers writing to the standard output would break the protocol
+        System.setOut(System.err);
+        serve(new DataInputStream(new BufferedInputStream(System.in)), out, DecompilerWorker::decompile);
+    }
+
+    private static String decompile(Request request, Loader loader) throws Exception {
+        com.heliosdecompiler.transformerapi.common.Loader apiLoader = LoaderUtils.createLoader(request.preferences(), loader, request.jarURI());
+        return StandardTransformers.decompile(apiLoader, request.internalName(), request.preferences(), request.engine()).getDecompiledOutput();
+    }
+
+    /**
+     * Answer requests until the end of the input
+     */
+    static void serve(DataInputStream in, DataOutputStream out, Decompiler decompiler) throws IOException {
+        while (true) {
+            Request request;
+            try {
+                request = readRequest(in);
+            } catch (EOFException e) {
+                return;
+            }
+            try {
+                String source = decompiler.decompile(request, new RemoteLoader(request, in, out));
+                out.writeByte(RESULT);
+                writeBytes(out, source.getBytes(StandardCharsets.UTF_8));
+            } catch (Exception | StackOverflowError e) {
+                out.writeByte(ERROR);
+                writeBytes(out, String.valueOf(e).getBytes(StandardCharsets.UTF_8));
+            }
+            out.flush();
+        }
+    }
+
+    static void writeRequest(DataOutputStream out, Request request) throws IOException {
+        out.writeUTF(request.engine());
+        out.writeUTF(request.internalName());
+        out.writeUTF(request.jarURI() == null ? "" : request.jarURI().toString());
+        out.writeInt(request.preferences().size());
+        for (Map.Entry<String, String> preference : request.preferences().entrySet()) {
+            out.writeUTF(preference.getKey());
+            out.writeUTF(preference.getValue());
+        }
+        writeBytes(out, request.classBytes());
+    }
+
+    static Request readRequest(DataInputStream in) throws IOException {
+        String engine = in.readUTF();
+        String internalName = in.readUTF();
+        String jarURI = in.readUTF();
+        int count = in.readInt();
+        Map<String, String> preferences = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            preferences.put(in.readUTF(), in.readUTF());
+        }
+        return new Request(engine, internalName, jarURI.isEmpty() ? null : URI.create(jarURI), preferences, readBytes(in));
+    }
+
+    /**
+     * @param bytes bytes, or null
+     */
+    static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        if (bytes == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * @return bytes, or null
+     */
+    static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == -1) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    /** Loads the classes through the process which sent the request */
+    private static final class RemoteLoader implements Loader {
+        private final DataInputStream in;
+        private final DataOutputStream out;
+        private final Map<String, byte[]> classes = new LinkedHashMap<>();
+
+        private RemoteLoader(Request request, DataInputStream in, DataOutputStream out) {
+            this.in = in;
+            this.out = out;
+            classes.put(request.internalName(), request.classBytes());
+        }
+
+        @Override
+        public boolean canLoad(String internalName) {
+            try {
+                return load(internalName) != null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public synchronized byte[] load(String internalName) throws IOException {
+            if (!classes.containsKey(internalName)) {
+                out.writeByte(LOAD);
+                out.writeUTF(internalName);
+                out.flush();
+                classes.put(internalName, readBytes(in));
+            }
+            return classes.get(internalName);
+        }
+    }
+}
@@ -0,0 +1,342 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.decompiler;
+
+import org.jd.core.v1.api.loader.Loader;
+import org.jd.gui.api.model.Container;
+import org.jd.gui.util.decompiler.DecompilerWorker.Request;
+
+import com.heliosdecompiler.transformerapi.StandardTransformers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_OUT_OF_PROCESS;
+
+import jd.core.ClassUtil;
+import jd.core.DecompilationResult;
+
+/**
+ * Runs the decompilers in child JVMs, so that a class causing a deep
+ * recursion, an {@link OutOfMemoryError} or an endless loop cannot take the
+ * session down. Idle workers are reused; a worker which dies, or does not
+ * answer before the timeout, is killed and replaced by a new one on the next
+ * request. The worker of a caller which is interrupted, like a cancelled
+ * engine of a {@link DecompilerRace}, is killed as well. A request waits
+ * for a free worker at most as long as the timeout. Background requests,
+ * like the prefetching ones, never take the last free worker, which is kept
+ * for the user, and fail at once if there is none left.
+ * Each worker gets half of the maximum heap of this process, and the
+ * workers are killed when this process exits.
+ * <p>
+ * Only the source is returned: the pages find the links by parsing it.
+ */
+public final class DecompilerWorkerPool {
+
+    private static final long TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(60);
+    /** Heap of a worker when the heap of this process is not limited */
+    private static final long DEFAULT_WORKER_HEAP_MEGABYTES = 1024;
+    private static final long MIN_WORKER_HEAP_MEGABYTES = 256;
+
+    private static final DecompilerWorkerPool INSTANCE = new DecompilerWorkerPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2), TIMEOUT_MILLIS, getWorkerCommand(DecompilerWorker.class.getName()));
+
+    static {
+        // A hung worker does not notice that its input is closed
+        Runtime.getRuntime().addShutdownHook(new Thread(INSTANCE::destroyWorkers, "decompiler-workers"));
+    }
+
+    // Exchanges with the workers, so that the caller can wait for them with a timeout and be interrupted
+    private static final ExecutorService EXCHANGES = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "decompiler-worker-exchange");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Semaphore permits;
+    private final Semaphore backgroundPermits;
+    private final Deque<Worker> idleWorkers = new ConcurrentLinkedDeque<>();
+    private final Set<Worker> workers = ConcurrentHashMap.newKeySet();
+    private final long timeoutMillis;
+    private final List<String> command;
+
+    /**
+     * @param size          maximum number of workers
+     * @param timeoutMillis time given to a worker to decompile a class
+     * @param command       command starting a worker
+     */
+    DecompilerWorkerPool(int size, long timeoutMillis, List<String> command) {
+        this.permits = new Semaphore(size);
+        this.backgroundPermits = new Semaphore(size - 1);
+        this.timeoutMillis = timeoutMillis;
+        this.command = command;
+    }
+
+    public static DecompilerWorkerPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return true if the classes are decompiled in worker processes
+     */
+    public static boolean isEnabled(Map<String, String> preferences) {
+        return "true".equals(preferences.get(DECOMPILE_OUT_OF_PROCESS));
+    }
+
+    /**
+     * @return command running the main class with the JVM and the class path of this process
+     */
+    static List<String> getWorkerCommand(String mainClassName) {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        return List.of(java, "-Xmx" + getWorkerHeapMegabytes() + 'm', "-XX:+ExitOnOutOfMemoryError", "-Djava.awt.headless=true",
+                "-cp", System.getProperty("java.class.path"), mainClassName);
+    }
+
+    /**
+     * @return maximum heap of a worker: half of the one of this process, instead of a quarter of the memory of the machine
+     */
+    static long getWorkerHeapMegabytes() {
+        long maxMemory = Runtime.getRuntime().maxMemory();
+        if (maxMemory == Long.MAX_VALUE) {
+            return DEFAULT_WORKER_HEAP_MEGABYTES;
+        }
+        return Math.max(MIN_WORKER_HEAP_MEGABYTES, maxMemory / 2 / (1024 * 1024));
+    }
+
+    /**
+     * Start an idle worker in advance, if none is idle and the pool is not
+     * busy, so that the JVM startup is not paid by the first decompilation
+     */
+    public void prestart() throws IOException {
+        if (idleWorkers.isEmpty() && permits.tryAcquire()) {
+            try {
+                idleWorkers.push(startWorker());
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private Worker startWorker() throws IOException {
+        Worker worker = new Worker(new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start());
+        workers.add(worker);
+        return worker;
+    }
+
+    /**
+     * Kill the workers, idle or busy
+     */
+    void destroyWorkers() {
+        for (Worker worker : workers) {
+            worker.process.destroyForcibly();
+        }
+    }
+
+    /**
+     * Decompile a class in a worker process if enabled, in this process otherwise
+     *
+     * @param entry        class file
+     * @param apiLoader    loader used in this process
+     * @param internalName internal name of the class
+     * @param preferences  decompiler preferences
+     * @param engine       decompiler engine
+     */
+    public static DecompilationResult decompileClass(Container.Entry entry, com.heliosdecompiler.transformerapi.common.Loader apiLoader, String internalName,
+            Map<String, String> preferences, String engine) throws IOException, ReflectiveOperationException, InterruptedException, TimeoutException {
+        if (isEnabled(preferences)) {
+            return INSTANCE.decompile(entry, preferences, engine);
+        }
+        return StandardTransformers.decompile(apiLoader, internalName, preferences, engine);
+    }
+
+    /**
+     * Decompile a class in a worker process if enabled and if a worker is
+     * left for the user, in this process otherwise
+     *
+     * @see #decompileClass(Container.Entry, com.heliosdecompiler.transformerapi.common.Loader, String, Map, String)
+     * @throws TimeoutException if all the workers but one are busy
+     */
+    public static DecompilationResult decompileClassInBackground(Container.Entry entry, com.heliosdecompiler.transformerapi.common.Loader apiLoader, String internalName,
+            Map<String, String> preferences, String engine) throws IOException, ReflectiveOperationException, InterruptedException, TimeoutException {
+        if (isEnabled(preferences)) {
+            return INSTANCE.decompile(entry, preferences, engine, true);
+        }
+        return StandardTransformers.decompile(apiLoader, internalName, preferences, engine);
+    }
+
+    /**
+     * Decompile a class in a worker process
+     *
+     * @param entry       class file
+     * @param preferences decompiler preferences
+     * @param engine      decompiler engine
+     * @return result holding the source only
+     */
+    public DecompilationResult decompile(Container.Entry entry, Map<String, String> preferences, String engine)
+            throws IOException, InterruptedException, TimeoutException {
+        return decompile(entry, preferences, engine, false);
+    }
+
+    private DecompilationResult decompile(Container.Entry entry, Map<String, String> preferences, String engine, boolean background)
+            throws IOException, InterruptedException, TimeoutException {
+        URI jarURI = entry.getContainer().getRoot().getParent().getUri();
+        String source = decompile(new ContainerLoader(entry), ClassUtil.getInternalName(entry.getPath()), jarURI, preferences, engine, background);
+        DecompilationResult decompilationResult = new DecompilationResult();
+        decompilationResult.setDecompiledOutput(source);
+        return decompilationResult;
+    }
+
+    String decompile(Loader loader, String internalName, URI jarURI, Map<String, String> preferences, String engine)
+            throws IOException, InterruptedException, TimeoutException {
+        return decompile(loader, internalName, jarURI, preferences, engine, false);
+    }
+
+    /**
+     * @param loader     loads the class and its dependencies, on behalf of the worker
+     * @param background true if the request must leave a worker to the user
+     * @return source of the class
+     * @throws IOException      if the decompiler failed, or the worker died
+     * @throws TimeoutException if no worker was free in time, or if the worker did not answer in time, and was killed
+     * @throws InterruptedException if the caller was interrupted, the worker being killed
+     */
+    String decompile(Loader loader, String internalName, URI jarURI, Map<String, String> preferences, String engine, boolean background)
+            throws IOException, InterruptedException, TimeoutException {
+        byte[] classBytes = loader.load(internalName);
+        if (classBytes == null) {
+            throw new FileNotFoundException(internalName);
+        }
+        Map<String, String> sentPreferences = new HashMap<>();
+        preferences.forEach((key, value) -> {
+            if (key != null && value != null) {
+                sentPreferences.put(key, value);
+            }
+        });
+        Request request = new Request(engine, internalName, jarURI, sentPreferences, classBytes);
+
+        if (background && !backgroundPermits.tryAcquire()) {
+            throw new TimeoutException("No decompiler worker left for the background decompilation of " + internalName);
+        }
+        try {
+            // Called from the event dispatch thread as well, which must not wait forever
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new TimeoutException("No decompiler worker available for " + internalName);
+            }
+            try {
+                Worker worker = idleWorkers.poll();
+                if (worker == null || !worker.process.isAlive()) {
+                    if (worker != null) {
+                        workers.remove(worker);
+                    }
+                    worker = startWorker();
+                }
+                Worker runningWorker = worker;
+                Future<String> exchange = EXCHANGES.submit(() -> runningWorker.decompile(request, loader));
+                boolean reusable = false;
+                try {
+                    String source = exchange.get(timeoutMillis, TimeUnit.MILLISECONDS);
+                    reusable = true;
+                    return source;
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof WorkerException workerException) {
+                        // The decompiler failed, not the worker
+                        reusable = true;
+                        throw workerException;
+                    }
+                    if (e.getCause() instanceof IOException ioException) {
+                        throw ioException;
+                    }
+                    throw new IOException(e.getCause());
+                } catch (TimeoutException e) {
+                    throw new TimeoutException("Decompilation of " + internalName + " timed out");
+                } finally {
+                    // Killed if timed out, broken or no longer needed by the interrupted caller
+                    if (reusable) {
+                        idleWorkers.push(worker);
+                    } else {
+                        workers.remove(worker);
+                        worker.process.destroyForcibly();
+                    }
+                }
+            } finally {
+                permits.release();
+            }
+        } finally {
+            if (background) {
+                backgroundPermits.release();
+            }
+        }
+    }
+
+    /** Failure reported by the decompiler of a worker */
+    private static final class WorkerException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        private WorkerException(String message) {
+            super(message);
+        }
+    }
+
+    private static final class Worker {
+        private final Process process;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+
+        private Worker(Process process) {
+            this.process = process;
+            this.in = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        }
+
+        private String decompile(Request request, Loader loader) throws IOException {
+            DecompilerWorker.writeRequest(out, request);
+            out.flush();
+            while (true) {
+                byte message = in.readByte();
+                switch (message) {
+                    case DecompilerWorker.LOAD -> {
+                        String internalName = in.readUTF();
+                        byte[] bytes;
+                        try {
+                            bytes = loader.load(internalName);
+                        } catch (IOException e) {
+                            bytes = null;
+                        }
+                        DecompilerWorker.writeBytes(out, bytes);
+                        out.flush();
+                    }
+                    case DecompilerWorker.RESULT -> {
+                        return new String(DecompilerWorker.readBytes(in), StandardCharsets.UTF_8);
+                    }
+                    case DecompilerWorker.ERROR -> throw new WorkerException(new String(DecompilerWorker.readBytes(in), StandardCharsets.UTF_8));
+                    default -> throw new IOException("Unexpected message from the decompiler worker: " + message);
+                }
+            }
+        }
+    }
+}
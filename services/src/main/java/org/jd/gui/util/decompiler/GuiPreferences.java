@@ -23,6 +23,11 @@ public final class GuiPreferences {
     public static final String DEFAULT_SELECTION_HIGHLIGHT_COLOR       = "0xF49810";
     public static final String ERROR_BACKGROUND_COLOR            = "JdGuiPreferences.errorBackgroundColor";
     public static final String DECOMPILE_ENGINE                  = "ClassFileDecompilerPreferences.decompileEngine";
+    public static final String DECOMPILE_RACE                    = "ClassFileDecompilerPreferences.decompileRace";
+    public static final String DECOMPILE_RACE_ENGINES            = "ClassFileDecompilerPreferences.decompileRaceEngines";
+    public static final String DECOMPILE_PREFETCH                = "ClassFileDecompilerPreferences.decompilePrefetch";
+    public static final String DECOMPILE_OUT_OF_PROCESS          = "ClassFileDecompilerPreferences.decompileOutOfProcess";
+    public static final String DECOMPILE_WARM_UP                 = "ClassFileDecompilerPreferences.decompileWarmUp";
     public static final String SHOW_COMPILER_ERRORS              = "ClassFileDecompilerPreferences.showCompilerErrors";
     public static final String SHOW_COMPILER_WARNINGS            = "ClassFileDecompilerPreferences.showCompilerWarnings";
     public static final String SHOW_COMPILER_INFO                = "ClassFileDecompilerPreferences.showCompilerInfo";
@@ -0,0 +1,500 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.http;
+
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+import org.jd.gui.util.io.CacheDirectoryUtil;
+import org.jd.gui.util.maven.central.helper.ProxyConfig;
+import org.jd.util.SHA1Util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Downloaded artifacts, stored by SHA-1 under '&lt;sha1&gt;/&lt;file name&gt;'.
+ * <p>
+ * The SHA-1 published next to the artifact, as a '.sha1' file, is fetched
+ * first: an artifact already in the store is not downloaded again. Otherwise
+ * the bytes are appended to a partial file, and a dropped connection is
+ * resumed with a 'Range' request, in the same session or in a later one.
+ * The result is checked against the published SHA-1 before being stored.
+ * The 'ETag', or else the 'Last-Modified' date, of the first response is
+ * kept next to the partial file and sent as 'If-Range': the server sends the
+ * whole file again if it changed. A partial file with neither a published
+ * SHA-1 nor such a validator is not resumed, and a 'Range Not Satisfiable'
+ * response only completes it if the validator and the length match.
+ * <p>
+ * Concurrent downloads of the same URI share a single request. The store is
+ * bounded: the files not used for the longest time are deleted first, except
+ * the partial files of the downloads in progress.
+ */
+public final class DownloadStore {
+
+    private static final int MAX_ATTEMPTS = 5;
+    private static final String PARTIAL = "partial";
+    private static final String SHA1_EXTENSION = ".sha1";
+    private static final String VALIDATOR_EXTENSION = ".validator";
+    private static final String[] FILE_PARAMETERS = { "filepath", "extension", "p" };
+
+    private static final int OK = 200;
+    private static final int PARTIAL_CONTENT = 206;
+    private static final int RANGE_NOT_SATISFIABLE = 416;
+
+    /** Size of the files kept between sessions, the least recently used ones are deleted first. */
+    private static final long MAX_SIZE = 512L * 1024 * 1024;
+    /** Age of the files deleted, they have not been used for long. */
+    private static final Duration MAX_AGE = Duration.ofDays(180);
+
+    private static DownloadStore defaultStore;
+
+    private final Path directory;
+    private final Map<String, CompletableFuture<File>> downloads = new ConcurrentHashMap<>();
+
+    public DownloadStore(Path directory) {
+        this.directory = directory;
+    }
+
+    public static synchronized DownloadStore getDefault() {
+        if (defaultStore == null) {
+            Path directory;
+
+            try {
+                directory = CacheDirectoryUtil.getCacheDirectory("downloads");
+            } catch (IOException e) {
+                assert ExceptionUtil.printStackTrace(e);
+                directory = Path.of(System.getProperty("java.io.tmpdir"), "jd-gui-duo-downloads");
+            }
+
+            defaultStore = new DownloadStore(directory);
+
+            DownloadStore store = defaultStore;
+            Thread evictor = new Thread(() -> store.evict(MAX_SIZE, MAX_AGE), "download-store-eviction");
+            evictor.setDaemon(true);
+            evictor.setPriority(Thread.MIN_PRIORITY);
+            evictor.start();
+        }
+        return defaultStore;
+    }
+
+    /**
+     * Downloads the URI into the store, or returns the stored file if the
+     * published SHA-1 is already there.
+     *
+     * @param fileName      the name of the stored file
+     * @param proxyConfig   the proxy of the requests, or null
+     * @param authorization the 'Authorization' header value, or null
+     * @param timeout       the time allowed for each response to start
+     */
+    public File download(URI uri, String fileName, ProxyConfig proxyConfig, String authorization, Duration timeout) throws IOException {
+        String key = key(uri, authorization);
+        CompletableFuture<File> download = new CompletableFuture<>();
+        CompletableFuture<File> pendingDownload = downloads.putIfAbsent(key, download);
+
+        if (pendingDownload != null) {
+            // Already requested by another thread
+            try {
+                return pendingDownload.join();
+            } catch (CompletionException e) {
+                throw new IOException(e.getCause().getMessage(), e.getCause());
+            }
+        }
+
+        try {
+            File file = fetch(uri, Path.of(fileName).getFileName().toString(), proxyConfig, authorization, timeout, key);
+            download.complete(file);
+            return file;
+        } catch (IOException | RuntimeException e) {
+            download.completeExceptionally(e);
+            throw e;
+        } finally {
+            downloads.remove(key, download);
+        }
+    }
+
+    private File fetch(URI uri, String fileName, ProxyConfig proxyConfig, String authorization, Duration timeout, String key) throws IOException {
+        String publishedSha1 = fetchPublishedSha1(uri, proxyConfig, authorization, timeout);
+
+        if (publishedSha1 != null) {
+            Path storedFile = getStoredFile(publishedSha1, fileName);
+            if (Files.isRegularFile(storedFile)) {
+                // Most recently used, evicted last
+                touch(storedFile);
+                return storedFile.toFile();
+            }
+        }
+
+        Path partialFile = Files.createDirectories(directory.resolve(PARTIAL)).resolve(key + ".part");
+        Path validatorFile = partialFile.resolveSibling(key + VALIDATOR_EXTENSION);
+
+        if (publishedSha1 == null && !Files.exists(validatorFile)) {
+            // Nothing tells whether the bytes received earlier still belong to the same file
+            Files.deleteIfExists(partialFile);
+        }
+        IOException failure = null;
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            HttpResponse<Path> response;
+
+            try {
+                response = fetchRemainingBytes(uri, proxyConfig, authorization, timeout, partialFile, validatorFile);
+            } catch (InterruptedIOException e) {
+                throw e;
+            } catch (IOException e) {
+                // Dropped connection: the next attempt resumes from the bytes received
+                assert ExceptionUtil.printStackTrace(e);
+                failure = e;
+                continue;
+            }
+
+            int statusCode = response.statusCode();
+
+            if (statusCode >= 400 && statusCode != RANGE_NOT_SATISFIABLE) {
+                throw new IOException("HTTP " + statusCode + " while downloading " + uri);
+            }
+            if (statusCode == RANGE_NOT_SATISFIABLE && publishedSha1 == null && !isComplete(response, partialFile, validatorFile)) {
+                // Longer than the file on the server, which may have changed: restarted from zero
+                Files.deleteIfExists(partialFile);
+                Files.deleteIfExists(validatorFile);
+                failure = new IOException("HTTP " + statusCode + " while resuming the download of " + uri);
+                continue;
+            }
+
+            String sha1 = SHA1Util.digest(partialFile.toFile());
+
+            if (sha1.isEmpty()) {
+                throw new IOException("Cannot read " + partialFile);
+            }
+            if (publishedSha1 == null || publishedSha1.equals(sha1)) {
+                Files.deleteIfExists(validatorFile);
+                return store(partialFile, sha1, fileName);
+            }
+
+            // Corrupted, or resumed after the file changed on the server: restarted from zero
+            Files.delete(partialFile);
+            Files.deleteIfExists(validatorFile);
+            failure = new IOException("SHA-1 mismatch while downloading " + uri + ": " + sha1 + " instead of " + publishedSha1);
+        }
+
+        throw failure;
+    }
+
+    /**
+     * Appends the bytes not received yet to the partial file, or writes the
+     * whole file again if the server ignores the range, or if the file
+     * changed since the partial file was started.
+     */
+    private static HttpResponse<Path> fetchRemainingBytes(URI uri, ProxyConfig proxyConfig, String authorization, Duration timeout, Path partialFile, Path validatorFile) throws IOException {
+        long offset = Files.exists(partialFile) ? Files.size(partialFile) : 0L;
+        HttpRequest.Builder builder = newRequest(uri, authorization, timeout);
+
+        if (offset > 0) {
+            builder.header("Range", "bytes=" + offset + "-");
+            if (Files.exists(validatorFile)) {
+                builder.header("If-Range", Files.readString(validatorFile, StandardCharsets.US_ASCII));
+            }
+        }
+
+        // codeql[java/ssrf]: the proxy host is user configured in a desktop client
+        // this outbound request is an intentional feature, not a server endpoint
+        return HttpClientUtil.send(proxyConfig, builder.build(), responseInfo -> switch (responseInfo.statusCode()) {
+            case PARTIAL_CONTENT -> HttpResponse.BodySubscribers.ofFile(partialFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            case OK -> {
+                // Kept before the first byte is written, the connection may drop at any time
+                saveValidator(responseInfo, validatorFile);
+                yield HttpResponse.BodySubscribers.ofFile(partialFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            }
+            default -> HttpResponse.BodySubscribers.replacing(null);
+        });
+    }
+
+    /**
+     * Returns true if a 'Range Not Satisfiable' response tells that the
+     * partial file is the whole file: the file on the server has the kept
+     * validator and, if given, the length of the partial file.
+     */
+    private static boolean isComplete(HttpResponse<?> response, Path partialFile, Path validatorFile) throws IOException {
+        if (!Files.exists(validatorFile) || !Files.exists(partialFile)) {
+            return false;
+        }
+
+        String validator = Files.readString(validatorFile, StandardCharsets.US_ASCII);
+        String responseValidator = getValidator(response.headers());
+
+        if (!validator.equals(responseValidator)) {
+            return false;
+        }
+
+        // 'Content-Range: bytes */<complete length>'
+        String contentRange = response.headers().firstValue("Content-Range").orElse(null);
+        int slash = contentRange == null ? -1 : contentRange.lastIndexOf('/');
+
+        if (slash != -1) {
+            try {
+                return Long.parseLong(contentRange.substring(slash + 1).trim()) == Files.size(partialFile);
+            } catch (NumberFormatException e) {
+                // Unknown complete length ('*')
+                assert ExceptionUtil.printStackTrace(e);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Keeps the strong 'ETag', or else the 'Last-Modified' date, of a whole
+     * file response. Without one, the partial file is only resumed if the
+     * artifact has a published SHA-1.
+     */
+    private static void saveValidator(HttpResponse.ResponseInfo responseInfo, Path validatorFile) {
+        String validator = getValidator(responseInfo.headers());
+
+        try {
+            if (validator == null) {
+                Files.deleteIfExists(validatorFile);
+            } else {
+                Files.writeString(validatorFile, validator, StandardCharsets.US_ASCII);
+            }
+        } catch (IOException e) {
+            assert ExceptionUtil.printStackTrace(e);
+        }
+    }
+
+    private static String getValidator(HttpHeaders headers) {
+        // Weak entity tags cannot be used in 'If-Range'
+        return headers.firstValue("ETag")
+                .filter(etag -> !etag.startsWith("W/"))
+                .or(() -> headers.firstValue("Last-Modified"))
+                .orElse(null);
+    }
+
+    /**
+     * Returns the SHA-1 published next to the artifact, or null if there is
+     * none: the download is then stored without being checked.
+     */
+    private static String fetchPublishedSha1(URI uri, ProxyConfig proxyConfig, String authorization, Duration timeout) throws InterruptedIOException {
+        try {
+            HttpResponse<String> response = HttpClientUtil.send(proxyConfig, newRequest(getChecksumUri(uri), authorization, timeout).build(),
+                    HttpResponse.BodyHandlers.ofString(StandardCharsets.US_ASCII));
+            if (response.statusCode() == OK) {
+                return SHA1Util.parseSHA1(response.body());
+            }
+        } catch (InterruptedIOException e) {
+            throw e;
+        } catch (IOException | IllegalArgumentException e) {
+            assert ExceptionUtil.printStackTrace(e);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the URI of the '.sha1' file of the artifact: the file parameter
+     * of the repository download APIs, or the path, gets the extension.
+     */
+    static URI getChecksumUri(URI uri) {
+        String uriString = uri.toString();
+        int end = uriString.indexOf('#');
+        if (end != -1) {
+            uriString = uriString.substring(0, end);
+        }
+        end = uriString.indexOf('?');
+        String beforeQuery = end == -1 ? uriString : uriString.substring(0, end);
+        String rawQuery = uri.getRawQuery();
+
+        if (rawQuery == null) {
+            return URI.create(beforeQuery + SHA1_EXTENSION);
+        }
+
+        String[] parameters = rawQuery.split("&");
+
+        for (String fileParameter : FILE_PARAMETERS) {
+            for (int i = 0; i < parameters.length; i++) {
+                if (parameters[i].startsWith(fileParameter + '=')) {
+                    parameters[i] += SHA1_EXTENSION;
+                    return URI.create(beforeQuery + '?' + String.join("&", parameters));
+                }
+            }
+        }
+
+        return URI.create(beforeQuery + SHA1_EXTENSION + '?' + rawQuery);
+    }
+
+    private static HttpRequest.Builder newRequest(URI uri, String authorization, Duration timeout) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).GET().timeout(timeout);
+        if (authorization != null) {
+            builder.header("Authorization", authorization);
+        }
+        return builder;
+    }
+
+    private File store(Path partialFile, String sha1, String fileName) throws IOException {
+        Path storedFile = getStoredFile(sha1, fileName);
+        Files.createDirectories(storedFile.getParent());
+
+        try {
+            Files.move(partialFile, storedFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(partialFile, storedFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        return storedFile.toFile();
+    }
+
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            assert ExceptionUtil.printStackTrace(e);
+        }
+    }
+
+    /**
+     * Deletes the files not used for more than 'maxAge', then the least
+     * recently used ones until the files take at most 'maxSize' bytes.
+     * Partial files are deleted as well, their download restarts from zero,
+     * except the ones of the downloads in progress.
+     */
+    public void evict(long maxSize, Duration maxAge) {
+        List<FileInfo> files = new ArrayList<>();
+
+        try (Stream<Path> stream = Files.walk(directory)) {
+            stream.forEach(file -> {
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    if (attributes.isRegularFile()) {
+                        files.add(new FileInfo(file, attributes.lastModifiedTime().toMillis(), attributes.size()));
+                    }
+                } catch (IOException e) {
+                    assert ExceptionUtil.printStackTrace(e);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            assert ExceptionUtil.printStackTrace(e);
+            return;
+        }
+
+        long oldest = System.currentTimeMillis() - maxAge.toMillis();
+        long size = files.stream().mapToLong(FileInfo::size).sum();
+
+        files.sort(Comparator.comparingLong(FileInfo::lastModified));
+
+        for (FileInfo fileInfo : files) {
+            if (size <= maxSize && fileInfo.lastModified() >= oldest) {
+                break;
+            }
+            try {
+                if (delete(fileInfo.file())) {
+                    size -= fileInfo.size();
+                    deleteEmptyParents(fileInfo.file());
+                }
+            } catch (IOException e) {
+                // Opened elsewhere on Windows: deleted in a later session
+                assert ExceptionUtil.printStackTrace(e);
+            }
+        }
+    }
+
+    /**
+     * Deletes a file of the store, unless it is the partial file, or its
+     * validator, of a download in progress.
+     *
+     * @return true if the file was deleted
+     */
+    private boolean delete(Path file) throws IOException {
+        if (!file.getParent().equals(directory.resolve(PARTIAL))) {
+            Files.deleteIfExists(file);
+            return true;
+        }
+
+        String name = file.getFileName().toString();
+        int dot = name.indexOf('.');
+        String key = dot == -1 ? name : name.substring(0, dot);
+
+        try {
+            // Atomic with the registration of a download of the same key
+            downloads.compute(key, (k, download) -> {
+                if (download == null) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return download;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        return Files.notExists(file);
+    }
+
+    /**
+     * Deletes the '&lt;sha1&gt;' and '&lt;first two digits&gt;' directories left empty
+     */
+    private void deleteEmptyParents(Path file) {
+        Path parent = file.getParent();
+        Path partialDirectory = directory.resolve(PARTIAL);
+
+        while (parent != null && !parent.equals(directory) && !parent.equals(partialDirectory)) {
+            try {
+                Files.deleteIfExists(parent);
+            } catch (IOException e) {
+                // Not empty
+                return;
+            }
+            parent = parent.getParent();
+        }
+    }
+
+    private record FileInfo(Path file, long lastModified, long size) {
+    }
+
+    private Path getStoredFile(String sha1, String fileName) {
+        return directory.resolve(sha1.substring(0, 2)).resolve(sha1).resolve(fileName);
+    }
+
+    private static String key(URI uri, String authorization) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-1");
+            messageDigest.update(uri.toString().getBytes(StandardCharsets.UTF_8));
+            if (authorization != null) {
+                messageDigest.update((byte) '\n');
+                messageDigest.update(authorization.getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(messageDigest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
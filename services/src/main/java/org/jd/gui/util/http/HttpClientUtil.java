@@ -0,0 +1,152 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.http;
+
+import org.jd.gui.util.maven.central.helper.ProxyConfig;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Shared HTTP clients of the search and download helpers.
+ * <p>
+ * Connections are kept alive and reused between requests to the same host.
+ * At most {@link #MAX_IN_FLIGHT} requests are sent at the same time, whatever
+ * the number of calling threads, so that batches do not flood the servers.
+ */
+public final class HttpClientUtil {
+
+    public static final int MAX_IN_FLIGHT = 8;
+
+    private static final String PROXY_AUTHORIZATION = "Proxy-Authorization";
+    private static final String TUNNELING_DISABLED_SCHEMES = "jdk.http.auth.tunneling.disabledSchemes";
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(15);
+
+    static {
+        allowBasicProxyTunneling();
+    }
+
+    private static final HttpClient DIRECT_CLIENT = newClient(null);
+    private static final Map<String, HttpClient> PROXY_CLIENTS = new ConcurrentHashMap<>();
+    private static final Semaphore IN_FLIGHT = new Semaphore(MAX_IN_FLIGHT, true);
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(MAX_IN_FLIGHT, runnable -> {
+        Thread thread = new Thread(runnable, "http-client");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private HttpClientUtil() {
+    }
+
+    /**
+     * Lets the clients send Basic credentials with the CONNECT requests of
+     * HTTPS, unless configured otherwise. By default, the JDK drops them and
+     * HTTPS through a Basic proxy fails with 407.
+     * <p>
+     * The JDK reads the property once, when the first request or client is
+     * built: this method is called at startup and before building the clients.
+     */
+    public static void allowBasicProxyTunneling() {
+        if (System.getProperty(TUNNELING_DISABLED_SCHEMES) == null) {
+            System.setProperty(TUNNELING_DISABLED_SCHEMES, "");
+        }
+    }
+
+    /**
+     * Returns the client routing through the given proxy, or the direct
+     * client if the proxy is null or invalid.
+     */
+    public static HttpClient getClient(ProxyConfig proxyConfig) {
+        if (proxyConfig == null || !proxyConfig.isValid()) {
+            return DIRECT_CLIENT;
+        }
+        // Credentials are sent with each request, not kept by the clients
+        String key = proxyConfig.host + ':' + proxyConfig.port;
+        return PROXY_CLIENTS.computeIfAbsent(key, k -> newClient(proxyConfig));
+    }
+
+    private static HttpClient newClient(ProxyConfig proxyConfig) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .connectTimeout(CONNECT_TIMEOUT)
+                .followRedirects(HttpClient.Redirect.NORMAL);
+
+        if (proxyConfig == null) {
+            builder.proxy(HttpClient.Builder.NO_PROXY);
+        } else {
+            int port = proxyConfig.port == null ? 80 : proxyConfig.port;
+            // No authenticator: the clients having one drop the 'Proxy-Authorization' headers of the requests
+            builder.proxy(ProxySelector.of(new InetSocketAddress(proxyConfig.host, port)));
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Sends the request, waiting for a free slot if {@link #MAX_IN_FLIGHT}
+     * requests are already in flight. The credentials of the proxy are sent
+     * preemptively, with the request or with the CONNECT request of HTTPS.
+     */
+    public static <T> HttpResponse<T> send(ProxyConfig proxyConfig, HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) throws IOException {
+        try {
+            IN_FLIGHT.acquire();
+            try {
+                return getClient(proxyConfig).send(withProxyAuthorization(proxyConfig, request), bodyHandler);
+            } finally {
+                IN_FLIGHT.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException interruptedIOException = new InterruptedIOException("Interrupted while sending " + request.uri());
+            interruptedIOException.initCause(e);
+            throw interruptedIOException;
+        }
+    }
+
+    private static HttpRequest withProxyAuthorization(ProxyConfig proxyConfig, HttpRequest request) {
+        if (proxyConfig == null || !proxyConfig.isValid() || request.headers().firstValue(PROXY_AUTHORIZATION).isPresent()) {
+            return request;
+        }
+        String proxyAuthorization = proxyConfig.basicAuthHeaderValue();
+        if (proxyAuthorization == null) {
+            return request;
+        }
+        return HttpRequest.newBuilder(request, (name, value) -> true).setHeader(PROXY_AUTHORIZATION, proxyAuthorization).build();
+    }
+
+    /**
+     * Runs a blocking call, such as a search, on the shared request pool.
+     * Failures complete the future exceptionally.
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Callable<T> callable) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return callable.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, EXECUTOR);
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.http;
+
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+import org.jd.gui.util.io.CacheDirectoryUtil;
+import org.jd.gui.util.maven.central.helper.ProxyConfig;
+import org.jd.util.CacheFileUtil;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Responses of the repository searches, persisted between sessions and keyed
+ * by request URL.
+ * <p>
+ * A fresh entry is returned without any network round-trip. An expired one is
+ * revalidated with its 'ETag' and 'Last-Modified' validators, and served as is
+ * if the server cannot be reached. Searches without result and 404 responses
+ * are stored as negative entries, which expire sooner so that newly deployed
+ * artifacts are found. Entries written more than 90 days ago, then the
+ * oldest ones beyond 32 MB, are deleted once per session.
+ * <p>
+ * The time-to-live values are read from the system properties
+ * 'jd-gui.http.cache.ttl', 'jd-gui.http.cache.sha1.ttl' and
+ * 'jd-gui.http.cache.negative.ttl', as ISO-8601 durations such as 'PT12H'.
+ */
+public final class HttpResponseCache {
+
+    /** Time-to-live of searches whose results change as artifacts are deployed. */
+    public static final Duration SEARCH_TTL = durationProperty("jd-gui.http.cache.ttl", Duration.ofDays(1));
+    /** Time-to-live of SHA-1 searches: released artifacts never change. */
+    public static final Duration SHA1_TTL = durationProperty("jd-gui.http.cache.sha1.ttl", Duration.ofDays(30));
+    /** Time-to-live of searches without result. */
+    public static final Duration NEGATIVE_TTL = durationProperty("jd-gui.http.cache.negative.ttl", Duration.ofHours(6));
+
+    /** Size of the entries kept between sessions, the oldest ones are deleted first. */
+    private static final long MAX_SIZE = 32L * 1024 * 1024;
+    /** Age of the entries deleted, they have expired long ago. */
+    private static final Duration MAX_AGE = Duration.ofDays(90);
+
+    private static final int MAGIC = 0x4A444843;
+    private static final int VERSION = 1;
+    private static final String EXTENSION = ".entry";
+
+    private static final int OK = 200;
+    private static final int MULTIPLE_CHOICES = 300;
+    private static final int NOT_MODIFIED = 304;
+    private static final int NOT_FOUND = 404;
+    private static final int GONE = 410;
+
+    private static HttpResponseCache defaultCache;
+
+    private final Path directory;
+    private final Duration negativeTtl;
+    private final Clock clock;
+
+    /**
+     * @param directory   the directory of the entries, or null to only forward requests
+     * @param negativeTtl the time-to-live of negative entries
+     * @param clock       the clock dating the entries
+     */
+    public HttpResponseCache(Path directory, Duration negativeTtl, Clock clock) {
+        this.directory = directory;
+        this.negativeTtl = negativeTtl;
+        this.clock = clock;
+    }
+
+    public static synchronized HttpResponseCache getDefault() {
+        if (defaultCache == null) {
+            Path directory = null;
+
+            try {
+                directory = CacheDirectoryUtil.getCacheDirectory("http");
+            } catch (IOException e) {
+                // Not persisted: every search goes to the network
+                assert ExceptionUtil.printStackTrace(e);
+            }
+
+            defaultCache = new HttpResponseCache(directory, NEGATIVE_TTL, Clock.systemUTC());
+
+            HttpResponseCache cache = defaultCache;
+            Thread evictor = new Thread(() -> cache.evict(MAX_SIZE, MAX_AGE), "http-cache-eviction");
+            evictor.setDaemon(true);
+            evictor.setPriority(Thread.MIN_PRIORITY);
+            evictor.start();
+        }
+        return defaultCache;
+    }
+
+    /**
+     * Returns the response to the GET request, from the cache when possible.
+     * Successful responses and 404 responses are stored, the other ones are
+     * returned without being stored.
+     *
+     * @param proxyConfig the proxy of the request, or null
+     * @param builder     the request, to which the validators are added
+     * @param ttl         the time-to-live of a positive entry
+     * @param parser      parses the body of a successful response, once
+     * @param isNegative  tells whether a parsed body holds no result
+     */
+    public <T> Response<T> get(ProxyConfig proxyConfig, HttpRequest.Builder builder, Duration ttl, Function<String, T> parser, Predicate<T> isNegative) throws IOException {
+        HttpRequest request = builder.build();
+
+        if (directory == null) {
+            HttpResponse<String> response = HttpClientUtil.send(proxyConfig, request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            return newResponse(response.statusCode(), response.body(), parser);
+        }
+
+        String url = request.uri().toString();
+        Path file = directory.resolve(key(request) + EXTENSION);
+        Entry entry = read(file, url);
+        long now = clock.millis();
+
+        if (entry != null && now < entry.expiresAt()) {
+            return newResponse(entry.statusCode(), entry.body(), parser);
+        }
+
+        if (entry != null && entry.statusCode() == OK) {
+            if (!entry.etag().isEmpty()) {
+                builder.setHeader("If-None-Match", entry.etag());
+            }
+            if (!entry.lastModified().isEmpty()) {
+                builder.setHeader("If-Modified-Since", entry.lastModified());
+            }
+            request = builder.build();
+        }
+
+        HttpResponse<String> response;
+
+        try {
+            response = HttpClientUtil.send(proxyConfig, request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        } catch (InterruptedIOException e) {
+            throw e;
+        } catch (IOException e) {
+            if (entry == null) {
+                throw e;
+            }
+            // Offline: stale is better than nothing
+            assert ExceptionUtil.printStackTrace(e);
+            return newResponse(entry.statusCode(), entry.body(), parser);
+        }
+
+        int statusCode = response.statusCode();
+
+        if (statusCode == NOT_MODIFIED && entry != null) {
+            write(file, new Entry(url, entry.statusCode(), now + ttl.toMillis(), entry.etag(), entry.lastModified(), entry.body()));
+            return newResponse(entry.statusCode(), entry.body(), parser);
+        }
+
+        String body = response.body() == null ? "" : response.body();
+        Response<T> result = newResponse(statusCode, body, parser);
+
+        if (statusCode == OK) {
+            Duration entryTtl = isNegative.test(result.value()) ? negativeTtl : ttl;
+            String etag = response.headers().firstValue("ETag").orElse("");
+            String lastModified = response.headers().firstValue("Last-Modified").orElse("");
+            write(file, new Entry(url, statusCode, now + entryTtl.toMillis(), etag, lastModified, body));
+        } else if (statusCode == NOT_FOUND || statusCode == GONE) {
+            write(file, new Entry(url, statusCode, now + negativeTtl.toMillis(), "", "", body));
+        }
+
+        return result;
+    }
+
+    private static <T> Response<T> newResponse(int statusCode, String body, Function<String, T> parser) {
+        boolean successful = statusCode >= OK && statusCode < MULTIPLE_CHOICES;
+        return new Response<>(statusCode, body, successful ? parser.apply(body) : null);
+    }
+
+    /**
+     * Keyed by URL and credentials, as authenticated users may see other
+     * repositories. Credentials are only part of the hash.
+     */
+    private static String key(HttpRequest request) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-1");
+            messageDigest.update(request.uri().toString().getBytes(StandardCharsets.UTF_8));
+            request.headers().firstValue("Authorization").ifPresent(authorization -> {
+                messageDigest.update((byte) '\n');
+                messageDigest.update(authorization.getBytes(StandardCharsets.UTF_8));
+            });
+            return HexFormat.of().formatHex(messageDigest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Duration durationProperty(String name, Duration defaultValue) {
+        String value = System.getProperty(name);
+
+        if (value != null) {
+            try {
+                return Duration.parse(value);
+            } catch (RuntimeException e) {
+                assert ExceptionUtil.printStackTrace(e);
+            }
+        }
+
+        return defaultValue;
+    }
+
+    // --- Persistence --- //
+    private static Entry read(Path file, String url) {
+        Entry entry = CacheFileUtil.read(file, MAGIC, VERSION, input -> new Entry(input.readUTF(), input.readInt(), input.readLong(),
+                input.readUTF(), input.readUTF(), new String(input.readNBytes(input.readInt()), StandardCharsets.UTF_8)));
+        // Hash collision
+        return entry != null && url.equals(entry.url()) ? entry : null;
+    }
+
+    private static void write(Path file, Entry entry) {
+        CacheFileUtil.write(file, MAGIC, VERSION, output -> {
+            byte[] body = entry.body().getBytes(StandardCharsets.UTF_8);
+            output.writeUTF(entry.url());
+            output.writeInt(entry.statusCode());
+            output.writeLong(entry.expiresAt());
+            output.writeUTF(entry.etag());
+            output.writeUTF(entry.lastModified());
+            output.writeInt(body.length);
+            output.write(body);
+        });
+    }
+
+    /**
+     * Deletes the entries written more than 'maxAge' ago, then the oldest
+     * ones until the entries take at most 'maxSize' bytes.
+     */
+    public void evict(long maxSize, Duration maxAge) {
+        if (directory == null) {
+            return;
+        }
+
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(file -> file.getFileName().toString().endsWith(EXTENSION)).toList();
+        } catch (IOException e) {
+            assert ExceptionUtil.printStackTrace(e);
+            return;
+        }
+
+        long oldest = clock.millis() - maxAge.toMillis();
+        List<FileInfo> kept = new ArrayList<>(files.size());
+        long size = 0;
+
+        for (Path file : files) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                long lastModified = attributes.lastModifiedTime().toMillis();
+                if (lastModified < oldest) {
+                    Files.deleteIfExists(file);
+                } else {
+                    kept.add(new FileInfo(file, lastModified, attributes.size()));
+                    size += attributes.size();
+                }
+            } catch (IOException e) {
+                assert ExceptionUtil.printStackTrace(e);
+            }
+        }
+
+        kept.sort(Comparator.comparingLong(FileInfo::lastModified));
+
+        for (FileInfo fileInfo : kept) {
+            if (size <= maxSize) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(fileInfo.file());
+                size -= fileInfo.size();
+            } catch (IOException e) {
+                assert ExceptionUtil.printStackTrace(e);
+            }
+        }
+    }
+
+    private record FileInfo(Path file, long lastModified, long size) {
+    }
+
+    /**
+     * @param value the parsed body of a successful response, null otherwise
+     */
+    public record Response<T>(int statusCode, String body, T value) {
+    }
+
+    private record Entry(String url, int statusCode, long expiresAt, String etag, String lastModified, String body) {
+    }
+}
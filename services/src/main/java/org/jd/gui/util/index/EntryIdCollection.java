@@ -0,0 +1,101 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.index;
+
+import org.jd.gui.api.model.Container;
+import org.jd.gui.api.model.EntryTable;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Index value storing the entries of an entry table as an array of ids, and
+ * other values (entries of other tables, type names) as objects.
+ */
+@SuppressWarnings("rawtypes")
+public final class EntryIdCollection extends AbstractCollection {
+    private static final int[] EMPTY_IDS = {};
+
+    private final EntryTable entryTable;
+    private int[] ids = EMPTY_IDS;
+    private int idCount;
+    private List<Object> others;
+
+    public EntryIdCollection(EntryTable entryTable) {
+        this.entryTable = entryTable;
+    }
+
+    @Override
+    public boolean add(Object value) {
+        if (value instanceof Container.Entry entry && entryTable.contains(entry)) {
+            if (idCount == ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(4, idCount * 2));
+            }
+            ids[idCount++] = entry.getId();
+        } else {
+            if (others == null) {
+                others = new ArrayList<>();
+            }
+            others.add(value);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the ids of the entries of the table, without the other values.
+     */
+    public int[] getIds() {
+        return Arrays.copyOf(ids, idCount);
+    }
+
+    public EntryTable getEntryTable() {
+        return entryTable;
+    }
+
+    /**
+     * Releases the unused capacity, once indexing is done.
+     */
+    public void trimToSize() {
+        if (idCount < ids.length) {
+            ids = Arrays.copyOf(ids, idCount);
+        }
+        if (others instanceof ArrayList<Object> list) {
+            list.trimToSize();
+        }
+    }
+
+    @Override
+    public int size() {
+        return idCount + (others == null ? 0 : others.size());
+    }
+
+    @Override
+    public Iterator iterator() {
+        return new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size();
+            }
+
+            @Override
+            public Object next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int i = index++;
+                return i < idCount ? entryTable.get(ids[i]) : others.get(i - idCount);
+            }
+        };
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.index;
+
+import org.jd.gui.api.model.EntryTable;
+import org.jd.gui.api.model.Indexes;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Indexes whose values are {@link EntryIdCollection}s of a single table,
+ * trimmed once indexing is done.
+ */
+@SuppressWarnings("rawtypes")
+public final class EntryIdIndexes implements Indexes {
+    private final Map<String, Map<String, Collection>> map;
+    private final EntryTable entryTable;
+
+    public EntryIdIndexes(Map<String, Map<String, Collection>> map, EntryTable entryTable) {
+        this.map = map;
+        this.entryTable = entryTable;
+
+        for (Map<String, Collection> index : map.values()) {
+            for (Collection collection : index.values()) {
+                if (collection instanceof EntryIdCollection eic) {
+                    eic.trimToSize();
+                }
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Collection> getIndex(String name) {
+        return map.get(name);
+    }
+
+    @Override
+    public EntryTable getEntryTable() {
+        return entryTable;
+    }
+
+    @Override
+    public int[] getEntryIds(String name, String key) {
+        Map<String, Collection> index = map.get(name);
+
+        if (index != null && index.get(key) instanceof EntryIdCollection eic && eic.getEntryTable() == entryTable) {
+            return eic.getIds();
+        }
+
+        return null;
+    }
+}
@@ -10,7 +10,9 @@ package org.jd.gui.util.index;
 
 import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
 import org.jd.gui.api.model.Container;
+import org.jd.gui.api.model.EntryTable;
 import org.jd.gui.api.model.Indexes;
+import org.jd.gui.util.container.ContainerEntryUtil;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -34,6 +36,10 @@ public final class IndexesUtil {
         return find(collectionOfFutureIndexes, "typeDeclarations", internalTypeName);
     }
 
+    public static List<Container.Entry> findInternalTypeName(Collection<Future<Indexes>> collectionOfFutureIndexes, String internalTypeName, Container container) {
+        return find(collectionOfFutureIndexes, "typeDeclarations", internalTypeName, container);
+    }
+
     @SuppressWarnings("rawtypes")
     public static boolean contains(Collection<Future<Indexes>> collectionOfFutureIndexes, String indexName, String key) {
         try {
@@ -84,6 +90,59 @@ public final class IndexesUtil {
         return entries;
     }
 
+    /**
+     * Returns the entries of the container, or of its nested containers,
+     * stored for the key. The indexes numbering the entries of the container
+     * are looked up by id, without visiting the entries of other files.
+     */
+    @SuppressWarnings({ "rawtypes" })
+    public static List<Container.Entry> find(Collection<Future<Indexes>> collectionOfFutureIndexes, String indexName, String key, Container container) {
+        List<Container.Entry> entries = new ArrayList<>();
+        EntryTable containerEntryTable = container.getEntryTable();
+
+        try {
+            for (Future<Indexes> futureIndexes : collectionOfFutureIndexes) {
+                if (futureIndexes.isDone()) {
+                    Indexes indexes = futureIndexes.get();
+                    EntryTable entryTable = indexes.getEntryTable();
+
+                    if (entryTable != null) {
+                        if (entryTable == containerEntryTable) {
+                            int[] ids = indexes.getEntryIds(indexName, key);
+                            if (ids != null) {
+                                for (int id : ids) {
+                                    Container.Entry entry = entryTable.get(id);
+                                    if (ContainerEntryUtil.isInContainer(entry, container)) {
+                                        entries.add(entry);
+                                    }
+                                }
+                            }
+                        }
+                        // Other opened file: its entries are not in the container
+                        continue;
+                    }
+
+                    Map<String, Collection> index = indexes.getIndex(indexName);
+                    if (index != null) {
+                        @SuppressWarnings("unchecked")
+                        Collection<Container.Entry> collection = index.get(key);
+                        if (collection != null) {
+                            entries.addAll(ContainerEntryUtil.filterContainerEntries(collection, container));
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            assert ExceptionUtil.printStackTrace(e);
+            // Restore interrupted state...
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            assert ExceptionUtil.printStackTrace(e);
+        }
+
+        return entries;
+    }
+
     /*
      * https://jakewharton.com/calculating-zip-file-entry-true-impact/
      */
@@ -0,0 +1,361 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.index;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+import org.jd.core.v1.util.StringConstants;
+import org.jd.gui.api.model.Container;
+import org.jd.gui.api.model.EntryTable;
+import org.jd.gui.api.model.Indexes;
+import org.jd.gui.model.container.JrtContainer;
+import org.jd.gui.service.fileloader.JrtFileLoaderProvider;
+import org.jd.gui.util.io.CacheDirectoryUtil;
+import org.jd.util.CacheFileUtil;
+import org.objectweb.asm.ClassReader;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.apache.bcel.Const.CONSTANT_Class;
+import static org.jd.gui.util.decompiler.GuiPreferences.JRE_SYSTEM_LIBRARY_PATH;
+
+/**
+ * Type declarations, type references and sub types of the classes of a JDK
+ * run-time image, shared by all panels instead of being indexed by each of
+ * them.
+ * <p>
+ * The index is built once per JDK from the class file headers and constant
+ * pools, then persisted in the cache directory and loaded in background in
+ * the next sessions, until the image changes.
+ */
+public final class JdkIndexes {
+
+    private static final int MAGIC = 0x4A444B49;
+    private static final int VERSION = 1;
+
+    private static final String TYPE_DECLARATIONS = "typeDeclarations";
+    private static final String TYPE_REFERENCES = "typeReferences";
+    private static final String SUB_TYPE_NAMES = "subTypeNames";
+
+    /**
+     * Names of the indexes built by this class. The other indexes, like the
+     * declarations of methods and fields, are still built by the JDK panels.
+     */
+    public static final Set<String> INDEX_NAMES = Set.of(TYPE_DECLARATIONS, TYPE_REFERENCES, SUB_TYPE_NAMES);
+
+    private static final Map<File, CompletableFuture<Indexes>> FUTURE_INDEXES = new ConcurrentHashMap<>();
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jdk-indexer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private JdkIndexes() {
+    }
+
+    /**
+     * Returns the configured JDK or, by default, the running one, if it has a
+     * run-time image.
+     */
+    public static File getJavaHome(Map<String, String> preferences) {
+        String configuredJavaHome = preferences.get(JRE_SYSTEM_LIBRARY_PATH);
+
+        if (StringUtils.isNotBlank(configuredJavaHome)) {
+            File javaHome = JrtFileLoaderProvider.getJavaHome(new File(configuredJavaHome.trim()));
+            if (javaHome != null) {
+                return javaHome;
+            }
+        }
+
+        return JrtFileLoaderProvider.getJavaHome(new File(System.getProperty("java.home")));
+    }
+
+    /**
+     * Returns the shared indexes of the JDK, loading or building them in
+     * background on the first call.
+     *
+     * @return null if the preferences designate no JDK with a run-time image
+     */
+    public static CompletableFuture<Indexes> getFutureIndexes(Map<String, String> preferences) {
+        File javaHome = getJavaHome(preferences);
+
+        if (javaHome == null) {
+            return null;
+        }
+
+        return FUTURE_INDEXES.computeIfAbsent(javaHome, home -> CompletableFuture.supplyAsync(() -> loadOrBuild(home), EXECUTOR));
+    }
+
+    /**
+     * Returns the shared indexes of the JDK if they are already loaded or
+     * being built, without starting them.
+     *
+     * @return null if the preferences designate no JDK with a run-time image
+     *         or if no panel of a JDK has been opened yet
+     */
+    public static CompletableFuture<Indexes> getStartedFutureIndexes(Map<String, String> preferences) {
+        File javaHome = getJavaHome(preferences);
+        return javaHome == null ? null : FUTURE_INDEXES.get(javaHome);
+    }
+
+    /**
+     * Returns true if the shared indexes of a JDK have been started.
+     */
+    public static boolean isStarted() {
+        return !FUTURE_INDEXES.isEmpty();
+    }
+
+    /**
+     * Returns true if the types of the JDK directory are covered by the
+     * shared indexes, so that its panel does not need to keep the indexes
+     * named by {@link #INDEX_NAMES}.
+     */
+    public static boolean isShared(Map<String, String> preferences, File directory) {
+        File javaHome = JrtFileLoaderProvider.getJavaHome(directory);
+        return javaHome != null && javaHome.equals(getJavaHome(preferences));
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static Indexes loadOrBuild(File javaHome) {
+        try {
+            JrtContainer container = JrtFileLoaderProvider.newContainer(javaHome);
+            File modules = new File(javaHome, "lib/modules");
+            String key = javaHome.getAbsolutePath() + '|' + modules.length() + '|' + modules.lastModified();
+            Path cacheFile = CacheDirectoryUtil.getCacheDirectory("jdk-indexes").resolve(Integer.toHexString(javaHome.getAbsolutePath().hashCode()) + ".idx");
+            Table table = read(cacheFile, key);
+
+            if (table == null) {
+                table = build(container);
+                write(cacheFile, key, table);
+            }
+
+            return table.toIndexes(container);
+        } catch (IOException e) {
+            assert ExceptionUtil.printStackTrace(e);
+            Map<String, Map<String, Collection>> empty = Map.of();
+            return empty::get;
+        }
+    }
+
+    // --- Build --- //
+    private static Table build(JrtContainer container) {
+        List<Container.Entry> classFiles = new ArrayList<>();
+        collectClassFiles(container.getRoot(), classFiles);
+
+        List<ClassInfo> classInfos = classFiles.parallelStream().map(JdkIndexes::readClassInfo).filter(Objects::nonNull).toList();
+        Table table = new Table();
+
+        for (ClassInfo classInfo : classInfos) {
+            int pathIndex = table.paths.size();
+            table.paths.add(classInfo.path());
+            table.typeDeclarations.computeIfAbsent(classInfo.name(), k -> new ArrayList<>()).add(pathIndex);
+            for (String typeReference : classInfo.typeReferences()) {
+                table.typeReferences.computeIfAbsent(typeReference, k -> new ArrayList<>()).add(pathIndex);
+            }
+            for (String superTypeName : classInfo.superTypeNames()) {
+                table.subTypeNames.computeIfAbsent(superTypeName, k -> new ArrayList<>()).add(classInfo.name());
+            }
+        }
+
+        return table;
+    }
+
+    private static void collectClassFiles(Container.Entry entry, List<Container.Entry> classFiles) {
+        for (Container.Entry child : entry.getChildren().values()) {
+            if (child.isDirectory()) {
+                collectClassFiles(child, classFiles);
+            } else if (child.getPath().endsWith(StringConstants.CLASS_FILE_SUFFIX)) {
+                classFiles.add(child);
+            }
+        }
+    }
+
+    private static ClassInfo readClassInfo(Container.Entry entry) {
+        try (InputStream inputStream = entry.getInputStream()) {
+            ClassReader classReader = new ClassReader(inputStream);
+            Set<String> superTypeNames = new HashSet<>();
+            Set<String> typeReferences = new HashSet<>();
+
+            if (classReader.getSuperName() != null) {
+                superTypeNames.add(classReader.getSuperName());
+            }
+            superTypeNames.addAll(List.of(classReader.getInterfaces()));
+
+            char[] buffer = new char[classReader.getMaxStringLength()];
+
+            for (int i = classReader.getItemCount() - 1; i > 0; i--) {
+                int startIndex = classReader.getItem(i);
+
+                if (startIndex != 0 && classReader.readByte(startIndex - 1) == CONSTANT_Class) {
+                    String className = classReader.readUTF8(startIndex, buffer);
+                    String typeName = getReferencedTypeName(className);
+                    if (typeName != null) {
+                        typeReferences.add(typeName);
+                    }
+                }
+            }
+
+            return new ClassInfo(entry.getPath(), classReader.getClassName(), superTypeNames, typeReferences);
+        } catch (Exception e) {
+            assert ExceptionUtil.printStackTrace(e);
+            return null;
+        }
+    }
+
+    private static String getReferencedTypeName(String className) {
+        if (!className.startsWith("[")) {
+            return className;
+        }
+        // Element type of array descriptors
+        String elementType = StringUtils.stripStart(className, "[");
+        if (elementType.startsWith("L") && elementType.endsWith(";")) {
+            return elementType.substring(1, elementType.length() - 1);
+        }
+        return null;
+    }
+
+    // --- Persistence --- //
+    private static Table read(Path cacheFile, String key) {
+        // Missing, outdated or corrupted: built again
+        return CacheFileUtil.read(cacheFile, MAGIC, VERSION, input -> {
+            if (!key.equals(input.readUTF())) {
+                return null;
+            }
+
+            Table table = new Table();
+            int pathCount = input.readInt();
+            for (int i = 0; i < pathCount; i++) {
+                table.paths.add(input.readUTF());
+            }
+            readPathIndex(input, table.typeDeclarations);
+            readPathIndex(input, table.typeReferences);
+
+            int subTypeCount = input.readInt();
+            for (int i = 0; i < subTypeCount; i++) {
+                String superTypeName = input.readUTF();
+                int count = input.readInt();
+                List<String> subTypeNames = new ArrayList<>(count);
+                for (int j = 0; j < count; j++) {
+                    subTypeNames.add(input.readUTF());
+                }
+                table.subTypeNames.put(superTypeName, subTypeNames);
+            }
+
+            return table;
+        });
+    }
+
+    private static void readPathIndex(DataInputStream input, Map<String, List<Integer>> index) throws IOException {
+        int keyCount = input.readInt();
+        for (int i = 0; i < keyCount; i++) {
+            String key = input.readUTF();
+            int count = input.readInt();
+            List<Integer> pathIndexes = new ArrayList<>(count);
+            for (int j = 0; j < count; j++) {
+                pathIndexes.add(input.readInt());
+            }
+            index.put(key, pathIndexes);
+        }
+    }
+
+    private static void write(Path cacheFile, String key, Table table) {
+        // Not persisted on failure: built again in the next session
+        CacheFileUtil.write(cacheFile, MAGIC, VERSION, output -> {
+            output.writeUTF(key);
+            output.writeInt(table.paths.size());
+            for (String path : table.paths) {
+                output.writeUTF(path);
+            }
+            writePathIndex(output, table.typeDeclarations);
+            writePathIndex(output, table.typeReferences);
+            output.writeInt(table.subTypeNames.size());
+            for (Map.Entry<String, List<String>> subTypeNames : table.subTypeNames.entrySet()) {
+                output.writeUTF(subTypeNames.getKey());
+                output.writeInt(subTypeNames.getValue().size());
+                for (String subTypeName : subTypeNames.getValue()) {
+                    output.writeUTF(subTypeName);
+                }
+            }
+        });
+    }
+
+    private static void writePathIndex(DataOutputStream output, Map<String, List<Integer>> index) throws IOException {
+        output.writeInt(index.size());
+        for (Map.Entry<String, List<Integer>> entry : index.entrySet()) {
+            output.writeUTF(entry.getKey());
+            output.writeInt(entry.getValue().size());
+            for (int pathIndex : entry.getValue()) {
+                output.writeInt(pathIndex);
+            }
+        }
+    }
+
+    private record ClassInfo(String path, String name, Set<String> superTypeNames, Set<String> typeReferences) {
+    }
+
+    /**
+     * Indexes with entry paths in place of entries, as persisted.
+     */
+    private static final class Table {
+        private final List<String> paths = new ArrayList<>();
+        private final Map<String, List<Integer>> typeDeclarations = new HashMap<>();
+        private final Map<String, List<Integer>> typeReferences = new HashMap<>();
+        private final Map<String, List<String>> subTypeNames = new HashMap<>();
+
+        @SuppressWarnings("rawtypes")
+        private Indexes toIndexes(JrtContainer container) {
+            Container.Entry[] entries = new Container.Entry[paths.size()];
+            for (int i = 0; i < entries.length; i++) {
+                entries[i] = container.getEntry(paths.get(i));
+            }
+
+            EntryTable entryTable = container.getEntryTable();
+            Map<String, Map<String, Collection>> map = new HashMap<>();
+            map.put(TYPE_DECLARATIONS, toEntryIndex(typeDeclarations, entries, entryTable));
+            map.put(TYPE_REFERENCES, toEntryIndex(typeReferences, entries, entryTable));
+            map.put(SUB_TYPE_NAMES, new HashMap<>(subTypeNames));
+            return new EntryIdIndexes(map, entryTable);
+        }
+
+        @SuppressWarnings({ "rawtypes", "unchecked" })
+        private static Map<String, Collection> toEntryIndex(Map<String, List<Integer>> pathIndex, Container.Entry[] entries, EntryTable entryTable) {
+            Map<String, Collection> index = new HashMap<>(pathIndex.size() * 2);
+
+            for (Map.Entry<String, List<Integer>> mapEntry : pathIndex.entrySet()) {
+                Collection collection = new EntryIdCollection(entryTable);
+                for (int i : mapEntry.getValue()) {
+                    if (entries[i] != null) {
+                        collection.add(entries[i]);
+                    }
+                }
+                index.put(mapEntry.getKey(), collection);
+            }
+
+            return index;
+        }
+    }
+}
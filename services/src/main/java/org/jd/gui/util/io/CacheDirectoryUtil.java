@@ -0,0 +1,29 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.io;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Location of the data persisted between sessions, which may be deleted at
+ * any time: everything stored there can be computed again.
+ */
+public final class CacheDirectoryUtil {
+
+    private CacheDirectoryUtil() {
+    }
+
+    /**
+     * Returns the cache sub-directory of the given name, created if needed.
+     */
+    public static Path getCacheDirectory(String name) throws IOException {
+        return Files.createDirectories(Path.of(System.getProperty("user.home"), ".jd-gui-duo", "cache", name));
+    }
+}
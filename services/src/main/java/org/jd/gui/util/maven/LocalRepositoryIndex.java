@@ -0,0 +1,402 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.maven;
+
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+import org.jd.gui.util.io.CacheDirectoryUtil;
+import org.jd.gui.util.nexus.model.NexusArtifact;
+import org.jd.util.CacheFileUtil;
+import org.jd.util.SHA1Util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * SHA-1 to coordinates table of the jars of the local Maven repository,
+ * checked before the remote search services so that coordinates and attached
+ * sources resolve offline.
+ * <p>
+ * The table is persisted in the cache directory, and built in background
+ * from the first lookup of a session. The first lookups wait a bounded time
+ * for a table: the one of the previous session is used as soon as it is read,
+ * which is quick. Without one, the lookups made before the scan completes
+ * find nothing, and {@link #isScanned()} tells the callers to try again later. Then only the directories whose modification time
+ * changed are listed again, and only the jars added or changed in them are
+ * hashed, from the '.sha1' file downloaded by Maven when present.
+ */
+public final class LocalRepositoryIndex {
+
+    private static final int MAGIC = 0x4A444D32;
+    private static final int VERSION = 2;
+
+    private static final String REPOSITORY = "local";
+    private static final String JAR_EXTENSION = ".jar";
+    private static final String SHA1_EXTENSION = ".sha1";
+    private static final String SOURCES_CLASSIFIER = "sources";
+    /** Time a lookup waits for a table, the first scan of a large repository takes longer */
+    private static final long READY_TIMEOUT_SECONDS = 10;
+
+    private static LocalRepositoryIndex defaultIndex;
+
+    private final Path repository;
+    private final Path cacheFile;
+    private final AtomicBoolean started = new AtomicBoolean();
+    // Null until the table of the previous session, or a new one, is loaded
+    private volatile Map<String, String> sha1ToPath;
+    private final CountDownLatch ready = new CountDownLatch(1);
+    private volatile boolean scanned;
+
+    /**
+     * @param repository the local repository directory
+     * @param cacheFile  the file persisting the table, or null
+     */
+    public LocalRepositoryIndex(Path repository, Path cacheFile) {
+        this.repository = repository;
+        this.cacheFile = cacheFile;
+    }
+
+    /**
+     * Returns the index of the repository of the 'maven.repo.local' system
+     * property, '~/.m2/repository' by default.
+     */
+    public static synchronized LocalRepositoryIndex getDefault() {
+        if (defaultIndex == null) {
+            String localRepository = System.getProperty("maven.repo.local");
+            Path repository = localRepository == null
+                    ? Path.of(System.getProperty("user.home"), ".m2", "repository")
+                    : Path.of(localRepository);
+            Path cacheFile = null;
+
+            try {
+                String fileName = Integer.toHexString(repository.toAbsolutePath().toString().hashCode()) + ".idx";
+                cacheFile = CacheDirectoryUtil.getCacheDirectory("m2-index").resolve(fileName);
+            } catch (IOException e) {
+                // Not persisted: the repository is hashed again in each session
+                assert ExceptionUtil.printStackTrace(e);
+            }
+
+            defaultIndex = new LocalRepositoryIndex(repository, cacheFile);
+        }
+        return defaultIndex;
+    }
+
+    /**
+     * Returns the artifact of the jar having the given SHA-1, with a 'file:'
+     * artifact link, or null if the local repository does not contain it.
+     */
+    public NexusArtifact findBySha1(String sha1) {
+        Map<String, String> map = sha1ToPath;
+
+        if (map == null) {
+            start();
+            try {
+                ready.await(READY_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            map = sha1ToPath;
+            if (map == null) {
+                return null;
+            }
+        }
+
+        String path = map.get(sha1.toLowerCase(Locale.ROOT));
+        return path == null ? null : toArtifact(path);
+    }
+
+    /**
+     * Returns the sources jar of the given artifact, with a 'file:' artifact
+     * link, or null if it has not been downloaded.
+     */
+    public NexusArtifact findSources(NexusArtifact artifact) {
+        String groupId = artifact.groupId();
+        String artifactId = artifact.artifactId();
+        String version = artifact.version();
+
+        if (groupId == null || artifactId == null || version == null) {
+            return null;
+        }
+
+        String path = groupId.replace('.', '/') + '/' + artifactId + '/' + version + '/' + artifactId + '-' + version + '-' + SOURCES_CLASSIFIER + JAR_EXTENSION;
+
+        if (!Files.isRegularFile(repository.resolve(path))) {
+            return null;
+        }
+
+        return new NexusArtifact(groupId, artifactId, version, null, SOURCES_CLASSIFIER, "jar", REPOSITORY, repository.resolve(path).toUri().toString());
+    }
+
+    /**
+     * Builds the table in background, once.
+     */
+    public void start() {
+        if (started.compareAndSet(false, true)) {
+            Thread thread = new Thread(this::load, "m2-index");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            thread.start();
+        }
+    }
+
+    /**
+     * Returns true once a table can be looked up.
+     */
+    public boolean isReady() {
+        return sha1ToPath != null;
+    }
+
+    /**
+     * Returns true once the repository has been scanned in this session: a
+     * jar not found before may be found now.
+     */
+    public boolean isScanned() {
+        return scanned;
+    }
+
+    void load() {
+        try {
+            build();
+        } finally {
+            scanned = true;
+            ready.countDown();
+        }
+    }
+
+    private void build() {
+        if (!Files.isDirectory(repository)) {
+            sha1ToPath = Collections.emptyMap();
+            return;
+        }
+
+        Map<String, DirectoryInfo> previousDirectories = read();
+        if (!previousDirectories.isEmpty()) {
+            sha1ToPath = toSha1ToPath(previousDirectories);
+            ready.countDown();
+        }
+
+        Map<String, DirectoryInfo> directories = new TreeMap<>();
+        scan("", previousDirectories, directories);
+
+        if (cacheFile != null && !directories.equals(previousDirectories)) {
+            write(directories);
+        }
+
+        sha1ToPath = toSha1ToPath(directories);
+    }
+
+    private Map<String, String> toSha1ToPath(Map<String, DirectoryInfo> directories) {
+        List<JarInfo> jars = new ArrayList<>();
+        for (DirectoryInfo directory : directories.values()) {
+            jars.addAll(directory.jars());
+        }
+
+        Map<String, String> map = new HashMap<>(jars.size() * 2);
+        // Main artifacts first, then classified ones. Sorted by path: the same
+        // content deployed twice resolves to the first coordinates.
+        for (JarInfo jar : jars) {
+            NexusArtifact artifact = toArtifact(jar.path());
+            if (artifact != null && artifact.classifier() == null) {
+                map.putIfAbsent(jar.sha1(), jar.path());
+            }
+        }
+        for (JarInfo jar : jars) {
+            if (toArtifact(jar.path()) != null) {
+                map.putIfAbsent(jar.sha1(), jar.path());
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Lists the directory again only if its modification time changed, then
+     * scans its sub-directories.
+     *
+     * @param path relative path of the directory, "" for the repository
+     */
+    private void scan(String path, Map<String, DirectoryInfo> previousDirectories, Map<String, DirectoryInfo> directories) {
+        Path directory = path.isEmpty() ? repository : repository.resolve(path);
+        DirectoryInfo directoryInfo;
+
+        try {
+            long lastModified = Files.getLastModifiedTime(directory).toMillis();
+            DirectoryInfo previousDirectory = previousDirectories.get(path);
+
+            if (previousDirectory != null && previousDirectory.lastModified() == lastModified) {
+                directoryInfo = previousDirectory;
+            } else {
+                directoryInfo = list(directory, path, lastModified, previousDirectory);
+            }
+        } catch (IOException e) {
+            assert ExceptionUtil.printStackTrace(e);
+            return;
+        }
+
+        directories.put(path, directoryInfo);
+
+        for (String name : directoryInfo.subdirectories()) {
+            scan(path.isEmpty() ? name : path + '/' + name, previousDirectories, directories);
+        }
+    }
+
+    private static DirectoryInfo list(Path directory, String path, long lastModified, DirectoryInfo previousDirectory) throws IOException {
+        Map<String, JarInfo> previousJars = new HashMap<>();
+        if (previousDirectory != null) {
+            for (JarInfo jar : previousDirectory.jars()) {
+                previousJars.put(jar.path(), jar);
+            }
+        }
+
+        List<String> subdirectories = new ArrayList<>();
+        List<JarInfo> jars = new ArrayList<>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+
+                if (attributes.isDirectory()) {
+                    subdirectories.add(name);
+                } else if (attributes.isRegularFile() && name.endsWith(JAR_EXTENSION)) {
+                    String jarPath = path.isEmpty() ? name : path + '/' + name;
+                    long size = attributes.size();
+                    long jarLastModified = attributes.lastModifiedTime().toMillis();
+                    JarInfo previousJar = previousJars.get(jarPath);
+
+                    if (previousJar != null && previousJar.size() == size && previousJar.lastModified() == jarLastModified) {
+                        jars.add(previousJar);
+                    } else {
+                        String sha1 = readSha1File(file);
+                        if (sha1 == null) {
+                            sha1 = SHA1Util.computeSHA1(file.toFile());
+                        }
+                        if (!sha1.isEmpty()) {
+                            jars.add(new JarInfo(jarPath, size, jarLastModified, sha1));
+                        }
+                    }
+                }
+            }
+        }
+
+        Collections.sort(subdirectories);
+        jars.sort(Comparator.comparing(JarInfo::path));
+        return new DirectoryInfo(lastModified, subdirectories, jars);
+    }
+
+    private static String readSha1File(Path file) {
+        Path sha1File = file.resolveSibling(file.getFileName() + SHA1_EXTENSION);
+
+        try {
+            if (Files.isRegularFile(sha1File)) {
+                return SHA1Util.parseSHA1(new String(Files.readAllBytes(sha1File), StandardCharsets.US_ASCII));
+            }
+        } catch (IOException e) {
+            assert ExceptionUtil.printStackTrace(e);
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the coordinates of a jar from its repository layout path, such
+     * as 'org/ow2/asm/asm/9.6/asm-9.6.jar'.
+     */
+    private NexusArtifact toArtifact(String path) {
+        String[] segments = path.split("/");
+        int count = segments.length;
+
+        if (count < 4) {
+            return null;
+        }
+
+        String fileName = segments[count - 1];
+        String version = segments[count - 2];
+        String artifactId = segments[count - 3];
+        String groupId = String.join(".", Arrays.copyOf(segments, count - 3));
+        String baseName = fileName.substring(0, fileName.length() - JAR_EXTENSION.length());
+        String prefix = artifactId + '-' + version;
+        String classifier = null;
+
+        if (baseName.startsWith(prefix + '-')) {
+            classifier = baseName.substring(prefix.length() + 1);
+        }
+
+        return new NexusArtifact(groupId, artifactId, version, null, classifier, "jar", REPOSITORY, repository.resolve(path).toUri().toString());
+    }
+
+    // --- Persistence --- //
+    private Map<String, DirectoryInfo> read() {
+        Map<String, DirectoryInfo> directories = cacheFile == null ? null : CacheFileUtil.read(cacheFile, MAGIC, VERSION, input -> {
+            Map<String, DirectoryInfo> readDirectories = new TreeMap<>();
+            int directoryCount = input.readInt();
+            for (int i = 0; i < directoryCount; i++) {
+                String path = input.readUTF();
+                long lastModified = input.readLong();
+                int subdirectoryCount = input.readInt();
+                List<String> subdirectories = new ArrayList<>(subdirectoryCount);
+                for (int j = 0; j < subdirectoryCount; j++) {
+                    subdirectories.add(input.readUTF());
+                }
+                int jarCount = input.readInt();
+                List<JarInfo> jars = new ArrayList<>(jarCount);
+                for (int j = 0; j < jarCount; j++) {
+                    jars.add(new JarInfo(input.readUTF(), input.readLong(), input.readLong(), input.readUTF()));
+                }
+                readDirectories.put(path, new DirectoryInfo(lastModified, subdirectories, jars));
+            }
+            return readDirectories;
+        });
+
+        // First session, or corrupted: hashed again
+        return directories == null ? new TreeMap<>() : directories;
+    }
+
+    private void write(Map<String, DirectoryInfo> directories) {
+        // Not persisted on failure: hashed again in the next session
+        CacheFileUtil.write(cacheFile, MAGIC, VERSION, output -> {
+            output.writeInt(directories.size());
+            for (Map.Entry<String, DirectoryInfo> entry : directories.entrySet()) {
+                DirectoryInfo directory = entry.getValue();
+                output.writeUTF(entry.getKey());
+                output.writeLong(directory.lastModified());
+                output.writeInt(directory.subdirectories().size());
+                for (String subdirectory : directory.subdirectories()) {
+                    output.writeUTF(subdirectory);
+                }
+                output.writeInt(directory.jars().size());
+                for (JarInfo jar : directory.jars()) {
+                    output.writeUTF(jar.path());
+                    output.writeLong(jar.size());
+                    output.writeLong(jar.lastModified());
+                    output.writeUTF(jar.sha1());
+                }
+            }
+        });
+    }
+
+    private record DirectoryInfo(long lastModified, List<String> subdirectories, List<JarInfo> jars) {
+    }
+
+    private record JarInfo(String path, long size, long lastModified, String sha1) {
+    }
+}
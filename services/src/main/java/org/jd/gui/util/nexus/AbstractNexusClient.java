@@ -17,39 +17,68 @@
  ******************************************************************************/
 package org.jd.gui.util.nexus;
 
-import org.apache.commons.io.IOUtils;
+import org.jd.gui.util.http.HttpClientUtil;
+import org.jd.gui.util.http.HttpResponseCache;
 import org.jd.gui.util.maven.central.helper.NexusConfig;
+import org.jd.gui.util.nexus.model.NexusSearchResult;
 
-import java.io.InputStream;
-import java.net.HttpURLConnection;
-import java.net.Proxy;
 import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Base64;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * We provide common HTTP helpers shared by version-specific clients.
- * We never use proxies and we set modest timeouts.
+ * Nexus servers are reached directly, without the configured proxy, and with
+ * modest timeouts. Requests go through the direct keep-alive client of
+ * {@link HttpClientUtil}, bounded in concurrency. Search responses are
+ * kept in the persistent response cache.
  */
 abstract class AbstractNexusClient {
 
     protected final NexusConfig config;
+    protected final HttpResponseCache responseCache;
 
-    protected AbstractNexusClient(NexusConfig config) {
+    protected AbstractNexusClient(NexusConfig config, HttpResponseCache responseCache) {
         this.config = config;
+        this.responseCache = responseCache;
     }
 
     protected String get(String absoluteUrl, int connectTimeoutMs, int readTimeoutMs) throws java.io.IOException {
-        HttpURLConnection conn = (HttpURLConnection) URI.create(absoluteUrl).toURL().openConnection(Proxy.NO_PROXY);
-        conn.setRequestMethod("GET");
-        conn.setConnectTimeout(connectTimeoutMs);
-        conn.setReadTimeout(readTimeoutMs);
-        conn.setRequestProperty("Accept", "*/*");
-        conn.setRequestProperty("User-Agent", "JD-GUI-NexusSearch/1.0");
-        applyBasicAuthIfAny(conn);
-        int code = conn.getResponseCode();
-        InputStream stream = (code >= 200 && code < 300) ? conn.getInputStream() : conn.getErrorStream();
-        String body = IOUtils.toString(stream, StandardCharsets.UTF_8);
+        HttpResponse<String> response = HttpClientUtil.send(null, newRequest(absoluteUrl, connectTimeoutMs, readTimeoutMs).build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        return checkStatus(absoluteUrl, response.statusCode(), response.body());
+    }
+
+    /**
+     * We search through the response cache: results are reused across sessions
+     * for the given time-to-live, and searches without result for a shorter one.
+     */
+    protected NexusSearchResult search(String absoluteUrl, int connectTimeoutMs, int readTimeoutMs, Duration ttl, Function<String, NexusSearchResult> parser) throws java.io.IOException {
+        return search(absoluteUrl, connectTimeoutMs, readTimeoutMs, ttl, parser, result -> result.artifacts().isEmpty());
+    }
+
+    protected <T> T search(String absoluteUrl, int connectTimeoutMs, int readTimeoutMs, Duration ttl, Function<String, T> parser, Predicate<T> isEmpty) throws java.io.IOException {
+        HttpResponseCache.Response<T> response = responseCache.get(null, newRequest(absoluteUrl, connectTimeoutMs, readTimeoutMs), ttl, parser, isEmpty);
+        checkStatus(absoluteUrl, response.statusCode(), response.body());
+        return response.value();
+    }
+
+    private HttpRequest.Builder newRequest(String absoluteUrl, int connectTimeoutMs, int readTimeoutMs) {
+        // The shared client connects within its own timeout, the request one covers the whole exchange
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(absoluteUrl))
+                .GET()
+                .timeout(Duration.ofMillis((long) connectTimeoutMs + readTimeoutMs))
+                .header("Accept", "*/*")
+                .header("User-Agent", "JD-GUI-NexusSearch/1.0");
+        applyBasicAuthIfAny(builder);
+        return builder;
+    }
+
+    private static String checkStatus(String absoluteUrl, int code, String body) throws java.io.IOException {
         if (code >= 200 && code < 300) {
             return body;
         }
@@ -73,11 +102,11 @@ abstract class AbstractNexusClient {
         return base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
     }
 
-    private void applyBasicAuthIfAny(HttpURLConnection conn) {
+    private void applyBasicAuthIfAny(HttpRequest.Builder builder) {
         if (config.username != null && config.password != null && config.password.length > 0) {
             String creds = config.username + ":" + new String(config.password);
             String enc = Base64.getEncoder().encodeToString(creds.getBytes(StandardCharsets.ISO_8859_1));
-            conn.setRequestProperty("Authorization", "Basic " + enc);
+            builder.header("Authorization", "Basic " + enc);
         }
     }
 }
@@ -17,11 +17,20 @@
  ******************************************************************************/
 package org.jd.gui.util.nexus;
 
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+import org.jd.gui.util.http.HttpClientUtil;
+import org.jd.gui.util.nexus.model.NexusArtifact;
 import org.jd.gui.util.nexus.model.NexusSearchResult;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * We expose a uniform search interface across Nexus version 2 and version 3.
- * Implementations must never use proxies for network calls.
+ * Nexus implementations reach the server directly; only the Maven Central
+ * search goes through the configured proxy.
  */
 public interface NexusSearch {
 
@@ -35,6 +44,29 @@ public interface NexusSearch {
      */
     NexusSearchResult searchBySha1(String sha1, int pageNo) throws Exception;
 
+    /**
+     * We resolve several SHA-1 content hashes concurrently, on the shared
+     * bounded request pool. The map holds the first artifact found for each
+     * hash. Hashes without result, or whose search failed, are absent.
+     */
+    default CompletableFuture<Map<String, NexusArtifact>> resolveAll(Collection<String> sha1s) {
+        Map<String, NexusArtifact> artifacts = new ConcurrentHashMap<>();
+        CompletableFuture<?>[] searches = sha1s.stream()
+                .distinct()
+                .map(sha1 -> HttpClientUtil.supplyAsync(() -> searchBySha1(sha1, 0))
+                        .thenAccept(result -> {
+                            if (result.artifacts() != null && !result.artifacts().isEmpty()) {
+                                artifacts.put(sha1, result.artifacts().get(0));
+                            }
+                        })
+                        .exceptionally(t -> {
+                            assert ExceptionUtil.printStackTrace(t);
+                            return null;
+                        }))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(searches).thenApply(v -> artifacts);
+    }
+
     /**
      * We search by group, artifact, and optional version.
      * A null version means we search across versions.
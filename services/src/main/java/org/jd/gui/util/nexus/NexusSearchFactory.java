@@ -28,7 +28,8 @@ import java.awt.Component;
 
 /**
  * We detect the Nexus server family and return the appropriate implementation.
- * We perform minimal probes with short timeouts. We never use a proxy.
+ * We perform minimal probes with short timeouts, without a proxy. The proxy
+ * is only used for the Maven Central search.
  */
 public final class NexusSearchFactory {
 
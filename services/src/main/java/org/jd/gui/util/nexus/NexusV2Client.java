@@ -17,6 +17,7 @@
  ******************************************************************************/
 package org.jd.gui.util.nexus;
 
+import org.jd.gui.util.http.HttpResponseCache;
 import org.jd.gui.util.maven.central.helper.NexusConfig;
 import org.jd.gui.util.nexus.model.NexusArtifact;
 import org.jd.gui.util.nexus.model.NexusSearchResult;
@@ -53,7 +54,11 @@ final class NexusV2Client extends AbstractNexusClient implements NexusSearch {
 	private static final int PAGE_SIZE = 20;
 
     NexusV2Client(NexusConfig config) {
-        super(config);
+        this(config, HttpResponseCache.getDefault());
+    }
+
+    NexusV2Client(NexusConfig config, HttpResponseCache responseCache) {
+        super(config, responseCache);
     }
 
     // Probe helper used by the factory
@@ -73,8 +78,7 @@ final class NexusV2Client extends AbstractNexusClient implements NexusSearch {
         String path = "/service/local/lucene/search?q=" + enc(keyword)
                 + FROM + from
                 + COUNT + PAGE_SIZE;
-        String body = get(buildUrl(config.baseUrl, path), 8000, 15000);
-        return parse(body);
+        return search(buildUrl(config.baseUrl, path), 8000, 15000, HttpResponseCache.SEARCH_TTL, this::parse);
     }
 
     @Override
@@ -83,8 +87,7 @@ final class NexusV2Client extends AbstractNexusClient implements NexusSearch {
         String path = "/service/local/lucene/search?sha1=" + enc(sha1)
                 + FROM + from
                 + COUNT + PAGE_SIZE;
-        String body = get(buildUrl(config.baseUrl, path), 8000, 15000);
-        return parse(body);
+        return search(buildUrl(config.baseUrl, path), 8000, 15000, HttpResponseCache.SHA1_TTL, this::parse);
     }
 
     @Override
@@ -102,8 +105,7 @@ final class NexusV2Client extends AbstractNexusClient implements NexusSearch {
         	path.append("&p=").append(enc(packaging));
         }
         path.append(FROM).append(from).append(COUNT).append(PAGE_SIZE);
-        String body = get(buildUrl(config.baseUrl, path.toString()), 8000, 15000);
-        NexusSearchResult nexusSearchResult = parse(body);
+        NexusSearchResult nexusSearchResult = search(buildUrl(config.baseUrl, path.toString()), 8000, 15000, HttpResponseCache.SEARCH_TTL, this::parse);
         if (classifier != null) {
         	nexusSearchResult.artifacts().removeIf(a -> !classifier.equals(a.classifier()));
         }
@@ -120,8 +122,7 @@ final class NexusV2Client extends AbstractNexusClient implements NexusSearch {
         String path = "/service/local/lucene/search?" + param + "=" + enc(className)
                 + FROM + from
                 + COUNT + PAGE_SIZE;
-        String body = get(buildUrl(config.baseUrl, path), 8000, 15000);
-        return parse(body);
+        return search(buildUrl(config.baseUrl, path), 8000, 15000, HttpResponseCache.SEARCH_TTL, this::parse);
     }
 
     /**
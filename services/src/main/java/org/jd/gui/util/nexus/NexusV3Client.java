@@ -18,6 +18,7 @@
 package org.jd.gui.util.nexus;
 
 import org.apache.commons.lang3.StringUtils;
+import org.jd.gui.util.http.HttpResponseCache;
 import org.jd.gui.util.maven.central.helper.NexusConfig;
 import org.jd.gui.util.nexus.dto.Asset;
 import org.jd.gui.util.nexus.dto.Component;
@@ -26,14 +27,20 @@ import org.jd.gui.util.nexus.dto.Nexus3AssetSearchResponse;
 import org.jd.gui.util.nexus.dto.Nexus3Response;
 import org.jd.gui.util.nexus.model.NexusArtifact;
 import org.jd.gui.util.nexus.model.NexusSearchResult;
+import org.jd.util.LRUCache;
 
+import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 import jakarta.json.bind.Jsonb;
 import jakarta.json.bind.JsonbBuilder;
@@ -60,20 +67,33 @@ import jakarta.json.bind.JsonbBuilder;
  *          &extension=<extension>
  *          &classifier=<classifier>
  *
- * We do not use proxies in this client.
+ * Requests are sent directly, without the configured proxy.
  *
  * Pagination:
- *   The Nexus 3 Search API uses continuation tokens, not page numbers. For the
- *   sake of a simple, stateless client we currently ignore pageNo and always
- *   fetch the first page of results.
+ *   The Nexus 3 Search API uses continuation tokens, not page numbers. We
+ *   remember the token returned with each page, so that page n is requested
+ *   with the token of page n - 1 when the caller asks for it. A page whose
+ *   token is unknown is reached by following the tokens from the closest
+ *   known page, the pages in between coming from the response cache when
+ *   still fresh. The page returned without token is the last one.
  */
 final class NexusV3Client extends AbstractNexusClient implements NexusSearch {
 
     private static final int READ_TIMEOUT = 30000;
     private static final int CONNECTION_TIMEOUT = 30000;
+    private static final String CONTINUATION_TOKEN = "&continuationToken=";
+    private static final String NO_MORE_PAGES = "";
+    private static final int MAX_CONTINUATION_TOKENS = 1000;
+
+    // Token to request a page with, keyed by search path and page number
+    private final Map<String, String> continuationTokens = Collections.synchronizedMap(new LRUCache<>(MAX_CONTINUATION_TOKENS));
 
     NexusV3Client(NexusConfig config) {
-        super(config);
+        this(config, HttpResponseCache.getDefault());
+    }
+
+    NexusV3Client(NexusConfig config, HttpResponseCache responseCache) {
+        super(config, responseCache);
     }
 
     // Probe helper used by the factory
@@ -90,15 +110,13 @@ final class NexusV3Client extends AbstractNexusClient implements NexusSearch {
     @Override
     public NexusSearchResult searchByKeyword(String keyword, int pageNo) throws Exception {
         String path = "/service/rest/v1/search?q=" + enc(keyword);
-        String body = get(buildUrl(config.baseUrl, path), CONNECTION_TIMEOUT, READ_TIMEOUT);
-        return parseComponents(body);
+        return searchPage(path, pageNo, HttpResponseCache.SEARCH_TTL, this::parseComponents);
     }
 
     @Override
     public NexusSearchResult searchBySha1(String sha1, int pageNo) throws Exception {
         String path = "/service/rest/v1/search/assets?sha1=" + enc(sha1);
-        String body = get(buildUrl(config.baseUrl, path), CONNECTION_TIMEOUT, READ_TIMEOUT);
-        return parseAssets(body);
+        return searchPage(path, pageNo, HttpResponseCache.SHA1_TTL, this::parseAssets);
     }
 
     @Override
@@ -122,10 +140,24 @@ final class NexusV3Client extends AbstractNexusClient implements NexusSearch {
                 path.append('&');
             }
             path.append("version=").append(enc(version.trim()));
+            first = false;
+        }
+        // Filtered by the server too, so that matching components are not spread over many pages
+        if (classifier != null && !classifier.trim().isEmpty()) {
+            if (!first) {
+                path.append('&');
+            }
+            path.append("maven.classifier=").append(enc(classifier.trim()));
+            first = false;
+        }
+        if (packaging != null && !packaging.trim().isEmpty()) {
+            if (!first) {
+                path.append('&');
+            }
+            path.append("maven.extension=").append(enc(packaging.trim()));
         }
 
-        String body = get(buildUrl(config.baseUrl, path.toString()), CONNECTION_TIMEOUT, READ_TIMEOUT);
-        NexusSearchResult nexusSearchResult = parseComponents(body);
+        NexusSearchResult nexusSearchResult = searchPage(path.toString(), pageNo, HttpResponseCache.SEARCH_TTL, this::parseComponents);
         if (classifier != null) {
         	nexusSearchResult.artifacts().removeIf(a -> !classifier.equals(a.classifier()));
         }
@@ -140,17 +172,49 @@ final class NexusV3Client extends AbstractNexusClient implements NexusSearch {
         throw new UnsupportedOperationException();
     }
 
-    private NexusSearchResult parseComponents(String json) {
+    private NexusSearchResult searchPage(String path, int pageNo, Duration ttl, Function<String, Page> parser) throws IOException {
+        int page = Math.max(0, pageNo);
+        String continuationToken = null;
+
+        // We start from the closest page whose token is known, usually the requested one
+        while (page > 0 && (continuationToken = continuationTokens.get(tokenKey(path, page))) == null) {
+            page--;
+        }
+
+        while (true) {
+            if (NO_MORE_PAGES.equals(continuationToken)) {
+                return new NexusSearchResult(new ArrayList<>(), true);
+            }
+
+            String pagePath = continuationToken == null ? path : path + CONTINUATION_TOKEN + enc(continuationToken);
+            Page result = search(buildUrl(config.baseUrl, pagePath), CONNECTION_TIMEOUT, READ_TIMEOUT, ttl, parser, p -> p.result().artifacts().isEmpty());
+            continuationToken = result.continuationToken() == null ? NO_MORE_PAGES : result.continuationToken();
+            continuationTokens.put(tokenKey(path, page + 1), continuationToken);
+
+            if (page >= pageNo) {
+                return result.result();
+            }
+            page++;
+        }
+    }
+
+    private static String tokenKey(String path, int pageNo) {
+        return path + '#' + pageNo;
+    }
+
+    private Page parseComponents(String json) {
         List<NexusArtifact> list = new ArrayList<>();
         if (json == null || json.isEmpty()) {
-            return new NexusSearchResult(list);
+            return new Page(new NexusSearchResult(list, true), null);
         }
 
+        String continuationToken = null;
         try (Jsonb jsonb = JsonbBuilder.create()) {
             Nexus3Response resp = jsonb.fromJson(json, Nexus3Response.class);
             if (resp == null || resp.getItems() == null) {
-                return new NexusSearchResult(list);
+                return new Page(new NexusSearchResult(list, true), null);
             }
+            continuationToken = resp.getContinuationToken();
             for (Component component : resp.getItems()) {
                 if (component.getAssets() == null) {
                     continue;
@@ -165,20 +229,22 @@ final class NexusV3Client extends AbstractNexusClient implements NexusSearch {
         } catch (Exception _) {
         }
 
-        return new NexusSearchResult(list);
+        return new Page(new NexusSearchResult(list, continuationToken == null), continuationToken);
     }
 
-    private NexusSearchResult parseAssets(String json) {
+    private Page parseAssets(String json) {
         List<NexusArtifact> list = new ArrayList<>();
         if (json == null || json.isEmpty()) {
-            return new NexusSearchResult(list);
+            return new Page(new NexusSearchResult(list, true), null);
         }
 
+        String continuationToken = null;
         try (Jsonb jsonb = JsonbBuilder.create()) {
             Nexus3AssetSearchResponse resp = jsonb.fromJson(json, Nexus3AssetSearchResponse.class);
             if (resp == null || resp.getItems() == null) {
-                return new NexusSearchResult(list);
+                return new Page(new NexusSearchResult(list, true), null);
             }
+            continuationToken = resp.getContinuationToken();
             for (Asset asset : resp.getItems()) {
                 NexusArtifact artifact = createArtifactFromAsset(asset);
                 if (artifact != null) {
@@ -188,7 +254,7 @@ final class NexusV3Client extends AbstractNexusClient implements NexusSearch {
         } catch (Exception _) {
         }
 
-        return new NexusSearchResult(list);
+        return new Page(new NexusSearchResult(list, continuationToken == null), continuationToken);
     }
 
     private NexusArtifact createArtifactFromAsset(Asset asset) {
@@ -295,4 +361,7 @@ final class NexusV3Client extends AbstractNexusClient implements NexusSearch {
         // but signal to callers that class search is not officially supported.
         return false;
     }
+
+    private record Page(NexusSearchResult result, String continuationToken) {
+    }
 }
\ No newline at end of file
@@ -21,6 +21,12 @@ import java.util.List;
 
 /**
  * We represent a search result from a Nexus repository.
+ * The lastPage flag tells that no page follows this one; it is false when
+ * the server does not tell.
  */
-public record NexusSearchResult(List<NexusArtifact> artifacts) {
+public record NexusSearchResult(List<NexusArtifact> artifacts, boolean lastPage) {
+
+    public NexusSearchResult(List<NexusArtifact> artifacts) {
+        this(artifacts, false);
+    }
 }
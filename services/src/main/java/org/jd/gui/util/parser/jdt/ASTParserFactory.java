@@ -27,6 +27,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.eclipse.jdt.core.JavaCore.COMPILER_COMPLIANCE;
 import static org.eclipse.jdt.core.JavaCore.COMPILER_SOURCE;
@@ -41,6 +42,9 @@ public final class ASTParserFactory {
     private static final ASTParserFactory INSTANCE = new ASTParserFactory(false, false, false);
     private static final ASTParserFactory BINDING_INSTANCE = new ASTParserFactory(true, true, true);
 
+    // Resolved once per configured path instead of once per parser
+    private static final Map<String, List<String>> JDK_CLASSPATHS = new ConcurrentHashMap<>();
+
     private ASTParserFactory(boolean resolveBindings, boolean bindingRecovery, boolean statementRecovery) {
         this.resolveBindings = resolveBindings;
         this.bindingRecovery = bindingRecovery;
@@ -102,12 +106,27 @@ public final class ASTParserFactory {
     }
 
     public static List<String> getJDKClasspath(String javaHome) {
-        List<String> cpEntries = new ArrayList<>();
-
         if (StringUtils.isBlank(javaHome)) {
-            return cpEntries;
+            return new ArrayList<>();
         }
 
+        List<String> cpEntries = JDK_CLASSPATHS.get(javaHome);
+
+        if (cpEntries == null) {
+            cpEntries = resolveJDKClasspath(javaHome);
+
+            if (!cpEntries.isEmpty()) {
+                // Unresolved paths are not cached: the JDK may be installed later
+                cpEntries = List.copyOf(cpEntries);
+                JDK_CLASSPATHS.put(javaHome, cpEntries);
+            }
+        }
+
+        return new ArrayList<>(cpEntries);
+    }
+
+    private static List<String> resolveJDKClasspath(String javaHome) {
+        List<String> cpEntries = new ArrayList<>();
         File home = new File(javaHome.trim());
         if (!home.isDirectory()) {
             return cpEntries;
@@ -47,6 +47,7 @@ import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import javax.swing.InputMap;
 import javax.swing.JPanel;
@@ -76,6 +77,10 @@ public class AbstractTextPage extends JPanel implements LineNumberNavigable, Con
     protected static final RSyntaxTextAreaEditorKit.DecreaseFontSizeAction DECREASE_FONT_SIZE_ACTION = new RSyntaxTextAreaEditorKit.DecreaseFontSizeAction();
     protected static final RSyntaxTextAreaEditorKit.IncreaseFontSizeAction INCREASE_FONT_SIZE_ACTION = new RSyntaxTextAreaEditorKit.IncreaseFontSizeAction();
 
+    /** Texts longer than this are displayed chunk by chunk */
+    protected static final int INCREMENTAL_TEXT_LENGTH = 256 * 1024;
+    private static final int TEXT_CHUNK_LENGTH = 64 * 1024;
+
     protected final RSyntaxTextArea textArea;
     protected final RTextScrollPane scrollPane;
     protected final ErrorStrip errorStrip;
@@ -83,6 +88,8 @@ public class AbstractTextPage extends JPanel implements LineNumberNavigable, Con
     private Map<String, String> preferences;
     private boolean selectedWordHighlightActive;
     private boolean selectedWordHighlightEnabled;
+    private transient String loadingText;
+    private transient CompletableFuture<Void> textLoading = CompletableFuture.completedFuture(null);
 
     public AbstractTextPage(API api) {
         super(new BorderLayout());
@@ -178,8 +185,11 @@ public class AbstractTextPage extends JPanel implements LineNumberNavigable, Con
         return ThemeUtil.applyTheme(api, new RSyntaxTextArea());
     }
 
+    /**
+     * @return whole text, including the part not yet appended to the document
+     */
     public String getText() {
-        return textArea.getText();
+        return loadingText != null ? loadingText : textArea.getText();
     }
 
     @Override
@@ -192,8 +202,65 @@ public class AbstractTextPage extends JPanel implements LineNumberNavigable, Con
     }
 
     protected void setText(String text) {
-        textArea.setText(text);
-        textArea.setCaretPosition(0);
+        setText(text, false);
+    }
+
+    /**
+     * @param incremental true to display a large text from its first chunk and
+     *                    append the next chunks from the event queue, so that the
+     *                    first screen is painted without waiting for the whole
+     *                    document to be tokenized
+     */
+    protected void setText(String text, boolean incremental) {
+        // Stop appending the previous text
+        textLoading.cancel(false);
+        if (!incremental || text.length() <= INCREMENTAL_TEXT_LENGTH || !SwingUtilities.isEventDispatchThread()) {
+            loadingText = null;
+            textLoading = CompletableFuture.completedFuture(null);
+            textArea.setText(text);
+            textArea.setCaretPosition(0);
+        } else {
+            CompletableFuture<Void> loading = new CompletableFuture<>();
+            int end = getChunkEnd(text, 0);
+            loadingText = text;
+            textLoading = loading;
+            textArea.setText(text.substring(0, end));
+            textArea.setCaretPosition(0);
+            SwingUtilities.invokeLater(() -> appendText(text, end, loading));
+        }
+    }
+
+    private void appendText(String text, int start, CompletableFuture<Void> loading) {
+        if (!loading.isDone()) {
+            int end = getChunkEnd(text, start);
+            textArea.append(text.substring(start, end));
+            if (end < text.length()) {
+                SwingUtilities.invokeLater(() -> appendText(text, end, loading));
+            } else {
+                loadingText = null;
+                loading.complete(null);
+            }
+        }
+    }
+
+    /**
+     * @return end of the chunk starting at the given index, after a line feed if possible
+     */
+    private static int getChunkEnd(String text, int start) {
+        int end = start + TEXT_CHUNK_LENGTH;
+        if (end >= text.length()) {
+            return text.length();
+        }
+        int lineEnd = text.lastIndexOf('\n', end - 1);
+        return lineEnd > start ? lineEnd + 1 : end;
+    }
+
+    /**
+     * @return completed on the event dispatch thread once the text set last is
+     *         completely in the document, cancelled if it is replaced before
+     */
+    protected CompletableFuture<Void> getTextLoading() {
+        return textLoading;
     }
 
     public String getSyntaxStyle() {
@@ -12,26 +12,44 @@ import org.fife.ui.rsyntaxtextarea.DocumentRange;
 import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ByteCodeWriter;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+import org.jd.core.v1.util.StringConstants;
 import org.jd.gui.api.API;
 import org.jd.gui.api.model.Container;
+import org.jd.gui.api.model.Indexes;
+import org.jd.gui.api.model.Type;
 import org.jd.gui.util.MethodPatcher;
 import org.jd.gui.util.decompiler.ContainerLoader;
+import org.jd.gui.util.decompiler.DecompilationPrefetcher;
+import org.jd.gui.util.decompiler.DecompilerRace;
+import org.jd.gui.util.decompiler.DecompilerWarmUp;
+import org.jd.gui.util.decompiler.DecompilerWorkerPool;
 import org.jd.gui.util.decompiler.GuiPreferences;
+import org.jd.gui.util.index.IndexesUtil;
 import org.jd.gui.util.loader.LoaderUtils;
 import org.jd.gui.util.parser.jdt.core.manipulation.RemoveUnnecessaryCasts;
 
-import com.heliosdecompiler.transformerapi.StandardTransformers;
 import com.heliosdecompiler.transformerapi.common.Loader;
 
 import java.awt.Color;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.HierarchyEvent;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
 
+import javax.swing.SwingUtilities;
 import javax.swing.text.BadLocationException;
 import javax.swing.text.DefaultCaret;
 
@@ -46,6 +64,9 @@ import static jd.core.preferences.Preferences.REALIGN_LINE_NUMBERS;
 import static jd.core.preferences.Preferences.WRITE_LINE_NUMBERS;
 import static jd.core.preferences.Preferences.WRITE_METADATA;
 import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_ENGINE;
+import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_PREFETCH;
+import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_RACE;
+import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_RACE_ENGINES;
 import static org.jd.gui.util.decompiler.GuiPreferences.ERROR_BACKGROUND_COLOR;
 import static org.jd.gui.util.decompiler.GuiPreferences.ADVANCED_CLASS_LOOKUP;
 import static org.jd.gui.util.decompiler.GuiPreferences.INCLUDE_RUNNING_VM_BOOT_CLASSPATH;
@@ -57,6 +78,8 @@ import static org.jd.gui.util.decompiler.GuiPreferences.SHOW_COMPILER_WARNINGS;
 
 import jd.core.ClassUtil;
 import jd.core.DecompilationResult;
+import jd.core.links.HyperlinkData;
+import jd.core.links.HyperlinkReferenceData;
 
 public class ClassFilePage extends TypePage {
 
@@ -65,6 +88,8 @@ public class ClassFilePage extends TypePage {
     private static final long serialVersionUID = 1L;
     private static final List<String> DECOMPILE_RELEVANT_PREFERENCES = List.of(
         DECOMPILE_ENGINE,
+        DECOMPILE_RACE,
+        DECOMPILE_RACE_ENGINES,
         REMOVE_UNNECESSARY_CASTS,
         WRITE_LINE_NUMBERS,
         WRITE_METADATA,
@@ -85,9 +110,15 @@ public class ClassFilePage extends TypePage {
         JavaCore.COMPILER_COMPLIANCE
     );
 
+    /** Classes prefetched at most by kind of candidate */
+    private static final int MAX_PREFETCH_CANDIDATES = 4;
+
     private int maximumLineNumber = -1;
+    private boolean prefetchScheduled;
     private int lastDecompilePreferencesHash;
     private int lastParserPreferencesHash;
+    /** Preferences to decompile with once shown, or null */
+    private transient Map<String, String> stalePreferences;
 
     public ClassFilePage(API api, Container.Entry entry) {
         super(api, entry);
@@ -98,6 +129,11 @@ public class ClassFilePage extends TypePage {
         decompile(preferences);
         lastDecompilePreferencesHash = computePreferencesHash(preferences, DECOMPILE_RELEVANT_PREFERENCES);
         lastParserPreferencesHash = computePreferencesHash(preferences, PARSER_RELEVANT_PREFERENCES);
+        addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && isShowing() && stalePreferences != null) {
+                preferencesChanged(stalePreferences);
+            }
+        });
     }
 
     public void decompile(Map<String, String> preferences) {
@@ -109,6 +145,10 @@ public class ClassFilePage extends TypePage {
 
         // Init loader
         ContainerLoader loader = new ContainerLoader(entry);
+        DecompilationPrefetcher prefetcher = DecompilationPrefetcher.getInstance();
+        // The user is waiting
+        prefetcher.cancel();
+        DecompilerWarmUp.getInstance().cancel();
         try {
             // Clear ...
             clearLineNumbers();
@@ -117,16 +157,18 @@ public class ClassFilePage extends TypePage {
             // Format internal name
             String entryInternalName = ClassUtil.getInternalName(entry.getPath());
 
-            String engineName = preferences.getOrDefault(DECOMPILE_ENGINE, ENGINE_JD_CORE_V1);
             Loader apiLoader = LoaderUtils.createLoader(preferences, loader, entry);
-            DecompilationResult decompilationResult = StandardTransformers.decompile(apiLoader, entryInternalName, preferences, engineName);
+            DecompilationResult decompilationResult = prefetcher.take(entry, computePreferencesHash(preferences, DECOMPILE_RELEVANT_PREFERENCES));
+            if (decompilationResult == null) {
+                decompilationResult = decompileClass(api, entry, apiLoader, entryInternalName, preferences);
+            }
             if (decompilationResult.getDecompiledOutput().contains(ByteCodeWriter.DECOMPILATION_FAILED_AT_LINE)) {
                 /*
                  * Sometimes JD-Core v0 decompiles with success where JD-Core v1 fails.
                  * In this case, patch JD-Core v0 method into JD-Core v1 method.
                  * It will appear with comment 'Patched from JD-Core V0'
                  */
-                DecompilationResult sourceCodeV0 = StandardTransformers.decompile(apiLoader, entryInternalName, preferences, ENGINE_JD_CORE_V0);
+                DecompilationResult sourceCodeV0 = DecompilerWorkerPool.decompileClass(entry, apiLoader, entryInternalName, preferences, ENGINE_JD_CORE_V0);
                 String patchedCode = MethodPatcher.patchCode(api, decompilationResult.getDecompiledOutput(), sourceCodeV0.getDecompiledOutput(), entry);
                 if (removeUnnecessaryCasts) {
                     patchedCode = new RemoveUnnecessaryCasts(api, entry).process(patchedCode);
@@ -163,6 +205,10 @@ public class ClassFilePage extends TypePage {
                     setText(decompilationResult.getDecompiledOutput());
                 }
             }
+        } catch (InterruptedException e) {
+            assert ExceptionUtil.printStackTrace(e);
+            // Restore interrupted state...
+            Thread.currentThread().interrupt();
         } catch (Exception t) {
             assert ExceptionUtil.printStackTrace(t);
             setText(INTERNAL_ERROR);
@@ -171,6 +217,114 @@ public class ClassFilePage extends TypePage {
         }
     }
 
+    /**
+     * Decompile the class with the selected engine, or with several engines
+     * at the same time, keeping the first clean result, if enabled
+     */
+    private static DecompilationResult decompileClass(API api, Container.Entry entry, Loader apiLoader, String entryInternalName, Map<String, String> preferences)
+            throws IOException, ReflectiveOperationException, ExecutionException, InterruptedException, TimeoutException {
+        if (DecompilerRace.isEnabled(preferences)) {
+            return DecompilerRace.decompile(api, entry, apiLoader, entryInternalName, preferences);
+        }
+        String engineName = preferences.getOrDefault(DECOMPILE_ENGINE, ENGINE_JD_CORE_V1);
+        return DecompilerWorkerPool.decompileClass(entry, apiLoader, entryInternalName, preferences, engineName);
+    }
+
+    /**
+     * Decompile in the background the types referenced in the visible part of
+     * the page, the super and sub types, then the classes of the same package
+     */
+    protected void prefetch() {
+        Map<String, String> preferences = api.getPreferences();
+        // Racing engines for prefetching would use too much CPU
+        if (!"true".equals(preferences.get(DECOMPILE_PREFETCH)) || DecompilerRace.isEnabled(preferences)) {
+            return;
+        }
+        Set<Container.Entry> candidates = new LinkedHashSet<>();
+        addTypes(getVisibleReferencedTypeNames(), candidates);
+        String entryInternalName = ClassUtil.getInternalName(entry.getPath());
+        Set<String> hierarchyTypeNames = new LinkedHashSet<>();
+        Type type = api.getTypeFactory(entry).make(api, entry, entryInternalName);
+        if (type != null && type.getSuperName() != null && !"java/lang/Object".equals(type.getSuperName())) {
+            hierarchyTypeNames.add(type.getSuperName());
+        }
+        addSubTypeNames(entryInternalName, hierarchyTypeNames);
+        addTypes(hierarchyTypeNames, candidates);
+        candidates.addAll(DecompilationPrefetcher.getSiblingClasses(entry, MAX_PREFETCH_CANDIDATES));
+        candidates.remove(entry);
+
+        Map<String, String> prefetchPreferences = new HashMap<>(preferences);
+        DecompilationPrefetcher.getInstance().prefetch(candidates, computePreferencesHash(preferences, DECOMPILE_RELEVANT_PREFERENCES), candidate -> {
+            // Engines may write to their preferences
+            Map<String, String> candidatePreferences = new HashMap<>(prefetchPreferences);
+            Loader apiLoader = LoaderUtils.createLoader(candidatePreferences, new ContainerLoader(candidate), candidate);
+            String engineName = candidatePreferences.getOrDefault(DECOMPILE_ENGINE, ENGINE_JD_CORE_V1);
+            // Leaves a worker process to the user
+            return DecompilerWorkerPool.decompileClassInBackground(candidate, apiLoader, ClassUtil.getInternalName(candidate.getPath()), candidatePreferences, engineName);
+        });
+    }
+
+    private Set<String> getVisibleReferencedTypeNames() {
+        Set<String> typeNames = new LinkedHashSet<>();
+        Rectangle visibleRect = textArea.getVisibleRect();
+        int start = textArea.viewToModel2D(visibleRect.getLocation());
+        int end = textArea.viewToModel2D(new Point(visibleRect.x + visibleRect.width, visibleRect.y + visibleRect.height));
+        if (start >= 0 && start <= end) {
+            for (HyperlinkData hyperlinkData : hyperlinks.subMap(start, true, end, true).values()) {
+                if (hyperlinkData instanceof HyperlinkReferenceData hyperlinkReferenceData && hyperlinkReferenceData.getReference().isEnabled()) {
+                    typeNames.add(hyperlinkReferenceData.getReference().getTypeName());
+                }
+            }
+        }
+        return typeNames;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private void addSubTypeNames(String typeName, Set<String> typeNames) {
+        try {
+            for (Future<Indexes> futureIndexes : collectionOfFutureIndexes) {
+                if (futureIndexes.isDone()) {
+                    Map<String, Collection> subTypeNames = futureIndexes.get().getIndex("subTypeNames");
+                    if (subTypeNames != null) {
+                        @SuppressWarnings("unchecked")
+                        Collection<String> collection = subTypeNames.get(typeName);
+                        if (collection != null) {
+                            typeNames.addAll(collection);
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            assert ExceptionUtil.printStackTrace(e);
+            // Restore interrupted state...
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            assert ExceptionUtil.printStackTrace(e);
+        }
+    }
+
+    /**
+     * Add the class files declaring the types, preferably from the container of the page
+     */
+    private void addTypes(Collection<String> typeNames, Set<Container.Entry> candidates) {
+        int count = 0;
+        for (String typeName : typeNames) {
+            if (count == MAX_PREFETCH_CANDIDATES) {
+                break;
+            }
+            List<Container.Entry> entries = IndexesUtil.findInternalTypeName(collectionOfFutureIndexes, typeName, entry.getContainer());
+            if (entries.isEmpty()) {
+                entries = IndexesUtil.findInternalTypeName(collectionOfFutureIndexes, typeName);
+            }
+            for (Container.Entry typeEntry : entries) {
+                if (typeEntry != entry && typeEntry.getPath().endsWith(StringConstants.CLASS_FILE_SUFFIX) && candidates.add(typeEntry)) {
+                    count++;
+                    break;
+                }
+            }
+        }
+    }
+
     @Override
     public String getSyntaxStyle() {
         return SyntaxConstants.SYNTAX_STYLE_JAVA;
@@ -198,11 +352,10 @@ public class ClassFilePage extends TypePage {
             // Format internal name
             String entryInternalName = ClassUtil.getInternalName(entry.getPath());
 
-            String decompileEngine = preferences.getOrDefault(DECOMPILE_ENGINE, ENGINE_JD_CORE_V1);
             Loader apiLoader = LoaderUtils.createLoader(preferences, loader, entry);
-            decompilationResult = StandardTransformers.decompile(apiLoader, entryInternalName, preferences, decompileEngine);
+            decompilationResult = decompileClass(api, entry, apiLoader, entryInternalName, preferences);
             if (decompilationResult.getDecompiledOutput().contains(ByteCodeWriter.DECOMPILATION_FAILED_AT_LINE)) {
-                DecompilationResult sourceCodeV0 = StandardTransformers.decompile(apiLoader, entryInternalName, preferences, ENGINE_JD_CORE_V0);
+                DecompilationResult sourceCodeV0 = DecompilerWorkerPool.decompileClass(entry, apiLoader, entryInternalName, preferences, ENGINE_JD_CORE_V0);
                 decompilationResult.setDecompiledOutput(MethodPatcher.patchCode(api, decompilationResult.getDecompiledOutput(), sourceCodeV0.getDecompiledOutput(), entry));
             }
         } catch (Exception t) {
@@ -216,6 +369,11 @@ public class ClassFilePage extends TypePage {
         }
     }
 
+    @Override
+    protected void lineNumbersChanged() {
+        maximumLineNumber = getMaximumSourceLineNumber();
+    }
+
     // --- LineNumberNavigable --- //
     @Override
     public int getMaximumLineNumber() {
@@ -241,6 +399,17 @@ public class ClassFilePage extends TypePage {
         return lineNumber <= maximumLineNumber;
     }
 
+    // --- IndexesChangeListener --- //
+    @Override
+    public void indexesChanged(Collection<Future<Indexes>> collectionOfFutureIndexes) {
+        super.indexesChanged(collectionOfFutureIndexes);
+        if (!prefetchScheduled) {
+            prefetchScheduled = true;
+            // Once the page is laid out
+            SwingUtilities.invokeLater(this::prefetch);
+        }
+    }
+
     // --- PreferencesChangeListener --- //
     @Override
     public void preferencesChanged(Map<String, String> preferences) {
@@ -251,7 +420,12 @@ public class ClassFilePage extends TypePage {
         boolean decompileRequired = decompilePreferencesHash != lastDecompilePreferencesHash;
         boolean parserRefreshRequired = parserPreferencesHash != lastParserPreferencesHash;
 
-        if (decompileRequired) {
+        stalePreferences = null;
+        if (decompileRequired && !isShowing()) {
+            // Decompiled again once shown, instead of decompiling all the pages at once
+            stalePreferences = preferences;
+            decompileRequired = false;
+        } else if (decompileRequired) {
             DefaultCaret caret = (DefaultCaret) textArea.getCaret();
             int updatePolicy = caret.getUpdatePolicy();
 
@@ -189,5 +189,7 @@ public class DynamicPage
         public InputStream getInputStream() { return new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8)); }
         @Override
         public Map<Container.EntryPath, Container.Entry> getChildren() { return entry.getChildren(); }
+        @Override
+        public int getId() { return entry.getId(); }
     }
 }
@@ -24,7 +24,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -78,19 +77,12 @@ public class EjbJarXmlFilePage extends TypeReferencePage implements UriGettable,
 
                 // Open link
                 String internalTypeName = data.getInternalTypeName();
-                List<Container.Entry> entries = IndexesUtil.findInternalTypeName(collectionOfFutureIndexes, internalTypeName);
-                String rootUri = entry.getContainer().getRoot().getUri().toString();
-                List<Container.Entry> sameContainerEntries = new ArrayList<>();
-
-                for (Container.Entry nextEntry : entries) {
-                    if (nextEntry.getUri().toString().startsWith(rootUri)) {
-                        sameContainerEntries.add(nextEntry);
-                    }
-                }
+                List<Container.Entry> entries = IndexesUtil.findInternalTypeName(collectionOfFutureIndexes, internalTypeName, entry.getContainer());
 
-                if (!sameContainerEntries.isEmpty()) {
-                    api.openURI(x, y, sameContainerEntries, null, data.getInternalTypeName());
-                } else if (!entries.isEmpty()) {
+                if (entries.isEmpty()) {
+                    entries = IndexesUtil.findInternalTypeName(collectionOfFutureIndexes, internalTypeName);
+                }
+                if (!entries.isEmpty()) {
                     api.openURI(x, y, entries, null, data.getInternalTypeName());
                 }
             } catch (URISyntaxException e) {
@@ -175,19 +175,12 @@ public class ManifestFilePage extends HyperlinkPage implements UriGettable, Inde
                 String text = getText();
                 String textLink = getValue(text, hyperlinkData.getStartPosition(), hyperlinkData.getEndPosition());
                 String internalTypeName = textLink.replace('.', '/');
-                List<Container.Entry> entries = IndexesUtil.findInternalTypeName(collectionOfFutureIndexes, internalTypeName);
-                String rootUri = entry.getContainer().getRoot().getUri().toString();
-                ArrayList<Container.Entry> sameContainerEntries = new ArrayList<>();
+                List<Container.Entry> entries = IndexesUtil.findInternalTypeName(collectionOfFutureIndexes, internalTypeName, entry.getContainer());
 
-                for (Container.Entry entry : entries) {
-                    if (entry.getUri().toString().startsWith(rootUri)) {
-                        sameContainerEntries.add(entry);
-                    }
+                if (entries.isEmpty()) {
+                    entries = IndexesUtil.findInternalTypeName(collectionOfFutureIndexes, internalTypeName);
                 }
-
-                if (!sameContainerEntries.isEmpty()) {
-                    api.openURI(x, y, sameContainerEntries, null, data.fragment);
-                } else if (!entries.isEmpty()) {
+                if (!entries.isEmpty()) {
                     api.openURI(x, y, entries, null, data.fragment);
                 }
             } catch (URISyntaxException e) {
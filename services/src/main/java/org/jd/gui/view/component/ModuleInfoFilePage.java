@@ -22,6 +22,7 @@ import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil
 import org.jd.gui.api.API;
 import org.jd.gui.api.model.Container;
 import org.jd.gui.api.model.Indexes;
+import org.jd.gui.util.container.ContainerEntryUtil;
 import org.jd.gui.util.decompiler.ContainerLoader;
 import org.jd.gui.util.index.IndexesUtil;
 
@@ -135,14 +136,7 @@ public class ModuleInfoFilePage extends ClassFilePage {
                 if (entries.contains(entry)) {
                     api.openURI(uri);
                 } else {
-                    String rootUri = entry.getContainer().getRoot().getUri().toString();
-                    List<Container.Entry> sameContainerEntries = new ArrayList<>();
-
-                    for (Container.Entry entry : entries) {
-                        if (entry.getUri().toString().startsWith(rootUri)) {
-                            sameContainerEntries.add(entry);
-                        }
-                    }
+                    List<Container.Entry> sameContainerEntries = ContainerEntryUtil.filterContainerEntries(entries, entry.getContainer());
 
                     if (!sameContainerEntries.isEmpty()) {
                         api.openURI(x, y, sameContainerEntries, null, fragment);
@@ -23,7 +23,6 @@ import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -90,19 +89,12 @@ public class OneTypeReferencePerLinePage extends TypeReferencePage implements Ur
 
                 // Open link
                 String internalTypeName = data.getInternalTypeName();
-                List<Container.Entry> entries = IndexesUtil.findInternalTypeName(collectionOfFutureIndexes, internalTypeName);
-                String rootUri = entry.getContainer().getRoot().getUri().toString();
-                List<Container.Entry> sameContainerEntries = new ArrayList<>();
-
-                for (Container.Entry nextEntry : entries) {
-                    if (nextEntry.getUri().toString().startsWith(rootUri)) {
-                        sameContainerEntries.add(nextEntry);
-                    }
-                }
+                List<Container.Entry> entries = IndexesUtil.findInternalTypeName(collectionOfFutureIndexes, internalTypeName, entry.getContainer());
 
-                if (!sameContainerEntries.isEmpty()) {
-                    api.openURI(x, y, sameContainerEntries, null, data.getInternalTypeName());
-                } else if (!entries.isEmpty()) {
+                if (entries.isEmpty()) {
+                    entries = IndexesUtil.findInternalTypeName(collectionOfFutureIndexes, internalTypeName);
+                }
+                if (!entries.isEmpty()) {
                     api.openURI(x, y, entries, null, data.getInternalTypeName());
                 }
             } catch (URISyntaxException e) {
@@ -33,12 +33,17 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.function.BiPredicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import javax.swing.SwingUtilities;
+
 import jd.core.links.DeclarationData;
 import jd.core.links.HyperlinkData;
 import jd.core.links.HyperlinkReferenceData;
@@ -52,6 +57,12 @@ public abstract class TypePage extends CustomLineNumbersPage
 
     private static final Pattern LINE_COMMENT_PATTERN = Pattern.compile("/\\*\s*(\\d+)\s*\\*/");
 
+    private static final ExecutorService PARSER_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "source-parser");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     protected final transient API api;
     protected final transient Container.Entry entry;
     protected transient Collection<Future<Indexes>> collectionOfFutureIndexes = Collections.emptyList();
@@ -59,6 +70,9 @@ public abstract class TypePage extends CustomLineNumbersPage
     protected final transient ReferenceListener listener;
     protected final transient RSyntaxASTParser astParser;
 
+    private transient CompletableFuture<Void> referencesResolution = CompletableFuture.completedFuture(null);
+    private transient URI pendingUri;
+
     protected TypePage(API api, Container.Entry entry) {
     	super(api);
 
@@ -91,7 +105,7 @@ public abstract class TypePage extends CustomLineNumbersPage
                 // Open link
                 ReferenceData reference = hyperlinkReferenceData.getReference();
                 String typeName = reference.getTypeName();
-                List<Container.Entry> entries = IndexesUtil.findInternalTypeName(collectionOfFutureIndexes, typeName);
+                List<Container.Entry> sameContainerEntries = IndexesUtil.findInternalTypeName(collectionOfFutureIndexes, typeName, entry.getContainer());
                 String fragment = typeName;
 
                 if (reference.getName() != null) {
@@ -101,21 +115,14 @@ public abstract class TypePage extends CustomLineNumbersPage
                     fragment += '-' + reference.getDescriptor();
                 }
 
-                if (entries.contains(entry)) {
+                if (sameContainerEntries.contains(entry)) {
                     api.openURI(new URI(uri.getScheme(), uri.getAuthority(), uri.getPath(), fragment));
+                } else if (!sameContainerEntries.isEmpty()) {
+                    api.openURI(x, y, sameContainerEntries, null, fragment);
                 } else {
-                    String rootUri = entry.getContainer().getRoot().getUri().toString();
-                    List<Container.Entry> sameContainerEntries = new ArrayList<>();
-
-                    for (Container.Entry nextEntry : entries) {
-                        if (nextEntry.getUri().toString().startsWith(rootUri)) {
-                            sameContainerEntries.add(nextEntry);
-                        }
-                    }
+                    List<Container.Entry> entries = IndexesUtil.findInternalTypeName(collectionOfFutureIndexes, typeName);
 
-                    if (!sameContainerEntries.isEmpty()) {
-                        api.openURI(x, y, sameContainerEntries, null, fragment);
-                    } else if (!entries.isEmpty()) {
+                    if (!entries.isEmpty()) {
                         api.openURI(x, y, entries, null, fragment);
                     }
                 }
@@ -137,6 +144,12 @@ public abstract class TypePage extends CustomLineNumbersPage
      */
     @Override
     public boolean openUri(URI uri) {
+        if (!referencesResolution.isDone() || !getTextLoading().isDone()) {
+            // Opened once the declarations are known
+            pendingUri = uri;
+            return true;
+        }
+
         List<DocumentRange> ranges = new ArrayList<>();
         String fragment = uri.getFragment();
         String query = uri.getQuery();
@@ -439,42 +452,11 @@ public abstract class TypePage extends CustomLineNumbersPage
         }
     }
 
-    @SuppressWarnings({ "rawtypes" })
     protected String searchTypeHavingMember(String typeName, String name, String descriptor, Container.Entry entry) {
-        List<Container.Entry> entries = new ArrayList<>();
-
-        try {
-            for (Future<Indexes> futureIndexes : collectionOfFutureIndexes) {
-                if (futureIndexes.isDone()) {
-                    Map<String, Collection> index = futureIndexes.get().getIndex("typeDeclarations");
-                    if (index != null) {
-                        @SuppressWarnings("unchecked")
-                        Collection<Container.Entry> collection = index.get(typeName);
-                        if (collection != null) {
-                            entries.addAll(collection);
-                        }
-                    }
-                }
-            }
-        } catch (InterruptedException e) {
-            assert ExceptionUtil.printStackTrace(e);
-            // Restore interrupted state...
-            Thread.currentThread().interrupt();
-        } catch (Exception e) {
-            assert ExceptionUtil.printStackTrace(e);
-        }
-
-        String rootUri = entry.getContainer().getRoot().getUri().toString();
-        List<Container.Entry> sameContainerEntries = new ArrayList<>();
+        List<Container.Entry> entries = IndexesUtil.findInternalTypeName(collectionOfFutureIndexes, typeName, entry.getContainer());
 
-        for (Container.Entry e : entries) {
-            if (e.getUri().toString().startsWith(rootUri)) {
-                sameContainerEntries.add(e);
-            }
-        }
-
-        if (!sameContainerEntries.isEmpty()) {
-            return searchTypeHavingMember(typeName, name, descriptor, sameContainerEntries);
+        if (entries.isEmpty()) {
+            entries = IndexesUtil.findInternalTypeName(collectionOfFutureIndexes, typeName);
         }
         return searchTypeHavingMember(typeName, name, descriptor, entries);
     }
@@ -516,24 +498,79 @@ public abstract class TypePage extends CustomLineNumbersPage
         return null;
     }
 
+    @Override
+    protected void setText(String text) {
+        // Drop the references of the previous text
+        referencesResolution.cancel(false);
+        setText(text, true);
+        getTextLoading().thenRun(this::openPendingUri);
+    }
+
     public void parseAndSetText(String text) {
         listener.clearData();
         // Parse
         char[] source = text.toCharArray();
         URI jarURI = entry.getContainer().getRoot().getParent().getUri();
         String unitName = entry.getPath();
-        // 1st pass for declarations
         ASTParser astParser = ASTParserFactory.getInstance().newASTParser(api, source, unitName, jarURI);
-        astParser.createAST(null).accept(listener.getDeclarationListener());
-        listener.init();
-        // 2nd pass for references
         ASTParser astParserWithBindings = ASTParserFactory.getInstanceWithBindings().newASTParser(api, source, unitName, jarURI);
-        ASTNode astNode = astParserWithBindings.createAST(null);
+        if (text.length() > INCREMENTAL_TEXT_LENGTH && SwingUtilities.isEventDispatchThread()) {
+            // Display first, then resolve declarations and references once parsed in the background
+            setText(text);
+            initLineNumbers();
+            CompletableFuture<ASTNode[]> parsing = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return new ASTNode[] { astParser.createAST(null), astParserWithBindings.createAST(null) };
+                } catch (RuntimeException e) {
+                    assert ExceptionUtil.printStackTrace(e);
+                    return null;
+                }
+            }, PARSER_EXECUTOR);
+            referencesResolution = getTextLoading().thenAcceptBothAsync(parsing, (v, astNodes) -> {
+                // Counted again on the whole text, only the first part was loaded above
+                initLineNumbers();
+                if (astNodes != null) {
+                    setReferences(astNodes[0], astNodes[1]);
+                    setMisalignedLineNumbers(astNodes[1], text);
+                    // Enable the links of the indexed types
+                    indexesChanged(collectionOfFutureIndexes);
+                }
+                lineNumbersChanged();
+                // Misaligned line numbers
+                scrollPane.repaint();
+                openPendingUri();
+            }, SwingUtilities::invokeLater);
+        } else {
+            // 1st pass for declarations, 2nd pass for references
+            ASTNode declarationsAstNode = astParser.createAST(null);
+            ASTNode astNode = astParserWithBindings.createAST(null);
+            setReferences(declarationsAstNode, astNode);
+            // Display
+            setText(text);
+            initLineNumbers();
+            setMisalignedLineNumbers(astNode, text);
+        }
+    }
+
+    /**
+     * Called on the event dispatch thread once the line numbers of a text
+     * parsed in the background are set
+     */
+    protected void lineNumbersChanged() {
+    }
+
+    private void setReferences(ASTNode declarationsAstNode, ASTNode astNode) {
+        declarationsAstNode.accept(listener.getDeclarationListener());
+        listener.init();
         astNode.accept(listener);
-        // Display
-        setText(text);
-        initLineNumbers();
-        setMisalignedLineNumbers(astNode, text);
+    }
+
+    private void openPendingUri() {
+        if (pendingUri != null && referencesResolution.isDone()) {
+            URI uri = pendingUri;
+            pendingUri = null;
+            openUri(uri);
+        }
     }
 
     private void setMisalignedLineNumbers(ASTNode astNode, String text) {
@@ -85,19 +85,12 @@ public class WebXmlFilePage extends TypeReferencePage implements UriGettable, In
                     }
                 } else {
                     String internalTypeName = data.getInternalTypeName();
-                    List<Container.Entry> entries = IndexesUtil.findInternalTypeName(collectionOfFutureIndexes, internalTypeName);
-                    String rootUri = entry.getContainer().getRoot().getUri().toString();
-                    List<Container.Entry> sameContainerEntries = new ArrayList<>();
-
-                    for (Container.Entry nextEntry : entries) {
-                        if (nextEntry.getUri().toString().startsWith(rootUri)) {
-                            sameContainerEntries.add(nextEntry);
-                        }
-                    }
+                    List<Container.Entry> entries = IndexesUtil.findInternalTypeName(collectionOfFutureIndexes, internalTypeName, entry.getContainer());
 
-                    if (!sameContainerEntries.isEmpty()) {
-                        api.openURI(x, y, sameContainerEntries, null, data.getInternalTypeName());
-                    } else if (!entries.isEmpty()) {
+                    if (entries.isEmpty()) {
+                        entries = IndexesUtil.findInternalTypeName(collectionOfFutureIndexes, internalTypeName);
+                    }
+                    if (!entries.isEmpty()) {
                         api.openURI(x, y, entries, null, data.getInternalTypeName());
                     }
                 }
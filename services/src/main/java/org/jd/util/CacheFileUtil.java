@@ -0,0 +1,99 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.util;
+
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Binary files persisted between sessions. A file starts with a magic number
+ * and a format version, and is replaced atomically so that a reader never sees
+ * a partial file. A missing, foreign, outdated or corrupted file reads as null:
+ * its content is computed again.
+ */
+public final class CacheFileUtil {
+
+    private CacheFileUtil() {
+    }
+
+    @FunctionalInterface
+    public interface Reader<T> {
+        T read(DataInputStream input) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface Writer {
+        void write(DataOutputStream output) throws IOException;
+    }
+
+    /**
+     * Returns the content of the file, or null if it cannot be used.
+     */
+    public static <T> T read(Path file, int magic, int version, Reader<T> reader) {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (input.readInt() != magic || input.readInt() != version) {
+                return null;
+            }
+            return reader.read(input);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            // Corrupted or truncated
+            assert ExceptionUtil.printStackTrace(e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes the file through a temporary file of the same directory.
+     *
+     * @return false if the file could not be written
+     */
+    public static boolean write(Path file, int magic, int version, Writer writer) {
+        Path tmpFile = null;
+
+        try {
+            // One temporary file per writer, the same file may be written concurrently
+            tmpFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+                output.writeInt(magic);
+                output.writeInt(version);
+                writer.write(output);
+            }
+
+            try {
+                Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException e) {
+            assert ExceptionUtil.printStackTrace(e);
+
+            if (tmpFile != null) {
+                try {
+                    Files.deleteIfExists(tmpFile);
+                } catch (IOException ex) {
+                    assert ExceptionUtil.printStackTrace(ex);
+                }
+            }
+            return false;
+        }
+    }
+}
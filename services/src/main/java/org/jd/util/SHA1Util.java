@@ -20,18 +20,26 @@ import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.security.DigestInputStream;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public final class SHA1Util {
 
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final int SHA1_LENGTH = 40;
+
     private SHA1Util() {
     }
 
@@ -51,16 +59,58 @@ public final class SHA1Util {
         return sha1Map;
     }
 
+    /**
+     * Loads the hashes of the previous sessions, and saves them to the same
+     * file on {@link #saveCache()}. Until then, hashes are kept in memory only.
+     */
+    public static void loadCache(Path cacheFile) {
+        SHA1Cache.load(cacheFile);
+    }
+
+    /**
+     * Saves the hashes to the file given to {@link #loadCache(Path)}, if they changed
+     */
+    public static void saveCache() {
+        SHA1Cache.save();
+    }
+
+    /**
+     * Returns the SHA-1 of the file, from the persistent cache when the file
+     * has the same size and modification time as when it was last hashed.
+     */
     public static String computeSHA1(File file) {
+        String path = file.getAbsolutePath();
+        long size = file.length();
+        long lastModified = file.lastModified();
+
+        CachedSHA1 cached = SHA1Cache.ENTRIES.get(path);
+        if (cached != null && cached.size() == size && cached.lastModified() == lastModified) {
+            return cached.sha1();
+        }
+
+        String sha1 = digest(file);
+        if (!sha1.isEmpty() && lastModified != 0L) {
+            SHA1Cache.put(path, new CachedSHA1(size, lastModified, sha1));
+        }
+        return sha1;
+    }
+
+    /**
+     * Returns the SHA-1 of the file without the persistent cache, for files
+     * about to change or move.
+     */
+    public static String digest(File file) {
         MessageDigest messageDigest;
         StringBuilder sb = new StringBuilder();
         try {
             messageDigest = MessageDigest.getInstance("SHA-1");
-            byte[] buffer = new byte[1024 * 2];
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
 
-            try (DigestInputStream is = new DigestInputStream(new FileInputStream(file), messageDigest)) {
-                while (is.read(buffer) > -1) {
-                    // read fully
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                while (channel.read(buffer) != -1) {
+                    buffer.flip();
+                    messageDigest.update(buffer);
+                    buffer.clear();
                 }
             }
 
@@ -76,8 +126,87 @@ public final class SHA1Util {
         return sb.toString();
     }
 
+    /**
+     * Returns the SHA-1 of a '.sha1' checksum file content, either the hash
+     * alone or followed by the file name, or null if it holds none.
+     */
+    public static String parseSHA1(String content) {
+        String trimmed = content.trim();
+        if (trimmed.length() >= SHA1_LENGTH) {
+            String sha1 = trimmed.substring(0, SHA1_LENGTH).toLowerCase(Locale.ROOT);
+            if (sha1.chars().allMatch(c -> Character.digit(c, 16) != -1)
+                    && (trimmed.length() == SHA1_LENGTH || Character.isWhitespace(trimmed.charAt(SHA1_LENGTH)))) {
+                return sha1;
+            }
+        }
+        return null;
+    }
+
     private static char hexa(int i) {
         return (char) (i <= 9 ? '0' + i : 'a' - 10 + i);
     }
 
+    private record CachedSHA1(long size, long lastModified, String sha1) {
+    }
+
+    /**
+     * SHA-1 of the files hashed in previous sessions, by absolute path.
+     */
+    private static final class SHA1Cache {
+        private static final int MAGIC = 0x4A445331;
+        private static final int VERSION = 1;
+
+        private static final Map<String, CachedSHA1> ENTRIES = new ConcurrentHashMap<>();
+        private static final AtomicBoolean CHANGED = new AtomicBoolean();
+        private static volatile Path cacheFile;
+
+        private SHA1Cache() {
+        }
+
+        private static void put(String path, CachedSHA1 cached) {
+            ENTRIES.put(path, cached);
+            CHANGED.set(true);
+        }
+
+        private static void load(Path file) {
+            cacheFile = file;
+
+            Map<String, CachedSHA1> entries = CacheFileUtil.read(file, MAGIC, VERSION, input -> {
+                Map<String, CachedSHA1> readEntries = new HashMap<>();
+                int count = input.readInt();
+                for (int i = 0; i < count; i++) {
+                    String path = input.readUTF();
+                    readEntries.put(path, new CachedSHA1(input.readLong(), input.readLong(), input.readUTF()));
+                }
+                return readEntries;
+            });
+
+            // First session, or corrupted: hashed again
+            if (entries != null) {
+                // Files hashed in this session are more recent
+                entries.forEach(ENTRIES::putIfAbsent);
+            }
+        }
+
+        private static void save() {
+            Path file = cacheFile;
+            if (file == null || !CHANGED.getAndSet(false)) {
+                return;
+            }
+
+            // Entries of deleted files are dropped
+            Map<String, CachedSHA1> entries = new HashMap<>(ENTRIES);
+            entries.keySet().removeIf(path -> !new File(path).isFile());
+
+            CacheFileUtil.write(file, MAGIC, VERSION, output -> {
+                output.writeInt(entries.size());
+                for (Map.Entry<String, CachedSHA1> entry : entries.entrySet()) {
+                    output.writeUTF(entry.getKey());
+                    output.writeLong(entry.getValue().size());
+                    output.writeLong(entry.getValue().lastModified());
+                    output.writeUTF(entry.getValue().sha1());
+                }
+            });
+        }
+    }
 }
@@ -0,0 +1,169 @@
+/*******************************************************************************
+ *
+ * © 2026 Nicolas Baumann (@nbauma109)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package org.jd.gui.util.central;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.jd.gui.util.http.HttpClientUtil;
+import org.jd.gui.util.http.HttpResponseCache;
+import org.jd.gui.util.nexus.model.NexusArtifact;
+import org.jd.gui.util.nexus.model.NexusSearchResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for SolrCentralSearchClient against a local HttpServer standing in for search.maven.org.
+ * The stand-in answers "1:sha1-N" queries with the artifact "lib-N" for N below the known count,
+ * and with no document for the others.
+ */
+class SolrCentralSearchClientLocalServerTest {
+
+    private static final int KNOWN_SHA1_COUNT = 16;
+    private static final long RESPONSE_DELAY_MS = 50;
+
+    @TempDir
+    Path cacheDirectory;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/solrsearch/select", this::handleSelect);
+        serverExecutor = Executors.newFixedThreadPool(4 * HttpClientUtil.MAX_IN_FLIGHT);
+        server.setExecutor(serverExecutor);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        serverExecutor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private SolrCentralSearchClient newClient() {
+        // Responses are cached in the temporary directory of the test only
+        HttpResponseCache responseCache = new HttpResponseCache(cacheDirectory, HttpResponseCache.NEGATIVE_TTL, Clock.systemUTC());
+        return new SolrCentralSearchClient(null, baseUrl(), responseCache);
+    }
+
+    private void handleSelect(HttpExchange exchange) throws IOException {
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        try {
+            Thread.sleep(RESPONSE_DELAY_MS);
+
+            String query = URLDecoder.decode(exchange.getRequestURI().getRawQuery(), StandardCharsets.UTF_8);
+            int start = query.indexOf("q=1:") + 4;
+            String sha1 = query.substring(start, query.indexOf('&', start));
+            String docs = "";
+            if (sha1.startsWith("sha1-") && Integer.parseInt(sha1.substring(5)) < KNOWN_SHA1_COUNT) {
+                docs = """
+                        {"id":"org.example:lib-%1$s:1.0","g":"org.example","a":"lib-%1$s","v":"1.0","p":"jar",
+                        "timestamp":1700000000000,"ec":["-sources.jar",".jar"]}
+                        """.formatted(sha1.substring(5));
+            }
+            String json = "{\"response\":{\"numFound\":" + (docs.isEmpty() ? 0 : 1) + ",\"start\":0,\"docs\":[" + docs + "]}}";
+
+            byte[] body = json.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    @Test
+    void sha1Search_returnsMainAndSourcesArtifactsWithRemoteContentLinks() throws Exception {
+        SolrCentralSearchClient client = newClient();
+
+        NexusSearchResult result = client.searchBySha1("sha1-5", 0);
+
+        assertNotNull(result);
+        List<NexusArtifact> artifacts = result.artifacts();
+        assertEquals(2, artifacts.size(), "Main artifact and sources artifact expected");
+
+        NexusArtifact main = artifacts.get(0);
+        assertEquals("org.example", main.groupId());
+        assertEquals("lib-5", main.artifactId());
+        assertEquals("1.0", main.version());
+        assertNull(main.classifier());
+        assertNotNull(main.versionDate());
+        assertTrue(main.artifactLink().startsWith(baseUrl() + "/remotecontent?filepath="),
+                "artifactLink must use the remotecontent endpoint of the configured server");
+
+        assertEquals("sources", artifacts.get(1).classifier());
+    }
+
+    @Test
+    void resolveAll_resolvesKnownHashesConcurrentlyWithBoundedInFlightRequests() {
+        List<String> sha1s = new ArrayList<>();
+        for (int i = 0; i < KNOWN_SHA1_COUNT; i++) {
+            sha1s.add("sha1-" + i);
+        }
+        sha1s.add("unknown");
+
+        Map<String, NexusArtifact> artifacts = newClient().resolveAll(sha1s).join();
+
+        assertEquals(KNOWN_SHA1_COUNT, artifacts.size(), "Every known hash should be resolved");
+        for (int i = 0; i < KNOWN_SHA1_COUNT; i++) {
+            NexusArtifact artifact = artifacts.get("sha1-" + i);
+            assertEquals("lib-" + i, artifact.artifactId());
+            assertNull(artifact.classifier(), "The main artifact should be retained for each hash");
+        }
+        assertFalse(artifacts.containsKey("unknown"), "Unknown hashes must be absent");
+
+        assertTrue(maxInFlight.get() > 1, "Searches should run concurrently, max in flight was " + maxInFlight.get());
+        assertTrue(maxInFlight.get() <= HttpClientUtil.MAX_IN_FLIGHT,
+                "At most " + HttpClientUtil.MAX_IN_FLIGHT + " requests may be in flight, was " + maxInFlight.get());
+    }
+}
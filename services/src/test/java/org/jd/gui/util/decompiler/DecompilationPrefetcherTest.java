@@ -0,0 +1,158 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.decompiler;
+
+import org.jd.gui.api.model.Container;
+import org.jd.gui.test.MemoryContainer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jd.core.DecompilationResult;
+
+class DecompilationPrefetcherTest {
+
+    private static DecompilationResult awaitTake(DecompilationPrefetcher prefetcher, Container.Entry entry, int preferencesHash) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        DecompilationResult result = prefetcher.take(entry, preferencesHash);
+        while (result == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            result = prefetcher.take(entry, preferencesHash);
+        }
+        return result;
+    }
+
+    private static MemoryContainer container(String... paths) {
+        MemoryContainer container = new MemoryContainer();
+        for (String path : paths) {
+            container.addFile(path);
+        }
+        return container;
+    }
+
+    @Test
+    void take_returnsPrefetchedResultOnceForSamePreferences() throws InterruptedException {
+        Container.Entry entry = container("a/A.class").getEntry("a/A.class");
+        DecompilationResult result = new DecompilationResult();
+        DecompilationPrefetcher prefetcher = new DecompilationPrefetcher();
+
+        prefetcher.prefetch(List.of(entry), 1, e -> result);
+
+        assertSame(result, awaitTake(prefetcher, entry, 1));
+        assertNull(prefetcher.take(entry, 1));
+    }
+
+    @Test
+    void take_ignoresResultsOfOtherPreferences() throws InterruptedException {
+        MemoryContainer container = container("a/A.class", "a/B.class");
+        Container.Entry entry = container.getEntry("a/A.class");
+        Container.Entry last = container.getEntry("a/B.class");
+        DecompilationPrefetcher prefetcher = new DecompilationPrefetcher();
+
+        prefetcher.prefetch(List.of(entry, last), 1, e -> new DecompilationResult());
+
+        assertNotNull(awaitTake(prefetcher, last, 1));
+        assertNull(prefetcher.take(entry, 2));
+    }
+
+    @Test
+    void cancel_dropsClassesNotStartedAndInterruptsClassBeingDecompiled() throws InterruptedException {
+        MemoryContainer container = container("a/A.class", "a/B.class", "a/C.class");
+        Container.Entry first = container.getEntry("a/A.class");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Set<String> decompiled = ConcurrentHashMap.newKeySet();
+        DecompilationPrefetcher prefetcher = new DecompilationPrefetcher();
+
+        prefetcher.prefetch(List.of(first, container.getEntry("a/B.class"), container.getEntry("a/C.class")), 1, e -> {
+            if (e == first) {
+                started.countDown();
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+                } catch (InterruptedException ie) {
+                    interrupted.countDown();
+                    throw ie;
+                }
+            }
+            decompiled.add(e.getPath());
+            return new DecompilationResult();
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        prefetcher.cancel();
+
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+        assertNull(prefetcher.take(first, 1));
+        assertEquals(Set.of(), decompiled);
+    }
+
+    @Test
+    void prefetch_dropsClassesNotStartedAndKeepsClassBeingDecompiled() throws InterruptedException {
+        MemoryContainer container = container("a/A.class", "a/B.class", "a/C.class");
+        Container.Entry first = container.getEntry("a/A.class");
+        Container.Entry last = container.getEntry("a/C.class");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Set<String> decompiled = ConcurrentHashMap.newKeySet();
+        DecompilationPrefetcher prefetcher = new DecompilationPrefetcher();
+        DecompilationPrefetcher.Decompiler decompiler = e -> {
+            if (e == first) {
+                started.countDown();
+                release.await(10, TimeUnit.SECONDS);
+            }
+            decompiled.add(e.getPath());
+            return new DecompilationResult();
+        };
+
+        prefetcher.prefetch(List.of(first, container.getEntry("a/B.class")), 1, decompiler);
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        prefetcher.prefetch(List.of(last), 1, decompiler);
+        release.countDown();
+
+        // The class being decompiled is kept
+        assertNotNull(awaitTake(prefetcher, first, 1));
+        assertNotNull(awaitTake(prefetcher, last, 1));
+        assertEquals(Set.of("a/A.class", "a/C.class"), decompiled);
+    }
+
+    @Test
+    void prefetch_limitsNumberOfClasses() throws InterruptedException {
+        MemoryContainer container = new MemoryContainer();
+        List<Container.Entry> entries = new ArrayList<>();
+        for (int i = 0; i <= DecompilationPrefetcher.MAX_PREFETCHED_CLASSES; i++) {
+            container.addFile("a/C" + i + ".class");
+            entries.add(container.getEntry("a/C" + i + ".class"));
+        }
+        DecompilationPrefetcher prefetcher = new DecompilationPrefetcher();
+
+        prefetcher.prefetch(entries, 1, e -> new DecompilationResult());
+
+        assertNotNull(awaitTake(prefetcher, entries.get(DecompilationPrefetcher.MAX_PREFETCHED_CLASSES - 1), 1));
+        assertNull(prefetcher.take(entries.get(DecompilationPrefetcher.MAX_PREFETCHED_CLASSES), 1));
+    }
+
+    @Test
+    void getSiblingClasses_listsOuterClassesAfterEntryAndWrapsAround() {
+        MemoryContainer container = container("a/A.class", "a/B.class", "a/B$1.class", "a/b/D.class", "a/c.txt", "a/C.class", "a/D.class");
+
+        List<Container.Entry> siblings = DecompilationPrefetcher.getSiblingClasses(container.getEntry("a/C.class"), 10);
+
+        assertEquals(List.of("a/D.class", "a/A.class", "a/B.class"), siblings.stream().map(Container.Entry::getPath).toList());
+        assertEquals(1, DecompilationPrefetcher.getSiblingClasses(container.getEntry("a/C.class"), 1).size());
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.decompiler;
+
+import org.jd.gui.util.decompiler.DecompilerRace.Score;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_CFR;
+import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_JD_CORE_V1;
+import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_PROCYON;
+import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_ENGINE;
+import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_RACE;
+import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_RACE_ENGINES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DecompilerRaceTest {
+
+    /** Scores the sources by their number of 'x' as failures */
+    private static Score score(String source) {
+        return new Score((int) source.chars().filter(c -> c == 'x').count(), 0);
+    }
+
+    @Test
+    void race_returnsFirstCleanResultAndCancelsSlowerEngines() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Callable<String> slow = () -> {
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "slow";
+        };
+
+        assertEquals("fast", DecompilerRace.race(List.of(slow, () -> "fast"), DecompilerRaceTest::score));
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void race_returnsBestResultWhenNoneIsClean() throws Exception {
+        assertEquals("x", DecompilerRace.race(List.<Callable<String>>of(() -> "xxx", () -> "x", () -> "xx"), DecompilerRaceTest::score));
+    }
+
+    @Test
+    void race_prefersEarlierEngineForEqualScores() throws Exception {
+        CountDownLatch secondDone = new CountDownLatch(1);
+        Callable<String> first = () -> {
+            secondDone.await(10, TimeUnit.SECONDS);
+            return "x1";
+        };
+        Callable<String> second = () -> {
+            secondDone.countDown();
+            return "x2";
+        };
+
+        assertEquals("x1", DecompilerRace.race(List.of(first, second), DecompilerRaceTest::score));
+    }
+
+    @Test
+    void race_ignoresFailedEngines() throws Exception {
+        assertEquals("xx", DecompilerRace.race(List.<Callable<String>>of(() -> {
+            throw new IOException("failed");
+        }, () -> "xx"), DecompilerRaceTest::score));
+    }
+
+    @Test
+    void race_throwsWhenAllEnginesFail() {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> DecompilerRace.race(List.<Callable<String>>of(() -> {
+            throw new IOException("failed");
+        }), DecompilerRaceTest::score));
+        assertInstanceOf(IOException.class, e.getCause());
+    }
+
+    @Test
+    void score_countsFailureMarkersAndSyntaxErrors() {
+        Score score = DecompilerRace.score("// $$$ one\n// This method could not be decompiled.\n// $$$ two", source -> 3);
+
+        assertEquals(new Score(3, 3), score);
+        assertFalse(score.isClean());
+        assertTrue(DecompilerRace.score("class A {}", source -> 0).isClean());
+    }
+
+    @Test
+    void getEngines_putsSelectedEngineFirstWithoutDuplicates() {
+        Map<String, String> preferences = Map.of(DECOMPILE_ENGINE, ENGINE_CFR, DECOMPILE_RACE_ENGINES, ENGINE_JD_CORE_V1 + ", " + ENGINE_CFR + ",," + ENGINE_PROCYON);
+
+        assertEquals(List.of(ENGINE_CFR, ENGINE_JD_CORE_V1, ENGINE_PROCYON), DecompilerRace.getEngines(preferences));
+    }
+
+    @Test
+    void isEnabled_requiresOptionAndAnotherEngine() {
+        assertFalse(DecompilerRace.isEnabled(Map.of()));
+        assertTrue(DecompilerRace.isEnabled(Map.of(DECOMPILE_RACE, "true")));
+        assertFalse(DecompilerRace.isEnabled(Map.of(DECOMPILE_RACE, "true", DECOMPILE_ENGINE, ENGINE_CFR, DECOMPILE_RACE_ENGINES, ENGINE_CFR)));
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * © 2026 Nicolas Baumann (@nbauma109)
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.decompiler;
+
+import org.jd.core.v1.api.loader.Loader;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DecompilerWorkerPoolTest {
+
+    /** Worker whose behaviour is chosen by the engine of the request */
+    public static final class FakeWorker {
+
+        private FakeWorker() {
+        }
+
+        public static void main(String[] args) throws IOException {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+            DecompilerWorker.serve(new DataInputStream(new BufferedInputStream(System.in)), out, (request, loader) -> switch (request.engine()) {
+                case "echo" -> request.internalName() + ':' + new String(loader.load("a/B"), StandardCharsets.UTF_8) + ':' + ProcessHandle.current().pid();
+                case "hang" -> {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                    yield "hang";
+                }
+                case "exit" -> {
+                    System.exit(1);
+                    yield "exit";
+                }
+                default -> throw new IllegalStateException("failed");
+            });
+        }
+    }
+
+    private static final Loader LOADER = new Loader() {
+        @Override
+        public boolean canLoad(String internalName) {
+            return true;
+        }
+
+        @Override
+        public byte[] load(String internalName) {
+            return internalName.toUpperCase().getBytes(StandardCharsets.UTF_8);
+        }
+    };
+
+    private static DecompilerWorkerPool pool(long timeoutMillis) throws URISyntaxException {
+        List<String> classPath = new ArrayList<>();
+        for (Class<?> type : List.of(FakeWorker.class, DecompilerWorker.class, Loader.class)) {
+            classPath.add(Path.of(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString());
+        }
+        List<String> command = new ArrayList<>(DecompilerWorkerPool.getWorkerCommand(FakeWorker.class.getName()));
+        command.set(command.indexOf("-cp") + 1, String.join(File.pathSeparator, classPath));
+        return new DecompilerWorkerPool(1, timeoutMillis, command);
+    }
+
+    private static String decompile(DecompilerWorkerPool pool, String engine) throws Exception {
+        return pool.decompile(LOADER, "a/A", null, Map.of(), engine);
+    }
+
+    @Test
+    void decompile_returnsSourceAndLoadsClassesFromCaller() throws Exception {
+        DecompilerWorkerPool pool = pool(TimeUnit.SECONDS.toMillis(30));
+
+        String source = decompile(pool, "echo");
+
+        assertTrue(source.startsWith("a/A:A/B:"), source);
+        assertEquals(source, decompile(pool, "echo"));
+    }
+
+    @Test
+    void decompile_reportsFailureAndReusesWorker() throws Exception {
+        DecompilerWorkerPool pool = pool(TimeUnit.SECONDS.toMillis(30));
+        String source = decompile(pool, "echo");
+
+        IOException e = assertThrows(IOException.class, () -> decompile(pool, "fail"));
+
+        assertTrue(e.getMessage().contains("failed"), e.getMessage());
+        assertEquals(source, decompile(pool, "echo"));
+    }
+
+    @Test
+    void decompile_killsHungWorker() throws Exception {
+        DecompilerWorkerPool pool = pool(TimeUnit.SECONDS.toMillis(2));
+        String source = decompile(pool, "echo");
+
+        assertThrows(TimeoutException.class, () -> decompile(pool, "hang"));
+
+        String newSource = decompile(pool, "echo");
+        assertTrue(newSource.startsWith("a/A:A/B:"), newSource);
+        assertNotEquals(source, newSource);
+    }
+
+    @Test
+    void decompile_killsWorkerOfInterruptedCaller() throws Exception {
+        DecompilerWorkerPool pool = pool(TimeUnit.SECONDS.toMillis(30));
+        String source = decompile(pool, "echo");
+        ProcessHandle worker = ProcessHandle.of(Long.parseLong(source.substring(source.lastIndexOf(':') + 1))).orElseThrow();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<String> future = executor.submit(() -> decompile(pool, "hang"));
+            assertThrows(TimeoutException.class, () -> future.get(1, TimeUnit.SECONDS));
+            future.cancel(true);
+
+            worker.onExit().get(10, TimeUnit.SECONDS);
+            assertFalse(worker.isAlive());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void decompile_leavesLastWorkerToUser() throws Exception {
+        DecompilerWorkerPool pool = pool(TimeUnit.SECONDS.toMillis(30));
+
+        assertThrows(TimeoutException.class, () -> pool.decompile(LOADER, "a/A", null, Map.of(), "echo", true));
+
+        assertTrue(decompile(pool, "echo").startsWith("a/A:A/B:"));
+    }
+
+    @Test
+    void decompile_replacesCrashedWorker() throws Exception {
+        DecompilerWorkerPool pool = pool(TimeUnit.SECONDS.toMillis(30));
+        String source = decompile(pool, "echo");
+
+        assertThrows(IOException.class, () -> decompile(pool, "exit"));
+
+        String newSource = decompile(pool, "echo");
+        assertTrue(newSource.startsWith("a/A:A/B:"), newSource);
+        assertNotEquals(source, newSource);
+    }
+
+    @Test
+    void destroyWorkers_killsIdleWorkers() throws Exception {
+        DecompilerWorkerPool pool = pool(TimeUnit.SECONDS.toMillis(30));
+        String source = decompile(pool, "echo");
+        ProcessHandle worker = ProcessHandle.of(Long.parseLong(source.substring(source.lastIndexOf(':') + 1))).orElseThrow();
+
+        pool.destroyWorkers();
+
+        worker.onExit().get(10, TimeUnit.SECONDS);
+        assertFalse(worker.isAlive());
+    }
+
+    @Test
+    void getWorkerCommand_limitsTheHeapOfTheWorkers() {
+        assertTrue(DecompilerWorkerPool.getWorkerCommand("Main").contains("-Xmx" + DecompilerWorkerPool.getWorkerHeapMegabytes() + 'm'));
+        assertTrue(DecompilerWorkerPool.getWorkerHeapMegabytes() >= 256);
+    }
+}
@@ -0,0 +1,330 @@
+/*******************************************************************************
+ *
+ * © 2026 Nicolas Baumann (@nbauma109)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package org.jd.gui.util.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for DownloadStore against a local HttpServer serving "/lib.jar" and its published
+ * "/lib.jar.sha1". The stand-in honours 'Range' and 'If-Range' requests, and drops the
+ * connection after half of the body for as many requests as configured.
+ */
+class DownloadStoreTest {
+
+    private static final int CONTENT_LENGTH = 300_000;
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @TempDir
+    Path directory;
+
+    private final byte[] content = new byte[CONTENT_LENGTH];
+    private volatile String publishedSha1;
+    private volatile byte[] servedContent;
+    private volatile long responseDelayMs;
+    private volatile boolean checksumPublished = true;
+    private volatile String etag;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private final AtomicInteger droppedResponses = new AtomicInteger();
+    private final AtomicInteger contentRequests = new AtomicInteger();
+    private final AtomicInteger checksumRequests = new AtomicInteger();
+    private final List<String> ranges = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() throws Exception {
+        new Random(39).nextBytes(content);
+        publishedSha1 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(content));
+        servedContent = content;
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/lib.jar", this::handle);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        serverExecutor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (exchange.getRequestURI().getPath().endsWith(".sha1")) {
+                checksumRequests.incrementAndGet();
+                if (!checksumPublished) {
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+                }
+                byte[] body = (publishedSha1 + "  lib.jar\n").getBytes(StandardCharsets.US_ASCII);
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+                return;
+            }
+
+            contentRequests.incrementAndGet();
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            ranges.add(String.valueOf(range));
+            String ifRange = exchange.getRequestHeaders().getFirst("If-Range");
+            if (ifRange != null && !ifRange.equals(etag)) {
+                // Changed since the partial file was started: sent whole
+                range = null;
+            }
+            if (etag != null) {
+                exchange.getResponseHeaders().add("ETag", etag);
+            }
+            int offset = range == null ? 0 : Integer.parseInt(range.substring("bytes=".length(), range.length() - 1));
+            int length = servedContent.length - offset;
+            if (length <= 0) {
+                exchange.getResponseHeaders().add("Content-Range", "bytes */" + servedContent.length);
+                exchange.sendResponseHeaders(416, -1);
+                return;
+            }
+
+            Thread.sleep(responseDelayMs);
+
+            if (range == null) {
+                exchange.sendResponseHeaders(200, length);
+            } else {
+                exchange.getResponseHeaders().add("Content-Range", "bytes " + offset + "-" + (servedContent.length - 1) + "/" + servedContent.length);
+                exchange.sendResponseHeaders(206, length);
+            }
+
+            OutputStream output = exchange.getResponseBody();
+            if (droppedResponses.getAndDecrement() > 0) {
+                output.write(servedContent, offset, length / 2);
+                output.flush();
+                // Closes the connection before the announced length
+                throw new IOException("Dropped on purpose");
+            }
+            output.write(servedContent, offset, length);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private URI uri() {
+        return URI.create("http://localhost:" + server.getAddress().getPort() + "/lib.jar");
+    }
+
+    @Test
+    void download_resumesDroppedConnectionsWithRangeRequests() throws Exception {
+        droppedResponses.set(2);
+
+        File file = new DownloadStore(directory).download(uri(), "lib.jar", null, null, TIMEOUT);
+
+        assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+        assertEquals(directory.resolve(publishedSha1.substring(0, 2)).resolve(publishedSha1).resolve("lib.jar"), file.toPath(),
+                "The file must be stored by SHA-1");
+        assertEquals(3, ranges.size());
+        assertEquals("null", ranges.get(0));
+        assertTrue(ranges.get(1).startsWith("bytes=") && !"bytes=0-".equals(ranges.get(1)), "The second request must resume, was " + ranges.get(1));
+        assertTrue(ranges.get(2).startsWith("bytes="), "The third request must resume, was " + ranges.get(2));
+    }
+
+    @Test
+    void download_resumesPartialFileOfAPreviousSession() throws Exception {
+        droppedResponses.set(Integer.MAX_VALUE);
+        assertThrows(IOException.class, () -> new DownloadStore(directory).download(uri(), "lib.jar", null, null, TIMEOUT));
+        droppedResponses.set(0);
+        ranges.clear();
+
+        File file = new DownloadStore(directory).download(uri(), "lib.jar", null, null, TIMEOUT);
+
+        assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+        assertEquals(1, ranges.size());
+        assertFalse("null".equals(ranges.get(0)), "The partial file must be resumed");
+    }
+
+    @Test
+    void download_restartsPartialFileWithoutChecksumNorValidator() throws Exception {
+        checksumPublished = false;
+        droppedResponses.set(Integer.MAX_VALUE);
+        assertThrows(IOException.class, () -> new DownloadStore(directory).download(uri(), "lib.jar", null, null, TIMEOUT));
+        droppedResponses.set(0);
+        ranges.clear();
+
+        File file = new DownloadStore(directory).download(uri(), "lib.jar", null, null, TIMEOUT);
+
+        assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+        assertEquals(List.of("null"), ranges, "The partial file must not be resumed");
+    }
+
+    @Test
+    void download_resumesPartialFileWithoutChecksumOnlyIfUnchanged() throws Exception {
+        checksumPublished = false;
+        etag = "\"v1\"";
+        droppedResponses.set(Integer.MAX_VALUE);
+        assertThrows(IOException.class, () -> new DownloadStore(directory).download(uri(), "lib.jar", null, null, TIMEOUT));
+        droppedResponses.set(0);
+        byte[] changed = content.clone();
+        changed[0] ^= 1;
+        servedContent = changed;
+        etag = "\"v2\"";
+
+        File file = new DownloadStore(directory).download(uri(), "lib.jar", null, null, TIMEOUT);
+
+        assertArrayEquals(changed, Files.readAllBytes(file.toPath()), "The changed file must be downloaded again");
+    }
+
+    private void writePartialFile(byte[] bytes, String validator) throws Exception {
+        String key = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(uri().toString().getBytes(StandardCharsets.UTF_8)));
+        Path partialDirectory = Files.createDirectories(directory.resolve("partial"));
+        Files.write(partialDirectory.resolve(key + ".part"), bytes);
+        Files.writeString(partialDirectory.resolve(key + ".validator"), validator, StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    void download_storesCompletePartialFileWithoutChecksumIfUnchanged() throws Exception {
+        checksumPublished = false;
+        etag = "\"v1\"";
+        writePartialFile(content, etag);
+
+        File file = new DownloadStore(directory).download(uri(), "lib.jar", null, null, TIMEOUT);
+
+        assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+        assertEquals(List.of("bytes=" + CONTENT_LENGTH + "-"), ranges);
+    }
+
+    @Test
+    void download_restartsPartialFileLongerThanTheFileWithoutChecksum() throws Exception {
+        checksumPublished = false;
+        etag = "\"v1\"";
+        writePartialFile(Arrays.copyOf(content, CONTENT_LENGTH + 10), etag);
+
+        File file = new DownloadStore(directory).download(uri(), "lib.jar", null, null, TIMEOUT);
+
+        assertArrayEquals(content, Files.readAllBytes(file.toPath()), "The partial file must be downloaded again");
+        assertEquals(List.of("bytes=" + (CONTENT_LENGTH + 10) + "-", "null"), ranges);
+    }
+
+    @Test
+    void evict_deletesLeastRecentlyUsedFilesFirst() throws Exception {
+        DownloadStore store = new DownloadStore(directory);
+        File first = store.download(uri(), "lib.jar", null, null, TIMEOUT);
+        Files.setLastModifiedTime(first.toPath(), FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1)));
+        Path recent = Files.createDirectories(directory.resolve("ab").resolve("ab00")).resolve("other.jar");
+        Files.write(recent, new byte[10]);
+
+        store.evict(CONTENT_LENGTH, Duration.ofDays(30));
+
+        assertFalse(Files.exists(first.toPath()), "The least recently used file must be deleted");
+        assertFalse(Files.exists(first.toPath().getParent()), "Its empty directory must be deleted");
+        assertTrue(Files.exists(recent));
+
+        store.evict(CONTENT_LENGTH, Duration.ZERO);
+
+        assertFalse(Files.exists(recent), "Files older than the maximum age must be deleted");
+    }
+
+    @Test
+    void download_rejectsContentNotMatchingThePublishedSha1() throws Exception {
+        byte[] corrupted = content.clone();
+        corrupted[CONTENT_LENGTH / 2] ^= 1;
+        servedContent = corrupted;
+
+        DownloadStore store = new DownloadStore(directory);
+
+        IOException exception = assertThrows(IOException.class, () -> store.download(uri(), "lib.jar", null, null, TIMEOUT));
+        assertTrue(exception.getMessage().contains("SHA-1 mismatch"), exception.getMessage());
+        assertFalse(Files.exists(directory.resolve(publishedSha1.substring(0, 2))), "Nothing must be stored");
+    }
+
+    @Test
+    void download_returnsStoredFileWithoutDownloadingAgain() throws Exception {
+        File first = new DownloadStore(directory).download(uri(), "lib.jar", null, null, TIMEOUT);
+
+        File second = new DownloadStore(directory).download(uri(), "lib.jar", null, null, TIMEOUT);
+
+        assertEquals(first, second);
+        assertEquals(1, contentRequests.get(), "The stored file must be found from the published SHA-1");
+        assertEquals(2, checksumRequests.get());
+    }
+
+    @Test
+    void download_sharesConcurrentRequestsForTheSameUri() throws Exception {
+        responseDelayMs = 300;
+        DownloadStore store = new DownloadStore(directory);
+
+        List<CompletableFuture<File>> downloads = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            downloads.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return store.download(uri(), "lib.jar", null, null, TIMEOUT);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+
+        for (CompletableFuture<File> download : downloads) {
+            assertArrayEquals(content, Files.readAllBytes(download.join().toPath()));
+        }
+        assertEquals(1, contentRequests.get(), "The artifact must be fetched once");
+        assertEquals(1, checksumRequests.get());
+    }
+
+    @Test
+    void checksumUri_targetsTheFileParameterOfRepositoryDownloadApis() {
+        assertEquals("https://search.maven.org/remotecontent?filepath=org/ow2/asm/asm/9.6/asm-9.6.jar.sha1",
+                DownloadStore.getChecksumUri(URI.create("https://search.maven.org/remotecontent?filepath=org/ow2/asm/asm/9.6/asm-9.6.jar")).toString());
+        assertEquals("http://nexus/service/rest/v1/search/assets/download?repository=r&name=asm&version=9.6&extension=jar.sha1&classifier=sources",
+                DownloadStore.getChecksumUri(URI.create("http://nexus/service/rest/v1/search/assets/download?repository=r&name=asm&version=9.6&extension=jar&classifier=sources")).toString());
+        assertEquals("http://nexus/service/local/artifact/maven/content?r=r&g=org.ow2.asm&a=asm&v=9.6&p=jar.sha1",
+                DownloadStore.getChecksumUri(URI.create("http://nexus/service/local/artifact/maven/content?r=r&g=org.ow2.asm&a=asm&v=9.6&p=jar")).toString());
+        assertEquals("http://host/repo/asm-9.6.jar.sha1",
+                DownloadStore.getChecksumUri(URI.create("http://host/repo/asm-9.6.jar")).toString());
+    }
+}
@@ -0,0 +1,77 @@
+/*******************************************************************************
+ *
+ * © 2026 Nicolas Baumann (@nbauma109)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package org.jd.gui.util.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.jd.gui.util.maven.central.helper.ProxyConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for HttpClientUtil against a local HttpServer standing in for a proxy, which answers
+ * 407 to the requests without credentials.
+ */
+class HttpClientUtilTest {
+
+    private HttpServer proxy;
+    private final List<String> proxyAuthorizations = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        proxy = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        proxy.createContext("/", exchange -> {
+            String proxyAuthorization = exchange.getRequestHeaders().getFirst("Proxy-Authorization");
+            proxyAuthorizations.add(String.valueOf(proxyAuthorization));
+            if (proxyAuthorization == null) {
+                exchange.getResponseHeaders().add("Proxy-Authenticate", "Basic realm=\"proxy\"");
+                exchange.sendResponseHeaders(407, -1);
+            } else {
+                exchange.sendResponseHeaders(204, -1);
+            }
+            exchange.close();
+        });
+        proxy.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        proxy.stop(0);
+    }
+
+    @Test
+    void send_sendsProxyCredentialsPreemptively() throws IOException {
+        ProxyConfig proxyConfig = new ProxyConfig("localhost", proxy.getAddress().getPort(), "user", "secret".toCharArray());
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://repository.invalid/artifact.jar")).GET().build();
+
+        HttpResponse<Void> response = HttpClientUtil.send(proxyConfig, request, HttpResponse.BodyHandlers.discarding());
+
+        assertEquals(204, response.statusCode());
+        assertEquals(List.of(proxyConfig.basicAuthHeaderValue()), proxyAuthorizations);
+    }
+}
@@ -0,0 +1,255 @@
+/*******************************************************************************
+ *
+ * © 2026 Nicolas Baumann (@nbauma109)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package org.jd.gui.util.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for HttpResponseCache against a local HttpServer. The stand-in serves "/found" with an
+ * ETag and answers 304 when it is sent back, "/empty" with a body without result, "/missing"
+ * with a 404 and "/error" with a 500.
+ */
+class HttpResponseCacheTest {
+
+    private static final String ETAG = "\"v1\"";
+    private static final Duration TTL = Duration.ofHours(1);
+    private static final Duration NEGATIVE_TTL = Duration.ofMinutes(10);
+
+    @TempDir
+    Path directory;
+
+    private HttpServer server;
+    private final MutableClock clock = new MutableClock();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger notModifiedCount = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/found", exchange -> {
+            if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModifiedCount.incrementAndGet();
+                requestCount.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+            } else {
+                exchange.getResponseHeaders().add("ETag", ETAG);
+                respond(exchange, 200, "artifact");
+            }
+        });
+        server.createContext("/empty", exchange -> respond(exchange, 200, ""));
+        server.createContext("/missing", exchange -> respond(exchange, 404, "not found"));
+        server.createContext("/error", exchange -> respond(exchange, 500, "error"));
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    private void respond(HttpExchange exchange, int statusCode, String content) throws IOException {
+        requestCount.incrementAndGet();
+        byte[] body = content.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(statusCode, body.length == 0 ? -1 : body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    private HttpResponseCache.Response<String> get(HttpResponseCache cache, String path) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getAddress().getPort() + path)).GET();
+        return cache.get(null, builder, TTL, Function.identity(), String::isEmpty);
+    }
+
+    @Test
+    void freshEntry_isServedWithoutRequest() throws Exception {
+        HttpResponseCache cache = new HttpResponseCache(directory, NEGATIVE_TTL, clock);
+
+        assertEquals("artifact", get(cache, "/found").body());
+        clock.advance(TTL.minusMinutes(1));
+        HttpResponseCache.Response<String> response = get(cache, "/found");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("artifact", response.body());
+        assertEquals(1, requestCount.get(), "The second lookup must not reach the server");
+    }
+
+    @Test
+    void freshEntry_isServedAcrossSessions() throws Exception {
+        get(new HttpResponseCache(directory, NEGATIVE_TTL, clock), "/found");
+
+        HttpResponseCache.Response<String> response = get(new HttpResponseCache(directory, NEGATIVE_TTL, clock), "/found");
+
+        assertEquals("artifact", response.body());
+        assertEquals(1, requestCount.get(), "Entries must be read back from the directory");
+    }
+
+    @Test
+    void expiredEntry_isRevalidatedWithItsETag() throws Exception {
+        HttpResponseCache cache = new HttpResponseCache(directory, NEGATIVE_TTL, clock);
+
+        get(cache, "/found");
+        clock.advance(TTL.plusMinutes(1));
+        HttpResponseCache.Response<String> response = get(cache, "/found");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("artifact", response.body());
+        assertEquals(1, notModifiedCount.get(), "The expired entry must be revalidated");
+
+        // Revalidation renews the time-to-live
+        clock.advance(TTL.minusMinutes(1));
+        get(cache, "/found");
+        assertEquals(2, requestCount.get());
+    }
+
+    @Test
+    void negativeEntries_expireAfterTheNegativeTimeToLive() throws Exception {
+        HttpResponseCache cache = new HttpResponseCache(directory, NEGATIVE_TTL, clock);
+
+        get(cache, "/empty");
+        assertEquals(404, get(cache, "/missing").statusCode());
+        clock.advance(NEGATIVE_TTL.minusMinutes(1));
+        get(cache, "/empty");
+        assertEquals(404, get(cache, "/missing").statusCode());
+        assertEquals(2, requestCount.get(), "Negative entries must be served while fresh");
+
+        clock.advance(Duration.ofMinutes(2));
+        get(cache, "/empty");
+        get(cache, "/missing");
+        assertEquals(4, requestCount.get(), "Negative entries must be requested again once expired");
+    }
+
+    @Test
+    void serverErrors_areNotStored() throws Exception {
+        HttpResponseCache cache = new HttpResponseCache(directory, NEGATIVE_TTL, clock);
+
+        assertEquals(500, get(cache, "/error").statusCode());
+        assertEquals(500, get(cache, "/error").statusCode());
+
+        assertEquals(2, requestCount.get());
+    }
+
+    @Test
+    void expiredEntry_isServedWhenTheServerIsUnreachable() throws Exception {
+        HttpResponseCache cache = new HttpResponseCache(directory, NEGATIVE_TTL, clock);
+
+        get(cache, "/found");
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getAddress().getPort() + "/found")).GET();
+        server.stop(0);
+        server = null;
+        clock.advance(TTL.plusMinutes(1));
+
+        assertEquals("artifact", cache.get(null, builder, TTL, Function.identity(), String::isEmpty).body());
+        assertThrows(IOException.class, () -> cache.get(null, HttpRequest.newBuilder(URI.create(builder.build().uri() + "?other")).GET(), TTL, Function.identity(), String::isEmpty));
+    }
+
+    @Test
+    void successfulResponse_isParsedOncePerLookup() throws Exception {
+        HttpResponseCache cache = new HttpResponseCache(directory, NEGATIVE_TTL, clock);
+        AtomicInteger parseCount = new AtomicInteger();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getAddress().getPort() + "/found")).GET();
+        Function<String, Integer> parser = body -> {
+            parseCount.incrementAndGet();
+            return body.length();
+        };
+
+        assertEquals(8, cache.get(null, builder, TTL, parser, length -> length == 0).value());
+        assertEquals(1, parseCount.get());
+        assertEquals(8, cache.get(null, builder, TTL, parser, length -> length == 0).value());
+        assertEquals(2, parseCount.get());
+        assertNull(get(cache, "/error").value(), "Failed responses must not be parsed");
+    }
+
+    @Test
+    void evict_deletesOldEntriesThenTheOldestOnesBeyondTheSize() throws Exception {
+        HttpResponseCache cache = new HttpResponseCache(directory, NEGATIVE_TTL, clock);
+        get(cache, "/found");
+        get(cache, "/empty");
+        get(cache, "/missing");
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.sorted().toList();
+        }
+        assertEquals(3, files.size());
+        long now = clock.millis();
+        Files.setLastModifiedTime(files.get(0), FileTime.fromMillis(now - Duration.ofDays(100).toMillis()));
+        Files.setLastModifiedTime(files.get(1), FileTime.fromMillis(now - Duration.ofDays(2).toMillis()));
+        Files.setLastModifiedTime(files.get(2), FileTime.fromMillis(now - Duration.ofDays(1).toMillis()));
+
+        cache.evict(Files.size(files.get(2)), Duration.ofDays(90));
+
+        assertFalse(Files.exists(files.get(0)), "Entries older than the maximum age must be deleted");
+        assertFalse(Files.exists(files.get(1)), "The oldest entries must be deleted beyond the maximum size");
+        assertTrue(Files.exists(files.get(2)));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
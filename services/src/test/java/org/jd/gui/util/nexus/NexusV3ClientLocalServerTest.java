@@ -0,0 +1,250 @@
+/*******************************************************************************
+ *
+ * © 2026 Nicolas Baumann (@nbauma109)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package org.jd.gui.util.nexus;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.jd.gui.util.http.HttpClientUtil;
+import org.jd.gui.util.http.HttpResponseCache;
+import org.jd.gui.util.maven.central.helper.NexusConfig;
+import org.jd.gui.util.nexus.model.NexusArtifact;
+import org.jd.gui.util.nexus.model.NexusSearchResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for NexusV3Client against a local HttpServer standing in for a Nexus Repository three
+ * server. The stand-in answers SHA-1 asset searches for the hashes "sha1-0" to "sha1-N", whose
+ * artifact id is "lib-N", and returns no item for the others. Component searches are answered
+ * with pages of two components, chained by the continuation tokens "page-1" to "page-N".
+ */
+class NexusV3ClientLocalServerTest {
+
+    private static final int KNOWN_SHA1_COUNT = 24;
+    private static final long RESPONSE_DELAY_MS = 50;
+    private static final int PAGE_COUNT = 3;
+
+    @TempDir
+    Path cacheDirectory;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final List<String> receivedTokens = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/service/rest/v1/search/assets", this::handleAssetSearch);
+        server.createContext("/service/rest/v1/search", this::handleComponentSearch);
+        serverExecutor = Executors.newFixedThreadPool(4 * HttpClientUtil.MAX_IN_FLIGHT);
+        server.setExecutor(serverExecutor);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        serverExecutor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private NexusV3Client newClient() {
+        return newClient("http://localhost:" + server.getAddress().getPort());
+    }
+
+    private NexusV3Client newClient(String baseUrl) {
+        // Responses are cached in the temporary directory of the test only
+        HttpResponseCache responseCache = new HttpResponseCache(cacheDirectory, HttpResponseCache.NEGATIVE_TTL, Clock.systemUTC());
+        return new NexusV3Client(new NexusConfig(baseUrl, null, null), responseCache);
+    }
+
+    private void handleAssetSearch(HttpExchange exchange) throws IOException {
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        requestCount.incrementAndGet();
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        try {
+            Thread.sleep(RESPONSE_DELAY_MS);
+
+            String query = URLDecoder.decode(exchange.getRequestURI().getRawQuery(), StandardCharsets.UTF_8);
+            String sha1 = query.substring(query.indexOf("sha1=") + 5);
+            String json;
+            if (sha1.startsWith("sha1-") && Integer.parseInt(sha1.substring(5)) < KNOWN_SHA1_COUNT) {
+                json = """
+                        {"items":[{"repository":"maven-releases","lastModified":"2025-06-01T10:00:00.000+00:00",
+                        "maven2":{"groupId":"org.example","artifactId":"lib-%s","version":"1.0","extension":"jar"}}],
+                        "continuationToken":null}
+                        """.formatted(sha1.substring(5));
+            } else {
+                json = "{\"items\":[],\"continuationToken\":null}";
+            }
+
+            byte[] body = json.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private void handleComponentSearch(HttpExchange exchange) throws IOException {
+        String query = URLDecoder.decode(exchange.getRequestURI().getRawQuery(), StandardCharsets.UTF_8);
+        int tokenIndex = query.indexOf("continuationToken=");
+        String token = tokenIndex == -1 ? null : query.substring(tokenIndex + 18);
+        receivedTokens.add(String.valueOf(token));
+
+        int page = token == null ? 0 : Integer.parseInt(token.substring(5));
+        String nextToken = page + 1 < PAGE_COUNT ? "\"page-" + (page + 1) + '"' : "null";
+        StringBuilder items = new StringBuilder();
+        for (int i = 2 * page; i < 2 * page + 2; i++) {
+            if (!items.isEmpty()) {
+                items.append(',');
+            }
+            items.append("""
+                    {"repository":"maven-releases","group":"org.example","name":"lib-%1$s","version":"1.0",
+                    "assets":[{"repository":"maven-releases","lastModified":"2025-06-01T10:00:00.000+00:00",
+                    "maven2":{"groupId":"org.example","artifactId":"lib-%1$s","version":"1.0","extension":"jar"}}]}
+                    """.formatted(i));
+        }
+        String json = "{\"items\":[" + items + "],\"continuationToken\":" + nextToken + "}";
+
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    @Test
+    void sha1Search_returnsArtifactWithDownloadLink() throws Exception {
+        NexusSearchResult result = newClient().searchBySha1("sha1-3", 0);
+
+        assertNotNull(result);
+        List<NexusArtifact> artifacts = result.artifacts();
+        assertEquals(1, artifacts.size());
+
+        NexusArtifact artifact = artifacts.get(0);
+        assertEquals("org.example", artifact.groupId());
+        assertEquals("lib-3", artifact.artifactId());
+        assertEquals("1.0", artifact.version());
+        assertEquals("maven-releases", artifact.repository());
+        assertNotNull(artifact.versionDate());
+        assertTrue(artifact.artifactLink().contains("/service/rest/v1/search/assets/download?repository=maven-releases"),
+                "artifactLink must use the search-assets download API of the stand-in server");
+    }
+
+    @Test
+    void resolveAll_resolvesKnownHashesConcurrentlyWithBoundedInFlightRequests() {
+        List<String> sha1s = new ArrayList<>();
+        for (int i = 0; i < KNOWN_SHA1_COUNT; i++) {
+            sha1s.add("sha1-" + i);
+        }
+        sha1s.add("unknown-1");
+        sha1s.add("unknown-2");
+
+        Map<String, NexusArtifact> artifacts = newClient().resolveAll(sha1s).join();
+
+        assertEquals(KNOWN_SHA1_COUNT, artifacts.size(), "Every known hash should be resolved");
+        for (int i = 0; i < KNOWN_SHA1_COUNT; i++) {
+            assertEquals("lib-" + i, artifacts.get("sha1-" + i).artifactId());
+        }
+        assertFalse(artifacts.containsKey("unknown-1"), "Unknown hashes must be absent");
+
+        assertEquals(sha1s.size(), requestCount.get(), "One request per hash");
+        assertTrue(maxInFlight.get() > 1, "Searches should run concurrently, max in flight was " + maxInFlight.get());
+        assertTrue(maxInFlight.get() <= HttpClientUtil.MAX_IN_FLIGHT,
+                "At most " + HttpClientUtil.MAX_IN_FLIGHT + " requests may be in flight, was " + maxInFlight.get());
+        assertTrue(clientPorts.size() < sha1s.size(),
+                "Connections should be kept alive and reused, " + clientPorts.size() + " connections for " + sha1s.size() + " requests");
+    }
+
+    @Test
+    void keywordSearch_followsContinuationTokensPageByPage() throws Exception {
+        NexusV3Client client = newClient();
+        List<String> artifactIds = new ArrayList<>();
+
+        for (int page = 0; page < PAGE_COUNT; page++) {
+            NexusSearchResult result = client.searchByKeyword("lib", page);
+            assertEquals(page == PAGE_COUNT - 1, result.lastPage(), "Only the page without token is the last one");
+            result.artifacts().forEach(artifact -> artifactIds.add(artifact.artifactId()));
+        }
+
+        assertEquals(List.of("lib-0", "lib-1", "lib-2", "lib-3", "lib-4", "lib-5"), artifactIds);
+        assertEquals(List.of("null", "page-1", "page-2"), receivedTokens, "Each page must be requested once, with the token of the previous one");
+
+        NexusSearchResult pastTheEnd = client.searchByKeyword("lib", PAGE_COUNT);
+        assertTrue(pastTheEnd.artifacts().isEmpty());
+        assertTrue(pastTheEnd.lastPage());
+        assertEquals(PAGE_COUNT, receivedTokens.size(), "No request past the last page");
+    }
+
+    @Test
+    void keywordSearch_reachesAPageWhoseTokenIsUnknownThroughThePreviousOnes() throws Exception {
+        NexusSearchResult result = newClient().searchByKeyword("lib", 2);
+
+        assertEquals(List.of("lib-4", "lib-5"), result.artifacts().stream().map(NexusArtifact::artifactId).toList());
+        assertEquals(List.of("null", "page-1", "page-2"), receivedTokens);
+
+        // The pages in between are fresh in the response cache
+        NexusSearchResult again = newClient().searchByKeyword("lib", 2);
+        assertEquals(2, again.artifacts().size());
+        assertEquals(PAGE_COUNT, receivedTokens.size(), "Fresh pages must come from the response cache");
+    }
+
+    @Test
+    void resolveAll_omitsHashesWhoseSearchFails() {
+        // No context under this base URL: every search gets a 404
+        NexusV3Client client = newClient("http://localhost:" + server.getAddress().getPort() + "/missing");
+
+        Map<String, NexusArtifact> artifacts = client.resolveAll(List.of("sha1-1", "sha1-2")).join();
+
+        assertTrue(artifacts.isEmpty(), "Failed searches must not fail the whole batch");
+    }
+}